@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Hizli baslangic: Spring AOT + CDS (Class Data Sharing) arsivi
+#
+#   scripts/fast-startup.sh build   -> AOT derleme, jar cikarma, CDS egitim calismasi
+#   scripts/fast-startup.sh run     -> uygulamayi CDS arsivi ve AOT ile baslatma
+#
+# Egitim calismasi context'i yenileyip cikar (spring.context.exit=onRefresh),
+# bu yuzden veritabani baglantisi gerekir: SPRING_DATASOURCE_URL/USERNAME/PASSWORD
+# ortam degiskenleri veya application.properties varsayilanlari kullanilir.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+APP_DIR=target/fast-startup
+JAR=medicaltracking-0.0.1-SNAPSHOT-exec.jar
+PROFILES=${SPRING_PROFILES_ACTIVE:-fast-startup}
+
+build() {
+    ./mvnw -B -q -Pfast-startup -DskipTests package
+    rm -rf "$APP_DIR"
+    java -Djarmode=tools -jar "target/$JAR" extract --destination "$APP_DIR"
+    (cd "$APP_DIR" && java -XX:ArchiveClassesAtExit=app.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh \
+        -Dspring.profiles.active="$PROFILES" \
+        -jar "$JAR")
+    echo "CDS arsivi hazir: $APP_DIR/app.jsa"
+}
+
+run() {
+    cd "$APP_DIR"
+    exec java -XX:SharedArchiveFile=app.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.profiles.active="$PROFILES" \
+        "$@" -jar "$JAR"
+}
+
+case "${1:-}" in
+    build) build ;;
+    run) shift; run "$@" ;;
+    *) echo "Kullanim: $0 build|run [jvm-secenekleri]" >&2; exit 2 ;;
+esac
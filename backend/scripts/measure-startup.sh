@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Ilk istege kadar gecen sure (time-to-first-request) olcumu
+#
+#   scripts/measure-startup.sh <max-ms> <baslatma komutu...>
+#
+# Komutu baslatir, /actuator/health/liveness ilk kez 200 donene kadar
+# bekler, sureyi milisaniye olarak yazar ve sureci kapatir. Sure <max-ms>
+# degerini asarsa (0 = sinir yok) cikis kodu 1 olur.
+set -euo pipefail
+
+MAX_MS=$1; shift
+PORT=${SERVER_PORT:-8081}
+URL="http://localhost:$PORT/actuator/health/liveness"
+TIMEOUT_S=${STARTUP_TIMEOUT_SECONDS:-120}
+
+start=$(date +%s%N)
+"$@" > "${STARTUP_LOG:-/dev/null}" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true; wait $pid 2>/dev/null || true' EXIT
+
+deadline=$(( $(date +%s) + TIMEOUT_S ))
+until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "Uygulama ilk istekten once kapandi" >&2
+        exit 1
+    fi
+    if (( $(date +%s) > deadline )); then
+        echo "Uygulama ${TIMEOUT_S}s icinde yanit vermedi" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+
+echo "time-to-first-request: ${elapsed} ms"
+if (( MAX_MS > 0 && elapsed > MAX_MS )); then
+    echo "Baslangic suresi siniri asildi (${MAX_MS} ms)" >&2
+    exit 1
+fi
@@ -2,6 +2,7 @@ package com.egebilmuh.medicaltracking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Medikal Takip Sistemi Ana Uygulama Sınıfı
@@ -12,8 +13,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * 2. @EnableAutoConfiguration - Spring Boot'un otomatik yapılandırmasını etkinleştirir
  * 3. @ComponentScan - Mevcut paketten başlayarak component'leri tarar
  *
+ * @EnableScheduling - Arka plan işleri (@Scheduled) için zamanlayıcıyı açar
+ * (ör. health probe'larının kullandığı veritabanı ping'i)
  */
 @SpringBootApplication
+@EnableScheduling
 public class MedicalTrackingApplication {
 
     /**
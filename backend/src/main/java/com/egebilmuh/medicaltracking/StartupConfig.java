@@ -0,0 +1,43 @@
+package com.egebilmuh.medicaltracking;
+
+import com.egebilmuh.medicaltracking.audit.AppointmentAuditLog;
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.metrics.SlowQueryLog;
+import com.egebilmuh.medicaltracking.service.IdempotencyService;
+import com.egebilmuh.medicaltracking.service.NoteAutosaveService;
+import com.egebilmuh.medicaltracking.service.PendingExpiryService;
+import com.egebilmuh.medicaltracking.service.SessionService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Başlangıç Konfigürasyonu (Startup Configuration)
+ *
+ * spring.main.lazy-initialization=true (fast-startup profili) iken bile
+ * açılışta oluşturulması gereken bean'leri belirler:
+ * - HealthIndicator: DB ping'i arka planda hemen başlamalı, yoksa ilk
+ *   readiness sorgusu "henüz ping atılmadı" ile DOWN döner
+ * - WarmupAware: cache ısınması ApplicationReadyEvent'te başlamalı
+ * - SlowQueryLog, SessionService: zamanlanmış işleri (log boşaltma,
+ *   süresi dolan session temizliği) kaydedilmeli
+ * - AppointmentAuditLog: segment kurtarma ve dizin kilidi açılışta yapılmalı,
+ *   ilk randevu isteğinde değil
+ * - NoteAutosaveService: taslak flush işi ilk otomatik kayıttan önce kaydedilmeli
+ * - PendingExpiryService: süresi dolan PENDING randevular istek gelmese de iptal edilmeli
+ * - IdempotencyService: süresi dolan anahtar temizliği kaydedilmeli
+ *
+ * Diğer bean'ler (controller'lar, servisler) ilk istekte oluşturulur.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                HealthIndicator.class, WarmupAware.class, SlowQueryLog.class, SessionService.class,
+                AppointmentAuditLog.class, NoteAutosaveService.class, PendingExpiryService.class,
+                IdempotencyService.class);
+    }
+}
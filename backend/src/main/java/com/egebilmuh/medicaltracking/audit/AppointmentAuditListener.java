@@ -0,0 +1,44 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import com.egebilmuh.medicaltracking.service.SessionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Randevu Olaylarını Audit Log'a Yazma
+ *
+ * Olay transaction commit edildikten sonra yazılır (transaction yoksa
+ * hemen); geri alınan değişiklik log'a girmez. Yazma hatası randevu
+ * işlemini bozmaz, medicaltracking.audit.failures ile izlenir.
+ *
+ * Olay, isteği işleyen instance'ın yerel log'una yazılır; geçmiş düğüm
+ * başınadır (bkz. AppointmentAuditLog).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "medicaltracking.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentAuditListener {
+
+    private final AppointmentAuditLog auditLog;
+    private final SessionService sessionService;
+    private final MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        try {
+            int actorUserId = AuditActorFilter.currentUserId(token -> sessionService.validateSession(token)
+                    .map(session -> session.getUser().getUserId())
+                    .orElse(0));
+            auditLog.append(event, actorUserId);
+        } catch (Exception e) {
+            meterRegistry.counter("medicaltracking.audit.failures").increment();
+            log.error("Audit kaydı yazılamadı: {} randevu={}", event.type(), event.appointmentId(), e);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Randevu Audit Log'u (Append-Only, Memory-Mapped, Segmentli)
+ *
+ * Uyumluluk için randevuyu kimin oluşturduğu, onayladığı, reddettiği, iptal
+ * ettiği ve not eklediği kaydedilir. Veritabanına audit satırı yazmak yazma
+ * yükünü ikiye katlardı; bunun yerine kayıtlar map edilmiş dosyalara eklenir
+ * (sayfa önbelleğine bellek kopyası, istek başına fsync yok). Süreç çökse de
+ * yazılan kayıtlar işletim sisteminde kalır; işletim sistemi çökmesinde en
+ * fazla son medicaltracking.audit.flush-interval-ms kadar kayıt kaybolur.
+ *
+ * - Her kayıtta log genelinde artan sıra numarası ve CRC32C vardır
+ * - Dosyalar audit-<ilk sıra numarası>.log, her biri segment-size-bytes boyutunda
+ * - Segment %75 dolunca sıradaki segment arka planda hazırlanır; dolunca
+ *   yazma yolu sadece dosya değiştirir, eski segmentin indeksi yine arka
+ *   planda yazılır (AuditSegment.seal)
+ * - history(): kapalı segmentlerde .idx üzerinden ikili arama; log taranmaz.
+ *   Açık segmentin bellekteki indeksinin kilit altında sadece görüntüsü
+ *   alınır (dizi ve kayıt sayısı, AuditSegment.snapshot); tarama kilit dışındadır
+ * - Segment hazırlama (dosya map + sayfalara dokunma) ve hazırlanmasını
+ *   bekleme yazma kilidi dışında, roller thread'indedir
+ *
+ * Dizin tek sürece aittir (audit.lock); aynı dizini paylaşan ikinci
+ * instance açılışta hata verir. Log düğüm başınadır: her instance sadece
+ * kendi işlediği istekleri yazar, history() de sadece o düğümün kayıtlarını
+ * döner. Birden fazla instance'ta tam geçmiş için tüm düğümlerin dizinleri
+ * (sıra numarası düğüm içinde geçerlidir, occurredAt ile) birleştirilmelidir.
+ *
+ * Not metni log'a yazılmaz; NOTE_UPDATED kaydı sürüm, uzunluk ve SHA-256
+ * özetini taşır (metin appointment_note tablosundadır).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "medicaltracking.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentAuditLog {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.log");
+    private static final String NEXT_SEGMENT = "audit-next.tmp";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ExecutorService roller;
+    private final Counter appended;
+    private final Counter synchronousRolls;
+
+    // Sıra: sealing → sealed. Okuyucu önce sealing'in sonra sealed'ın kopyasını alır;
+    // arada taşınan segment iki kopyada da görünür (ilk sıra numarasıyla tekilleştirilir)
+    private final List<AuditSegment> sealing = new CopyOnWriteArrayList<>();
+    private final List<SealedSegment> sealed = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private AuditSegment active;
+    private Future<AuditSegment> next;
+    private long nextSequence;
+
+    public AppointmentAuditLog(MeterRegistry meterRegistry,
+                               @Value("${medicaltracking.audit.dir:audit}") Path directory,
+                               @Value("${medicaltracking.audit.segment-size-bytes:33554432}") int segmentSize)
+            throws IOException {
+        if (segmentSize < AuditSegment.MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("medicaltracking.audit.segment-size-bytes en az "
+                    + AuditSegment.MIN_SEGMENT_BYTES + " olmalı");
+        }
+        this.directory = directory.toAbsolutePath();
+        this.segmentSize = segmentSize;
+        Files.createDirectories(this.directory);
+        this.lockChannel = FileChannel.open(this.directory.resolve("audit.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit log dizini başka bir süreç tarafından kullanılıyor: " + this.directory);
+        }
+        this.roller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-roller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.appended = Counter.builder("medicaltracking.audit.records")
+                .description("Audit log'a yazılan kayıtlar")
+                .register(meterRegistry);
+        this.synchronousRolls = Counter.builder("medicaltracking.audit.rolls.synchronous")
+                .description("Sıradaki segment hazır olmadığı için yazma yolunda açılan segmentler")
+                .register(meterRegistry);
+        Gauge.builder("medicaltracking.audit.segments", this, auditLog -> auditLog.sealed.size() + auditLog.sealing.size() + 1)
+                .description("Diskteki audit segment sayısı")
+                .register(meterRegistry);
+        recover();
+    }
+
+    /**
+     * Açılışta Mevcut Segmentleri Yükleme
+     *
+     * Son segment açık segment olarak kurtarılır; indeksi eksik kapalı
+     * segmentlerin (.idx yazılamadan kapanmış) indeksi yeniden oluşturulur.
+     */
+    private void recover() throws IOException {
+        Files.deleteIfExists(directory.resolve(NEXT_SEGMENT));
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size() - 1; i++) {
+            Path file = files.get(i);
+            Path indexFile = indexFile(file);
+            if (!Files.exists(indexFile)) {
+                log.warn("Audit segment indeksi eksik, yeniden oluşturuluyor: {}", file);
+                AuditSegment.open(file, firstSequence(file)).seal(indexFile);
+            }
+            sealed.add(new SealedSegment(firstSequence(file), file, indexFile));
+        }
+
+        if (files.isEmpty()) {
+            active = AuditSegment.preallocate(directory.resolve(NEXT_SEGMENT), segmentSize);
+            active.activate(segmentFile(1), 1);
+        } else {
+            Path last = files.get(files.size() - 1);
+            Files.deleteIfExists(indexFile(last));
+            active = AuditSegment.open(last, firstSequence(last));
+        }
+        nextSequence = active.lastSequence() + 1;
+        log.info("Audit log açıldı: {} ({} segment, sonraki sıra {})", directory, sealed.size() + 1, nextSequence);
+    }
+
+    /**
+     * Olayı Log'a Ekleme
+     *
+     * @return long - Kaydın sıra numarası
+     */
+    public long append(AppointmentEvent event, int actorUserId) throws IOException {
+        byte[] detail = encodeDetail(event.detail());
+        long timestamp = event.occurredAt().toEpochMilli();
+        while (true) {
+            AuditSegment full;
+            Future<AuditSegment> pending;
+            writeLock.lock();
+            try {
+                long sequence = nextSequence;
+                if (active.append(sequence, timestamp, event.type(), event.appointmentId(), event.doctorId(),
+                        event.patientId(), actorUserId, detail)) {
+                    nextSequence++;
+                    if (next == null && active.remaining() < segmentSize / 4) {
+                        next = prepareNext();
+                    }
+                    appended.increment();
+                    return sequence;
+                }
+                if (next == null) {
+                    synchronousRolls.increment();
+                    next = prepareNext();
+                }
+                full = active;
+                pending = next;
+            } finally {
+                writeLock.unlock();
+            }
+            // Segment dolu: hazırlanmasını kilit dışında bekle, sonra (başka thread
+            // yapmadıysa) devral ve tekrar dene. Boş segmente her kayıt sığar (MIN_SEGMENT_BYTES)
+            AuditSegment segment = awaitNext(pending);
+            writeLock.lock();
+            try {
+                if (active == full && next == pending) {
+                    roll(segment);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private Future<AuditSegment> prepareNext() {
+        return roller.submit(() -> AuditSegment.preallocate(directory.resolve(NEXT_SEGMENT), segmentSize));
+    }
+
+    /**
+     * Hazır Segmente Geçiş (writeLock altında; sadece dosya adı ve başlık yazılır)
+     */
+    private void roll(AuditSegment segment) throws IOException {
+        next = null;
+        segment.activate(segmentFile(nextSequence), nextSequence);
+
+        AuditSegment previous = active;
+        sealing.add(previous);
+        active = segment;
+        roller.execute(() -> seal(previous));
+    }
+
+    private AuditSegment awaitNext(Future<AuditSegment> pending) throws IOException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Audit segment beklenirken kesildi", e);
+        } catch (ExecutionException e) {
+            writeLock.lock();
+            try {
+                if (next == pending) {
+                    next = null; // Sonraki yazma yeniden dener
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            throw new IOException("Audit segment hazırlanamadı", e.getCause());
+        }
+    }
+
+    private void seal(AuditSegment segment) {
+        Path indexFile = indexFile(segment.file());
+        try {
+            segment.seal(indexFile);
+            sealed.add(new SealedSegment(segment.firstSequence(), segment.file(), indexFile));
+            sealing.remove(segment);
+        } catch (IOException e) {
+            // Segment bellekteki indeksiyle sorgulanmaya devam eder; indeks sonraki açılışta yeniden oluşturulur
+            log.error("Audit segment kapatılamadı: {}", segment.file(), e);
+        }
+    }
+
+    /**
+     * Tek Randevu, Doktor veya Hastanın Geçmişi (sıra numarasına göre)
+     */
+    public List<AuditRecord> history(Subject subject, int id) throws IOException {
+        List<AuditSegment> sealingSnapshot;
+        List<SealedSegment> sealedSnapshot;
+        AuditSegment.IndexSnapshot activeSnapshot;
+        writeLock.lock();
+        try {
+            sealingSnapshot = List.copyOf(sealing);
+            sealedSnapshot = List.copyOf(sealed);
+            activeSnapshot = active.snapshot();
+        } finally {
+            writeLock.unlock();
+        }
+        List<AuditRecord> records = new ArrayList<>(activeSnapshot.history(subject, id));
+
+        Set<Long> seen = new HashSet<>();
+        for (SealedSegment segment : sealedSnapshot) {
+            if (seen.add(segment.firstSequence)) {
+                records.addAll(AuditSegment.history(segment.file, segment.index(), subject, id));
+            }
+        }
+        for (AuditSegment segment : sealingSnapshot) {
+            if (seen.add(segment.firstSequence())) {
+                records.addAll(segment.history(subject, id));
+            }
+        }
+        records.sort(Comparator.comparingLong(AuditRecord::sequence));
+        return records;
+    }
+
+    /**
+     * Açık Segmenti Diske Zorlama (işletim sistemi çökmesine karşı)
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.audit.flush-interval-ms:1000}")
+    public void flush() {
+        AuditSegment segment;
+        writeLock.lock();
+        try {
+            segment = active;
+        } finally {
+            writeLock.unlock();
+        }
+        segment.force(); // Kilit dışında: msync sürerken yazmalar beklemez
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        roller.shutdown();
+        roller.awaitTermination(10, TimeUnit.SECONDS);
+        writeLock.lock();
+        try {
+            active.force();
+            active.close();
+        } finally {
+            writeLock.unlock();
+        }
+        lock.release();
+        lockChannel.close();
+    }
+
+    private static byte[] encodeDetail(String detail) {
+        if (detail == null) {
+            return new byte[0];
+        }
+        // Sınırı aşan metin karakter sınırında kesilir (encoder taşmada durur)
+        ByteBuffer encoded = ByteBuffer.allocate(AuditSegment.MAX_DETAIL_BYTES);
+        StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .encode(CharBuffer.wrap(detail), encoded, true);
+        return Arrays.copyOf(encoded.array(), encoded.position());
+    }
+
+    private Path segmentFile(long firstSequence) {
+        return directory.resolve(String.format("audit-%020d.log", firstSequence));
+    }
+
+    private static Path indexFile(Path segmentFile) {
+        return segmentFile.resolveSibling(segmentFile.getFileName().toString().replace(".log", ".idx"));
+    }
+
+    private static long firstSequence(Path segmentFile) {
+        Matcher matcher = SEGMENT_NAME.matcher(segmentFile.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Audit segment adı değil: " + segmentFile);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * Geçmişi Sorgulanabilen Kimlik Türü
+     */
+    public enum Subject {
+        APPOINTMENT, DOCTOR, PATIENT
+    }
+
+    /**
+     * Kapalı Segment (indeks ilk sorguda map edilir ve tutulur)
+     */
+    private static final class SealedSegment {
+        private final long firstSequence;
+        private final Path file;
+        private final Path indexFile;
+        private volatile ByteBuffer index;
+
+        private SealedSegment(long firstSequence, Path file, Path indexFile) {
+            this.firstSequence = firstSequence;
+            this.file = file;
+            this.indexFile = indexFile;
+        }
+
+        private ByteBuffer index() throws IOException {
+            ByteBuffer mapped = index;
+            if (mapped == null) {
+                mapped = AuditSegment.mapIndex(indexFile);
+                index = mapped;
+            }
+            return mapped;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.function.ToIntFunction;
+
+/**
+ * İşlemi Yapan Kullanıcı (Audit Actor Filter)
+ *
+ * Frontend her isteğe oturum token'ını X-Session-Token başlığı ile ekler
+ * (frontend/src/services/api.js). Token istek süresince thread'de tutulur;
+ * kullanıcıya çevrilmesi sadece audit kaydı yazılırken ve istek başına bir
+ * kez yapılır, okuma isteklerine maliyeti yoktur.
+ */
+@Component
+@ConditionalOnProperty(name = "medicaltracking.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditActorFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Session-Token";
+
+    private static final ThreadLocal<Actor> CURRENT = new ThreadLocal<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CURRENT.set(new Actor(request.getHeader(HEADER)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return int - Mevcut isteği yapan kullanıcı; token yoksa, geçersizse veya istek dışındaysa 0
+     */
+    static int currentUserId(ToIntFunction<String> resolver) {
+        Actor actor = CURRENT.get();
+        if (actor == null || actor.token == null || actor.token.isBlank()) {
+            return 0;
+        }
+        if (actor.userId < 0) {
+            actor.userId = resolver.applyAsInt(actor.token);
+        }
+        return actor.userId;
+    }
+
+    private static final class Actor {
+        private final String token;
+        private int userId = -1;
+
+        private Actor(String token) {
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+
+import java.time.Instant;
+
+/**
+ * Audit Log Kaydı (Audit Record)
+ *
+ * @param sequence    Log genelinde artan sıra numarası (1'den başlar, boşluksuz)
+ * @param actorUserId İşlemi yapan kullanıcı; session bilinmiyorsa 0
+ * @param detail      Durum geçişi ("PENDING -> CONFIRMED") veya not metni; yoksa null
+ */
+public record AuditRecord(long sequence, Instant timestamp, AppointmentEvent.Type type,
+                          int appointmentId, int doctorId, int patientId, int actorUserId, String detail) {
+}
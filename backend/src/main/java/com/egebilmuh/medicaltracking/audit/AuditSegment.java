@@ -0,0 +1,403 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Audit Log Segment Dosyası
+ *
+ * Dosya düzeni (big-endian):
+ * - Başlık: int magic, int sürüm, long ilk sıra numarası
+ * - Kayıt:  int uzunluk, int CRC32C (gövde üzerinden), gövde
+ * - Gövde:  long sıra, long zaman (epoch ms), byte olay kodu, int randevu,
+ *           int doktor, int hasta, int aktör, short detay uzunluğu, detay (UTF-8)
+ *
+ * Dosya map edilirken sıfırla dolar; uzunluğu 0 olan kayıt verinin sonudur.
+ * Uzunluk gövde ve CRC'den sonra yazılır, yarım kalmış kayıt görünmez.
+ *
+ * Segment kapatılırken (seal) yanına .idx dosyası yazılır: randevu, doktor
+ * ve hasta kimliği başına kayıt offset'leri, kimliğe göre sıralı. Kapalı
+ * segmentte sorgu ikili arama ile yalnızca eşleşen kayıtları okur. Açık
+ * segmentin indeksi bellekte tutulur.
+ *
+ * Thread-safe değildir; erişimi AppointmentAuditLog düzenler. İstisna
+ * snapshot(): dönen kopya yazmalarla eşzamanlı taranabilir (yazılmış kayıt
+ * ve indeks girdisi bir daha değişmez, dizi büyürken yeni diziye kopyalanır).
+ */
+final class AuditSegment {
+
+    static final int MAX_DETAIL_BYTES = 4096;
+
+    private static final int MAGIC = 0x4D54414C;       // "MTAL"
+    private static final int INDEX_MAGIC = 0x4D544149; // "MTAI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int BODY_FIXED_BYTES = 35;
+    private static final int MAX_RECORD_BYTES = RECORD_HEADER_BYTES + BODY_FIXED_BYTES + MAX_DETAIL_BYTES;
+    private static final int INDEX_HEADER_BYTES = 12;
+    private static final int DIRECTORY_ENTRY_BYTES = 12;
+    private static final int PAGE_BYTES = 4096;
+    private static final int ENTRY_INTS = 4; // offset, randevu, doktor, hasta
+
+    static final int MIN_SEGMENT_BYTES = HEADER_BYTES + MAX_RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private Path file;
+    private long firstSequence;
+    private long lastSequence;
+    private int position;
+    private int[] entries = new int[ENTRY_INTS * 1024];
+    private int recordCount;
+
+    private AuditSegment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Boş Segment Hazırlama (arka plan thread'inde)
+     *
+     * Dosya tam boyutta map edilir ve her sayfaya dokunulur: disk bloğu
+     * ayırma ve sayfa hataları yazma yolunda değil burada olur.
+     */
+    static AuditSegment preallocate(Path file, int size) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        for (int i = 0; i < size; i += PAGE_BYTES) {
+            buffer.put(i, (byte) 0);
+        }
+        return new AuditSegment(file, channel, buffer);
+    }
+
+    /**
+     * Hazır Segmenti Yazmaya Açma (dosya adı ilk sıra numarasını içerir)
+     */
+    void activate(Path target, long firstSequence) throws IOException {
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        file = target;
+        writeHeader(firstSequence);
+    }
+
+    /**
+     * Mevcut Segmenti Açma ve Kurtarma
+     *
+     * Kayıtlar baştan okunur; CRC'si tutmayan veya sırası kopan ilk kayıtta
+     * durulur (çökme anında yarım kalmış yazma) ve artığı silinir.
+     */
+    static AuditSegment open(Path file, long firstSequence) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        AuditSegment segment = new AuditSegment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        ByteBuffer buffer = segment.buffer;
+        if (buffer.getInt(0) == 0) {
+            segment.writeHeader(firstSequence); // Taşındı ama başlık yazılamadan çöktü
+            return segment;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != firstSequence) {
+            channel.close();
+            throw new IOException("Geçersiz audit segment başlığı: " + file);
+        }
+        segment.firstSequence = firstSequence;
+        segment.lastSequence = firstSequence - 1;
+        segment.position = HEADER_BYTES;
+        while (true) {
+            AuditRecord record = decode(buffer, segment.position);
+            if (record == null || record.sequence() != segment.lastSequence + 1) {
+                break;
+            }
+            segment.addEntry(segment.position, record.appointmentId(), record.doctorId(), record.patientId());
+            segment.position += buffer.getInt(segment.position);
+            segment.lastSequence = record.sequence();
+        }
+        int end = Math.min(buffer.capacity(), segment.position + MAX_RECORD_BYTES);
+        for (int i = segment.position; i < end; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return segment;
+    }
+
+    private void writeHeader(long firstSequence) {
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, firstSequence);
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1;
+        this.position = HEADER_BYTES;
+    }
+
+    /**
+     * Kayıt Ekleme
+     *
+     * @return boolean - Segmentte yer yoksa false (çağıran yeni segmente geçer)
+     */
+    boolean append(long sequence, long timestamp, AppointmentEvent.Type type, int appointmentId,
+                   int doctorId, int patientId, int actorUserId, byte[] detail) {
+        int length = RECORD_HEADER_BYTES + BODY_FIXED_BYTES + detail.length;
+        if (position + length > buffer.capacity()) {
+            return false;
+        }
+        int body = position + RECORD_HEADER_BYTES;
+        buffer.putLong(body, sequence)
+                .putLong(body + 8, timestamp)
+                .put(body + 16, type.code())
+                .putInt(body + 17, appointmentId)
+                .putInt(body + 21, doctorId)
+                .putInt(body + 25, patientId)
+                .putInt(body + 29, actorUserId)
+                .putShort(body + 33, (short) detail.length)
+                .put(body + BODY_FIXED_BYTES, detail);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(body, length - RECORD_HEADER_BYTES));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, length); // En son: uzunluk yazılana kadar kayıt görünmez
+
+        addEntry(position, appointmentId, doctorId, patientId);
+        position += length;
+        lastSequence = sequence;
+        return true;
+    }
+
+    private void addEntry(int offset, int appointmentId, int doctorId, int patientId) {
+        int base = recordCount * ENTRY_INTS;
+        if (base + ENTRY_INTS > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[base] = offset;
+        entries[base + 1] = appointmentId;
+        entries[base + 2] = doctorId;
+        entries[base + 3] = patientId;
+        recordCount++;
+    }
+
+    /**
+     * Bellekteki İndeksten Geçmiş (açık veya henüz kapatılmamış segment)
+     */
+    List<AuditRecord> history(AppointmentAuditLog.Subject subject, int id) {
+        return snapshot().history(subject, id);
+    }
+
+    /**
+     * Bellekteki İndeksin O Anki Görüntüsü (kopyalamadan; taraması kilit gerektirmez)
+     */
+    IndexSnapshot snapshot() {
+        return new IndexSnapshot(buffer, entries, recordCount);
+    }
+
+    record IndexSnapshot(ByteBuffer buffer, int[] entries, int recordCount) {
+
+        List<AuditRecord> history(AppointmentAuditLog.Subject subject, int id) {
+            int column = subject.ordinal() + 1;
+            List<AuditRecord> records = new ArrayList<>();
+            for (int i = 0; i < recordCount; i++) {
+                if (entries[i * ENTRY_INTS + column] == id) {
+                    records.add(decode(buffer, entries[i * ENTRY_INTS]));
+                }
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Segmenti Kapatma: veriyi diske zorla, .idx dosyasını yaz
+     */
+    void seal(Path indexFile) throws IOException {
+        buffer.force();
+        ByteBuffer index = buildIndex();
+        Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (index.hasRemaining()) {
+                out.write(index);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        channel.close(); // Mapping buffer GC edilene kadar geçerli kalır
+    }
+
+    /**
+     * İndeks düzeni: int magic, int sürüm, int kayıt sayısı; ardından randevu,
+     * doktor, hasta için sırayla: int farklı kimlik sayısı, kimliğe göre sıralı
+     * (int kimlik, int başlangıç, int adet) dizini ve kayıt sayısı kadar offset.
+     */
+    private ByteBuffer buildIndex() {
+        AppointmentAuditLog.Subject[] subjects = AppointmentAuditLog.Subject.values();
+        long[][] sortedKeys = new long[subjects.length][];
+        int[] distinct = new int[subjects.length];
+        int size = INDEX_HEADER_BYTES;
+        for (AppointmentAuditLog.Subject subject : subjects) {
+            int column = subject.ordinal() + 1;
+            long[] keys = new long[recordCount];
+            for (int i = 0; i < recordCount; i++) {
+                keys[i] = ((long) entries[i * ENTRY_INTS + column] << 32) | (entries[i * ENTRY_INTS] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keys); // Kimliğe, sonra offset'e (= sıra numarasına) göre
+            int count = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (i == 0 || idOf(keys[i]) != idOf(keys[i - 1])) {
+                    count++;
+                }
+            }
+            sortedKeys[subject.ordinal()] = keys;
+            distinct[subject.ordinal()] = count;
+            size += 4 + count * DIRECTORY_ENTRY_BYTES + recordCount * 4;
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(size);
+        index.putInt(INDEX_MAGIC).putInt(VERSION).putInt(recordCount);
+        for (AppointmentAuditLog.Subject subject : subjects) {
+            long[] keys = sortedKeys[subject.ordinal()];
+            index.putInt(distinct[subject.ordinal()]);
+            for (int start = 0; start < keys.length; ) {
+                int end = start;
+                while (end < keys.length && idOf(keys[end]) == idOf(keys[start])) {
+                    end++;
+                }
+                index.putInt(idOf(keys[start])).putInt(start).putInt(end - start);
+                start = end;
+            }
+            for (long key : keys) {
+                index.putInt((int) key);
+            }
+        }
+        return index.flip();
+    }
+
+    private static int idOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Kapalı Segmentin İndeksini Map Etme
+     */
+    static ByteBuffer mapIndex(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (index.capacity() < INDEX_HEADER_BYTES || index.getInt(0) != INDEX_MAGIC || index.getInt(4) != VERSION) {
+                throw new IOException("Geçersiz audit indeks dosyası: " + indexFile);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Kapalı Segmentten Geçmiş (indekste ikili arama, yalnızca eşleşen kayıtlar okunur)
+     */
+    static List<AuditRecord> history(Path dataFile, ByteBuffer index, AppointmentAuditLog.Subject subject, int id)
+            throws IOException {
+        int recordCount = index.getInt(8);
+        int base = INDEX_HEADER_BYTES;
+        for (int i = 0; i < subject.ordinal(); i++) {
+            base += 4 + index.getInt(base) * DIRECTORY_ENTRY_BYTES + recordCount * 4;
+        }
+        int distinct = index.getInt(base);
+        int directory = base + 4;
+        int offsets = directory + distinct * DIRECTORY_ENTRY_BYTES;
+
+        int low = 0;
+        int high = distinct - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = directory + middle * DIRECTORY_ENTRY_BYTES;
+            int middleId = index.getInt(entry);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return read(dataFile, index, offsets + index.getInt(entry + 4) * 4, index.getInt(entry + 8));
+            }
+        }
+        return List.of();
+    }
+
+    private static List<AuditRecord> read(Path dataFile, ByteBuffer index, int first, int count) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<AuditRecord> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int offset = index.getInt(first + i * 4);
+                AuditRecord record = decode(data, offset);
+                if (record == null) {
+                    throw new IOException("Bozuk audit kaydı: " + dataFile + " @" + offset);
+                }
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Kaydı Çözme
+     *
+     * @return AuditRecord - Kayıt yoksa, sınır dışıysa veya CRC tutmuyorsa null
+     */
+    private static AuditRecord decode(ByteBuffer buffer, int offset) {
+        if (offset + RECORD_HEADER_BYTES + BODY_FIXED_BYTES > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length < RECORD_HEADER_BYTES + BODY_FIXED_BYTES || length > MAX_RECORD_BYTES
+                || offset + length > buffer.capacity()) {
+            return null;
+        }
+        int body = offset + RECORD_HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(body, length - RECORD_HEADER_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            return null;
+        }
+        int detailLength = Short.toUnsignedInt(buffer.getShort(body + 33));
+        if (RECORD_HEADER_BYTES + BODY_FIXED_BYTES + detailLength != length) {
+            return null;
+        }
+        String detail = null;
+        if (detailLength > 0) {
+            byte[] bytes = new byte[detailLength];
+            buffer.get(body + BODY_FIXED_BYTES, bytes);
+            detail = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new AuditRecord(buffer.getLong(body), Instant.ofEpochMilli(buffer.getLong(body + 8)),
+                AppointmentEvent.Type.fromCode(buffer.get(body + 16)), buffer.getInt(body + 17),
+                buffer.getInt(body + 21), buffer.getInt(body + 25), buffer.getInt(body + 29), detail);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    int remaining() {
+        return buffer.capacity() - position;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+}
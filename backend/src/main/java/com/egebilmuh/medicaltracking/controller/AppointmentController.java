@@ -1,27 +1,74 @@
 package com.egebilmuh.medicaltracking.controller;
 
+import com.egebilmuh.medicaltracking.audit.AuditActorFilter;
+import com.egebilmuh.medicaltracking.datasource.ReadYourWritesFilter;
 import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.AppointmentNote;
+import com.egebilmuh.medicaltracking.model.AppointmentNoteDraft;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.model.UserSession;
+import com.egebilmuh.medicaltracking.service.AppointmentExportService;
 import com.egebilmuh.medicaltracking.service.AppointmentService;
+import com.egebilmuh.medicaltracking.service.BulkStatusService;
+import com.egebilmuh.medicaltracking.service.IdempotencyService;
+import com.egebilmuh.medicaltracking.service.NoteAutosaveService;
+import com.egebilmuh.medicaltracking.service.SessionService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/appointment")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000",
+        exposedHeaders = {ReadYourWritesFilter.HEADER, AppointmentController.REPLAYED_HEADER})
 public class AppointmentController {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final AppointmentService appointmentService;
+    private final NoteAutosaveService noteAutosaveService;
+    private final IdempotencyService idempotencyService;
+    private final BulkStatusService bulkStatusService;
+    private final SessionService sessionService;
+    private final AppointmentExportService appointmentExportService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, NoteAutosaveService noteAutosaveService,
+                                 IdempotencyService idempotencyService, BulkStatusService bulkStatusService,
+                                 SessionService sessionService, AppointmentExportService appointmentExportService) {
         this.appointmentService = appointmentService;
+        this.noteAutosaveService = noteAutosaveService;
+        this.idempotencyService = idempotencyService;
+        this.bulkStatusService = bulkStatusService;
+        this.sessionService = sessionService;
+        this.appointmentExportService = appointmentExportService;
     }
 
+    /**
+     * Randevu Oluşturma
+     *
+     * Idempotency-Key başlığı verilirse aynı anahtarlı tekrar denemeler ilk
+     * oluşturulan randevuyu döner (Idempotent-Replayed: true); anahtar farklı
+     * bir istekle tekrar kullanılırsa 422 Unprocessable Entity.
+     */
     @PostMapping("/create")
-    public ResponseEntity<Appointment> createAppointment(@RequestBody Map<String, Object> requestData) {
+    public ResponseEntity<Appointment> createAppointment(@RequestBody Map<String, Object> requestData,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                         String idempotencyKey) {
         try {
             int doctorId = (Integer) requestData.get("doctorId");
             int patientId = (Integer) requestData.get("patientId");
@@ -29,18 +76,31 @@ public class AppointmentController {
             String doctorNote = (String) requestData.get("doctorNote");
             
             LocalDateTime appointmentTime = LocalDateTime.parse(appointmentTimeStr);
-            
-            Appointment appointment = appointmentService.createAppointment(doctorId, patientId, appointmentTime);
-            if (doctorNote != null && !doctorNote.trim().isEmpty()) {
-                appointmentService.setNoteToAppointment(appointment.getAppointmentId(), doctorNote);
+
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(create(doctorId, patientId, appointmentTime, doctorNote));
             }
-            
-            return ResponseEntity.ok(appointment);
+            IdempotencyService.Result result = idempotencyService.execute(idempotencyKey,
+                    IdempotencyService.fingerprint(doctorId, patientId, appointmentTime, doctorNote),
+                    () -> create(doctorId, patientId, appointmentTime, doctorNote));
+            return ResponseEntity.ok()
+                    .header(REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.appointment());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.unprocessableEntity().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    private Appointment create(int doctorId, int patientId, LocalDateTime appointmentTime, String doctorNote) {
+        Appointment appointment = appointmentService.createAppointment(doctorId, patientId, appointmentTime);
+        if (doctorNote != null && !doctorNote.trim().isEmpty()) {
+            appointment = appointmentService.setNoteToAppointment(appointment.getAppointmentId(), doctorNote);
+        }
+        return appointment;
+    }
+
     @GetMapping("/doctor/{id}")
     public ResponseEntity<List<Appointment>> getAppointmentsByDoctor(@PathVariable int id) {
         try {
@@ -61,6 +121,65 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Randevu Dışa Aktarma (CSV / NDJSON / iCalendar)
+     *
+     * Örnek: GET /appointment/export?format=ics&doctorId=5&status=CONFIRMED&from=2025-01-01T00:00:00
+     * Tüm filtreler isteğe bağlıdır; from dahil, to hariç. Satırlar
+     * veritabanı imlecinden okundukça yanıta yazılır (satır sayısından
+     * bağımsız sabit bellek). Geçersiz format için 400 Bad Request.
+     * 
+     * Oturum (X-Session-Token) zorunludur, yoksa 401 Unauthorized. Doktor
+     * sadece kendi, hasta sadece kendi randevularını alır (doctorId /
+     * patientId verilmezse oturumdaki kullanıcı kullanılır, başkasınınki
+     * istenirse 403 Forbidden); yönetici (ADMIN) tüm randevuları alabilir.
+     */
+    @GetMapping("/export")
+    public void exportAppointments(@RequestParam(defaultValue = "csv") String format,
+                                   @RequestParam(required = false) Integer doctorId,
+                                   @RequestParam(required = false) Integer patientId,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                   @RequestParam(required = false) Appointment.AppointmentStatus status,
+                                   @RequestHeader(value = AuditActorFilter.HEADER, required = false) String sessionToken,
+                                   HttpServletResponse response) throws IOException {
+        User user = sessionToken == null ? null
+                : sessionService.validateSession(sessionToken).map(UserSession::getUser).orElse(null);
+        if (user == null) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        if (user.getRole() == User.Role.DOCTOR) {
+            if (doctorId != null && doctorId != user.getUserId()) {
+                response.sendError(HttpStatus.FORBIDDEN.value());
+                return;
+            }
+            doctorId = user.getUserId();
+        } else if (user.getRole() == User.Role.PATIENT) {
+            if (patientId != null && patientId != user.getUserId()) {
+                response.sendError(HttpStatus.FORBIDDEN.value());
+                return;
+            }
+            patientId = user.getUserId();
+        }
+
+        AppointmentExportService.Format exportFormat;
+        try {
+            exportFormat = AppointmentExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Geçersiz format: " + format);
+            return;
+        }
+
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("appointments." + exportFormat.extension()).build().toString());
+        Writer out = new BufferedWriter(response.getWriter());
+        appointmentExportService.export(
+                new AppointmentExportService.Filter(doctorId, patientId, from, to, status), exportFormat, out);
+    }
+
     @DeleteMapping("/cancel/{id}")
     public ResponseEntity<String> cancelAppointment(@PathVariable int id) {
         try {
@@ -81,6 +200,50 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Toplu Onay / Red / İptal
+     *
+     * Gövde: {"changes": [{"appointmentId": 5, "action": "APPROVE"}, ...]}
+     * action: APPROVE, REJECT veya CANCEL. Kalemler birbirini engellemez;
+     * her randevu için sonuç (UPDATED, NOT_FOUND, NOT_OWNER,
+     * ILLEGAL_TRANSITION, DUPLICATE) istek sırasıyla döner.
+     *
+     * Geçerli oturum (X-Session-Token) zorunludur, yoksa 401 Unauthorized.
+     * Doktor oturumun sahibidir; gövdedeki doctorId dikkate alınmaz. Oturum
+     * doktora ait değilse 403 Forbidden.
+     */
+    @PostMapping("/bulkStatus")
+    public ResponseEntity<Map<String, Object>> bulkUpdateStatus(@RequestBody Map<String, Object> requestData,
+                                                                @RequestHeader(value = AuditActorFilter.HEADER, required = false)
+                                                                String sessionToken) {
+        User user = sessionToken == null ? null
+                : sessionService.validateSession(sessionToken).map(UserSession::getUser).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (user.getRole() != User.Role.DOCTOR) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        int doctorId = user.getUserId();
+        try {
+            List<BulkStatusService.Change> changes = new ArrayList<>();
+            for (Object item : (List<?>) requestData.get("changes")) {
+                Map<?, ?> change = (Map<?, ?>) item;
+                changes.add(new BulkStatusService.Change((Integer) change.get("appointmentId"),
+                        BulkStatusService.Action.valueOf((String) change.get("action"))));
+            }
+
+            List<BulkStatusService.ItemResult> results = bulkStatusService.apply(doctorId, changes);
+            Map<String, Object> response = new HashMap<>();
+            response.put("updated", results.stream()
+                    .filter(result -> result.outcome() == BulkStatusService.Outcome.UPDATED).count());
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/reject/{id}")
     public ResponseEntity<String> rejectAppointment(@PathVariable int id) {
         try {
@@ -91,6 +254,49 @@ public class AppointmentController {
         }
     }
 
+    @GetMapping("/{id}/notes")
+    public ResponseEntity<List<AppointmentNote>> getAppointmentNotes(@PathVariable int id) {
+        try {
+            return ResponseEntity.ok(appointmentService.getNoteHistory(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}/noteDraft")
+    public ResponseEntity<AppointmentNoteDraft> getNoteDraft(@PathVariable int id) {
+        return noteAutosaveService.getDraft(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Yazılırken Otomatik Kayıt (bellekte birleşir, arka planda toplu yazılır)
+     *
+     * Geçerli oturum (X-Session-Token) zorunludur, yoksa 401 Unauthorized.
+     * Oturum randevunun doktoruna ait değilse 403 Forbidden; metin
+     * max-length'i aşarsa 413 Payload Too Large.
+     */
+    @PostMapping("/autosaveNote/{id}")
+    public ResponseEntity<Void> autosaveNote(@PathVariable int id, @RequestBody Map<String, String> requestData,
+                                             @RequestHeader(value = AuditActorFilter.HEADER, required = false)
+                                             String sessionToken) {
+        User user = sessionToken == null ? null
+                : sessionService.validateSession(sessionToken).map(UserSession::getUser).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (user.getRole() != User.Role.DOCTOR) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return switch (noteAutosaveService.autosave(user.getUserId(), id, requestData.get("doctorNote"))) {
+            case ACCEPTED -> ResponseEntity.accepted().build();
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case NOT_OWNER -> ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            case TOO_LARGE -> ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        };
+    }
+
     @PostMapping("/setNote/{id}")
     public ResponseEntity<String> setNoteAppointment(@PathVariable int id, @RequestBody Map<String, String> requestData) {
         try {
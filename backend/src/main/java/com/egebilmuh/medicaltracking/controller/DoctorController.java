@@ -1,11 +1,19 @@
 package com.egebilmuh.medicaltracking.controller;
 
+import com.egebilmuh.medicaltracking.datasource.ReadYourWritesFilter;
 import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
+import com.egebilmuh.medicaltracking.model.DoctorUnavailability;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
 import com.egebilmuh.medicaltracking.service.DoctorService;
+import com.egebilmuh.medicaltracking.stats.AppointmentStatistics;
+import com.egebilmuh.medicaltracking.stats.BookingStats;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Doktor REST Controller (Doctor API Endpoints)
@@ -30,16 +38,22 @@ import java.util.List;
  */
 @RestController // REST API controller olarak işaretler
 @RequestMapping("/Doctor") // Base path - tüm endpoint'ler /Doctor ile başlar
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = ReadYourWritesFilter.HEADER) // React frontend için CORS
 public class DoctorController {
     
     // Dependency Injection - Service layer ile bağlantı
     private final DoctorService DoctorService; // Naming convention: doctorService olmalıydı
+    private final DoctorAvailabilityService availabilityService;
+    private final AppointmentStatistics statistics;
     
     /**
      * Constructor Injection
      */
-    public DoctorController(DoctorService DoctorService) {
+    public DoctorController(DoctorService DoctorService, DoctorAvailabilityService availabilityService,
+                            AppointmentStatistics statistics) {
         this.DoctorService = DoctorService;
+        this.availabilityService = availabilityService;
+        this.statistics = statistics;
     }
 
     /**
@@ -61,27 +75,115 @@ public class DoctorController {
     /**
      * Tüm Doktorları Listeleme
      * 
-     * @return ResponseEntity<List<Doctor>> - 200 OK ile doktor listesi
+     * @return ResponseEntity<List<DoctorProfile>> - 200 OK ile doktor listesi
      * 
      * HTTP Endpoint: GET /Doctor/getAllDoctors.
      */
     @GetMapping("/getAllDoctors")
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<List<DoctorProfile>> getAllDoctors() {
         return ResponseEntity.ok(DoctorService.getAllDoctors());
     }
     
-    // Gelecekte eklenebilecek doctor-specific endpoint'ler:
-    
     /**
      * Doktor Müsaitlik Durumunu Güncelleme
-     * (Gelecekte implement edilebilir)
      * 
-     * @PutMapping("/updateAvailability/{id}")
-     * public ResponseEntity<Doctor> updateAvailability(@PathVariable int id, @RequestParam boolean available) {
-     *     Doctor doctor = DoctorService.updateAvailability(id, available);
-     *     return ResponseEntity.ok(doctor);
-     * }
+     * @param id Doktor ID'si
+     * @param available true: randevu kabul eder, false: kabul etmez
+     * @return ResponseEntity<Doctor> - 200 OK veya 404 Not Found
+     * 
+     * HTTP Endpoint: PUT /Doctor/updateAvailability/{id}?available=false
+     * Değişiklik önce veritabanına yazılır, ardından booking yolunun kullandığı
+     * bellek içi bitset güncellenir.
+     */
+    @PutMapping("/updateAvailability/{id}")
+    public ResponseEntity<Doctor> updateAvailability(@PathVariable int id, @RequestParam boolean available) {
+        try {
+            Doctor doctor = availabilityService.updateAvailability(id, available);
+            return ResponseEntity.ok(doctor);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Doktorun İzin Aralıklarını Listeleme
+     * 
+     * HTTP Endpoint: GET /Doctor/unavailability/{id}
+     */
+    @GetMapping("/unavailability/{id}")
+    public ResponseEntity<List<DoctorUnavailability>> getUnavailability(@PathVariable int id) {
+        return ResponseEntity.ok(availabilityService.getWindows(id));
+    }
+
+    /**
+     * İzin Aralığı Ekleme (ör. yıllık izin)
+     * 
+     * @param id Doktor ID'si
+     * @param requestData {"startDate": "2025-08-01", "endDate": "2025-08-15", "reason": "Yıllık izin"}
+     * @return ResponseEntity<DoctorUnavailability> - 200 OK veya 400 Bad Request
+     * 
+     * HTTP Endpoint: POST /Doctor/unavailability/{id}
+     */
+    @PostMapping("/unavailability/{id}")
+    public ResponseEntity<DoctorUnavailability> addUnavailability(@PathVariable int id,
+                                                                  @RequestBody Map<String, String> requestData) {
+        try {
+            LocalDate startDate = LocalDate.parse(requestData.get("startDate"));
+            LocalDate endDate = LocalDate.parse(requestData.get("endDate"));
+            return ResponseEntity.ok(availabilityService.addWindow(id, startDate, endDate, requestData.get("reason")));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * İzin Aralığını Silme
+     * 
+     * HTTP Endpoint: DELETE /Doctor/unavailability/{id}/{windowId}
+     */
+    @DeleteMapping("/unavailability/{id}/{windowId}")
+    public ResponseEntity<String> removeUnavailability(@PathVariable int id, @PathVariable int windowId) {
+        try {
+            availabilityService.removeWindow(id, windowId);
+            return ResponseEntity.ok("İzin aralığı silindi");
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Randevu İstatistikleri (tüm doktorlar)
+     * 
+     * Bellekteki artımlı sayaçlardan döner; appointment tablosu taranmaz.
+     * 
+     * HTTP Endpoint: GET /Doctor/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<BookingStats>> getAllStats() {
+        return ResponseEntity.ok(statistics.getAllDoctorStats());
+    }
+
+    /**
+     * Doktorun Randevu Sayıları, Onay ve İptal Oranı
+     * 
+     * HTTP Endpoint: GET /Doctor/stats/{id}
+     */
+    @GetMapping("/stats/{id}")
+    public ResponseEntity<BookingStats> getStats(@PathVariable int id) {
+        return ResponseEntity.ok(statistics.getDoctorStats(id));
+    }
+
+    /**
+     * Uzmanlık Alanı Bazında Randevu İstatistikleri
+     * 
+     * HTTP Endpoint: GET /Doctor/stats/specialties
      */
+    @GetMapping("/stats/specialties")
+    public ResponseEntity<List<BookingStats>> getSpecialtyStats() {
+        return ResponseEntity.ok(statistics.getSpecialtyStats());
+    }
+
+    // Gelecekte eklenebilecek doctor-specific endpoint'ler:
     
     /**
      * Doktor Randevu Programını Getirme
@@ -1,11 +1,14 @@
 package com.egebilmuh.medicaltracking.controller;
 
+import com.egebilmuh.medicaltracking.dto.PageResponse;
+import com.egebilmuh.medicaltracking.dto.UserView;
 import com.egebilmuh.medicaltracking.model.Patient;
 import com.egebilmuh.medicaltracking.service.PatientService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Hasta REST Controller (Patient API Endpoints)
@@ -29,15 +32,27 @@ public class PatientController {
     }
 
     /**
-     * Tüm Hastaları Listeleme
+     * Hastaları Sayfalı Listeleme
      * 
-     * @return ResponseEntity<List<Patient>> - 200 OK ile hasta listesi
+     * @param page Sayfa numarası (varsayılan 0)
+     * @param size Sayfa boyutu (varsayılan 20, en fazla PageResponse.MAX_PAGE_SIZE)
+     * @param fields Yanıta eklenecek alanlar, virgülle ayrılmış (opsiyonel)
+     * @return ResponseEntity<Map<String, Object>> - 200 OK ile sayfa veya 400 Bad Request (bilinmeyen alan)
      * 
-     * HTTP Endpoint: GET /patient/getAllPatients
+     * HTTP Endpoint: GET /patient/getAllPatients?page=0&size=20&fields=userId,name,surname
      */
     @GetMapping("/getAllPatients")
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(patientService.getAllPatients());
+    public ResponseEntity<Map<String, Object>> getAllPatients(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + PageResponse.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields) {
+        try {
+            Set<String> selectedFields = UserView.parseFields(fields);
+            return ResponseEntity.ok(PageResponse.of(
+                    patientService.getPatients(PageResponse.pageRequest(page, size)), selectedFields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.egebilmuh.medicaltracking.controller;
 
+import com.egebilmuh.medicaltracking.datasource.ReadYourWritesFilter;
 import com.egebilmuh.medicaltracking.model.User;
 import com.egebilmuh.medicaltracking.model.UserSession;
+import com.egebilmuh.medicaltracking.service.ProfileService;
 import com.egebilmuh.medicaltracking.service.SessionService;
 import com.egebilmuh.medicaltracking.service.UserService;
 import org.springframework.http.HttpStatus;
@@ -15,15 +17,17 @@ import java.util.Optional;
 
 @RestController
 @RequestMapping("/session")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = ReadYourWritesFilter.HEADER)
 public class SessionController {
     
     private final SessionService sessionService;
     private final UserService userService;
+    private final ProfileService profileService;
     
-    public SessionController(SessionService sessionService, UserService userService) {
+    public SessionController(SessionService sessionService, UserService userService, ProfileService profileService) {
         this.sessionService = sessionService;
         this.userService = userService;
+        this.profileService = profileService;
     }
     
     @PostMapping("/login")
@@ -134,11 +138,9 @@ public class SessionController {
         
         // Role'e göre ek bilgiler ekle
         if (user.getRole() == User.Role.DOCTOR) {
-            // Doctor bilgilerini al
+            // Doctor bilgilerini al (doctor_profile'dan birincil anahtar ile)
             try {
-                var doctor = userService.getAllDoctors().stream()
-                    .filter(d -> d.getUserId() == user.getUserId())
-                    .findFirst();
+                var doctor = profileService.findDoctor(user.getUserId());
                 
                 if (doctor.isPresent()) {
                     var d = doctor.get();
@@ -151,11 +153,9 @@ public class SessionController {
                 userResponse.put("name", user.getEmail().split("@")[0]);
             }
         } else if (user.getRole() == User.Role.PATIENT) {
-            // Patient bilgilerini al
+            // Patient bilgilerini al (patient_profile'dan birincil anahtar ile)
             try {
-                var patient = userService.getAllPatients().stream()
-                    .filter(p -> p.getUserId() == user.getUserId())
-                    .findFirst();
+                var patient = profileService.findPatient(user.getUserId());
                 
                 if (patient.isPresent()) {
                     var p = patient.get();
@@ -1,16 +1,39 @@
 package com.egebilmuh.medicaltracking.controller;
 
+import com.egebilmuh.medicaltracking.audit.AuditActorFilter;
+import com.egebilmuh.medicaltracking.datasource.ReadYourWritesFilter;
+import com.egebilmuh.medicaltracking.dto.PageResponse;
+import com.egebilmuh.medicaltracking.dto.UserView;
+import com.egebilmuh.medicaltracking.importer.ImportRowReader;
+import com.egebilmuh.medicaltracking.importer.SizeLimitedInputStream;
+import com.egebilmuh.medicaltracking.importer.UserImportService;
 import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
 import com.egebilmuh.medicaltracking.model.Patient;
 import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.model.UserSession;
+import com.egebilmuh.medicaltracking.service.EmailAlreadyExistsException;
+import com.egebilmuh.medicaltracking.service.SessionService;
 import com.egebilmuh.medicaltracking.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Kullanıcı REST Controller (User API Endpoints)
@@ -31,17 +54,24 @@ import java.util.Map;
  */
 @RestController // @Controller + @ResponseBody - REST API controller
 @RequestMapping("/user") // Base path: tüm endpoint'ler /user ile başlar
-@CrossOrigin(origins = "http://localhost:3000") // React frontend için CORS
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = ReadYourWritesFilter.HEADER) // React frontend için CORS
 public class UserController {
     
     // Dependency Injection - Service katmanı ile bağlantı
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor Injection
      */
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService, SessionService sessionService,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.sessionService = sessionService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -61,48 +91,72 @@ public class UserController {
     }
 
     /**
-     * Tüm Kullanıcıları Listeleme
+     * Kullanıcıları Sayfalı Listeleme
      * 
-     * @return ResponseEntity<List<User>> - 200 OK ile kullanıcı listesi
+     * @param page Sayfa numarası (varsayılan 0)
+     * @param size Sayfa boyutu (varsayılan 20, en fazla PageResponse.MAX_PAGE_SIZE)
+     * @param fields Yanıta eklenecek alanlar, virgülle ayrılmış (opsiyonel)
+     * @return ResponseEntity<Map<String, Object>> - 200 OK ile sayfa veya 400 Bad Request (bilinmeyen alan)
      * 
-     * HTTP Endpoint: GET /user/getAllUser
-     *
+     * HTTP Endpoint: GET /user/getAllUser?page=0&size=20&fields=userId,email,role
+     * Şifre hash'leri yanıta hiçbir zaman eklenmez.
      */
     @GetMapping("/getAllUser")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<Map<String, Object>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + PageResponse.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields) {
+        try {
+            Set<String> selectedFields = UserView.parseFields(fields);
+            return ResponseEntity.ok(PageResponse.of(
+                    userService.getUsers(PageResponse.pageRequest(page, size)), selectedFields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Tüm Doktorları Listeleme
      * 
-     * @return ResponseEntity<List<Doctor>> - 200 OK ile doktor listesi
+     * @return ResponseEntity<List<DoctorProfile>> - 200 OK ile doktor listesi
      * 
      * HTTP Endpoint: GET /user/getAllDoctors
      */
     @GetMapping("/getAllDoctors")
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<List<DoctorProfile>> getAllDoctors() {
         return ResponseEntity.ok(userService.getAllDoctors());
     }
 
     /**
-     * Tüm Hastaları Listeleme
+     * Hastaları Sayfalı Listeleme
      * 
-     * @return ResponseEntity<List<Patient>> - 200 OK ile hasta listesi
+     * @param page Sayfa numarası (varsayılan 0)
+     * @param size Sayfa boyutu (varsayılan 20, en fazla PageResponse.MAX_PAGE_SIZE)
+     * @param fields Yanıta eklenecek alanlar, virgülle ayrılmış (opsiyonel)
+     * @return ResponseEntity<Map<String, Object>> - 200 OK ile sayfa veya 400 Bad Request (bilinmeyen alan)
      * 
-     * HTTP Endpoint: GET /user/getAllPatients
+     * HTTP Endpoint: GET /user/getAllPatients?page=0&size=20
      *
      */
     @GetMapping("/getAllPatients")
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(userService.getAllPatients());
+    public ResponseEntity<Map<String, Object>> getAllPatients(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + PageResponse.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields) {
+        try {
+            Set<String> selectedFields = UserView.parseFields(fields);
+            return ResponseEntity.ok(PageResponse.of(
+                    userService.getPatients(PageResponse.pageRequest(page, size)), selectedFields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Uzmanlık Alanına Göre Doktor Filtreleme
      * 
      * @param specialty Aranacak uzmanlık alanı (URL path'den String olarak alınır)
-     * @return ResponseEntity<List<Doctor>> - 200 OK (doktor listesi) veya 400 Bad Request
+     * @return ResponseEntity<List<DoctorProfile>> - 200 OK (doktor listesi) veya 400 Bad Request
      * 
      * HTTP Endpoint: GET /user/getDoctorsBySpecialty/{specialty}
      * Örnek URL: GET /user/getDoctorsBySpecialty/Cardiology
@@ -112,7 +166,7 @@ public class UserController {
      *
      */
     @GetMapping("/getDoctorsBySpecialty/{specialty}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialty(@PathVariable String specialty) {
+    public ResponseEntity<List<DoctorProfile>> getDoctorsBySpecialty(@PathVariable String specialty) {
         try {
             // String'i enum'a çevir (case-sensitive)
             Doctor.Specialty spec = Doctor.Specialty.valueOf(specialty);
@@ -128,7 +182,7 @@ public class UserController {
      * 
      * @param id Güncellenecek kullanıcının ID'si
      * @param updatedUser Güncellenmiş kullanıcı bilgileri (JSON request body'den alınır)
-     * @return ResponseEntity<User> - 200 OK (güncellendi) veya 404 Not Found
+     * @return ResponseEntity<User> - 200 OK (güncellendi), 409 Conflict (e-posta kayıtlı) veya 404 Not Found
      * 
      * HTTP Endpoint: PUT /user/update/{id}
      * Request Body: JSON formatında User objesi
@@ -139,6 +193,9 @@ public class UserController {
         try {
             User user = userService.updateUser(id, updatedUser);
             return ResponseEntity.ok(user);
+        } catch (EmailAlreadyExistsException e) {
+            // Yeni e-posta başka kullanıcıda kayıtlı
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             // Kullanıcı bulunamazsa Service'den RuntimeException fırlar
             return ResponseEntity.notFound().build();
@@ -149,7 +206,7 @@ public class UserController {
      * Genel Kullanıcı Kayıt İşlemi
      * 
      * @param user Kaydedilecek kullanıcı bilgileri (JSON request body)
-     * @return ResponseEntity<User> - 200 OK (başarılı) veya 400 Bad Request (hata)
+     * @return ResponseEntity<User> - 200 OK (başarılı), 409 Conflict (e-posta kayıtlı) veya 400 Bad Request (hata)
      * 
      * HTTP Endpoint: POST /user/register
      * Request Body: {"email": "user@example.com", "password": "123456", "role": "PATIENT"}
@@ -159,6 +216,8 @@ public class UserController {
         try {
             User registeredUser = userService.register(user.getEmail(), user.getPassword(), user.getRole());
             return ResponseEntity.ok(registeredUser);
+        } catch (EmailAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             // Email already exists gibi business logic hataları
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -169,7 +228,7 @@ public class UserController {
      * Doktor Kayıt İşlemi (Specialized Registration)
      * 
      * @param requestData Doktor kayıt bilgileri (Map formatında JSON)
-     * @return ResponseEntity<Doctor> - 200 OK (başarılı) veya 400 Bad Request (hata)
+     * @return ResponseEntity<Doctor> - 200 OK (başarılı), 409 Conflict (e-posta kayıtlı) veya 400 Bad Request (hata)
      * 
      * HTTP Endpoint: POST /user/registerDoctor
      * Request Body: {
@@ -203,6 +262,8 @@ public class UserController {
             // Service method call
             Doctor doctor = userService.registerDoctor(email, password, name, surname, birthDate, phoneNo, specialty);
             return ResponseEntity.ok(doctor);
+        } catch (EmailAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             // Parsing errors, business logic errors, validation errors
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -213,7 +274,7 @@ public class UserController {
      * Hasta Kayıt İşlemi (Specialized Registration)
      * 
      * @param requestData Hasta kayıt bilgileri (Map formatında JSON)
-     * @return ResponseEntity<Patient> - 200 OK (başarılı) veya 400 Bad Request (hata)
+     * @return ResponseEntity<Patient> - 200 OK (başarılı), 409 Conflict (e-posta kayıtlı) veya 400 Bad Request (hata)
      * 
      * HTTP Endpoint: POST /user/registerPatient
      * Request Body: {
@@ -243,11 +304,114 @@ public class UserController {
             // Service call
             Patient patient = userService.registerPatient(email, password, name, surname, birthDate, phoneNo);
             return ResponseEntity.ok(patient);
+        } catch (EmailAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    /**
+     * Toplu Doktor / Hasta İçe Aktarma
+     * 
+     * @param contentType text/csv (başlık satırlı) veya application/x-ndjson
+     * @param role Satırda role alanı yoksa kullanılacak rol (DOCTOR / PATIENT)
+     * 
+     * HTTP Endpoint: POST /user/import?role=PATIENT
+     * Alanlar: role, email, password, name, surname, birthDate, phoneNo, specialty
+     * 
+     * Gövde akış olarak okunur, yanıt NDJSON olarak akar: satır hataları
+     * ({"type":"error","line":...}), her parça sonunda ilerleme
+     * ({"type":"progress",...}) ve en sonda özet ({"type":"done",...}).
+     * Desteklenmeyen içerik tipinde 415 Unsupported Media Type.
+     * 
+     * Yönetici oturumu (X-Session-Token) zorunludur: oturum yoksa 401
+     * Unauthorized, ADMIN değilse 403 Forbidden. Gövde max-bytes'ı aşarsa
+     * 413 Payload Too Large (Content-Length bilinmiyorsa okuma kesilir ve
+     * "failed" satırı döner); max-rows'u aşan girdide de okuma durur.
+     */
+    @PostMapping("/import")
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                            @RequestParam(required = false) User.Role role,
+                            @RequestHeader(value = AuditActorFilter.HEADER, required = false) String sessionToken,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User user = sessionToken == null ? null
+                : sessionService.validateSession(sessionToken).map(UserSession::getUser).orElse(null);
+        if (user == null) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        if (user.getRole() != User.Role.ADMIN) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (role == User.Role.ADMIN) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Yönetici içe aktarılamaz");
+            return;
+        }
+        if (request.getContentLengthLong() > userImportService.maxBytes()) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+        ImportRowReader reader;
+        try {
+            reader = ImportRowReader.forContentType(contentType, new InputStreamReader(
+                    new SizeLimitedInputStream(request.getInputStream(), userImportService.maxBytes()),
+                    StandardCharsets.UTF_8), objectMapper);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), e.getMessage());
+            return;
+        }
+
+        response.setContentType(ImportRowReader.NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+        long started = System.nanoTime();
+        try {
+            UserImportService.Progress done = userImportService.importUsers(reader, role, new UserImportService.Listener() {
+                @Override
+                public void error(UserImportService.RowError error) {
+                    writeLine(out, Map.of("type", "error", "line", error.line(),
+                            "email", Objects.toString(error.email(), ""), "message", error.message()));
+                }
+
+                @Override
+                public void progress(UserImportService.Progress progress) {
+                    writeLine(out, progressLine("progress", progress));
+                    try {
+                        out.flush(); // İstemci büyük dosyada ilerlemeyi parça parça görür
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            Map<String, Object> summary = progressLine("done", done);
+            summary.put("durationMs", (System.nanoTime() - started) / 1_000_000);
+            writeLine(out, summary);
+        } catch (RuntimeException | IOException e) {
+            writeLine(out, Map.of("type", "failed", "message", Objects.toString(e.getMessage(), e.toString())));
+        }
+        out.flush();
+    }
+
+    private static Map<String, Object> progressLine(String type, UserImportService.Progress progress) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", type);
+        line.put("processed", progress.processed());
+        line.put("imported", progress.imported());
+        line.put("failed", progress.failed());
+        return line;
+    }
+
+    private void writeLine(Writer out, Map<String, Object> line) {
+        try {
+            out.write(objectMapper.writeValueAsString(line));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Kullanıcı Giriş İşlemi (Authentication)
      * 
@@ -0,0 +1,436 @@
+package com.egebilmuh.medicaltracking.datagen;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.stats.AppointmentStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sentetik Veri Üreticisi (Scale-Test Data Generator)
+ *
+ * "datagen" profili ile çalışır, mevcut verinin üzerine yapılandırılan
+ * hacimde doktor, hasta, oturum ve randevu ekler ve uygulamayı kapatır:
+ *
+ *   java -jar medicaltracking-exec.jar --spring.profiles.active=datagen
+ *        --medicaltracking.datagen.appointments=10000000
+ *
+ * Hız için JPA yerine JDBC batch insert kullanılır (MySQL'de
+ * rewriteBatchedStatements ile çok satırlı INSERT'e dönüşür); satırlar
+ * batch-size'lık parçalar halinde birden fazla thread'de, her parça kendi
+ * transaction'ında yazılır. ID'ler tablodaki en büyük değerden sonra
+ * üretici tarafından atanır; bitince identity/sequence sayaçları ilerletilir.
+ * Randevular olay üretmediği için istatistik tablolarına
+ * (appointment_daily_stats, appointment_stats_total) ayrıca eklenir.
+ *
+ * Dağılım:
+ * - Doktorlar tüm Doctor.Specialty değerlerine sırayla dağılır
+ * - Randevular doktorlara doctor-skew üssüyle çarpık dağılır (az sayıda
+ *   popüler doktor randevuların çoğunu alır); bir doktorun randevuları
+ *   history-days geçmiş ile future-days gelecek arasındaki 15 dakikalık
+ *   saatlere çakışmadan yayılır, pencere dolarsa fazlası CANCELLED yazılır
+ * - Oturumların active-session-ratio kadarı geçerli, kalanı süresi dolmuş
+ *
+ * Tüm üretilen kullanıcıların şifresi PASSWORD'dür.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    static final String PASSWORD = "datagen-password";
+
+    private static final int SLOTS_PER_DAY = 32; // 09:00-17:00, 15 dakika
+    private static final Doctor.Specialty[] SPECIALTIES = Doctor.Specialty.values();
+    private static final String[] NAMES = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Mustafa", "Zeynep",
+            "Emre", "Elif", "Can", "Deniz", "Burak", "Selin", "Murat", "Ece", "Kerem", "Merve"};
+    private static final String[] SURNAMES = {"Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız",
+            "Aydın", "Öztürk", "Arslan", "Doğan", "Kılıç", "Aslan", "Koç", "Kurt", "Özdemir", "Polat"};
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final AppointmentStatistics statistics;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${medicaltracking.datagen.doctors:5000}")
+    private int doctors;
+
+    @Value("${medicaltracking.datagen.patients:1000000}")
+    private int patients;
+
+    @Value("${medicaltracking.datagen.appointments:10000000}")
+    private long appointments;
+
+    @Value("${medicaltracking.datagen.sessions-per-user:2}")
+    private int sessionsPerUser;
+
+    @Value("${medicaltracking.datagen.active-session-ratio:0.1}")
+    private double activeSessionRatio;
+
+    @Value("${medicaltracking.datagen.history-days:730}")
+    private int historyDays;
+
+    @Value("${medicaltracking.datagen.future-days:90}")
+    private int futureDays;
+
+    @Value("${medicaltracking.datagen.doctor-skew:2.0}")
+    private double doctorSkew;
+
+    @Value("${medicaltracking.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${medicaltracking.datagen.threads:4}")
+    private int threads;
+
+    @Value("${medicaltracking.datagen.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long started = System.nanoTime();
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        int firstDoctorId = nextId("user", "user_id");
+        int firstPatientId = firstDoctorId + doctors;
+        int firstSessionId = nextId("user_session", "session_id");
+        int firstAppointmentId = nextId("appointment", "appointment_id");
+        log.info("Veri üretimi başlıyor: {} doktor, {} hasta, {} randevu, kullanıcı başına {} oturum",
+                doctors, patients, appointments, sessionsPerUser);
+
+        insertInChunks("doctor", doctors, (connection, from, to, random) ->
+                insertDoctors(connection, from, to, random, firstDoctorId, encodedPassword));
+        insertInChunks("patient", patients, (connection, from, to, random) ->
+                insertPatients(connection, from, to, random, firstPatientId, encodedPassword));
+        long userCount = (long) doctors + patients;
+        insertInChunks("user_session", userCount * sessionsPerUser, (connection, from, to, random) ->
+                insertSessions(connection, from, to, random, firstSessionId, firstDoctorId, userCount));
+
+        AppointmentSlots slots = new AppointmentSlots();
+        insertInChunks("appointment", appointments, (connection, from, to, random) ->
+                insertAppointments(connection, from, to, random, firstAppointmentId, firstDoctorId, firstPatientId, slots));
+        if (appointments > 0) {
+            long statsStarted = System.nanoTime();
+            statistics.addInserted(firstAppointmentId);
+            log.info("Randevu istatistikleri {} sn'de güncellendi", (System.nanoTime() - statsStarted) / 1_000_000_000);
+        }
+
+        restartIdentities();
+        log.info("Veri üretimi {} sn'de tamamlandı", (System.nanoTime() - started) / 1_000_000_000);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void insertDoctors(Connection connection, long from, long to, SplittableRandom random,
+                               int firstId, String encodedPassword) throws SQLException {
+        try (PreparedStatement users = connection.prepareStatement(
+                "insert into user (user_id, email, password, role) values (?, ?, ?, ?)");
+             PreparedStatement rows = connection.prepareStatement(
+                     "insert into doctor (user_id, name, surname, birth_date, phone_no, specialty, availability) "
+                             + "values (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement profiles = connection.prepareStatement(
+                     "insert into doctor_profile (user_id, email, name, surname, birth_date, phone_no, specialty, availability) "
+                             + "values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long i = from; i < to; i++) {
+                int id = firstId + (int) i;
+                String email = "doctor" + id + "@datagen.local";
+                String name = NAMES[random.nextInt(NAMES.length)];
+                String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                Date birthDate = Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(random.nextInt(365 * 35)));
+                String phoneNo = phoneNo(random);
+                String specialty = SPECIALTIES[(int) (i % SPECIALTIES.length)].name();
+                boolean available = random.nextDouble() < 0.9;
+
+                addUser(users, id, email, encodedPassword, "DOCTOR");
+                rows.setInt(1, id);
+                rows.setString(2, name);
+                rows.setString(3, surname);
+                rows.setDate(4, birthDate);
+                rows.setString(5, phoneNo);
+                rows.setString(6, specialty);
+                rows.setBoolean(7, available);
+                rows.addBatch();
+                profiles.setInt(1, id);
+                profiles.setString(2, email);
+                profiles.setString(3, name);
+                profiles.setString(4, surname);
+                profiles.setDate(5, birthDate);
+                profiles.setString(6, phoneNo);
+                profiles.setString(7, specialty);
+                profiles.setBoolean(8, available);
+                profiles.addBatch();
+            }
+            users.executeBatch();
+            rows.executeBatch();
+            profiles.executeBatch();
+        }
+    }
+
+    private void insertPatients(Connection connection, long from, long to, SplittableRandom random,
+                                int firstId, String encodedPassword) throws SQLException {
+        try (PreparedStatement users = connection.prepareStatement(
+                "insert into user (user_id, email, password, role) values (?, ?, ?, ?)");
+             PreparedStatement rows = connection.prepareStatement(
+                     "insert into patient (user_id, name, surname, birth_date, phone_no) values (?, ?, ?, ?, ?)");
+             PreparedStatement profiles = connection.prepareStatement(
+                     "insert into patient_profile (user_id, email, name, surname, birth_date, phone_no) "
+                             + "values (?, ?, ?, ?, ?, ?)")) {
+            for (long i = from; i < to; i++) {
+                int id = firstId + (int) i;
+                String email = "patient" + id + "@datagen.local";
+                String name = NAMES[random.nextInt(NAMES.length)];
+                String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                Date birthDate = Date.valueOf(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(365 * 80)));
+                String phoneNo = phoneNo(random);
+
+                addUser(users, id, email, encodedPassword, "PATIENT");
+                rows.setInt(1, id);
+                rows.setString(2, name);
+                rows.setString(3, surname);
+                rows.setDate(4, birthDate);
+                rows.setString(5, phoneNo);
+                rows.addBatch();
+                profiles.setInt(1, id);
+                profiles.setString(2, email);
+                profiles.setString(3, name);
+                profiles.setString(4, surname);
+                profiles.setDate(5, birthDate);
+                profiles.setString(6, phoneNo);
+                profiles.addBatch();
+            }
+            users.executeBatch();
+            rows.executeBatch();
+            profiles.executeBatch();
+        }
+    }
+
+    private void insertSessions(Connection connection, long from, long to, SplittableRandom random,
+                                int firstId, int firstUserId, long userCount) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement sessions = connection.prepareStatement(
+                "insert into user_session (session_id, user_id, session_token, created_at, expires_at, is_active, "
+                        + "user_agent, ip_address) values (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long i = from; i < to; i++) {
+                boolean live = random.nextDouble() < activeSessionRatio;
+                LocalDateTime createdAt = live
+                        ? now.minusMinutes(random.nextInt(24 * 60))
+                        : now.minusMinutes(24 * 60 + random.nextLong((long) historyDays * 24 * 60));
+                sessions.setInt(1, firstId + (int) i);
+                sessions.setInt(2, firstUserId + (int) (i % userCount));
+                sessions.setString(3, new UUID(random.nextLong(), random.nextLong()).toString());
+                sessions.setTimestamp(4, Timestamp.valueOf(createdAt));
+                sessions.setTimestamp(5, Timestamp.valueOf(createdAt.plusHours(24)));
+                // Süresi dolmuş oturumların bir kısmı temizlenmemiş (hâlâ aktif işaretli) kalır
+                sessions.setBoolean(6, live || random.nextBoolean());
+                sessions.setString(7, "datagen");
+                sessions.setString(8, "10.0." + random.nextInt(256) + "." + random.nextInt(256));
+                sessions.addBatch();
+            }
+            sessions.executeBatch();
+        }
+    }
+
+    private void insertAppointments(Connection connection, long from, long to, SplittableRandom random,
+                                    int firstId, int firstDoctorId, int firstPatientId,
+                                    AppointmentSlots slots) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement rows = connection.prepareStatement(
+                "insert into appointment (appointment_id, doctor_user_id, patient_user_id, appointment_date_time, status, has_note, created_at) "
+                        + "values (?, ?, ?, ?, ?, false, ?)")) {
+            for (long i = from; i < to; i++) {
+                int doctorIndex = (int) (doctors * Math.pow(random.nextDouble(), doctorSkew));
+                int patientIndex = (int) (patients * Math.pow(random.nextDouble(), 1.5));
+                int slot = slots.next(doctorIndex);
+                LocalDateTime dateTime = slots.dateTime(slot);
+
+                rows.setInt(1, firstId + (int) i);
+                rows.setInt(2, firstDoctorId + doctorIndex);
+                rows.setInt(3, firstPatientId + patientIndex);
+                rows.setTimestamp(4, Timestamp.valueOf(dateTime));
+                rows.setString(5, status(random, slots.wrapped(slot), dateTime.isBefore(now)).name());
+                // Talep randevudan (gelecektekiler için bugünden) 0-14 gün önce açılmış sayılır
+                LocalDateTime requestedBefore = dateTime.isBefore(now) ? dateTime : now;
+                rows.setTimestamp(6, Timestamp.valueOf(requestedBefore.minusMinutes(random.nextInt(14 * 24 * 60))));
+                rows.addBatch();
+            }
+            rows.executeBatch();
+        }
+    }
+
+    private static Appointment.AppointmentStatus status(SplittableRandom random, boolean wrapped, boolean past) {
+        if (wrapped) {
+            return Appointment.AppointmentStatus.CANCELLED; // Aynı saatte aktif ikinci randevu olmaz
+        }
+        double roll = random.nextDouble();
+        if (past) {
+            return roll < 0.85 ? Appointment.AppointmentStatus.CONFIRMED : Appointment.AppointmentStatus.CANCELLED;
+        }
+        if (roll < 0.55) {
+            return Appointment.AppointmentStatus.PENDING;
+        }
+        return roll < 0.9 ? Appointment.AppointmentStatus.CONFIRMED : Appointment.AppointmentStatus.CANCELLED;
+    }
+
+    private static void addUser(PreparedStatement users, int id, String email, String password, String role)
+            throws SQLException {
+        users.setInt(1, id);
+        users.setString(2, email);
+        users.setString(3, password);
+        users.setString(4, role);
+        users.addBatch();
+    }
+
+    private static String phoneNo(SplittableRandom random) {
+        return "05" + (300_000_000 + random.nextInt(100_000_000));
+    }
+
+    /**
+     * Parçalı ve Paralel Ekleme
+     *
+     * total satır batch-size'lık parçalara bölünür; her parça havuzdan
+     * aldığı bağlantıda tek transaction olarak yazılır. Parçaların random
+     * seed'i sabittir, aynı ayarlarla aynı veri üretilir.
+     */
+    private void insertInChunks(String table, long total, ChunkWriter writer) throws Exception {
+        if (total <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        long chunks = (total + batchSize - 1) / batchSize;
+        AtomicLong written = new AtomicLong();
+        AtomicLong nextReport = new AtomicLong(Math.max(total / 10, 1));
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * batchSize;
+                long to = Math.min(total, from + batchSize);
+                SplittableRandom random = new SplittableRandom(seed * 31 + table.hashCode() * 1_000_003L + chunk);
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        writer.write(connection, from, to, random);
+                        connection.commit();
+                    }
+                    long done = written.addAndGet(to - from);
+                    long threshold = nextReport.get();
+                    if (done >= threshold && nextReport.compareAndSet(threshold, threshold + Math.max(total / 10, 1))) {
+                        log.info("{}: {}/{} satır", table, done, total);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        log.info("{}: {} satır {} sn'de yazıldı ({} satır/sn)", table, total,
+                String.format("%.1f", seconds), (long) (total / Math.max(seconds, 0.001)));
+    }
+
+    private int nextId(String table, String column) {
+        Integer max = jdbcTemplate.queryForObject("select max(" + column + ") from " + table, Integer.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    /**
+     * Identity ve Sequence Sayaçlarını İlerletme
+     *
+     * MySQL AUTO_INCREMENT açık ID ile eklenen satırlardan sonra kendini
+     * ilerletir; H2 identity kolonları ilerletmez, uygulamanın sonraki
+     * kayıtları çakışmasın diye elle ayarlanır. user_id ise user_seq'ten
+     * (pooled-lo: değer bir sonraki boş ID) gelir ve iki veritabanında da
+     * ilerletilmelidir; MySQL'de sequence user_seq tablosuyla emüle edilir.
+     */
+    private void restartIdentities() throws SQLException {
+        int nextUserId = nextId("user", "user_id");
+        boolean h2;
+        try (Connection connection = dataSource.getConnection()) {
+            h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        }
+        if (!h2) {
+            jdbcTemplate.update("update user_seq set next_val = ? where next_val < ?", nextUserId, nextUserId);
+            return;
+        }
+        jdbcTemplate.execute("alter sequence user_seq restart with " + nextUserId);
+        for (String[] identity : new String[][]{{"user_session", "session_id"},
+                {"appointment", "appointment_id"}}) {
+            jdbcTemplate.execute("alter table " + identity[0] + " alter column " + identity[1]
+                    + " restart with " + nextId(identity[0], identity[1]));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(Connection connection, long from, long to, SplittableRandom random) throws SQLException;
+    }
+
+    /**
+     * Doktor Başına Çakışmasız Randevu Saatleri
+     *
+     * Her doktorun bir sayacı vardır; n'inci randevusu pencere içindeki
+     * saatlere sabit bir adımla (pencere boyutuyla aralarında asal) dağıtılır,
+     * böylece az randevulu doktorlar da tüm tarih aralığına yayılır ve
+     * pencere dolana kadar aynı saat ikinci kez verilmez.
+     */
+    private final class AppointmentSlots {
+
+        private final AtomicIntegerArray counters = new AtomicIntegerArray(Math.max(doctors, 1));
+        private final LocalDateTime windowStart = LocalDate.now().minusDays(historyDays).atTime(9, 0);
+        private final int windowSlots = (historyDays + futureDays) * SLOTS_PER_DAY;
+        private final long stride = coprimeStride(windowSlots);
+
+        int next(int doctorIndex) {
+            return counters.getAndIncrement(doctorIndex);
+        }
+
+        boolean wrapped(int slot) {
+            return slot >= windowSlots;
+        }
+
+        LocalDateTime dateTime(int slot) {
+            int position = (int) ((slot * stride) % windowSlots);
+            return windowStart.plusDays(position / SLOTS_PER_DAY).plusMinutes(15L * (position % SLOTS_PER_DAY));
+        }
+
+        private static long coprimeStride(int size) {
+            long candidate = Math.max(1, (long) (size * 0.6180339887));
+            while (gcd(candidate, size) != 1) {
+                candidate++;
+            }
+            return candidate;
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.egebilmuh.medicaltracking.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Okuma Replikası Konfigürasyonu (Read Replica Configuration)
+ *
+ * medicaltracking.datasource.replica.url tanımlıysa etkinleşir; tanımlı
+ * değilse uygulama tek spring.datasource ile eskisi gibi çalışır.
+ *
+ * İki Hikari havuzu oluşturulur (spring.datasource.hikari.* ve
+ * medicaltracking.datasource.replica.hikari.*) ve uygulamaya tek bir
+ * DataSource verilir: LazyConnectionDataSourceProxy → RoutingDataSource.
+ * Lazy proxy fiziksel bağlantıyı ilk SQL'e kadar ertelediği için
+ * yönlendirme kararı transaction başladıktan sonra verilebilir.
+ *
+ * Havuzlar bean olarak tanımlanmaz: aksi halde SQL enstrümantasyonu
+ * (MetricsConfig) her sorguyu iki kez sayardı.
+ */
+@Configuration
+@ConditionalOnProperty("medicaltracking.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    /**
+     * Birincil ve Replika Bağlantı Havuzları
+     */
+    @Bean(destroyMethod = "close")
+    public Pools readWritePools(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(environment.getRequiredProperty("medicaltracking.datasource.replica.url"))
+                .username(environment.getProperty("medicaltracking.datasource.replica.username", properties.determineUsername()))
+                .password(environment.getProperty("medicaltracking.datasource.replica.password", properties.determinePassword()))
+                .build();
+        binder.bind("medicaltracking.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+
+        // Boot sadece DataSource bean'lerinin havuz metriklerini bağlar; iki havuz da elle bağlanır
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primary.setMetricsTrackerFactory(metrics);
+        replica.setMetricsTrackerFactory(metrics);
+        return new Pools(primary, replica);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(Pools pools, MeterRegistry meterRegistry,
+                                               @Value("${medicaltracking.datasource.replica.max-lag-ms:1000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(pools.primary(), pools.replica(), maxLagMillis, meterRegistry);
+    }
+
+    /**
+     * Transaction Başında Yönlendirme Kararı (Boot tüm TransactionExecutionListener'ları
+     * transaction manager'a ekler)
+     */
+    @Bean
+    public ReadWriteRouting readWriteRouting(ReplicaLagMonitor lagMonitor,
+                                             ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                             MeterRegistry meterRegistry) {
+        return new ReadWriteRouting(lagMonitor, entityManagerFactory, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(Pools pools) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRouting.RoutingDataSource(pools.primary(), pools.replica()));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    /**
+     * Bağlantıyı Transaction Sonunda Havuza Bırakma
+     *
+     * Spring varsayılan olarak bağlantıyı Hibernate session'ı kapanana kadar
+     * tutar; open-in-view açıkken bu tüm HTTP isteği demektir. Bir istekteki
+     * ilk transaction replikaya gittiyse sonraki yazma da aynı bağlantıyı
+     * kullanırdı. Bağlantı her transaction sonunda bırakılır ve her
+     * transaction kendi yönlendirme kararını alır.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    public record Pools(HikariDataSource primary, HikariDataSource replica) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            replica.close();
+            primary.close();
+        }
+    }
+}
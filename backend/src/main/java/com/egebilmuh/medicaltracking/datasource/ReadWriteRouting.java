@@ -0,0 +1,123 @@
+package com.egebilmuh.medicaltracking.datasource;
+
+import com.egebilmuh.medicaltracking.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Okuma/Yazma Yönlendirmesi (Read/Write Routing)
+ *
+ * Her transaction başında hangi veritabanının kullanılacağına karar verir:
+ * - Servis katmanındaki @Transactional(readOnly = true) metotlar →
+ *   replika güncelse (ReplicaLagMonitor.canServe) replika, değilse birincil
+ * - Diğer her şey (yazmalar, servis dışı transaction'lar) → birincil
+ *
+ * Spring Data repository metotları da salt okunur transaction açar; bunlar
+ * bilerek birincilde kalır. Böylece createAppointment'taki çakışma kontrolü
+ * gibi yazma akışının parçası olan okumalar asla gecikmeli veriyi görmez.
+ *
+ * Karar thread'e yazılır ve bağlantı LazyConnectionDataSourceProxy sayesinde
+ * ilk SQL'de, RoutingDataSource üzerinden bu karara göre alınır.
+ *
+ * Replikadan okunan entity'ler L2 cache'e ve query cache'e yazılmaz
+ * (CacheMode.GET): gecikmeli veri TTL boyunca cache'te kalmasın.
+ */
+public class ReadWriteRouting implements TransactionExecutionListener {
+
+    private static final String SERVICE_PACKAGE = UserService.class.getPackageName() + ".";
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    public ReadWriteRouting(ReplicaLagMonitor lagMonitor, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isReadOnly() || !isServiceTransaction(transaction.getTransactionName())) {
+            return;
+        }
+        long readAfter = ReadYourWritesFilter.readAfter();
+        if (!lagMonitor.canServe(readAfter)) {
+            String reason = lagMonitor.isWithinLag() ? "read_your_writes" : "lag";
+            meterRegistry.counter("medicaltracking.datasource.reads", "target", "primary", "reason", reason).increment();
+            return;
+        }
+        meterRegistry.counter("medicaltracking.datasource.reads", "target", "replica", "reason", "fresh").increment();
+
+        REPLICA.set(Boolean.TRUE);
+        Session session = currentSession();
+        CacheMode previousCacheMode = session != null ? session.getCacheMode() : null;
+        if (session != null) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                REPLICA.remove();
+                if (session != null && session.isOpen()) {
+                    session.setCacheMode(previousCacheMode); // open-in-view: session sonraki transaction'larda da kullanılır
+                }
+            }
+        });
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            ReadYourWritesFilter.recordWrite(lagMonitor::primaryPosition); // İstek içindeyse birincilden bir okuma
+        }
+    }
+
+    private static boolean isServiceTransaction(String transactionName) {
+        // @Transactional metotlarda isim "paket.Sınıf.metot" biçimindedir
+        return transactionName != null && transactionName.startsWith(SERVICE_PACKAGE);
+    }
+
+    private Session currentSession() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        EntityManager entityManager = factory != null
+                ? EntityManagerFactoryUtils.getTransactionalEntityManager(factory) : null;
+        return entityManager != null ? entityManager.unwrap(Session.class) : null;
+    }
+
+    /**
+     * Transaction Kararına Göre Bağlantı Havuzu Seçen DataSource
+     */
+    static class RoutingDataSource extends AbstractRoutingDataSource {
+
+        RoutingDataSource(DataSource primary, DataSource replica) {
+            setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+            setDefaultTargetDataSource(primary);
+            afterPropertiesSet();
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return REPLICA.get() != null ? Target.REPLICA : Target.PRIMARY;
+        }
+    }
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+}
@@ -0,0 +1,91 @@
+package com.egebilmuh.medicaltracking.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Kendi Yazdığını Okuma Garantisi (Read-Your-Writes Filter)
+ *
+ * Replika birincilin gerisinde olabildiği için, randevu alan bir hasta
+ * hemen ardından listesini replikadan okursa yeni randevuyu göremeyebilir.
+ * Bunu önlemek için:
+ * - Bir istekte yazma transaction'ı commit edilince yanıta
+ *   X-Read-After: <commit sonrası birincildeki kalp atışı sırası> başlığı
+ *   eklenir (ReplicaLagMonitor.primaryPosition; saat değil, birincilde
+ *   artan sayaç olduğu için sunucu/istemci saat farkından etkilenmez)
+ * - İstemci gördüğü en büyük değeri sonraki isteklerde aynı başlıkla geri
+ *   gönderir (frontend/src/services/api.js)
+ * - Replika bu andan sonra güncellenmemişse okuma birincile gider
+ *   (ReplicaLagMonitor.canServe)
+ *
+ * Aynı istek içinde yazmadan sonra yapılan okumalar da başlık beklemeden
+ * birincile gider.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-After";
+
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CURRENT.set(new Context(parse(request.getHeader(HEADER)), response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return long - Mevcut istekte replikanın aşması gereken kalp atışı sırası (istek dışında 0)
+     */
+    static long readAfter() {
+        Context context = CURRENT.get();
+        return context != null ? context.readAfter : 0;
+    }
+
+    /**
+     * Yazma Transaction'ı Commit Edildi (ReadWriteRouting çağırır)
+     *
+     * @param position Commit sonrası birincil konumu; sadece istek içinde okunur
+     */
+    static void recordWrite(LongSupplier position) {
+        Context context = CURRENT.get();
+        if (context == null) {
+            return; // İstek dışı (zamanlanmış iş vb.)
+        }
+        context.readAfter = Math.max(context.readAfter, position.getAsLong());
+        if (!context.response.isCommitted()) {
+            context.response.setHeader(HEADER, Long.toString(context.readAfter));
+        }
+    }
+
+    private static long parse(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0; // Geçersiz başlık yok sayılır
+        }
+    }
+
+    private static final class Context {
+        private long readAfter;
+        private final HttpServletResponse response;
+
+        private Context(long readAfter, HttpServletResponse response) {
+            this.readAfter = readAfter;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.egebilmuh.medicaltracking.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replika Gecikmesi İzleyicisi (Replica Lag Policy)
+ *
+ * replication_heartbeat satırındaki seq, birincil veritabanında sadece artan
+ * bir sayaçtır (replikasyon konumu yerine geçer). Her heartbeat-interval-ms'de:
+ * 1. Birincilde seq bir artırılır, yeni değer okunur; yazmadan önceki yerel
+ *    monotonik zaman (System.nanoTime) bu değerle birlikte saklanır
+ * 2. Aynı satır replikadan okunur → replikanın uyguladığı son seq (replicaSeq)
+ *
+ * Replika seq değerini gördüyse o kalp atışından önce birincilde commit
+ * edilen her şeyi de görmüştür. Karar sadece seq ve bu instance'ın kendi
+ * saatiyle verilir; instance'lar ve istemci arasındaki saat farkı rol
+ * oynamaz:
+ * - Gecikme: replicaSeq'e ulaşmış en son kalp atışının yazılmaya
+ *   başlandığı andan beri geçen süre; max-lag-ms'yi aşmamalı
+ * - İstemcinin son yazması (X-Read-After): yazma commit edildikten sonra
+ *   birincilden okunan seq (primaryPosition). Sonraki her kalp atışı
+ *   yazmadan sonra commit edilir; replicaSeq bu değerden büyükse replika
+ *   yazmayı görmüştür
+ *
+ * Replika okunamıyorsa, satır yoksa veya replika saklanan kalp atışlarının
+ * hepsinin gerisindeyse gecikme bilinmez kabul edilir ve tüm okumalar
+ * birincile gider. Gecikme medicaltracking.datasource.replica.lag gauge'u ile
+ * yayınlanır. beat_at (duvar saati) sadece operatörler için yazılır.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagNanos;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Deque<long[]> beats = new ArrayDeque<>(); // {seq, yazma öncesi nanoTime}, refreshLock altında
+
+    private volatile long replicaSeq = -1; // -1: bilinmiyor
+    private long reachedSeq = -1;          // Replikanın ulaştığı en son kalp atışı, refreshLock altında
+    private volatile long freshAsOfNanos;  // Replikanın en az bu ana kadar güncel olduğu yerel an
+    private volatile boolean lagKnown;
+    private volatile long lastPrimarySeq;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        TimeGauge.builder("medicaltracking.datasource.replica.lag", this, TimeUnit.MILLISECONDS, ReplicaLagMonitor::lagMillis)
+                .description("Replikanın birincil veritabanının ne kadar gerisinde olduğu (bilinmiyorsa NaN)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kalp Atışı Yazma ve Replika Durumunu Yenileme
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.datasource.replica.heartbeat-interval-ms:250}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            beat();
+            observeReplica();
+        } finally {
+            refreshLock.unlock();
+        }
+
+        boolean nowUsable = isWithinLag();
+        if (nowUsable != usable) {
+            usable = nowUsable;
+            if (nowUsable) {
+                log.info("Replika okumalar için kullanılabilir (gecikme {} ms)", lagMillis());
+            } else {
+                log.warn("Replika gecikmesi {} ms sınırını aşıyor veya okunamıyor; okumalar birincile yönlendiriliyor",
+                        TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+            }
+        }
+    }
+
+    /**
+     * Birincildeki Güncel Kalp Atışı Sırası (X-Read-After değeri)
+     *
+     * Yazma transaction'ı commit edildikten sonra çağrılır. Okuma hata
+     * verirse bilinen son değerin bir fazlası döner (en iyi çaba).
+     *
+     * @return long - Replikanın bu yazmayı görmüş sayılması için aşması gereken seq
+     */
+    public long primaryPosition() {
+        try {
+            List<Long> rows = primary.queryForList(
+                    "SELECT seq FROM replication_heartbeat WHERE heartbeat_id = ?", Long.class, HEARTBEAT_ID);
+            return rows.isEmpty() ? 0 : rows.get(0);
+        } catch (DataAccessException e) {
+            log.debug("Birincil kalp atışı sırası okunamadı: {}", e.getMessage());
+            return lastPrimarySeq + 1;
+        }
+    }
+
+    /**
+     * @param readAfter İstemcinin görmesi gereken son yazmanın seq değeri (yoksa 0)
+     * @return boolean - Okuma replikadan yapılabilir mi?
+     */
+    public boolean canServe(long readAfter) {
+        return replicaSeq > readAfter && isWithinLag();
+    }
+
+    /**
+     * @return boolean - Gecikme sınırın altında mı? (istemciden bağımsız)
+     */
+    public boolean isWithinLag() {
+        return lagKnown && System.nanoTime() - freshAsOfNanos <= maxLagNanos;
+    }
+
+    private void beat() {
+        long startedAt = System.nanoTime();
+        try {
+            if (primary.update("UPDATE replication_heartbeat SET seq = seq + 1, beat_at = ? WHERE heartbeat_id = ?",
+                    System.currentTimeMillis(), HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (heartbeat_id, seq, beat_at) VALUES (?, 1, ?)",
+                        HEARTBEAT_ID, System.currentTimeMillis());
+            }
+            long seq = primaryPosition();
+            lastPrimarySeq = seq;
+            beats.addLast(new long[]{seq, startedAt});
+        } catch (DuplicateKeyException e) {
+            // Başka bir instance aynı anda ilk satırı ekledi; bir sonraki turda güncellenir
+        } catch (DataAccessException e) {
+            log.warn("Replikasyon kalp atışı yazılamadı: {}", e.getMessage());
+        }
+    }
+
+    private void observeReplica() {
+        long seq;
+        try {
+            List<Long> rows = replica.queryForList(
+                    "SELECT seq FROM replication_heartbeat WHERE heartbeat_id = ?", Long.class, HEARTBEAT_ID);
+            seq = rows.isEmpty() ? -1 : rows.get(0);
+        } catch (DataAccessException e) {
+            seq = -1;
+        }
+        replicaSeq = seq;
+
+        if (seq < 0 || seq < reachedSeq) {
+            // Okunamadı veya replika geri gitti (ör. yedekten dönüldü): gecikme yeniden ölçülene kadar bilinmez
+            lagKnown = false;
+            reachedSeq = -1;
+            return;
+        }
+
+        // Replikanın ulaştığı en son kalp atışı; ondan eskiler artık gerekmez
+        long[] reached = null;
+        while (!beats.isEmpty() && beats.peekFirst()[0] <= seq) {
+            reached = beats.pollFirst();
+        }
+        if (reached != null) {
+            beats.addFirst(reached);
+            reachedSeq = reached[0];
+            freshAsOfNanos = reached[1];
+            lagKnown = true;
+        }
+        // Replika yetişemezse liste sınırsız büyümesin: sınırdan eski, ulaşılmamış kalp atışları atılır
+        // (replika sonra bunlara ulaşırsa gecikme bir önceki kalp atışından, yani olduğundan büyük hesaplanır)
+        long now = System.nanoTime();
+        Iterator<long[]> iterator = beats.iterator();
+        while (iterator.hasNext()) {
+            long[] beat = iterator.next();
+            if (beat[0] <= seq) {
+                continue;
+            }
+            if (now - beat[1] <= maxLagNanos) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private double lagMillis() {
+        return lagKnown ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - freshAsOfNanos) : Double.NaN;
+    }
+}
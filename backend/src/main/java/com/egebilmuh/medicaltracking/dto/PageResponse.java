@@ -0,0 +1,63 @@
+package com.egebilmuh.medicaltracking.dto;
+
+import com.egebilmuh.medicaltracking.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sayfalı Liste Yanıtı (Paged Response)
+ *
+ * Listeleme endpoint'lerinin tek seferde tüm tabloyu döndürmesini engeller.
+ * Sayfa boyutu sunucu tarafında MAX_PAGE_SIZE ile sınırlandırılır, böylece
+ * istek başına bellek kullanımı tablo büyüklüğünden bağımsız kalır.
+ */
+public final class PageResponse {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageResponse() {
+    }
+
+    /**
+     * İstemci Parametrelerinden Güvenli Pageable Oluşturma
+     *
+     * @param page Sayfa numarası (0'dan başlar, negatifse 0 kabul edilir)
+     * @param size İstenen sayfa boyutu (1..MAX_PAGE_SIZE aralığına çekilir)
+     * @return Pageable - userId'ye göre sıralı (kararlı sayfalama için)
+     */
+    public static Pageable pageRequest(int page, int size) {
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return PageRequest.of(safePage, safeSize, Sort.by("userId"));
+    }
+
+    /**
+     * Kullanıcı Sayfasını Yanıt Map'ine Çevirme
+     *
+     * @param page Repository'den gelen sayfa
+     * @param fields Her kayıt için yanıta eklenecek alanlar
+     * @return Map<String, Object> - content + sayfa bilgileri
+     */
+    public static Map<String, Object> of(Page<? extends User> page, Set<String> fields) {
+        List<Map<String, Object>> content = page.getContent().stream()
+                .map(user -> UserView.of(user, fields))
+                .toList();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", content);
+        response.put("page", page.getNumber());
+        response.put("size", page.getSize());
+        response.put("totalElements", page.getTotalElements());
+        response.put("totalPages", page.getTotalPages());
+        response.put("hasNext", page.hasNext());
+        return response;
+    }
+}
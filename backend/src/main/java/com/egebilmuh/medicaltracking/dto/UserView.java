@@ -0,0 +1,94 @@
+package com.egebilmuh.medicaltracking.dto;
+
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kullanıcı Görünümü (Slim User DTO)
+ *
+ * Entity'leri API yanıtı için sade bir Map'e dönüştürür.
+ * Şifre hash'i hiçbir koşulda yanıta eklenmez.
+ *
+ * İstemci ?fields=userId,email,name gibi bir parametre ile sadece
+ * ihtiyaç duyduğu alanları seçebilir; parametre verilmezse tüm
+ * izinli alanlar döndürülür.
+ */
+public final class UserView {
+
+    /**
+     * Yanıtta yer alabilecek alanlar (password bilerek listede yok)
+     */
+    public static final Set<String> ALLOWED_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "userId", "email", "role", "name", "surname", "birthDate", "phoneNo", "specialty", "availability")));
+
+    private UserView() {
+    }
+
+    /**
+     * ?fields= Parametresini Ayrıştırma
+     *
+     * @param fields Virgülle ayrılmış alan listesi (null veya boş ise tüm alanlar)
+     * @return Set<String> - Seçilen alanlar
+     * @throws IllegalArgumentException Bilinmeyen bir alan istenirse
+     */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALLOWED_FIELDS;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED_FIELDS.contains(trimmed)) {
+                throw new IllegalArgumentException("Bilinmeyen alan: " + trimmed);
+            }
+            selected.add(trimmed);
+        }
+        return selected.isEmpty() ? ALLOWED_FIELDS : selected;
+    }
+
+    /**
+     * Kullanıcıyı Seçilen Alanlarla Map'e Çevirme
+     *
+     * @param user Dönüştürülecek kullanıcı (Doctor veya Patient olabilir)
+     * @param fields Yanıta eklenecek alanlar
+     * @return Map<String, Object> - JSON'a serialize edilecek sade görünüm
+     */
+    public static Map<String, Object> of(User user, Set<String> fields) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        put(view, fields, "userId", user.getUserId());
+        put(view, fields, "email", user.getEmail());
+        put(view, fields, "role", user.getRole());
+
+        if (user instanceof Doctor doctor) {
+            put(view, fields, "name", doctor.getName());
+            put(view, fields, "surname", doctor.getSurname());
+            put(view, fields, "birthDate", doctor.getBirthDate());
+            put(view, fields, "phoneNo", doctor.getPhoneNo());
+            put(view, fields, "specialty", doctor.getSpecialty());
+            put(view, fields, "availability", doctor.isAvailability());
+        } else if (user instanceof Patient patient) {
+            put(view, fields, "name", patient.getName());
+            put(view, fields, "surname", patient.getSurname());
+            put(view, fields, "birthDate", patient.getBirthDate());
+            put(view, fields, "phoneNo", patient.getPhoneNo());
+        }
+        return view;
+    }
+
+    private static void put(Map<String, Object> view, Set<String> fields, String name, Object value) {
+        if (fields.contains(name)) {
+            view.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.egebilmuh.medicaltracking.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bellek İçi Yapıların Isınma Durumu (Cache Warm-up Health Indicator)
+ *
+ * Uygulamadaki tüm WarmupAware bean'lerini toplar. Herhangi biri henüz
+ * doldurulmamışsa instance OUT_OF_SERVICE olarak raporlanır.
+ *
+ * Readiness grubunda "cacheWarmup" adıyla yer alır.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final List<WarmupAware> components;
+
+    public CacheWarmupHealthIndicator(List<WarmupAware> components) {
+        this.components = components;
+    }
+
+    @Override
+    public Health health() {
+        boolean allWarm = true;
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (WarmupAware component : components) {
+            boolean warm = component.isWarm();
+            details.put(component.warmupName(), warm ? "WARM" : "WARMING_UP");
+            allWarm &= warm;
+        }
+        return (allWarm ? Health.up() : Health.outOfService()).withDetails(details).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.egebilmuh.medicaltracking.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bağlantı Havuzu Doluluk Kontrolü (Connection Pool Saturation)
+ *
+ * Hikari havuzunun sayaçlarını okur (I/O yapmaz, sabit maliyetlidir).
+ * Tüm bağlantılar kullanımdayken bağlantı bekleyen thread varsa havuz
+ * doymuş kabul edilir ve instance OUT_OF_SERVICE olarak işaretlenir;
+ * load balancer yeni trafiği diğer node'lara yönlendirir.
+ *
+ * Readiness grubunda "connectionPool" adıyla yer alır.
+ */
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private final List<DataSource> dataSources;
+
+    public ConnectionPoolHealthIndicator(List<DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public Health health() {
+        Status status = Status.UP;
+        Map<String, Object> pools = new LinkedHashMap<>();
+
+        for (DataSource dataSource : dataSources) {
+            HikariDataSource hikari = unwrap(dataSource);
+            if (hikari == null || hikari.getHikariPoolMXBean() == null) {
+                continue; // Havuz henüz başlatılmadı veya Hikari değil
+            }
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            int active = pool.getActiveConnections();
+            int max = hikari.getMaximumPoolSize();
+            int waiting = pool.getThreadsAwaitingConnection();
+            boolean saturated = active >= max && waiting > 0;
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("active", active);
+            details.put("idle", pool.getIdleConnections());
+            details.put("max", max);
+            details.put("threadsAwaiting", waiting);
+            details.put("saturated", saturated);
+            pools.put(hikari.getPoolName(), details);
+
+            if (saturated) {
+                status = Status.OUT_OF_SERVICE;
+            }
+        }
+        return Health.status(status).withDetails(pools).build();
+    }
+
+    private HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            if (dataSource instanceof HikariDataSource hikari) {
+                return hikari;
+            }
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            // Unwrap desteklenmiyorsa bu kaynak atlanır
+        }
+        return null;
+    }
+}
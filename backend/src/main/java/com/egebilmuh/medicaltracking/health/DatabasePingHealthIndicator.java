@@ -0,0 +1,122 @@
+package com.egebilmuh.medicaltracking.health;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Veritabanı Ping Kontrolü (Database Ping Health Indicator)
+ *
+ * Ping arka planda sabit aralıklarla Connection.isValid(timeout) ile yapılır;
+ * probe isteği sadece son sonucu okur. Böylece load balancer ne kadar sık
+ * sorarsa sorsun veritabanına giden yük sabit kalır ve probe yanıtı
+ * veritabanını beklemez.
+ *
+ * Ping kendi thread'inde çalışır: havuz doluyken getConnection()
+ * Hikari'nin connectionTimeout süresi kadar bekleyebilir; bu bekleme
+ * zamanlanmış diğer işleri (hatırlatıcı, replika heartbeat) durdurmaz.
+ * Önceki ping bitmediyse yenisi başlatılmaz. Son başarılı sonuç
+ * medicaltracking.health.db-ping-max-age-ms'ten eskiyse DOWN döner;
+ * takılan ping readiness'i UP bırakmaz.
+ *
+ * Readiness grubunda "databasePing" adıyla yer alır.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabasePingHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+
+    @Value("${medicaltracking.health.db-ping-timeout-seconds:1}")
+    private int pingTimeoutSeconds;
+
+    @Value("${medicaltracking.health.db-ping-max-age-ms:6000}")
+    private long maxAgeMillis;
+
+    private final ExecutorService pingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-ping");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    /**
+     * Son ping sonucu - sadece ping thread'i yazar, probe'lar okur
+     */
+    private volatile PingResult lastResult = PingResult.notYetChecked();
+
+    @Override
+    public Health health() {
+        PingResult result = lastResult;
+        if (result.checkedAt() != null
+                && Duration.between(result.checkedAt(), Instant.now()).toMillis() > maxAgeMillis) {
+            return Health.down()
+                    .withDetail("checkedAt", result.checkedAt())
+                    .withDetail("error", "Son ping " + maxAgeMillis + " ms'ten eski (ping takıldı veya çalışmıyor)")
+                    .build();
+        }
+        Health.Builder builder = result.ok() ? Health.up() : Health.down();
+        builder.withDetail("checkedAt", result.checkedAt())
+                .withDetail("latencyMicros", result.latencyMicros());
+        if (result.error() != null) {
+            builder.withDetail("error", result.error());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Zamanlanmış Ping
+     *
+     * Bağlantı havuzundan bir bağlantı alıp isValid ile doğrular.
+     * Timeout medicaltracking.health.db-ping-timeout-seconds ile ayarlanır.
+     * Scheduler thread'i sadece işi ping thread'ine verir, beklemez.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.health.db-ping-interval-ms:2000}")
+    public void ping() {
+        if (!inFlight.compareAndSet(false, true)) {
+            return; // Önceki ping hâlâ bağlantı bekliyor; sonuç eskiyince health() DOWN döner
+        }
+        pingExecutor.execute(() -> {
+            try {
+                check();
+            } finally {
+                inFlight.set(false);
+            }
+        });
+    }
+
+    private void check() {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid(pingTimeoutSeconds);
+            lastResult = new PingResult(valid, Instant.now(), (System.nanoTime() - start) / 1_000,
+                    valid ? null : "Bağlantı doğrulanamadı");
+        } catch (Exception e) {
+            lastResult = new PingResult(false, Instant.now(), (System.nanoTime() - start) / 1_000, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pingExecutor.shutdownNow();
+    }
+
+    private record PingResult(boolean ok, Instant checkedAt, long latencyMicros, String error) {
+
+        static PingResult notYetChecked() {
+            return new PingResult(false, null, 0, "Henüz ping atılmadı");
+        }
+    }
+}
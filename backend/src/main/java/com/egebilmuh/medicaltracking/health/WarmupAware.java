@@ -0,0 +1,21 @@
+package com.egebilmuh.medicaltracking.health;
+
+/**
+ * Isınma Durumu Bildiren Bileşen (Warm-up Aware Component)
+ *
+ * Başlangıçta veritabanından doldurulan bellek içi yapılar (cache, filtre vs.)
+ * bu interface'i implement eder. Hepsi hazır olana kadar readiness probe
+ * OUT_OF_SERVICE döner ve load balancer trafiği yönlendirmez.
+ */
+public interface WarmupAware {
+
+    /**
+     * Health yanıtında görünecek isim
+     */
+    String warmupName();
+
+    /**
+     * @return boolean - Yapı doldurulmuş ve kullanıma hazırsa true
+     */
+    boolean isWarm();
+}
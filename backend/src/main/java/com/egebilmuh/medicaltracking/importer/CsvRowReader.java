@@ -0,0 +1,112 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV Okuyucu (RFC 4180)
+ *
+ * İlk kayıt başlık satırıdır, sütunlar adla eşlenir. Tırnaklı alanlar
+ * virgül, çift tırnak ("") ve satır sonu içerebilir; boş satırlar atlanır.
+ */
+class CsvRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private List<String> header;
+    private long line = 1;
+    private long recordLine;
+    private boolean eof;
+
+    CsvRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Row next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            // Excel'in eklediği UTF-8 BOM ilk sütun adına yapışmasın
+            header = names.stream().map(name -> name == null ? "" : name.replace("\uFEFF", "").trim()).toList();
+        }
+        List<String> values = readRecord();
+        if (values == null) {
+            return null;
+        }
+        if (values.size() != header.size()) {
+            return new Row(recordLine, Map.of(), "Sütun sayısı başlıkla uyuşmuyor (" + values.size()
+                    + " / " + header.size() + ")");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new Row(recordLine, fields, null);
+    }
+
+    /**
+     * Tek Kayıt Okuma
+     *
+     * @return List<String> - Alan değerleri (boş alan null); girdi bittiyse null
+     */
+    private List<String> readRecord() throws IOException {
+        while (!eof) {
+            recordLine = line;
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    eof = true;
+                    break;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    values.add(value(field, wasQuoted));
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (values.isEmpty() && field.isEmpty() && !wasQuoted) {
+                continue; // Boş satır
+            }
+            values.add(value(field, wasQuoted));
+            return values;
+        }
+        return null;
+    }
+
+    private static String value(StringBuilder field, boolean wasQuoted) {
+        return field.isEmpty() && !wasQuoted ? null : field.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * İçe Aktarma Satır Okuyucu (CSV / NDJSON)
+ *
+ * Girdi akıştan satır satır okunur, dosyanın tamamı belleğe alınmaz.
+ * Her kayıt alan adı → değer haritası olarak döner; bozuk kayıt okumayı
+ * durdurmaz, hatasıyla birlikte döner.
+ */
+public interface ImportRowReader {
+
+    String CSV = "text/csv";
+    String NDJSON = "application/x-ndjson";
+
+    /**
+     * Okunan Kayıt
+     *
+     * @param line Kaydın girdideki (1'den başlayan) satır numarası
+     * @param fields Alan adı → değer (boş alanlar null)
+     * @param error Kayıt ayrıştırılamadıysa hata mesajı, aksi halde null
+     */
+    record Row(long line, Map<String, String> fields, String error) {
+    }
+
+    /**
+     * @return Row - Sonraki kayıt; girdi bittiyse null
+     */
+    Row next() throws IOException;
+
+    /**
+     * İçerik Tipine Göre Okuyucu
+     *
+     * @throws IllegalArgumentException İçerik tipi CSV veya NDJSON değilse
+     */
+    static ImportRowReader forContentType(String contentType, Reader reader, ObjectMapper objectMapper) {
+        String mediaType = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        BufferedReader buffered = new BufferedReader(reader);
+        return switch (mediaType) {
+            case CSV -> new CsvRowReader(buffered);
+            case NDJSON, "application/jsonl" -> new NdjsonRowReader(buffered, objectMapper);
+            default -> throw new IllegalArgumentException("Desteklenmeyen içerik tipi: " + contentType);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NDJSON Okuyucu (satır başına bir JSON nesnesi)
+ *
+ * Boş satırlar atlanır; nesne olmayan veya ayrıştırılamayan satır hata
+ * olarak döner, sonraki satırlar okunmaya devam eder.
+ */
+class NdjsonRowReader implements ImportRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return new Row(line, Map.of(), "Geçersiz JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new Row(line, Map.of(), "Satır bir JSON nesnesi olmalı");
+        }
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(entry ->
+                fields.put(entry.getKey(), entry.getValue().isNull() ? null : entry.getValue().asText()));
+        return new Row(line, fields, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Boyutu Sınırlı Girdi Akışı (içe aktarma gövdesi)
+ *
+ * Content-Length bilinmeyen (chunked) isteklerde de gövde en fazla
+ * maxBytes kadar okunur; sınır aşılınca okuma IOException ile kesilir.
+ */
+public final class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long read;
+
+    public SizeLimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false; // reset() sayacı geri almaz
+    }
+
+    private void count(long n) throws IOException {
+        read += n;
+        if (read > maxBytes) {
+            throw new IOException("İçe aktarma dosyası " + maxBytes + " bayt sınırını aşıyor");
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.repository.UserRepository;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
+import com.egebilmuh.medicaltracking.service.EmailBloomFilter;
+import com.egebilmuh.medicaltracking.service.ProfileService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Toplu Doktor / Hasta İçe Aktarma (User Import)
+ *
+ * Klinik açılışında kişi başına /user/registerDoctor çağırmak yerine tek
+ * CSV veya NDJSON akışı. Satırlar okunurken parça parça (chunk-size)
+ * işlenir:
+ * 1. Satır doğrulanır; dosya içinde tekrar eden e-posta reddedilir
+ * 2. Kayıtlı e-postalar parça başına tek sorguyla bulunur (bloom filtresinin
+ *    kesinlikle yeni dediği e-postalar sorguya girmez)
+ * 3. Şifreler hash thread havuzunda paralel hash'lenir; bir parça yazılırken
+ *    sonraki parçanın hash'leri hesaplanır
+ * 4. Parça tek transaction'da persist edilir. User ID'leri user_seq'ten
+ *    bloklar halinde geldiği için user, doctor/patient ve profil INSERT'leri
+ *    JDBC batch olarak gider (hibernate.jdbc.batch_size)
+ *
+ * Parça yazılırken başka yoldan aynı e-posta kaydedildiyse (uk_user_email)
+ * parça satır satır tekrar yazılır; sadece çakışan satır hata olur.
+ *
+ * İstek open-in-view ile geldiğinde istek thread'ine bağlı EntityManager
+ * istek boyunca açıktır ve başka kodla paylaşılır; ona yazılan entity'ler
+ * commit sonrası da context'te kalırdı. Parçalar bu yüzden ayrı (sanal)
+ * thread'de yazılır: her transaction kendi EntityManager'ını açar ve
+ * commit / rollback ile kapatır, istek context'ine dokunulmaz. Bellek ve
+ * flush maliyeti dosya boyuna değil parça boyuna bağlıdır.
+ *
+ * Girdi en fazla max-rows satırdır (dosya içi tekrar kontrolü için tutulan
+ * e-posta kümesi de bununla sınırlıdır); aşılırsa okuma durur, o ana kadar
+ * yazılan parçalar kalır. Gövde boyutu sınırı (max-bytes) controller'da
+ * uygulanır. Satır hataları ve parça sonu ilerlemesi Listener'a bildirilir.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    /**
+     * Satır Hatası
+     *
+     * @param line Girdideki satır numarası
+     * @param email Satırın e-postası (okunabildiyse)
+     */
+    public record RowError(long line, String email, String message) {
+    }
+
+    /**
+     * İlerleme (toplam, o ana kadar)
+     */
+    public record Progress(long processed, long imported, long failed) {
+    }
+
+    public interface Listener {
+        void error(RowError error);
+
+        void progress(Progress progress);
+    }
+
+    private final UserRepository userRepository;
+    private final ProfileService profileService;
+    private final DoctorAvailabilityService availabilityService;
+    private final EmailBloomFilter emailFilter;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Counter importedRows;
+    private final Counter failedRows;
+    private final ExecutorService hashExecutor;
+    private final ExecutorService writeExecutor;
+    private final int chunkSize;
+    private final long maxRows;
+    private final long maxBytes;
+
+    public UserImportService(UserRepository userRepository, ProfileService profileService,
+                             DoctorAvailabilityService availabilityService, EmailBloomFilter emailFilter,
+                             PasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+                             EntityManager entityManager, MeterRegistry meterRegistry,
+                             @Value("${medicaltracking.import.chunk-size:500}") int chunkSize,
+                             @Value("${medicaltracking.import.hash-threads:0}") int hashThreads,
+                             @Value("${medicaltracking.import.max-rows:100000}") long maxRows,
+                             @Value("${medicaltracking.import.max-bytes:52428800}") long maxBytes) {
+        this.userRepository = userRepository;
+        this.profileService = profileService;
+        this.availabilityService = availabilityService;
+        this.emailFilter = emailFilter;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.importedRows = meterRegistry.counter("medicaltracking.import.rows", "outcome", "imported");
+        this.failedRows = meterRegistry.counter("medicaltracking.import.rows", "outcome", "failed");
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        // Eşzamanlı içe aktarmalar aynı havuzu paylaşır; BCrypt en fazla bu kadar çekirdek kullanır
+        this.hashExecutor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-hash-", 0).daemon().factory());
+        // Parça başına bir sanal thread: istek thread'ine bağlı EntityManager'ı görmez
+        this.writeExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-import-write-", 0).factory());
+    }
+
+    /**
+     * @return long - İçe aktarma gövdesinin en fazla bayt sayısı
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Akıştan Kullanıcı İçe Aktarma
+     *
+     * @param reader CSV veya NDJSON satır okuyucu
+     * @param defaultRole Satırda role alanı yoksa kullanılacak rol (null olabilir)
+     * @param listener Satır hataları ve parça sonu ilerlemesi
+     * @return Progress - Son durum
+     * @throws IllegalStateException Girdi max-rows satırı aşarsa (önceki parçalar yazılmış kalır)
+     */
+    public Progress importUsers(ImportRowReader reader, User.Role defaultRole, Listener listener) throws IOException {
+        Tally tally = new Tally();
+        Set<String> seenEmails = new HashSet<>();
+        Chunk pending = null;
+        Chunk chunk;
+        while ((chunk = readChunk(reader, defaultRole, seenEmails, tally, listener)) != null) {
+            chunk.startHashing();
+            if (pending != null) {
+                write(pending, tally, listener);
+            }
+            pending = chunk;
+        }
+        if (pending != null) {
+            write(pending, tally, listener);
+        }
+        log.info("Kullanıcı içe aktarma bitti: {} satır, {} eklendi, {} hatalı",
+                tally.processed, tally.imported, tally.failed);
+        return tally.progress();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+    }
+
+    /**
+     * En Fazla chunk-size Satır Okuma ve Doğrulama
+     *
+     * @return Chunk - Yazılacak adaylar (boş olabilir); girdi bittiyse null
+     */
+    private Chunk readChunk(ImportRowReader reader, User.Role defaultRole, Set<String> seenEmails,
+                            Tally tally, Listener listener) throws IOException {
+        List<Candidate> candidates = new ArrayList<>();
+        int read = 0;
+        ImportRowReader.Row row;
+        while (read < chunkSize && (row = reader.next()) != null) {
+            if (tally.processed >= maxRows) {
+                throw new IllegalStateException("En fazla " + maxRows + " satır içe aktarılabilir (satır "
+                        + row.line() + ")");
+            }
+            read++;
+            tally.processed++;
+            String email = User.normalizeEmail(blankToNull(row.fields().get("email")));
+            try {
+                if (row.error() != null) {
+                    throw new IllegalArgumentException(row.error());
+                }
+                Candidate candidate = toCandidate(row, email, defaultRole);
+                if (!seenEmails.add(email)) {
+                    throw new IllegalArgumentException("E-posta dosyada birden fazla kez var");
+                }
+                candidates.add(candidate);
+            } catch (IllegalArgumentException e) {
+                reject(tally, listener, new RowError(row.line(), email, e.getMessage()));
+            } catch (DateTimeParseException e) {
+                reject(tally, listener, new RowError(row.line(), email, "Geçersiz doğum tarihi (YYYY-MM-DD)"));
+            }
+        }
+        if (read == 0) {
+            return null;
+        }
+
+        Set<String> existing = existingEmails(candidates);
+        List<Candidate> fresh = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (existing.contains(candidate.user.getEmail())) {
+                reject(tally, listener, new RowError(candidate.line, candidate.user.getEmail(),
+                        "Kullanıcı zaten mevcut"));
+            } else {
+                fresh.add(candidate);
+            }
+        }
+        return new Chunk(fresh);
+    }
+
+    private Candidate toCandidate(ImportRowReader.Row row, String email, User.Role defaultRole) {
+        Map<String, String> fields = row.fields();
+        String roleText = blankToNull(fields.get("role"));
+        User.Role role = roleText != null
+                ? parse(User.Role.class, roleText.trim().toUpperCase(Locale.ROOT), "Geçersiz rol") : defaultRole;
+        if (role == null || role == User.Role.ADMIN) {
+            throw new IllegalArgumentException("Rol belirtilmeli (DOCTOR veya PATIENT)");
+        }
+        if (email == null) {
+            throw new IllegalArgumentException("E-posta adresi zorunludur");
+        }
+        String password = fields.get("password");
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("Şifre zorunludur");
+        }
+        String name = blankToNull(fields.get("name"));
+        String surname = blankToNull(fields.get("surname"));
+        String birthDateText = blankToNull(fields.get("birthDate"));
+        LocalDate birthDate = birthDateText == null ? null : LocalDate.parse(birthDateText.trim());
+        String phoneNo = blankToNull(fields.get("phoneNo"));
+
+        User user;
+        if (role == User.Role.DOCTOR) {
+            String specialty = blankToNull(fields.get("specialty"));
+            if (specialty == null) {
+                throw new IllegalArgumentException("Doktor için uzmanlık alanı zorunludur");
+            }
+            Doctor doctor = new Doctor();
+            doctor.setName(name);
+            doctor.setSurname(surname);
+            doctor.setBirthDate(birthDate);
+            doctor.setPhoneNo(phoneNo);
+            doctor.setSpecialty(parse(Doctor.Specialty.class, specialty.trim(), "Geçersiz uzmanlık alanı"));
+            doctor.setAvailability(true); // registerDoctor ile aynı: yeni doktor aktif başlar
+            user = doctor;
+        } else {
+            Patient patient = new Patient();
+            patient.setName(name);
+            patient.setSurname(surname);
+            patient.setBirthDate(birthDate);
+            patient.setPhoneNo(phoneNo);
+            user = patient;
+        }
+        user.setEmail(email);
+        user.setRole(role);
+        return new Candidate(row.line(), user, password);
+    }
+
+    private Set<String> existingEmails(List<Candidate> candidates) {
+        List<String> maybeTaken = candidates.stream()
+                .map(candidate -> candidate.user.getEmail())
+                .filter(email -> !emailFilter.isWarm() || emailFilter.mightContain(email))
+                .toList();
+        return maybeTaken.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(maybeTaken));
+    }
+
+    /**
+     * Parçayı Yazma
+     *
+     * Önce tek transaction'da toplu denenir; benzersizlik ihlalinde parça
+     * satır satır (ayrı transaction'larla) tekrar yazılır.
+     */
+    private void write(Chunk chunk, Tally tally, Listener listener) {
+        chunk.awaitHashes();
+        if (!chunk.candidates.isEmpty()) {
+            try {
+                persistAll(chunk.candidates);
+                chunk.candidates.forEach(candidate -> imported(candidate, tally));
+            } catch (PersistenceException | DataAccessException e) {
+                log.debug("Parça toplu yazılamadı, satır satır deneniyor: {}", e.getMessage());
+                for (Candidate candidate : chunk.candidates) {
+                    candidate.user.setUserId(0); // Geri alınan transaction'ın ID'si kullanılmaz
+                    try {
+                        persistAll(List.of(candidate));
+                        imported(candidate, tally);
+                    } catch (PersistenceException | DataAccessException rowFailure) {
+                        reject(tally, listener, new RowError(candidate.line, candidate.user.getEmail(),
+                                rowFailure instanceof ConstraintViolationException
+                                        || rowFailure instanceof DataIntegrityViolationException
+                                        ? "Kullanıcı zaten mevcut" : "Kaydedilemedi: " + rowFailure.getMessage()));
+                    }
+                }
+            }
+        }
+        listener.progress(tally.progress());
+    }
+
+    /**
+     * Adayları Tek Transaction'da, Yazma Thread'inde Kaydetme
+     *
+     * Transaction'ın EntityManager'ı commit / rollback ile kapanır; geri
+     * alınan transaction'ın entity'si satır satır tekrar denemede yeni
+     * EntityManager'a persist edilir.
+     */
+    private void persistAll(List<Candidate> candidates) {
+        try {
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                candidates.forEach(this::persist);
+                entityManager.flush(); // İhlal commit'te değil burada, çevrilmemiş haliyle yakalanır
+            }), writeExecutor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void persist(Candidate candidate) {
+        entityManager.persist(candidate.user);
+        profileService.insert(candidate.user);
+    }
+
+    private void imported(Candidate candidate, Tally tally) {
+        emailFilter.put(candidate.user.getEmail());
+        if (candidate.user instanceof Doctor doctor) {
+            availabilityService.register(doctor); // Booking yolu yeni doktoru hemen tanısın
+        }
+        tally.imported++;
+        importedRows.increment();
+    }
+
+    private void reject(Tally tally, Listener listener, RowError error) {
+        tally.failed++;
+        failedRows.increment();
+        listener.error(error);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String message) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message + ": " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private final class Chunk {
+        private final List<Candidate> candidates;
+        private List<CompletableFuture<String>> hashes;
+
+        private Chunk(List<Candidate> candidates) {
+            this.candidates = candidates;
+        }
+
+        void startHashing() {
+            hashes = candidates.stream()
+                    .map(candidate -> CompletableFuture.supplyAsync(
+                            () -> passwordEncoder.encode(candidate.password), hashExecutor))
+                    .toList();
+        }
+
+        void awaitHashes() {
+            for (int i = 0; i < candidates.size(); i++) {
+                candidates.get(i).user.setPassword(hashes.get(i).join());
+            }
+        }
+    }
+
+    private static final class Candidate {
+        private final long line;
+        private final User user;
+        private final String password;
+
+        private Candidate(long line, User user, String password) {
+            this.line = line;
+            this.user = user;
+            this.password = password;
+        }
+    }
+
+    private static final class Tally {
+        private long processed;
+        private long imported;
+        private long failed;
+
+        Progress progress() {
+            return new Progress(processed, imported, failed);
+        }
+    }
+}
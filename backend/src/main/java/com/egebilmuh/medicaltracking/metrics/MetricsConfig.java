@@ -0,0 +1,86 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrik Konfigürasyonu (Micrometer Configuration)
+ *
+ * Metrikler /actuator/prometheus üzerinden yayınlanır. Otomatik gelenler:
+ * - http.server.requests: endpoint + outcome bazlı gecikme histogramı
+ * - hikaricp.*: bağlantı havuzu gauge'ları
+ * - hibernate.*: Hibernate istatistikleri (generate_statistics=true)
+ *
+ * Bu sınıfta eklenenler:
+ * - TimedAspect: @Timed ile işaretli servislerin her metodu için timer
+ * - RequestStatistics: istek başına SQL ve entity yükleme sayaçları
+ * - DataSource proxy: SQL başına gecikme, satır sayısı ve repository kaynağı
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @Timed Anotasyonunu Etkinleştirme
+     *
+     * Servis sınıflarındaki @Timed("medicaltracking.service") her public
+     * metod için class + method etiketli timer üretir.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public RequestStatistics requestStatistics() {
+        return new RequestStatistics();
+    }
+
+    /**
+     * RequestStatistics'i Hibernate'e Statement Inspector ve Interceptor olarak bağlama
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer(RequestStatistics requestStatistics) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, requestStatistics);
+            properties.put(AvailableSettings.INTERCEPTOR, requestStatistics);
+        };
+    }
+
+    /**
+     * DataSource'u SQL Dinleyicisiyle Sarma
+     *
+     * Hikari havuzu datasource-proxy ile sarılır; her SQL ve ResultSet
+     * çağrısı SqlQueryListener'a bildirilir. Havuz metrikleri ve health
+     * indicator'lar unwrap ile HikariDataSource'a ulaşmaya devam eder.
+     *
+     * static: BeanPostProcessor diğer bean'lerden önce oluşturulmalı;
+     * listener ObjectProvider ile ilk DataSource sarılırken alınır.
+     */
+    @Bean
+    public static BeanPostProcessor sqlInstrumentationPostProcessor(ObjectProvider<SqlQueryListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlQueryListener sqlListener = listener.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(sqlListener)
+                        .methodListener(sqlListener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+}
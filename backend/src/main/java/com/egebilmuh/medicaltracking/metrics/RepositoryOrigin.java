@@ -0,0 +1,68 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL Kaynağı Takibi (Repository Origin Aspect)
+ *
+ * Her Spring Data repository çağrısını sarar ve çağrı süresince mevcut
+ * thread'e "UserRepository.findUserByEmail" gibi bir etiket bağlar.
+ * SqlQueryListener çalışan her SQL'i bu etiketle kaydeder.
+ *
+ * Repository dışında çalışan SQL'ler (ör. lazy yüklenen ilişkiler)
+ * "unattributed" olarak görünür; N+1 sorunlarının çoğu burada çıkar.
+ */
+@Aspect
+@Component
+public class RepositoryOrigin {
+
+    static final String UNATTRIBUTED = "unattributed";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Proxy sınıfı → repository arayüzünün kısa adı
+     */
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    /**
+     * @return String - Aktif repository metodu, yoksa "unattributed"
+     */
+    public static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : UNATTRIBUTED;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (CURRENT.get() != null) {
+            return joinPoint.proceed(); // İç içe çağrıda en dıştaki repository metodu geçerli
+        }
+        CURRENT.set(repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                if (Repository.class.isAssignableFrom(candidate)
+                        && !candidate.getName().startsWith("org.springframework.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * İstek Başına SQL ve Entity Yükleme Metrikleri (Request Metrics Filter)
+ *
+ * Her HTTP isteği için RequestStatistics sayaçlarını başlatır ve istek
+ * bitince iki dağılım metriği kaydeder (endpoint pattern'i ile etiketli):
+ * - medicaltracking.request.statements   → istekte çalışan SQL sayısı
+ * - medicaltracking.request.entity.loads → istekte yüklenen entity sayısı
+ *
+ * Bir endpoint'in bu değerleri veri büyüdükçe artıyorsa (ör. tüm tabloyu
+ * tarayan bir listeleme) metrikten hemen görülür.
+ *
+ * Aynı SQL bir istekte medicaltracking.sql.repeated-statement-threshold
+ * kez veya daha fazla çalıştıysa (tipik N+1: döngüde lazy ilişki yükleme)
+ * istek uyarı olarak loglanır ve medicaltracking.request.repeated.statements
+ * sayacı artırılır.
+ */
+@Slf4j
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatedStatementThreshold;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${medicaltracking.sql.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatistics.Counters counters = RequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("medicaltracking.request.statements")
+                    .description("Bir HTTP isteğinde çalışan SQL sayısı")
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(counters.statements());
+            DistributionSummary.builder("medicaltracking.request.entity.loads")
+                    .description("Bir HTTP isteğinde yüklenen entity sayısı")
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(counters.entityLoads());
+
+            if (counters.mostRepeatedCount() >= repeatedStatementThreshold) {
+                meterRegistry.counter("medicaltracking.request.repeated.statements", "uri", uri).increment();
+                log.warn("Olası N+1: {} {} isteğinde aynı SQL {} kez çalıştı: {}",
+                        request.getMethod(), uri, counters.mostRepeatedCount(), counters.mostRepeatedSql());
+            }
+        }
+    }
+}
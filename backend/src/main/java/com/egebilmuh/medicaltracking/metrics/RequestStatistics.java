@@ -0,0 +1,107 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * İstek Başına Hibernate Sayaçları (Per-Request Hibernate Statistics)
+ *
+ * Hibernate'in global istatistikleri tüm uygulamanın toplamını verir;
+ * "bu istek kaç SQL çalıştırdı, kaç entity yükledi" sorusunu yanıtlamaz.
+ * Bu sınıf istek thread'ine bağlı sayaçlar tutar:
+ * - StatementInspector: her SQL hazırlanmadan önce çağrılır → statements
+ *   ve aynı parametreli SQL'in tekrar sayısı (N+1 tespiti için)
+ * - Interceptor.onLoad: her entity yüklendiğinde çağrılır → entityLoads
+ *
+ * Sayaçlar sadece RequestMetricsFilter bir istek başlattığında aktiftir;
+ * zamanlanmış işler gibi istek dışı thread'lerde hiçbir şey sayılmaz.
+ */
+public class RequestStatistics implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Mevcut thread için yeni sayaç başlatma (istek başında)
+     */
+    public static Counters begin() {
+        Counters counters = new Counters();
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    /**
+     * Mevcut thread'in sayaçlarını kapatma (istek sonunda)
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return Counters - Aktif istek yoksa null
+     */
+    public static Counters current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.record(sql);
+        }
+        return sql; // SQL değiştirilmez
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entityLoads++;
+        }
+        return false; // Entity state değiştirilmedi
+    }
+
+    /**
+     * Tek isteğin sayaçları (sadece sahibi olan thread yazar)
+     */
+    public static final class Counters {
+        private int statements;
+        private int entityLoads;
+        private final Map<String, Integer> repeats = new HashMap<>();
+        private String mostRepeatedSql;
+        private int mostRepeatedCount;
+
+        private void record(String sql) {
+            statements++;
+            // Hibernate SQL'i parametreleri "?" olarak verir: aynı metin = aynı sorgu şekli
+            int count = repeats.merge(sql, 1, Integer::sum);
+            if (count > mostRepeatedCount) {
+                mostRepeatedCount = count;
+                mostRepeatedSql = sql;
+            }
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public int entityLoads() {
+            return entityLoads;
+        }
+
+        /**
+         * @return String - İstekte en çok tekrarlanan SQL (yoksa null)
+         */
+        public String mostRepeatedSql() {
+            return mostRepeatedSql;
+        }
+
+        public int mostRepeatedCount() {
+            return mostRepeatedCount;
+        }
+    }
+}
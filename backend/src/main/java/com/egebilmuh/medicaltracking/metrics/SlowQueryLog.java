@@ -0,0 +1,77 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Asenkron Yavaş Sorgu Logu (Slow / Sampled Query Log)
+ *
+ * spring.jpa.show-sql her SQL'i istek thread'inde senkron olarak stdout'a
+ * yazar. Bunun yerine sadece eşiği aşan sorgular ve kalanların küçük bir
+ * örneği sınırlı bir kuyruğa atılır; log yazımı zamanlanmış thread'de yapılır.
+ *
+ * Kuyruk doluysa kayıt atılır ve medicaltracking.sql.log.dropped artırılır;
+ * istek thread'i log yüzünden asla beklemez.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+    private final BlockingQueue<SqlQueryListener.QuerySample> queue;
+    private final Counter dropped;
+
+    public SlowQueryLog(MeterRegistry meterRegistry,
+                        @Value("${medicaltracking.sql.slow-threshold-ms:200}") long slowThresholdMillis,
+                        @Value("${medicaltracking.sql.sample-rate:0.01}") double sampleRate,
+                        @Value("${medicaltracking.sql.log-queue-capacity:10000}") int queueCapacity) {
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = Counter.builder("medicaltracking.sql.log.dropped")
+                .description("Kuyruk dolu olduğu için yazılmayan SQL log kayıtları")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sorguyu Loglanmak Üzere Kuyruğa Alma (yavaşsa veya örneklendiyse)
+     */
+    void submit(SqlQueryListener.QuerySample sample) {
+        boolean slow = sample.elapsedMillis >= slowThresholdMillis;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (!queue.offer(sample)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Kuyruğu Boşaltıp Loglama
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.sql.log-flush-interval-ms:1000}")
+    public void flush() {
+        List<SqlQueryListener.QuerySample> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        for (SqlQueryListener.QuerySample sample : batch) {
+            if (sample.elapsedMillis >= slowThresholdMillis) {
+                log.warn("Yavaş SQL {} ms, {} satır, kaynak={}, başarılı={}: {}",
+                        sample.elapsedMillis, sample.rows, sample.origin, sample.success, sample.sql);
+            } else {
+                log.info("Örnek SQL {} ms, {} satır, kaynak={}: {}",
+                        sample.elapsedMillis, sample.rows, sample.origin, sample.sql);
+            }
+        }
+    }
+}
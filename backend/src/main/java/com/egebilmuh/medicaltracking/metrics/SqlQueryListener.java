@@ -0,0 +1,139 @@
+package com.egebilmuh.medicaltracking.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL Gecikme, Satır Sayısı ve Kaynak Kaydı (Query Execution Listener)
+ *
+ * Proxy DataSource üzerinden çalışan her SQL için:
+ * - medicaltracking.sql.query timer'ı (origin + type etiketli)
+ * - medicaltracking.sql.rows dağılımı (okunan/etkilenen satır)
+ * - SlowQueryLog'a yavaş veya örneklenmiş sorgu kaydı
+ *
+ * SELECT'lerde satır sayısı sorgu çalıştığında bilinmez; ResultSet.next()
+ * çağrıları sayılır ve kayıt ResultSet kapanınca (veya aynı thread'de bir
+ * sonraki sorgu başladığında) tamamlanır.
+ */
+@Component
+public class SqlQueryListener implements QueryExecutionListener, MethodExecutionListener {
+
+    /**
+     * Mevcut thread'de satırları henüz okunan SELECT
+     */
+    private static final ThreadLocal<QuerySample> OPEN_SELECT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlQueryListener(MeterRegistry meterRegistry, SlowQueryLog slowQueryLog) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        finishOpenSelect();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        QuerySample sample = new QuerySample(sql, RepositoryOrigin.current(), execInfo.getElapsedTime(),
+                execInfo.isSuccess());
+        Object result = execInfo.getResult();
+        if (result instanceof ResultSet) {
+            OPEN_SELECT.set(sample);
+            return;
+        }
+        sample.rows = affectedRows(result);
+        finish(sample, "write");
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)) {
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        if ("next".equals(method)) {
+            QuerySample sample = OPEN_SELECT.get();
+            if (sample != null && Boolean.TRUE.equals(executionContext.getResult())) {
+                sample.rows++;
+            }
+        } else if ("close".equals(method)) {
+            finishOpenSelect();
+        }
+    }
+
+    private void finishOpenSelect() {
+        QuerySample sample = OPEN_SELECT.get();
+        if (sample != null) {
+            OPEN_SELECT.remove();
+            finish(sample, "select");
+        }
+    }
+
+    private void finish(QuerySample sample, String type) {
+        Timer.builder("medicaltracking.sql.query")
+                .description("SQL çalışma süresi")
+                .tag("origin", sample.origin)
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(sample.elapsedMillis, TimeUnit.MILLISECONDS);
+        DistributionSummary.builder("medicaltracking.sql.rows")
+                .description("SQL başına okunan veya etkilenen satır sayısı")
+                .tag("origin", sample.origin)
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(Math.max(sample.rows, 0));
+        slowQueryLog.submit(sample);
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Number count) {
+            return count.longValue();
+        }
+        if (result instanceof int[] counts) { // executeBatch
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return -1; // execute() gibi satır sayısı vermeyen çağrılar
+    }
+
+    /**
+     * Tek SQL çalıştırmasının kaydı
+     */
+    static final class QuerySample {
+        final String sql;
+        final String origin;
+        final long elapsedMillis;
+        final boolean success;
+        long rows;
+
+        QuerySample(String sql, String origin, long elapsedMillis, boolean success) {
+            this.sql = sql;
+            this.origin = origin;
+            this.elapsedMillis = elapsedMillis;
+            this.success = success;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.egebilmuh.medicaltracking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,12 +20,21 @@ import java.time.LocalDateTime;
  * - Patient ile Many-to-One ilişki (Bir hastanın birçok randevusu olabilir)
  *
  * @ManyToOne anotasyonu ile foreign key ilişkileri tanımlanır.
+ * @Table - (status, appointmentDateTime) ve (status, createdAt) index'leri:
+ *          duruma göre tarih aralığı sorguları (hatırlatıcı, bekleyen randevu süresi)
+ *          (doctor, appointmentDateTime, activeSlot) benzersizliği: çift rezervasyona
+ *          karşı veritabanı koruması (iptal edilen randevu saati boşaltır)
  */
 @Getter // Lombok: Tüm field'lar için getter metodları oluşturur
 @Setter // Lombok: Tüm field'lar için setter metodları oluşturur
 @NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
 @AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
 @Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(indexes = {
+        @Index(name = "idx_appointment_status_time", columnList = "status, appointmentDateTime"),
+        @Index(name = "idx_appointment_status_created", columnList = "status, createdAt")},
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_active_slot",
+                columnNames = {"doctor_user_id", "appointment_date_time", "active_slot"}))
 public class Appointment {
     
     /**
@@ -89,11 +99,44 @@ public class Appointment {
     private LocalDateTime appointmentDateTime;
 
     /**
-     * Doktor Notu
+     * Randevu Talebinin Oluşturulma Zamanı
      * 
-     * Doktorun randevu ile ilgili yazdığı not.
-     * Tanı, tedavi önerileri veya genel notlar içerebilir.
+     * PENDING randevunun onay süresi buradan hesaplanır (PendingExpiryService).
      */
-    private String doctorNote;
+    private LocalDateTime createdAt;
+
+    /**
+     * Doktor Notu Var mı?
+     * 
+     * Not metni ve sürümleri AppointmentNote tablosundadır; randevu satırı
+     * ve liste yanıtları sadece bu bayrağı taşır.
+     */
+    private boolean hasNote;
+
+    /**
+     * Sahiplenilen Son Hatırlatmanın Zamanı (randevu saati - offset)
+     * 
+     * Sadece ReminderScheduler'ın sahiplenme UPDATE'i yazar; entity
+     * kaydedilirken eski değer geri yazılmasın diye güncellenemez.
+     */
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime remindedAt;
+
+    /**
+     * Aktif Randevu İşareti (veritabanı hesaplar)
+     * 
+     * İptal edilmemiş randevuda 1, iptal edilende NULL. Benzersiz index'te
+     * NULL değerler çakışmaz: aynı doktora aynı saatte tek aktif randevu
+     * olabilir, iptal edilenler sınırsızdır. Kontrol-sonra-ekle yarışında
+     * ikinci INSERT bu index'e takılır.
+     * 
+     * Byte: JDBC tipi TINYINT olur; ddl-auto=validate sütunu columnDefinition
+     * metniyle değil tip koduyla eşleştirir (Integer INTEGER bekler).
+     */
+    @JsonIgnore
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "TINYINT GENERATED ALWAYS AS (CASE WHEN status <> 'CANCELLED' THEN 1 END)")
+    private Byte activeSlot;
 
 }
@@ -0,0 +1,67 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Günlük Randevu İstatistiği (Rollup)
+ *
+ * Doktor, randevu günü ve durum başına o an o durumda olan randevu sayısı.
+ * appointment tablosunun özetidir: satır sayısı randevu sayısına değil
+ * doktor × gün × durum sayısına bağlıdır. AppointmentStatistics bellekte
+ * biriken farkları periyodik olarak buraya ekler ve başlangıçta toplamları
+ * buradan okur.
+ *
+ * Satırlar AppointmentStatistics tarafından JdbcTemplate ile yazılır; entity
+ * sadece şemanın diğer tablolarla birlikte oluşturulması içindir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "appointment_daily_stats")
+@IdClass(AppointmentDailyStats.Key.class)
+public class AppointmentDailyStats {
+
+    @Id
+    private int doctorId;
+
+    /**
+     * Randevu Günü (appointmentDateTime'ın tarihi)
+     */
+    @Id
+    private LocalDate appointmentDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Appointment.AppointmentStatus status;
+
+    private long appointmentCount;
+
+    /**
+     * Birleşik Birincil Anahtar
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private int doctorId;
+        private LocalDate appointmentDate;
+        private Appointment.AppointmentStatus status;
+    }
+}
@@ -0,0 +1,57 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Randevu Notu Varlık Sınıfı (Appointment Note, sürümlü)
+ *
+ * Doktor notları randevu satırında değil bu tabloda tutulur: randevu
+ * listeleri not metnini hiç okumaz, sadece Appointment.hasNote bayrağını
+ * döner. Her kayıt yeni bir sürümdür; eski notların üzerine yazılmaz.
+ *
+ * Not geçmişi sadece /appointment/{id}/notes ile, istendiğinde yüklenir.
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
+@AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_appointment_note_version",
+        columnNames = {"appointmentId", "version"}))
+public class AppointmentNote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int noteId;
+
+    /**
+     * Notun Ait Olduğu Randevunun ID'si
+     *
+     * @ManyToOne yerine düz ID tutulur; not okunurken randevu yüklenmez.
+     */
+    private int appointmentId;
+
+    /**
+     * Not Sürümü (randevu başına 1'den başlar)
+     */
+    private int version;
+
+    /**
+     * Not Metni
+     *
+     * Tanı, tedavi önerileri veya genel notlar içerebilir.
+     */
+    @Lob
+    private String note;
+
+    /**
+     * Sürümün Kaydedildiği An
+     */
+    private LocalDateTime createdAt;
+}
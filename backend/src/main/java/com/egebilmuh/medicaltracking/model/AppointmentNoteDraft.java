@@ -0,0 +1,45 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Randevu Notu Taslağı Varlık Sınıfı (Appointment Note Draft)
+ *
+ * Doktor yazarken otomatik kaydedilen metin. Randevu başına tek satırdır
+ * ve her otomatik kayıtta üzerine yazılır; not sürümü (AppointmentNote)
+ * sadece doktor notu kaydettiğinde oluşur ve taslak silinir.
+ *
+ * Satırlar NoteAutosaveService tarafından toplu (batch) yazılır.
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
+@AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+public class AppointmentNoteDraft {
+
+    /**
+     * Taslağın Ait Olduğu Randevunun ID'si (randevu başına tek taslak)
+     */
+    @Id
+    private int appointmentId;
+
+    /**
+     * Taslak Metni
+     */
+    @Lob
+    private String note;
+
+    /**
+     * Son Otomatik Kaydın Alındığı An
+     */
+    private LocalDateTime updatedAt;
+}
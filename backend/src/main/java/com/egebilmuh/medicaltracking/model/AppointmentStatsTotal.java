@@ -0,0 +1,59 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Doktor Başına Randevu Toplamı (Rollup)
+ *
+ * Doktor ve durum başına o an o durumda olan randevu sayısı; aynı doktor ve
+ * durumdaki appointment_daily_stats satırlarının toplamıdır. Satır sayısı
+ * doktor × durum kadardır: AppointmentStatistics sayaçları periyodik olarak
+ * günlük tabloyu GROUP BY ile toplamak yerine buradan okur.
+ *
+ * Satırlar AppointmentStatistics tarafından günlük tabloyla aynı
+ * transaction'da JdbcTemplate ile yazılır; entity sadece şemanın diğer
+ * tablolarla birlikte oluşturulması içindir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "appointment_stats_total")
+@IdClass(AppointmentStatsTotal.Key.class)
+public class AppointmentStatsTotal {
+
+    @Id
+    private int doctorId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Appointment.AppointmentStatus status;
+
+    private long appointmentCount;
+
+    /**
+     * Birleşik Birincil Anahtar
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private int doctorId;
+        private Appointment.AppointmentStatus status;
+    }
+}
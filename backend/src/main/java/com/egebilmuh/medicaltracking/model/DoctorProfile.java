@@ -0,0 +1,62 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Doktor Profili Okuma Modeli (Doctor Profile Read Model)
+ *
+ * Doctor entity'si JOINED kalıtım kullandığı için her okuma 'user' ve
+ * 'doctor' tablolarını birleştirir. Bu sınıf doktor rehberi ve profil
+ * okumaları için denormalize edilmiş tek tabloyu ('doctor_profile') temsil eder.
+ *
+ * Önemli Özellikler:
+ * - Birincil anahtar Doctor.userId ile aynıdır (üretilmez, kopyalanır)
+ * - Şifre alanı yoktur, yanıt olarak doğrudan döndürülebilir
+ * - Yazma işlemlerinde ProfileService tarafından senkron tutulur
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA zorunlu tutar)
+@AllArgsConstructor // Lombok: Tüm field'ları parametre alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(name = "doctor_profile", indexes = @Index(name = "idx_doctor_profile_specialty", columnList = "specialty"))
+public class DoctorProfile {
+
+    /**
+     * Doktorun Kullanıcı ID'si (Doctor.userId ile aynı)
+     */
+    @Id
+    private int userId;
+
+    private String email;
+
+    private String name;
+
+    private String surname;
+
+    private LocalDate birthDate;
+
+    private String phoneNo;
+
+    @Enumerated(EnumType.STRING)
+    private Doctor.Specialty specialty;
+
+    private boolean availability;
+
+    /**
+     * Doctor Entity'sinden Profil Oluşturma
+     *
+     * @param doctor Kaynak doktor entity'si
+     * @return DoctorProfile - Aynı ID ile denormalize kopya
+     */
+    public static DoctorProfile from(Doctor doctor) {
+        return new DoctorProfile(doctor.getUserId(), doctor.getEmail(), doctor.getName(), doctor.getSurname(),
+                doctor.getBirthDate(), doctor.getPhoneNo(), doctor.getSpecialty(), doctor.isAvailability());
+    }
+}
@@ -0,0 +1,61 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Doktor İzin Aralığı Varlık Sınıfı (Doctor Unavailability Window)
+ *
+ * Doktorun belirli bir tarih aralığında (izin, kongre vs.) randevu kabul
+ * etmediğini belirtir. Doctor.availability genel açma/kapama anahtarıdır;
+ * bu tablo ise zamanlanmış kapanma aralıklarını tutar.
+ *
+ * Veritabanı kalıcı kopyadır; booking yolu DoctorAvailabilityService'in
+ * bellekteki kopyasına göre karar verir, kopya bu tablodan aralıklarla yüklenir.
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
+@AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(indexes = @Index(name = "idx_unavailability_doctor", columnList = "doctorId"))
+public class DoctorUnavailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int windowId;
+
+    /**
+     * İzin Aralığının Ait Olduğu Doktorun ID'si
+     *
+     * @ManyToOne yerine düz ID tutulur; aralık okunurken doktor yüklenmez.
+     */
+    private int doctorId;
+
+    /**
+     * İzin Başlangıç Tarihi (dahil)
+     */
+    private LocalDate startDate;
+
+    /**
+     * İzin Bitiş Tarihi (dahil)
+     */
+    private LocalDate endDate;
+
+    /**
+     * Açıklama (ör. "Yıllık izin")
+     */
+    private String reason;
+
+    /**
+     * Verilen tarih bu aralığın içinde mi?
+     */
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+}
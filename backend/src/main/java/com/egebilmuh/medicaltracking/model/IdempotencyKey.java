@@ -0,0 +1,52 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * İdempotency Anahtarı Varlık Sınıfı (Idempotency Key)
+ *
+ * Idempotency-Key başlığıyla yapılan randevu oluşturma isteğinin kalıcı
+ * kaydı. Satır randevu ile aynı transaction'da yazılır; birincil anahtar
+ * aynı anahtarla eşzamanlı gelen istekleri (farklı instance'lar dahil)
+ * sıraya sokar. Bellekteki kayıt düşse de tekrar deneme buradan yanıtlanır.
+ *
+ * Satırlar IdempotencyService tarafından JdbcTemplate ile yazılır.
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
+@AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(indexes = @Index(name = "idx_idempotency_key_created", columnList = "createdAt"))
+public class IdempotencyKey {
+
+    /**
+     * İstemcinin Gönderdiği Anahtar
+     */
+    @Id
+    @Column(length = 100)
+    private String idempotencyKey;
+
+    /**
+     * İstek Gövdesinin Özeti (aynı anahtar farklı istekle kullanılamaz)
+     */
+    @Column(length = 64, nullable = false)
+    private String fingerprint;
+
+    /**
+     * Oluşturulan Randevu (commit edilmiş satırda her zaman dolu)
+     */
+    private Integer appointmentId;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,54 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Hasta Profili Okuma Modeli (Patient Profile Read Model)
+ *
+ * Patient okumalarında 'user' ve 'patient' tablolarının JOIN edilmesini
+ * önlemek için tutulan denormalize tablo ('patient_profile').
+ *
+ * Birincil anahtar Patient.userId ile aynıdır; yazma işlemlerinde
+ * ProfileService tarafından senkron tutulur.
+ */
+@Getter // Lombok: Tüm field'lar için getter metodları oluşturur
+@Setter // Lombok: Tüm field'lar için setter metodları oluşturur
+@NoArgsConstructor // Lombok: Parametresiz constructor (JPA için zorunlu)
+@AllArgsConstructor // Lombok: Tüm parametreleri alan constructor
+@Entity // JPA anotasyonu: Bu sınıfın veritabanı entity'si olduğunu belirtir
+@Table(name = "patient_profile")
+public class PatientProfile {
+
+    /**
+     * Hastanın Kullanıcı ID'si (Patient.userId ile aynı)
+     */
+    @Id
+    private int userId;
+
+    private String email;
+
+    private String name;
+
+    private String surname;
+
+    private LocalDate birthDate;
+
+    private String phoneNo;
+
+    /**
+     * Patient Entity'sinden Profil Oluşturma
+     *
+     * @param patient Kaynak hasta entity'si
+     * @return PatientProfile - Aynı ID ile denormalize kopya
+     */
+    public static PatientProfile from(Patient patient) {
+        return new PatientProfile(patient.getUserId(), patient.getEmail(), patient.getName(),
+                patient.getSurname(), patient.getBirthDate(), patient.getPhoneNo());
+    }
+}
@@ -0,0 +1,40 @@
+package com.egebilmuh.medicaltracking.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Replikasyon Kalp Atışı (Replication Heartbeat)
+ *
+ * Tek satırlık tablo: ReplicaLagMonitor birincil veritabanında düzenli
+ * aralıklarla seq'i bir artırır ve aynı satırı replikadan okur. Replikada
+ * görünen seq, replikanın birincilin hangi kalp atışına kadar güncel
+ * olduğunu gösterir; X-Read-After başlığı da bu sıradır.
+ *
+ * Okuma/yazma ReplicaLagMonitor'da JDBC ile yapılır; entity sadece şemanın
+ * diğer tablolarla birlikte oluşturulması içindir.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class ReplicationHeartbeat {
+
+    @Id
+    private int heartbeatId;
+
+    /**
+     * Kalp Atışı Sırası (birincilde sadece artar)
+     */
+    private long seq;
+
+    /**
+     * Son kalp atışının yazıldığı an (epoch milisaniye, sadece bilgi amaçlı)
+     */
+    private long beatAt;
+}
@@ -1,10 +1,15 @@
 package com.egebilmuh.medicaltracking.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 /**
  * Kullanıcı Varlık Sınıfı (Entity Class)
@@ -15,6 +20,8 @@ import lombok.Setter;
  * Kullanılan Anotasyonlar:
  * @Entity - Bu sınıfın bir JPA entity olduğunu belirtir
  * @Inheritance - Kalıtım stratejisini belirler (JOINED = her sınıf için ayrı tablo)
+ * @Table - email sütununda benzersiz index (uk_user_email)
+ * @Cacheable / @Cache - İkinci seviye cache (Doctor ve Patient aynı bölgeyi paylaşır)
  * Lombok anotasyonları - Boilerplate kodları otomatik oluşturur
  */
 @Entity // JPA'ya bu sınıfın bir veritabanı entity'si olduğunu söyler
@@ -23,6 +30,9 @@ import lombok.Setter;
 @NoArgsConstructor // Lombok: Parametresiz constructor oluşturur (JPA için gerekli)
 @AllArgsConstructor // Lombok: Tüm parametreleri alan constructor oluşturur
 @Inheritance(strategy = InheritanceType.JOINED) // Kalıtım stratejisi: Her sınıf için ayrı tablo
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_user_email", columnNames = "email"))
+@Cacheable // Doctor/Patient nadiren değişir ama her randevu ilişkisinde tekrar yüklenir
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // JOINED hiyerarşide cache kök entity'de tanımlanır
 public class User {
     
     /**
@@ -30,31 +40,44 @@ public class User {
      * 
      * @Id - Bu field'ın birincil anahtar olduğunu belirtir
      * @GeneratedValue - Değerin otomatik üretileceğini belirtir
-     * IDENTITY stratejisi - Veritabanının auto-increment özelliğini kullanır
+     * SEQUENCE stratejisi - ID'ler user_seq'ten 50'lik bloklar halinde alınır
+     * (pooled-lo, MySQL'de tablo ile emüle edilir). IDENTITY'den farklı olarak
+     * ID INSERT'ten önce bilinir; toplu içe aktarmada INSERT'ler JDBC batch
+     * olarak gönderilebilir.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private int userId;
 
     /**
      * Kullanıcı E-posta Adresi
+     * 
+     * Her zaman normalize edilmiş halde (trim + küçük harf) saklanır,
+     * benzersizliği veritabanındaki uk_user_email index'i garanti eder.
      */
     private String email;
     
     /**
      * Kullanıcı Şifresi
+     * 
+     * WRITE_ONLY - İstek gövdesinden okunur (login, register) ancak
+     * BCrypt hash'i hiçbir yanıtta serialize edilmez.
      */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     /**
      * Kullanıcı Rolü Enum'u
      * 
-     * Sistemde iki tür kullanıcı vardır:
+     * Sistemde üç tür kullanıcı vardır:
      * - PATIENT: Hasta kullanıcıları
      * - DOCTOR: Doktor kullanıcıları
+     * - ADMIN: Yönetici (toplu içe aktarma, tüm randevuları dışa aktarma);
+     *   kayıt endpoint'i yoktur, rol veritabanında atanır
      */
     public enum Role {
-        PATIENT, DOCTOR
+        PATIENT, DOCTOR, ADMIN
     }
     
     /**
@@ -63,4 +86,29 @@ public class User {
      */
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    /**
+     * E-posta Normalizasyonu
+     * 
+     * @param email Ham e-posta (null olabilir)
+     * @return String - Baştaki/sondaki boşlukları atılmış, küçük harfli e-posta
+     * 
+     * Kayıt, giriş ve güncelleme aynı normalizasyonu kullanır; böylece
+     * "Ali@Mail.com " ile "ali@mail.com" aynı kullanıcı sayılır.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Kaydetmeden Önce E-postayı Normalize Etme
+     * 
+     * Hangi yoldan yazılırsa yazılsın (register, update, import)
+     * veritabanına normalize edilmiş e-posta gider.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeEmailBeforeWrite() {
+        this.email = normalizeEmail(this.email);
+    }
 }
@@ -0,0 +1,19 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Varsayılan Hatırlatma Sink'i (uygulama log'una yazar)
+ */
+@Slf4j
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(Reminder reminder) {
+        log.info("Randevu hatırlatması: randevu={} doktor={} hasta={} saat={} ({} dk kala)",
+                reminder.appointmentId(), reminder.doctorId(), reminder.patientId(),
+                reminder.appointmentDateTime(), reminder.offset().toMinutes());
+    }
+}
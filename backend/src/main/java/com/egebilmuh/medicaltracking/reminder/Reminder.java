@@ -0,0 +1,13 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Randevu Hatırlatması (Reminder)
+ *
+ * @param offset Hatırlatmanın randevudan ne kadar önce tetiklendiği
+ */
+public record Reminder(int appointmentId, int doctorId, int patientId,
+                       LocalDateTime appointmentDateTime, Duration offset) {
+}
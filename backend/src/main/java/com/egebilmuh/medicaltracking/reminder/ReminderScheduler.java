@@ -0,0 +1,353 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Randevu Hatırlatıcı Zamanlayıcısı (Reminder Scheduler)
+ *
+ * Onaylanmış (CONFIRMED) yaklaşan randevular için her
+ * medicaltracking.reminders.offsets-minutes değerinde bir hatırlatma
+ * bellekteki TimingWheel'e konur. "Bir saat içinde başlayanlar" için
+ * appointment tablosu her tick'te taranmaz:
+ * - Çarkta sadece hatırlatma ufku (horizon-minutes) içinde başlayan
+ *   randevular tutulur. Başlangıçta bu aralık okunur, refill() ufuk
+ *   ilerledikçe sıradaki dilimi ekler; tüm gelecek randevular belleğe alınmaz
+ * - Arada çark AppointmentEvent ile güncel tutulur (commit sonrası):
+ *   onaylanan randevu eklenir, tarihi değişen yeniden zamanlanır, iptal
+ *   edilen / silinen / ufkun dışına taşınan randevunun hatırlatmaları çıkarılır
+ * - tick() çarkı ilerletir; süresi dolan her hatırlatma teslimden önce
+ *   randevu satırında sahiplenilir (reminded_at); sadece hâlâ aynı saatte
+ *   onaylı olan ve başka instance'ın almadığı hatırlatmalar ReminderSink'lere
+ *   verilir
+ *
+ * Zamanı geçmiş hatırlatmalar (ör. başlamasına 30 dk kala onaylanan
+ * randevunun 1 saatlik hatırlatması) atlanır. Olaylar sadece kendi
+ * instance'ına gelir; başka instance'taki iptal veya saat değişikliği
+ * teslimden önceki sahiplenmede yakalanır. Birden fazla instance'ta her
+ * instance kendi çarkını tutar ama bir hatırlatmayı sadece sahiplenen
+ * instance teslim eder.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "medicaltracking.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler implements WarmupAware {
+
+    private static final int MAX_OFFSETS = 256; // Anahtarın alt 8 biti offset sırası
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ReminderSink> sinks;
+    private final Duration[] offsets;
+    private final Duration horizon;
+    private final long tickMillis;
+    private final Counter fired;
+    private final Counter failures;
+    private final Counter stale;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<Long, Reminder> wheel;
+    private final Set<Integer> changedDuringLoad = new HashSet<>(); // lock altında
+    private boolean loading; // lock altında
+    private LocalDateTime loadingUntil; // lock altında
+    private LocalDateTime loadedUntil; // lock altında; null: henüz yüklenmedi
+    private volatile boolean warm;
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository, TransactionTemplate transactionTemplate,
+                             List<ReminderSink> sinks, MeterRegistry meterRegistry,
+                             @Value("${medicaltracking.reminders.offsets-minutes:1440,60}") long[] offsetMinutes,
+                             @Value("${medicaltracking.reminders.tick-ms:1000}") long tickMillis,
+                             @Value("${medicaltracking.reminders.horizon-minutes:2880}") long horizonMinutes,
+                             @Value("${medicaltracking.reminders.refill-interval-ms:600000}") long refillMillis) {
+        if (offsetMinutes.length == 0 || offsetMinutes.length > MAX_OFFSETS
+                || Arrays.stream(offsetMinutes).anyMatch(minutes -> minutes < 0)) {
+            throw new IllegalArgumentException("Geçersiz hatırlatma süreleri: " + Arrays.toString(offsetMinutes));
+        }
+        // Randevu, en erken hatırlatmasından en az bir refill aralığı önce çarka girmeli
+        long earliestOffsetMillis = Duration.ofMinutes(Arrays.stream(offsetMinutes).max().getAsLong()).toMillis();
+        if (Duration.ofMinutes(horizonMinutes).toMillis() < earliestOffsetMillis + refillMillis) {
+            throw new IllegalArgumentException("medicaltracking.reminders.horizon-minutes en büyük hatırlatma süresi "
+                    + "+ refill-interval-ms kadar olmalı: " + horizonMinutes);
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.offsets = Arrays.stream(offsetMinutes).mapToObj(Duration::ofMinutes).toArray(Duration[]::new);
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        this.fired = Counter.builder("medicaltracking.reminders.fired")
+                .description("Tetiklenen randevu hatırlatmaları")
+                .register(meterRegistry);
+        this.failures = Counter.builder("medicaltracking.reminders.failures")
+                .description("Teslim edilemeyen hatırlatmalar (sink hatası)")
+                .register(meterRegistry);
+        this.stale = Counter.builder("medicaltracking.reminders.stale")
+                .description("Teslimden önce randevusu iptal edilmiş, saati değişmiş veya başka instance'ta "
+                        + "teslim edilmiş bulunan hatırlatmalar")
+                .register(meterRegistry);
+        Gauge.builder("medicaltracking.reminders.scheduled", this, ReminderScheduler::scheduledCount)
+                .description("Çarkta bekleyen hatırlatmalar")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String warmupName() {
+        return "appointmentReminders";
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Başlangıçta Ufuk İçindeki Onaylı Randevuları Yükleme
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        long count = load(now, now.plus(horizon));
+        warm = true;
+        log.info("Hatırlatıcı çarkı {} onaylı randevu ile dolduruldu ({} hatırlatma bekliyor, ufuk {})",
+                count, scheduledCount(), horizon);
+    }
+
+    /**
+     * Ufku İlerletme: son yüklenen andan now + horizon'a kadar olan dilim eklenir
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.reminders.refill-interval-ms:600000}")
+    public void refill() {
+        if (!warm) {
+            return;
+        }
+        LocalDateTime from;
+        lock.lock();
+        try {
+            from = loadedUntil;
+        } finally {
+            lock.unlock();
+        }
+        long count = load(from, LocalDateTime.now().plus(horizon));
+        log.debug("Hatırlatıcı ufku ilerletildi: {} randevu eklendi", count);
+    }
+
+    /**
+     * (from, until] Aralığındaki Onaylı Randevuları Çarka Ekleme
+     *
+     * Okuma birincil veritabanından yapılır (replika gecikmesiyle yeni onaylar
+     * kaçmasın). Yükleme sürerken olay gelen randevular atlanır; onların
+     * güncel hali olaydan gelir. Yükleme başarısız olursa ufuk ilerlemez,
+     * sonraki refill aynı yerden dener.
+     */
+    private long load(LocalDateTime from, LocalDateTime until) {
+        lock.lock();
+        try {
+            loading = true;
+            loadingUntil = until;
+        } finally {
+            lock.unlock();
+        }
+        long[] count = {0};
+        boolean loaded = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UpcomingAppointment> upcoming = appointmentRepository.streamUpcoming(
+                        Appointment.AppointmentStatus.CONFIRMED, from, until)) {
+                    upcoming.forEach(appointment -> {
+                        lock.lock();
+                        try {
+                            if (!changedDuringLoad.contains(appointment.appointmentId())) {
+                                schedule(appointment.appointmentId(), appointment.doctorId(), appointment.patientId(),
+                                        appointment.appointmentDateTime());
+                                count[0]++;
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    });
+                }
+            });
+            loaded = true;
+        } finally {
+            lock.lock();
+            try {
+                loading = false;
+                changedDuringLoad.clear();
+                if (loaded) {
+                    loadedUntil = until;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return count[0];
+    }
+
+    /**
+     * Randevu Değişikliğini Çarka Yansıtma (commit sonrası)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        lock.lock();
+        try {
+            if (loading) {
+                changedDuringLoad.add(event.appointmentId());
+            }
+            // Ufkun ötesindeki randevu çarka alınmaz; refill oraya gelince veritabanından okur
+            LocalDateTime horizonEnd = loading ? loadingUntil : loadedUntil;
+            if (event.type() == AppointmentEvent.Type.DELETED
+                    || event.status() != Appointment.AppointmentStatus.CONFIRMED
+                    || horizonEnd == null || event.appointmentDateTime().isAfter(horizonEnd)) {
+                cancel(event.appointmentId());
+            } else {
+                // Aynı anahtarla ekleme eskisinin yerine geçer: tarih değiştiyse yeniden zamanlanır
+                schedule(event.appointmentId(), event.doctorId(), event.patientId(), event.appointmentDateTime());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Çarkı İlerletme ve Hatırlatmaları Teslim Etme
+     *
+     * Sink'ler kilit dışında çağrılır; yavaş bir sink olay işlemeyi bekletmez.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.reminders.tick-ms:1000}")
+    public void tick() {
+        List<Reminder> due;
+        lock.lock();
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        for (Reminder reminder : claim(due)) {
+            fired.increment();
+            for (ReminderSink sink : sinks) {
+                try {
+                    sink.deliver(reminder);
+                } catch (Exception e) {
+                    failures.increment();
+                    log.error("Hatırlatma teslim edilemedi: randevu={} sink={}",
+                            reminder.appointmentId(), sink.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Teslimden Önce Sahiplenme
+     *
+     * Her hatırlatma için randevu satırına koşullu UPDATE yapılır
+     * (claimReminder): randevu hâlâ aynı saatte onaylıysa ve hatırlatmayı
+     * başka instance almadıysa bu instance teslim eder. Etkilenen satır
+     * yoksa randevu iptal edilmiş / saati değişmiş ya da hatırlatma başka
+     * instance'ta teslim edilmiştir. Sahiplenme teslimden önce commit
+     * edilir: teslim sırasında instance çökerse hatırlatma gitmez (en fazla
+     * bir kez). Sahiplenme yapılamazsa (veritabanı hatası) hatırlatmalar
+     * sonraki tick'e ertelenir; randevu saati geçene kadar yeniden denenir.
+     */
+    private List<Reminder> claim(List<Reminder> due) {
+        // Instance'lar satırları aynı sırayla kilitlesin (deadlock olmasın)
+        List<Reminder> ordered = new ArrayList<>(due);
+        ordered.sort(Comparator.comparingInt(Reminder::appointmentId));
+        List<Reminder> claimed = new ArrayList<>(due.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                claimed.clear();
+                for (Reminder reminder : ordered) {
+                    if (appointmentRepository.claimReminder(reminder.appointmentId(),
+                            Appointment.AppointmentStatus.CONFIRMED, reminder.appointmentDateTime(),
+                            reminder.appointmentDateTime().minus(reminder.offset())) == 1) {
+                        claimed.add(reminder);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Hatırlatmalar sahiplenilemedi, {} hatırlatma ertelendi", due.size(), e);
+            retryLater(due);
+            return List.of();
+        }
+        if (claimed.size() < due.size()) {
+            stale.increment(due.size() - claimed.size());
+            log.debug("{} hatırlatma atlandı: randevu değişmiş veya başka instance teslim etmiş",
+                    due.size() - claimed.size());
+        }
+        return claimed;
+    }
+
+    private void retryLater(List<Reminder> due) {
+        long retryAt = System.currentTimeMillis() + tickMillis;
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            for (Reminder reminder : due) {
+                if (reminder.appointmentDateTime().isAfter(now)) {
+                    // Aynı anahtar: arada gelen olay yeniden zamanlarsa ertelenen kaydın yerine geçer
+                    wheel.schedule(key(reminder.appointmentId(), Arrays.asList(offsets).indexOf(reminder.offset())),
+                            retryAt, reminder);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(int appointmentId, int doctorId, int patientId, LocalDateTime appointmentDateTime) {
+        long startMillis = appointmentDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (int i = 0; i < offsets.length; i++) {
+            wheel.schedule(key(appointmentId, i), startMillis - offsets[i].toMillis(),
+                    new Reminder(appointmentId, doctorId, patientId, appointmentDateTime, offsets[i]));
+        }
+    }
+
+    private void cancel(int appointmentId) {
+        for (int i = 0; i < offsets.length; i++) {
+            wheel.cancel(key(appointmentId, i));
+        }
+    }
+
+    private int scheduledCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long key(int appointmentId, int offsetIndex) {
+        return ((long) appointmentId << 8) | offsetIndex;
+    }
+}
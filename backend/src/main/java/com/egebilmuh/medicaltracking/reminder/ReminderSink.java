@@ -0,0 +1,16 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+/**
+ * Hatırlatma Teslim Noktası (Reminder Sink)
+ *
+ * ReminderScheduler tetiklenen her hatırlatmayı context'teki tüm
+ * ReminderSink bean'lerine verir. E-posta, SMS veya push entegrasyonu bu
+ * interface'i implement eden yeni bir bean olarak eklenir.
+ *
+ * Zamanlayıcı thread'inde çağrılır; uzun sürecek teslimler kendi
+ * kuyruğuna almalıdır. Fırlatılan hata diğer sink'leri etkilemez.
+ */
+public interface ReminderSink {
+
+    void deliver(Reminder reminder);
+}
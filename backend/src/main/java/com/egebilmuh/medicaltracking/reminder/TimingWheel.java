@@ -0,0 +1,181 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hiyerarşik Zamanlama Çarkı (Hierarchical Timing Wheel)
+ *
+ * Her biri 64 yuvalı 4 seviyeli çark. Seviye 0'da bir yuva bir tick'tir,
+ * her üst seviyede yuva süresi 64 katına çıkar (1 sn tick ile: 64 sn,
+ * ~68 dk, ~73 saat, ~194 gün). Ekleme ve iptal O(1)'dir; sıralı kuyruk
+ * veya tablo taraması gerekmez.
+ *
+ * - Kayıt, bitiş tick'ine olan uzaklığa göre ilk sığdığı seviyeye konur
+ * - Alt seviye tam tur attığında üst seviyenin sıradaki yuvası aşağı
+ *   dağıtılır (cascade); kayıt gerçek bitiş zamanına göre yeniden yerleşir
+ * - Çarkın kapsamından uzak kayıtlar en üst seviyede bir tur bekletilir
+ *   ve aynı şekilde yeniden yerleştirilir
+ *
+ * Thread-safe değildir; çağıran taraf (ReminderScheduler) kilit altında kullanır.
+ *
+ * @param <K> Kayıt anahtarı (aynı anahtarla ekleme öncekinin yerine geçer)
+ * @param <V> Süre dolunca döndürülen değer
+ */
+final class TimingWheel<K, V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Node<K, V>[][] wheels;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick süresi pozitif olmalı: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        this.wheels = new Node[LEVELS][SLOTS];
+        for (Node<K, V>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Node.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Kayıt Ekleme (aynı anahtarlı eski kayıt iptal edilir)
+     *
+     * @param deadlineMillis Epoch milisaniye; kayıt bu andan önce dönmez
+     * @return boolean - Süre zaten dolmuşsa false (kayıt eklenmez)
+     */
+    boolean schedule(K key, long deadlineMillis, V value) {
+        cancel(key);
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        Node<K, V> node = new Node<>(key, value, deadlineTick);
+        nodes.put(key, node);
+        place(node);
+        return true;
+    }
+
+    /**
+     * Kayıt İptali
+     *
+     * @return V - İptal edilen değer; anahtar yoksa null
+     */
+    V cancel(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        node.unlink();
+        return node.value;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Saati İlerletme
+     *
+     * Geçen her tick sırayla işlenir; uzun bir duraklamadan sonra da hiçbir
+     * kayıt atlanmaz.
+     *
+     * @return List<V> - Süresi dolan kayıtlar (tick sırasıyla)
+     */
+    List<V> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<V> expired = null;
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            Node<K, V> head = wheels[0][(int) (currentTick & MASK)];
+            while (head.next != head) {
+                Node<K, V> node = head.next;
+                node.unlink();
+                nodes.remove(node.key);
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(node.value);
+            }
+        }
+        return expired != null ? expired : List.of();
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return; // Alt seviye henüz tur tamamlamadı
+            }
+            Node<K, V> head = wheels[level][(int) ((currentTick >>> shift) & MASK)];
+            while (head.next != head) {
+                Node<K, V> node = head.next;
+                node.unlink();
+                place(node);
+            }
+        }
+    }
+
+    private void place(Node<K, V> node) {
+        long delta = Math.max(0, node.deadlineTick - currentTick);
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << ((level + 1) * SLOT_BITS)) {
+                int shift = level * SLOT_BITS;
+                wheels[level][(int) ((node.deadlineTick >>> shift) & MASK)].linkBefore(node);
+                return;
+            }
+        }
+        // Kapsam dışı: en üst seviyede en geç işlenecek yuvaya konur, orada yeniden yerleştirilir
+        int shift = (LEVELS - 1) * SLOT_BITS;
+        wheels[LEVELS - 1][(int) (((currentTick >>> shift) - 1) & MASK)].linkBefore(node);
+    }
+
+    /**
+     * Yuva İçindeki Çift Yönlü Liste Düğümü (O(1) iptal için)
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long deadlineTick;
+        Node<K, V> prev = this;
+        Node<K, V> next = this;
+
+        Node(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        static <K, V> Node<K, V> sentinel() {
+            return new Node<>(null, null, Long.MIN_VALUE);
+        }
+
+        void linkBefore(Node<K, V> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hatırlatıcı Çarkını Doldurmak İçin Okunan Randevu Özeti (entity yüklenmez)
+ */
+public record UpcomingAppointment(int appointmentId, int doctorId, int patientId, LocalDateTime appointmentDateTime) {
+}
@@ -0,0 +1,26 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.AppointmentNoteDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Randevu Notu Taslakları Veri Erişim Katmanı (Appointment Note Draft Repository)
+ *
+ * Taslaklar JdbcTemplate ile toplu yazılır (NoteAutosaveService); bu
+ * repository okuma ve silme içindir.
+ */
+@Repository // Spring Data JPA component olarak işaretler
+public interface AppointmentNoteDraftRepository extends JpaRepository<AppointmentNoteDraft, Integer> {
+
+    /**
+     * Taslağı Silme (not kaydedildiğinde; önce okumadan tek DELETE)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AppointmentNoteDraft d WHERE d.appointmentId = :appointmentId")
+    void deleteByAppointmentId(int appointmentId);
+}
@@ -0,0 +1,44 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.AppointmentNote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Randevu Notları Veri Erişim Katmanı (Appointment Note Repository)
+ */
+@Repository // Spring Data JPA component olarak işaretler
+public interface AppointmentNoteRepository extends JpaRepository<AppointmentNote, Integer> {
+
+    /**
+     * Randevunun Not Geçmişi (eskiden yeniye)
+     */
+    List<AppointmentNote> findByAppointmentIdOrderByVersion(int appointmentId);
+
+    /**
+     * Randevunun Son Not Sürümü
+     *
+     * @return Optional<Integer> - Hiç not yoksa boş
+     */
+    @Query("SELECT MAX(n.version) FROM AppointmentNote n WHERE n.appointmentId = :appointmentId")
+    Optional<Integer> findLatestVersion(int appointmentId);
+
+    /**
+     * Randevunun Güncel Notu (son sürüm)
+     */
+    Optional<AppointmentNote> findFirstByAppointmentIdOrderByVersionDesc(int appointmentId);
+
+    /**
+     * Randevu Silinirken Notlarını Silme
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AppointmentNote n WHERE n.appointmentId = :appointmentId")
+    void deleteByAppointmentId(int appointmentId);
+}
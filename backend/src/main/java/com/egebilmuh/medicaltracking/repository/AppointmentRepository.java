@@ -3,11 +3,21 @@ package com.egebilmuh.medicaltracking.repository;
 import com.egebilmuh.medicaltracking.model.Appointment;
 import com.egebilmuh.medicaltracking.model.Doctor;
 import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.reminder.UpcomingAppointment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Randevu Veri Erişim Katmanı (Appointment Repository)
@@ -26,12 +36,27 @@ public interface AppointmentRepository extends JpaRepository<Appointment,Integer
     /**
      * Çakışan Randevu Kontrolü
      * 
+     * İptal edilmiş (veya onay süresi dolmuş) randevular saati bloke etmez;
+     * çağıran taraf status olarak CANCELLED verir.
+     * 
      * @param doctor Randevu veren doktor
      * @param appointmentDateTime Randevu tarih-saati
+     * @param status Hariç tutulacak durum
      * @return boolean - Çakışma varsa true, yoksa false
      *
      */
-    boolean existsByDoctorAndAppointmentDateTime(Doctor doctor, LocalDateTime appointmentDateTime);
+    boolean existsByDoctorAndAppointmentDateTimeAndStatusNot(Doctor doctor, LocalDateTime appointmentDateTime,
+                                                             Appointment.AppointmentStatus status);
+
+    /**
+     * ID ile Randevuyu Kilitleyerek Getirme (SELECT ... FOR UPDATE)
+     *
+     * Aynı randevu üzerindeki işlemleri sıraya sokar (ör. not sürümü
+     * numaralama); kilit transaction sonuna kadar tutulur.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentId = :appointmentId")
+    Optional<Appointment> findByIdForUpdate(int appointmentId);
 
     /**
      * Hastanın Tüm Randevularını Listeleme
@@ -49,6 +74,36 @@ public interface AppointmentRepository extends JpaRepository<Appointment,Integer
      *
      */
     List<Appointment> findByDoctor(Doctor doctor);
+
+    /**
+     * Belirli Durumdaki Yaklaşan Randevuları Akış Olarak Okuma (from, until]
+     *
+     * ReminderScheduler çarkı hatırlatma ufku kadar ileriye doldururken
+     * kullanılır; entity yüklenmez, idx_appointment_status_time index'i ile
+     * aralık taranır. Açık transaction içinde tüketilmelidir.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.egebilmuh.medicaltracking.reminder.UpcomingAppointment("
+            + "a.appointmentId, a.doctor.userId, a.patient.userId, a.appointmentDateTime) "
+            + "FROM Appointment a WHERE a.status = :status "
+            + "AND a.appointmentDateTime > :from AND a.appointmentDateTime <= :until")
+    Stream<UpcomingAppointment> streamUpcoming(Appointment.AppointmentStatus status, LocalDateTime from,
+                                               LocalDateTime until);
+
+    /**
+     * Hatırlatmayı Sahiplenme (tek instance teslim eder)
+     *
+     * Randevu hâlâ aynı saatte onaylıysa ve bu veya daha sonraki bir
+     * hatırlatma henüz sahiplenilmediyse reminded_at = dueAt yazılır.
+     *
+     * @return int - Sahiplenildiyse 1, başka instance aldıysa veya randevu değiştiyse 0
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.remindedAt = :dueAt WHERE a.appointmentId = :appointmentId "
+            + "AND a.status = :status AND a.appointmentDateTime = :appointmentDateTime "
+            + "AND (a.remindedAt IS NULL OR a.remindedAt < :dueAt)")
+    int claimReminder(int appointmentId, Appointment.AppointmentStatus status, LocalDateTime appointmentDateTime,
+                      LocalDateTime dueAt);
     
     // Gelecekte eklenebilecek yararlı metodlar:
     // List<Appointment> findByAppointmentDateTimeBetween(LocalDateTime start, LocalDateTime end);
@@ -0,0 +1,22 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Doktor Profili Veri Erişim Katmanı (Doctor Profile Repository)
+ *
+ * Doktor rehberi sorguları tek tablodan (doctor_profile) okunur, JOIN yapılmaz.
+ */
+@Repository // Spring Data JPA repository component olarak işaretler
+public interface DoctorProfileRepository extends JpaRepository<DoctorProfile, Integer> {
+
+    /**
+     * Uzmanlık Alanına Göre Doktor Profilleri
+     */
+    List<DoctorProfile> findBySpecialty(Doctor.Specialty specialty);
+}
@@ -1,13 +1,22 @@
 package com.egebilmuh.medicaltracking.repository;
 
 import com.egebilmuh.medicaltracking.model.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Doktor Veri Erişim Katmanı (Doctor Repository)
+ *
+ * Finder metodları Hibernate query cache'inde tutulur. Sonuçlar doctor veya
+ * user tablosuna Hibernate üzerinden yapılan her yazmada otomatik geçersiz
+ * olur; entity'ler User ikinci seviye cache bölgesinden yüklenir.
  */
 @Repository // Spring Data JPA repository component olarak işaretler
 public interface DoctorRepository extends JpaRepository<Doctor,Integer> {
@@ -15,6 +24,7 @@ public interface DoctorRepository extends JpaRepository<Doctor,Integer> {
     /**
      * Uzmanlık Alanına Göre Doktor Filtreleme
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Doctor> findBySpecialty(Doctor.Specialty specialty);
     
     /**
@@ -22,6 +32,7 @@ public interface DoctorRepository extends JpaRepository<Doctor,Integer> {
      * 
      * @return List<Doctor> - Randevu kabul eden (availability=true) doktorlar
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Doctor> findByAvailabilityTrue();
     
     /**
@@ -30,5 +41,31 @@ public interface DoctorRepository extends JpaRepository<Doctor,Integer> {
      * @param specialty Aranacak uzmanlık alanı
      * @return List<Doctor> - Belirtilen uzmanlığa sahip VE müsait doktorlar
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Doctor> findBySpecialtyAndAvailabilityTrue(Doctor.Specialty specialty);
+
+    /**
+     * Tüm Doktor ID'leri (entity yüklemeden)
+     *
+     * DoctorAvailabilityService bellek içi bitset'i doldururken ve aralıklarla
+     * yenilerken kullanır. Bilerek cache'lenmez: query cache instance'a
+     * özeldir, yenileme başka instance'ların değişikliklerini görmelidir.
+     */
+    @Query("SELECT d.userId FROM Doctor d")
+    List<Integer> findAllDoctorIds();
+
+    /**
+     * Müsait Doktor ID'leri (entity yüklemeden, cache'lenmez)
+     */
+    @Query("SELECT d.userId FROM Doctor d WHERE d.availability = true")
+    List<Integer> findAvailableDoctorIds();
+
+    /**
+     * Doktorun Güncel Müsaitlik Anahtarı
+     *
+     * Bilerek cache'lenmez: ikinci seviye cache de instance'a özeldir;
+     * başka instance'ta yapılan değişiklik sadece veritabanında görünür.
+     */
+    @Query("SELECT d.availability FROM Doctor d WHERE d.userId = :doctorId")
+    Optional<Boolean> findAvailabilityById(int doctorId);
 }
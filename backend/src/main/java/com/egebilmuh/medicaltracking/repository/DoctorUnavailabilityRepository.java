@@ -0,0 +1,33 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.DoctorUnavailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Doktor İzin Aralıkları Veri Erişim Katmanı (Doctor Unavailability Repository)
+ */
+@Repository // Spring Data JPA component olarak işaretler
+public interface DoctorUnavailabilityRepository extends JpaRepository<DoctorUnavailability, Integer> {
+
+    /**
+     * Doktorun Tüm İzin Aralıkları (başlangıç tarihine göre sıralı)
+     */
+    List<DoctorUnavailability> findByDoctorIdOrderByStartDate(int doctorId);
+
+    /**
+     * Henüz bitmemiş izin aralıkları (başlangıçta belleğe yüklemek için)
+     *
+     * @param date Bugünün tarihi
+     */
+    List<DoctorUnavailability> findByEndDateGreaterThanEqual(LocalDate date);
+
+    /**
+     * Tarih doktorun bir izin aralığına düşüyor mu? (booking yolunda veritabanı kontrolü)
+     */
+    boolean existsByDoctorIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(int doctorId, LocalDate onOrBefore,
+                                                                                  LocalDate onOrAfter);
+}
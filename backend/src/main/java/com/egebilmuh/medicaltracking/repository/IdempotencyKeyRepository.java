@@ -0,0 +1,30 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * İdempotency Anahtarları Veri Erişim Katmanı (Idempotency Key Repository)
+ *
+ * Anahtarlar JdbcTemplate ile yazılır (IdempotencyService); bu repository
+ * okuma ve süresi dolanları silme içindir.
+ */
+@Repository // Spring Data JPA component olarak işaretler
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Süresi Dolan Anahtarları Silme (idx_idempotency_key_created ile)
+     *
+     * @return int - Silinen satır sayısı
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(LocalDateTime cutoff);
+}
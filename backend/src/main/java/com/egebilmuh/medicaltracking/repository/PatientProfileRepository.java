@@ -0,0 +1,13 @@
+package com.egebilmuh.medicaltracking.repository;
+
+import com.egebilmuh.medicaltracking.model.PatientProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hasta Profili Veri Erişim Katmanı (Patient Profile Repository)
+ */
+@Repository // Spring Data JPA component olarak işaretler
+public interface PatientProfileRepository extends JpaRepository<PatientProfile, Integer> {
+
+}
@@ -1,10 +1,17 @@
 package com.egebilmuh.medicaltracking.repository;
 
 import com.egebilmuh.medicaltracking.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Kullanıcı Veri Erişim Katmanı (User Repository)
@@ -16,4 +23,22 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findUserByEmail(String username);
 
     boolean existsByEmail(String username);
+
+    /**
+     * Tüm E-postaları Akış Olarak Okuma
+     * 
+     * EmailBloomFilter başlangıçta doldurulurken kullanılır; sadece email
+     * sütunu okunur, entity yüklenmez. Açık transaction içinde tüketilmelidir.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Verilen E-postalardan Kayıtlı Olanlar
+     * 
+     * Toplu içe aktarmada satır başına existsByEmail yerine parça başına tek sorgu.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
 }
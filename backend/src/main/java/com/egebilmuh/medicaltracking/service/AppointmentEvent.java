@@ -0,0 +1,71 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Randevu Değişiklik Olayı (Appointment Event)
+ *
+ * AppointmentService her başarılı değişiklikten sonra yayınlar. Dinleyiciler
+ * (ör. AppointmentAuditLog) olayı transaction commit edildikten sonra alır;
+ * silinen randevu için de doktor/hasta kimlikleri olayın içinde taşınır.
+ *
+ * @param appointmentDateTime Olay anındaki randevu tarih-saati
+ * @param previousStatus Olaydan önceki durum (CREATED için null; DELETED ve
+ *                       NOTE_UPDATED için status ile aynı)
+ * @param detail Olaya özgü açıklama (durum geçişi; not için sürüm, uzunluk ve
+ *               özet, metnin kendisi değil); yoksa null
+ */
+public record AppointmentEvent(Type type, int appointmentId, int doctorId, int patientId,
+                               LocalDateTime appointmentDateTime, Appointment.AppointmentStatus previousStatus,
+                               Appointment.AppointmentStatus status, String detail, Instant occurredAt) {
+
+    static AppointmentEvent of(Type type, Appointment appointment, String detail) {
+        return of(type, appointment, type == Type.CREATED ? null : appointment.getStatus(), detail);
+    }
+
+    static AppointmentEvent of(Type type, Appointment appointment, Appointment.AppointmentStatus previousStatus,
+                               String detail) {
+        return new AppointmentEvent(type, appointment.getAppointmentId(),
+                appointment.getDoctor().getUserId(), appointment.getPatient().getUserId(),
+                appointment.getAppointmentDateTime(), previousStatus, appointment.getStatus(), detail, Instant.now());
+    }
+
+    /**
+     * Olay Tipi
+     *
+     * code audit log'a yazılan kalıcı değerdir; mevcut kodlar değiştirilmez,
+     * yeni tipler yeni kodla eklenir.
+     */
+    public enum Type {
+        CREATED(1),
+        APPROVED(2),
+        REJECTED(3),
+        CANCELLED(4),
+        STATUS_CHANGED(5),
+        NOTE_UPDATED(6),
+        DELETED(7),
+        EXPIRED(8);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte code() {
+            return code;
+        }
+
+        public static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Bilinmeyen randevu olay kodu: " + code);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Randevu Dışa Aktarma (CSV / NDJSON / iCalendar)
+ *
+ * Raporlama ve takvim senkronizasyonu için. getAllAppointments gibi tüm
+ * listeyi belleğe almak yerine satırlar ileri-yönlü bir veritabanı
+ * imlecinden (fetch-size, MySQL'de useCursorFetch) okunur ve okundukça
+ * yanıta yazılır; entity yüklenmez, persistence context büyümez. Bellek
+ * kullanımı dışa aktarılan satır sayısından bağımsızdır.
+ *
+ * Salt okunur servis transaction'ı olduğu için replika güncelse
+ * replikadan okunur (ReadWriteRouting).
+ */
+@Service
+@Timed("medicaltracking.service")
+public class AppointmentExportService {
+
+    /**
+     * Çıktı Biçimi
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson"),
+        ICS("text/calendar", "ics");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Filtre (null alanlar filtrelenmez)
+     *
+     * @param from Randevu saati bu andan sonra veya eşit
+     * @param to Randevu saati bu andan önce
+     */
+    public record Filter(Integer doctorId, Integer patientId, LocalDateTime from, LocalDateTime to,
+                         Appointment.AppointmentStatus status) {
+    }
+
+    private static final String[] CSV_HEADER = {"appointmentId", "doctorId", "doctorName", "doctorSurname",
+            "specialty", "patientId", "patientName", "patientSurname", "appointmentDateTime", "status",
+            "createdAt", "hasNote"};
+    private static final DateTimeFormatter ICS_LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+    private final int eventDurationMinutes;
+
+    public AppointmentExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    @Value("${medicaltracking.export.fetch-size:1000}") int fetchSize,
+                                    @Value("${medicaltracking.export.event-duration-minutes:15}") int eventDurationMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+        this.eventDurationMinutes = eventDurationMinutes;
+    }
+
+    /**
+     * Filtreye Uyan Randevuları Yazma
+     *
+     * @param out Yanıt yazıcısı (tamponlu olmalı); satırlar okundukça yazılır
+     * @return long - Yazılan randevu sayısı
+     */
+    @Transactional(readOnly = true)
+    public long export(Filter filter, Format format, Writer out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT a.appointment_id, a.doctor_user_id, d.name, d.surname, d.specialty, "
+                + "a.patient_user_id, p.name, p.surname, a.appointment_date_time, a.status, a.created_at, a.has_note "
+                + "FROM appointment a JOIN doctor d ON d.user_id = a.doctor_user_id "
+                + "JOIN patient p ON p.user_id = a.patient_user_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.doctorId() != null) {
+            sql.append(" AND a.doctor_user_id = ?");
+            args.add(filter.doctorId());
+        }
+        if (filter.patientId() != null) {
+            sql.append(" AND a.patient_user_id = ?");
+            args.add(filter.patientId());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND a.appointment_date_time >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND a.appointment_date_time < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.status() != null) {
+            sql.append(" AND a.status = ?");
+            args.add(filter.status().name());
+        }
+        sql.append(" ORDER BY a.appointment_date_time, a.appointment_id");
+
+        RowWriter writer = switch (format) {
+            case CSV -> new CsvWriter(out);
+            case NDJSON -> new NdjsonWriter(out);
+            case ICS -> new IcsWriter(out);
+        };
+        long[] count = {0};
+        writer.begin();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, row -> {
+            try {
+                writer.row(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // İstemci bağlantıyı kapattı: imleç kapanır
+            }
+            count[0]++;
+        });
+        writer.end();
+        out.flush();
+        meterRegistry.counter("medicaltracking.export.rows", "format", format.extension()).increment(count[0]);
+        return count[0];
+    }
+
+    private interface RowWriter {
+        default void begin() throws IOException {
+        }
+
+        void row(ResultSet row) throws SQLException, IOException;
+
+        default void end() throws IOException {
+        }
+    }
+
+    private static LocalDateTime dateTime(ResultSet row, int column) throws SQLException {
+        Timestamp timestamp = row.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer out;
+
+        private CsvWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write(String.join(",", CSV_HEADER));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet row) throws SQLException, IOException {
+            for (int column = 1; column <= CSV_HEADER.length; column++) {
+                if (column > 1) {
+                    out.write(',');
+                }
+                // appointmentDateTime ve createdAt ISO biçiminde (Timestamp.toString değil)
+                Object value = column == 9 || column == 11 ? dateTime(row, column) : row.getObject(column);
+                if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final Writer out;
+        private JsonGenerator json;
+
+        private NdjsonWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            // Tek generator: satır başına Map/String ara nesnesi oluşmaz
+            json = objectMapper.getFactory().createGenerator(out);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void row(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField(CSV_HEADER[0], row.getInt(1));
+            json.writeNumberField(CSV_HEADER[1], row.getInt(2));
+            json.writeStringField(CSV_HEADER[2], row.getString(3));
+            json.writeStringField(CSV_HEADER[3], row.getString(4));
+            json.writeStringField(CSV_HEADER[4], row.getString(5));
+            json.writeNumberField(CSV_HEADER[5], row.getInt(6));
+            json.writeStringField(CSV_HEADER[6], row.getString(7));
+            json.writeStringField(CSV_HEADER[7], row.getString(8));
+            json.writeStringField(CSV_HEADER[8], String.valueOf(dateTime(row, 9)));
+            json.writeStringField(CSV_HEADER[9], row.getString(10));
+            LocalDateTime createdAt = dateTime(row, 11);
+            json.writeStringField(CSV_HEADER[10], createdAt == null ? null : createdAt.toString());
+            json.writeBooleanField(CSV_HEADER[11], row.getBoolean(12));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.flush();
+        }
+    }
+
+    /**
+     * iCalendar (RFC 5545)
+     *
+     * Randevu saati yerel (floating) zamandır; PENDING → TENTATIVE,
+     * CANCELLED → CANCELLED. Satırlar 75 oktette katlanır.
+     */
+    private final class IcsWriter implements RowWriter {
+        private final Writer out;
+        private final String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_UTC);
+
+        private IcsWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            line("BEGIN:VCALENDAR");
+            line("VERSION:2.0");
+            line("PRODID:-//MedicalTracking//Appointments//TR");
+            line("CALSCALE:GREGORIAN");
+        }
+
+        @Override
+        public void row(ResultSet row) throws SQLException, IOException {
+            String status = row.getString(10);
+            line("BEGIN:VEVENT");
+            line("UID:appointment-" + row.getInt(1) + "@medicaltracking");
+            line("DTSTAMP:" + stamp);
+            line("DTSTART:" + dateTime(row, 9).format(ICS_LOCAL));
+            line("DURATION:PT" + eventDurationMinutes + "M");
+            line("SUMMARY:" + escape("Randevu: " + row.getString(7) + " " + row.getString(8)
+                    + " - Dr. " + row.getString(3) + " " + row.getString(4)));
+            line("DESCRIPTION:" + escape(row.getString(5) + " / " + status));
+            line("STATUS:" + switch (Appointment.AppointmentStatus.valueOf(status)) {
+                case PENDING -> "TENTATIVE";
+                case CONFIRMED -> "CONFIRMED";
+                case CANCELLED -> "CANCELLED";
+            });
+            line("END:VEVENT");
+        }
+
+        @Override
+        public void end() throws IOException {
+            line("END:VCALENDAR");
+        }
+
+        private void line(String text) throws IOException {
+            // 75 oktetten uzun satırlar CRLF + boşluk ile katlanır (UTF-8 karakter bölünmez)
+            int octets = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (octets + size > 75) {
+                    out.write("\r\n ");
+                    octets = 1;
+                }
+                out.write(Character.toChars(codePoint));
+                octets += size;
+                i += Character.charCount(codePoint);
+            }
+            out.write("\r\n");
+        }
+
+        private static String escape(String text) {
+            return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                    .replace("\r\n", "\\n").replace("\n", "\\n");
+        }
+    }
+}
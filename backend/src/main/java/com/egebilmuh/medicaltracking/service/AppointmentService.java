@@ -1,13 +1,20 @@
 package com.egebilmuh.medicaltracking.service;
 
 import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.AppointmentNote;
 import com.egebilmuh.medicaltracking.model.Doctor;
 import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.repository.AppointmentNoteRepository;
 import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
 import com.egebilmuh.medicaltracking.repository.DoctorRepository;
 import com.egebilmuh.medicaltracking.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,21 +32,37 @@ import java.util.Optional;
  * - Randevu durumu yönetimi (PENDING, CONFIRMED, CANCELLED)
  * - Doktor ve hasta bazlı randevu listeleme
  *
+ * Her değişiklikten sonra AppointmentEvent yayınlanır (audit log vb.).
+ *
  */
 @Service // Spring Service component olarak işaretler
 @RequiredArgsConstructor // Lombok: Constructor injection için
+@Timed("medicaltracking.service") // Her public metod için class/method etiketli timer
 public class AppointmentService {
     
     // Dependency Injection - Repository pattern dependencies
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentNoteRepository noteRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final DoctorAvailabilityService availabilityService;
+    private final NoteAutosaveService noteAutosaveService;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Yeni Randevu Oluşturma (Core Business Logic)
      *
      */
     public Appointment createAppointment(int doctorId, int patientId, LocalDateTime appointmentDateTime) {
+        // Business Rule 0: Müsaitlik anahtarı ve izin aralıkları bellekten (bitset);
+        // kapalı veya izinli doktor için talep veritabanına gitmeden reddedilir
+        DoctorAvailabilityService.Availability availability = availabilityService.check(doctorId, appointmentDateTime);
+        if (availability == DoctorAvailabilityService.Availability.UNKNOWN) {
+            availability = availabilityService.confirm(doctorId, appointmentDateTime); // Bellekte kaydı yok
+        }
+        rejectIfUnavailable(availability);
+
         // Business Rule 1: Entity existence validation
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new RuntimeException("Doktor bulunamadı"));
@@ -47,18 +70,14 @@ public class AppointmentService {
                 .orElseThrow(() -> new RuntimeException("Hasta bulunamadı"));
 
         // Business Rule 2: Double booking prevention
-        if (appointmentRepository.existsByDoctorAndAppointmentDateTime(doctor, appointmentDateTime)) {
-            throw new RuntimeException("Bu saatte doktor başka bir randevuda");
+        if (appointmentRepository.existsByDoctorAndAppointmentDateTimeAndStatusNot(doctor, appointmentDateTime,
+                Appointment.AppointmentStatus.CANCELLED)) {
+            throw bookingRejected("conflict", "Bu saatte doktor başka bir randevuda");
         }
 
         // Business Rule 3: Future date validation
         if (appointmentDateTime.isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Geçmiş tarihte randevu alınamaz");
-        }
-
-        // Business Rule 4: Doctor availability check
-        if (!doctor.isAvailability()) {
-            throw new RuntimeException("Doktor şu anda randevu kabul etmiyor");
+            throw bookingRejected("past_date", "Geçmiş tarihte randevu alınamaz");
         }
 
         // Create and save appointment
@@ -67,36 +86,85 @@ public class AppointmentService {
         appointment.setPatient(patient);
         appointment.setAppointmentDateTime(appointmentDateTime);
         appointment.setStatus(Appointment.AppointmentStatus.PENDING); // Default status
-        appointment.setDoctorNote(null); // Will be filled later by doctor
+        appointment.setCreatedAt(LocalDateTime.now());
 
-        return appointmentRepository.save(appointment);
+        Appointment saved;
+        try {
+            saved = appointmentRepository.save(appointment);
+        } catch (DataIntegrityViolationException e) {
+            // Rule 2'den sonra aynı saate eşzamanlı kayıt: uk_appointment_active_slot
+            throw bookingRejected("conflict", "Bu saatte doktor başka bir randevuda");
+        }
+        eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.CREATED, saved, null));
+        return saved;
     }
 
     /**
      * Randevu Durumu Güncelleme (State Management)
      */
     public Appointment updateAppointmentStatus(int appointmentId, Appointment.AppointmentStatus status) {
+        AppointmentEvent.Type type = switch (status) {
+            case CONFIRMED -> AppointmentEvent.Type.APPROVED;
+            case CANCELLED -> AppointmentEvent.Type.CANCELLED;
+            default -> AppointmentEvent.Type.STATUS_CHANGED;
+        };
+        return changeStatus(appointmentId, status, type);
+    }
+
+    private Appointment changeStatus(int appointmentId, Appointment.AppointmentStatus status, AppointmentEvent.Type type) {
         Appointment appointment = getAppointment(appointmentId);
+        Appointment.AppointmentStatus previous = appointment.getStatus();
         
         // State transition validation (gelecekte eklenebilir)
         // validateStateTransition(appointment.getStatus(), status);
         
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentEvent.of(type, saved, previous, previous + " -> " + status));
+        return saved;
     }
 
     /**
-     * Doktor Notu Ekleme/Güncelleme
+     * Doktor Notu Ekleme (yeni sürüm)
+     *
+     * Not AppointmentNote tablosuna yeni sürüm olarak eklenir; önceki
+     * sürümler korunur. Randevu satırı sadece ilk notta (hasNote) güncellenir.
+     * Otomatik kaydedilmiş taslak silinir.
+     *
+     * Randevu satırı FOR UPDATE ile kilitlenir: aynı randevuya eşzamanlı
+     * kaydedilen notlar sırayla son sürümü okur, aynı sürüm numarasını alıp
+     * uk_appointment_note_version'a takılmaz.
      */
+    @Transactional
     public Appointment addDoctorNote(int appointmentId, String doctorNote) {
-        Appointment appointment = getAppointment(appointmentId);
-        appointment.setDoctorNote(doctorNote);
-        return appointmentRepository.save(appointment);
+        Appointment appointment = appointmentRepository.findByIdForUpdate(appointmentId)
+                .orElseThrow(() -> new RuntimeException("Randevu bulunamadı"));
+        int version = noteRepository.findLatestVersion(appointmentId).orElse(0) + 1;
+        noteRepository.save(new AppointmentNote(0, appointmentId, version, doctorNote, LocalDateTime.now()));
+        noteAutosaveService.discard(appointmentId);
+        if (!appointment.isHasNote()) {
+            appointment.setHasNote(true);
+            appointment = appointmentRepository.save(appointment);
+        }
+        // Audit log'a not metni yazılmaz (hasta verisi, silinemez log); sürüm ve özeti yeterli
+        eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.NOTE_UPDATED, appointment,
+                "v" + version + " length=" + doctorNote.length()
+                        + " sha256=" + IdempotencyService.fingerprint(doctorNote).substring(0, 16)));
+        return appointment;
+    }
+
+    /**
+     * Randevunun Not Geçmişi (eskiden yeniye, sonuncusu güncel not)
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentNote> getNoteHistory(int appointmentId) {
+        return noteRepository.findByAppointmentIdOrderByVersion(appointmentId);
     }
 
     /**
      * ID ile Randevu Getirme
      */
+    @Transactional(readOnly = true)
     public Appointment getAppointment(int appointmentId) {
         return appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Randevu bulunamadı"));
@@ -105,6 +173,7 @@ public class AppointmentService {
     /**
      * Tüm Randevuları Listeleme
      */
+    @Transactional(readOnly = true)
     public List<Appointment> getAllAppointments() {
         return appointmentRepository.findAll();
     }
@@ -112,6 +181,7 @@ public class AppointmentService {
     /**
      * Hastanın Randevularını Getirme
      */
+    @Transactional(readOnly = true)
     public List<Appointment> getPatientAppointments(int patientId) {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Hasta bulunamadı"));
@@ -121,6 +191,7 @@ public class AppointmentService {
     /**
      * Doktorun Randevularını Getirme
      */
+    @Transactional(readOnly = true)
     public List<Appointment> getDoctorAppointments(int doctorId) {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new RuntimeException("Doktor bulunamadı"));
@@ -130,16 +201,25 @@ public class AppointmentService {
     /**
      * Randevu Silme İşlemi
      */
+    @Transactional
     public void deleteAppointment(int appointmentId) {
-        if (!appointmentRepository.existsById(appointmentId)) {
-            throw new RuntimeException("Randevu bulunamadı");
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new RuntimeException("Randevu bulunamadı"));
+        if (appointment.isHasNote()) {
+            noteRepository.deleteByAppointmentId(appointmentId);
         }
-        appointmentRepository.deleteById(appointmentId);
+        noteAutosaveService.discard(appointmentId);
+        appointmentRepository.delete(appointment);
+        eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.DELETED, appointment, null));
     }
 
     /**
      * Randevuya Not Ekleme - Controller tarafından kullanılan metod adı
+     *
+     * addDoctorNote'u aynı sınıftan çağırır (proxy'den geçmez); transaction
+     * burada açılmalı, yoksa kilit ve not kaydı transaction dışında kalır.
      */
+    @Transactional
     public Appointment setNoteToAppointment(int appointmentId, String doctorNote) {
         return addDoctorNote(appointmentId, doctorNote);
     }
@@ -147,6 +227,7 @@ public class AppointmentService {
     /**
      * Doktor ID'sine göre randevuları getirme - Controller tarafından kullanılan metod adı
      */
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctor(int doctorId) {
         return getDoctorAppointments(doctorId);
     }
@@ -154,6 +235,7 @@ public class AppointmentService {
     /**
      * Hasta ID'sine göre randevuları getirme - Controller tarafından kullanılan metod adı
      */
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByPatient(int patientId) {
         return getPatientAppointments(patientId);
     }
@@ -162,20 +244,39 @@ public class AppointmentService {
      * Randevuyu İptal Etme
      */
     public Appointment cancelAppointment(int appointmentId) {
-        return updateAppointmentStatus(appointmentId, Appointment.AppointmentStatus.CANCELLED);
+        return changeStatus(appointmentId, Appointment.AppointmentStatus.CANCELLED, AppointmentEvent.Type.CANCELLED);
     }
 
     /**
      * Randevuyu Onaylama
      */
     public Appointment approveAppointment(int appointmentId) {
-        return updateAppointmentStatus(appointmentId, Appointment.AppointmentStatus.CONFIRMED);
+        return changeStatus(appointmentId, Appointment.AppointmentStatus.CONFIRMED, AppointmentEvent.Type.APPROVED);
     }
 
     /**
      * Randevuyu Reddetme
      */
     public Appointment rejectAppointment(int appointmentId) {
-        return updateAppointmentStatus(appointmentId, Appointment.AppointmentStatus.CANCELLED);
+        return changeStatus(appointmentId, Appointment.AppointmentStatus.CANCELLED, AppointmentEvent.Type.REJECTED);
+    }
+
+    private void rejectIfUnavailable(DoctorAvailabilityService.Availability availability) {
+        switch (availability) {
+            case UNAVAILABLE -> throw bookingRejected("unavailable", "Doktor şu anda randevu kabul etmiyor");
+            case ON_LEAVE -> throw bookingRejected("on_leave", "Doktor bu tarihte izinli");
+            default -> { } // AVAILABLE veya UNKNOWN (doktor yok: sonraki kontrol reddeder)
+        }
+    }
+
+    /**
+     * Reddedilen Randevu Talebini Sayma
+     * 
+     * medicaltracking.appointment.booking.rejected sayacını reason etiketiyle
+     * artırır (conflict = çift rezervasyon denemesi) ve fırlatılacak hatayı döndürür.
+     */
+    private RuntimeException bookingRejected(String reason, String message) {
+        meterRegistry.counter("medicaltracking.appointment.booking.rejected", "reason", reason).increment();
+        return new RuntimeException(message);
     }
 }
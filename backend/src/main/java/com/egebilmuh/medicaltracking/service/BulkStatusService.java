@@ -0,0 +1,175 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Toplu Randevu Durumu Değişikliği (Bulk Approve / Reject / Cancel)
+ *
+ * Doktorun sabah kuyruğunu tek istekte temizlemesi için. Randevu başına
+ * SELECT + UPDATE yerine tek transaction'da:
+ * 1. Tüm randevular tek SELECT ... FOR UPDATE ile okunur ve kilitlenir
+ * 2. Her randevu için sahiplik ve durum geçişi kontrol edilir
+ * 3. Geçerli değişiklikler hedef durum başına tek UPDATE ... WHERE id IN (...) ile yazılır
+ * 4. Her değişen randevu için AppointmentEvent yayınlanır (tekil uçlarla aynı tipler)
+ *
+ * Geçersiz kalemler diğerlerini engellemez; sonuç randevu başına döner.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("medicaltracking.service")
+public class BulkStatusService {
+
+    public static final int MAX_ITEMS = 500;
+
+    /**
+     * Toplu İşlem Tipi (izin verilen önceki durumlar ve yayınlanan olay)
+     */
+    public enum Action {
+        APPROVE(Appointment.AppointmentStatus.CONFIRMED, AppointmentEvent.Type.APPROVED,
+                Set.of(Appointment.AppointmentStatus.PENDING)),
+        REJECT(Appointment.AppointmentStatus.CANCELLED, AppointmentEvent.Type.REJECTED,
+                Set.of(Appointment.AppointmentStatus.PENDING)),
+        CANCEL(Appointment.AppointmentStatus.CANCELLED, AppointmentEvent.Type.CANCELLED,
+                Set.of(Appointment.AppointmentStatus.PENDING, Appointment.AppointmentStatus.CONFIRMED));
+
+        private final Appointment.AppointmentStatus target;
+        private final AppointmentEvent.Type eventType;
+        private final Set<Appointment.AppointmentStatus> allowedFrom;
+
+        Action(Appointment.AppointmentStatus target, AppointmentEvent.Type eventType,
+               Set<Appointment.AppointmentStatus> allowedFrom) {
+            this.target = target;
+            this.eventType = eventType;
+            this.allowedFrom = allowedFrom;
+        }
+    }
+
+    /**
+     * Kalem Sonucu
+     */
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        NOT_OWNER,          // Randevu bu doktora ait değil
+        ILLEGAL_TRANSITION, // Mevcut durumdan bu işleme geçilemez (ör. iptal edilmiş randevuyu onaylama)
+        DUPLICATE           // Aynı randevu istekte birden fazla kez var
+    }
+
+    public record Change(int appointmentId, Action action) {
+    }
+
+    /**
+     * @param status İşlem sonrası durum (NOT_FOUND için null)
+     */
+    public record ItemResult(int appointmentId, Outcome outcome, Appointment.AppointmentStatus status) {
+    }
+
+    private record Row(int appointmentId, int doctorId, int patientId, LocalDateTime appointmentDateTime,
+                       Appointment.AppointmentStatus status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Doktorun Randevularında Toplu Durum Değişikliği
+     *
+     * @param doctorId İşlemi yapan doktor (sadece kendi randevuları değişir)
+     * @param changes Randevu ve işlem listesi (istek sırası korunur)
+     * @return List<ItemResult> - Her kalem için sonuç, istekle aynı sırada
+     * @throws IllegalArgumentException Liste boşsa veya MAX_ITEMS'tan uzunsa
+     */
+    public List<ItemResult> apply(int doctorId, List<Change> changes) {
+        if (changes == null || changes.isEmpty() || changes.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("Toplu işlem 1-" + MAX_ITEMS + " randevu içermeli");
+        }
+        return transactionTemplate.execute(status -> {
+            Map<Integer, Row> rows = lockRows(changes);
+            Map<Integer, ItemResult> results = new HashMap<>();
+            Map<Appointment.AppointmentStatus, List<Integer>> updates = new EnumMap<>(Appointment.AppointmentStatus.class);
+            List<AppointmentEvent> events = new ArrayList<>();
+            Instant now = Instant.now();
+
+            for (Change change : changes) {
+                int id = change.appointmentId();
+                Row row = rows.get(id);
+                if (results.containsKey(id)) {
+                    continue; // Tekrarlanan kalem aşağıda DUPLICATE olarak döner
+                }
+                if (row == null) {
+                    results.put(id, new ItemResult(id, Outcome.NOT_FOUND, null));
+                } else if (row.doctorId() != doctorId) {
+                    results.put(id, new ItemResult(id, Outcome.NOT_OWNER, row.status()));
+                } else if (!change.action().allowedFrom.contains(row.status())) {
+                    results.put(id, new ItemResult(id, Outcome.ILLEGAL_TRANSITION, row.status()));
+                } else {
+                    Appointment.AppointmentStatus target = change.action().target;
+                    updates.computeIfAbsent(target, t -> new ArrayList<>()).add(id);
+                    events.add(new AppointmentEvent(change.action().eventType, id, row.doctorId(), row.patientId(),
+                            row.appointmentDateTime(), row.status(), target, row.status() + " -> " + target, now));
+                    results.put(id, new ItemResult(id, Outcome.UPDATED, target));
+                }
+            }
+
+            // Satırlar kilitli: koşulsuz güncelleme eşzamanlı bir değişikliği ezmez
+            updates.forEach((target, ids) -> jdbcTemplate.update(
+                    "UPDATE appointment SET status = ? WHERE appointment_id IN (" + placeholders(ids.size()) + ")",
+                    prepend(target.name(), ids)));
+            events.forEach(eventPublisher::publishEvent);
+
+            List<ItemResult> ordered = new ArrayList<>(changes.size());
+            Map<Integer, Boolean> seen = new HashMap<>();
+            for (Change change : changes) {
+                int id = change.appointmentId();
+                ItemResult result = results.get(id);
+                ordered.add(seen.put(id, Boolean.TRUE) == null ? result
+                        : new ItemResult(id, Outcome.DUPLICATE, result.status()));
+            }
+            return ordered;
+        });
+    }
+
+    private Map<Integer, Row> lockRows(List<Change> changes) {
+        List<Integer> ids = changes.stream().map(Change::appointmentId).distinct().toList();
+        Map<Integer, Row> rows = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT appointment_id, doctor_user_id, patient_user_id, appointment_date_time, status "
+                        + "FROM appointment WHERE appointment_id IN (" + placeholders(ids.size()) + ") FOR UPDATE",
+                row -> {
+                    rows.put(row.getInt(1), new Row(row.getInt(1), row.getInt(2), row.getInt(3),
+                            row.getTimestamp(4).toLocalDateTime(),
+                            Appointment.AppointmentStatus.valueOf(row.getString(5))));
+                }, ids.toArray());
+        return rows;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] prepend(Object first, List<Integer> rest) {
+        Object[] args = new Object[rest.size() + 1];
+        args[0] = first;
+        for (int i = 0; i < rest.size(); i++) {
+            args[i + 1] = rest.get(i);
+        }
+        return args;
+    }
+}
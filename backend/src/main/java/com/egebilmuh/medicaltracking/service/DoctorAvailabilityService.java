@@ -0,0 +1,369 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorUnavailability;
+import com.egebilmuh.medicaltracking.repository.DoctorRepository;
+import com.egebilmuh.medicaltracking.repository.DoctorUnavailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Doktor Müsaitlik Servisi (Doctor Availability Service)
+ *
+ * Doktorların müsaitlik durumunu bellekte bir bitset olarak tutar.
+ * Randevu oluşturma yolu bu servise sorar ve kapalı veya izinli doktor
+ * için talebi veritabanına gitmeden reddeder; hasta, doktor entity'si ve
+ * çakışma sorguları da atlanır. Sadece bellekte hiç kaydı olmayan doktor
+ * (UNKNOWN) için karar confirm() ile veritabanından verilir.
+ *
+ * Bu instance'taki değişiklikler commit sonrası hemen yansır. Başka
+ * instance'ta yapılan değişiklikler için kopya
+ * medicaltracking.availability.refresh-interval-ms aralıkla veritabanından
+ * yeniden yüklenir: bellekteki karar en fazla bu süre kadar eski olabilir
+ * (Doctor entity'si de ikinci seviye cache'ten geldiği için önceki
+ * doctor.isAvailability() kontrolü de çok instance'ta aynı şekilde gecikirdi).
+ *
+ * Veri Yapısı:
+ * - known: Bellekte kaydı olan doktorlar (bit index = doctorId)
+ * - available: Genel anahtarı açık olan doktorlar
+ * - windows: Doktor bazlı zamanlanmış izin aralıkları
+ *
+ * Eşzamanlılık: Okumalar kilitsizdir (volatile snapshot). Yazmalar nadir
+ * olduğu için bitset kopyalanıp değiştirilir ve snapshot atomik olarak
+ * yenilenir (copy-on-write). Yazarlar ReentrantLock ile sıraya girer.
+ * Yükleme sırasında bu instance'ta değişen doktorların güncel durumu,
+ * yükleme başlamadan okunmuş olabilecek veritabanı değerinin üzerine yazılmaz.
+ *
+ * Veritabanı kalıcı kopyadır: durum önce DB'ye yazılır, commit sonrası
+ * bellekteki snapshot güncellenir.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DoctorAvailabilityService implements WarmupAware {
+
+    /**
+     * Bellek İçi Müsaitlik Kararı
+     */
+    public enum Availability {
+        UNKNOWN,      // Bellekte kayıt yok - karar veritabanından (confirm)
+        AVAILABLE,
+        UNAVAILABLE,  // Genel anahtar kapalı
+        ON_LEAVE      // Tarih bir izin aralığına düşüyor
+    }
+
+    private final DoctorRepository doctorRepository;
+    private final DoctorUnavailabilityRepository unavailabilityRepository;
+    private final ProfileService profileService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Integer, List<DoctorUnavailability>> windows = new ConcurrentHashMap<>();
+    // writeLock altında: yükleme sürerken bu instance'ta değişen doktorlar
+    private final Set<Integer> changedDuringLoad = new HashSet<>();
+    private boolean loading;
+
+    private volatile Snapshot snapshot = new Snapshot(new BitSet(), new BitSet());
+    private volatile boolean warm;
+
+    /**
+     * Booking Yolu İçin Müsaitlik Sorgusu (veritabanına gitmez)
+     *
+     * @param doctorId Randevu istenen doktor
+     * @param dateTime Randevu tarih-saati
+     * @return Availability - UNKNOWN ise karar veritabanına bırakılmalıdır
+     */
+    public Availability check(int doctorId, LocalDateTime dateTime) {
+        Snapshot current = snapshot;
+        if (doctorId < 0 || !current.known().get(doctorId)) {
+            return Availability.UNKNOWN;
+        }
+        if (!current.available().get(doctorId)) {
+            return Availability.UNAVAILABLE;
+        }
+        LocalDate date = dateTime.toLocalDate();
+        for (DoctorUnavailability window : windows.getOrDefault(doctorId, List.of())) {
+            if (window.covers(date)) {
+                return Availability.ON_LEAVE;
+            }
+        }
+        return Availability.AVAILABLE;
+    }
+
+    /**
+     * Veritabanından Müsaitlik Kontrolü (bellekte kaydı olmayan doktor)
+     *
+     * Doktor son yüklemeden sonra başka bir instance'ta kaydolmuş olabilir.
+     * Sonuç belleğe yazılır; sonraki check() çağrıları veritabanına gitmez.
+     *
+     * @return Availability - Doktor yoksa UNKNOWN
+     */
+    public Availability confirm(int doctorId, LocalDateTime dateTime) {
+        Optional<Boolean> available = doctorRepository.findAvailabilityById(doctorId);
+        if (available.isEmpty()) {
+            return Availability.UNKNOWN;
+        }
+        LocalDate date = dateTime.toLocalDate();
+        Availability actual;
+        if (!available.get()) {
+            actual = Availability.UNAVAILABLE;
+        } else if (unavailabilityRepository.existsByDoctorIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                doctorId, date, date)) {
+            actual = Availability.ON_LEAVE;
+        } else {
+            actual = Availability.AVAILABLE;
+        }
+        if (check(doctorId, dateTime) != actual) {
+            mark(doctorId, available.get());
+            reloadWindows(doctorId);
+        }
+        return actual;
+    }
+
+    /**
+     * Müsaitlik Anahtarını Değiştirme
+     *
+     * @param doctorId Doktor ID'si
+     * @param available true: randevu kabul eder, false: kabul etmez
+     * @return Doctor - Güncellenmiş doktor
+     * @throws RuntimeException Doktor bulunamazsa
+     */
+    public Doctor updateAvailability(int doctorId, boolean available) {
+        Doctor saved = transactionTemplate.execute(status -> {
+            Doctor doctor = doctorRepository.findById(doctorId)
+                    .orElseThrow(() -> new RuntimeException("Doktor bulunamadı"));
+            doctor.setAvailability(available);
+            Doctor result = doctorRepository.save(doctor);
+            profileService.sync(result);
+            return result;
+        });
+        // Commit başarılı - bellekteki kopyayı güncelle
+        mark(doctorId, available);
+        return saved;
+    }
+
+    /**
+     * İzin Aralığı Ekleme
+     *
+     * @param doctorId Doktor ID'si
+     * @param startDate Başlangıç (dahil)
+     * @param endDate Bitiş (dahil)
+     * @param reason Açıklama (opsiyonel)
+     * @return DoctorUnavailability - Kaydedilmiş aralık
+     * @throws IllegalArgumentException Tarihler geçersizse
+     * @throws RuntimeException Doktor bulunamazsa
+     */
+    public DoctorUnavailability addWindow(int doctorId, LocalDate startDate, LocalDate endDate, String reason) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Geçersiz izin aralığı");
+        }
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new RuntimeException("Doktor bulunamadı");
+        }
+        DoctorUnavailability saved = unavailabilityRepository.save(
+                new DoctorUnavailability(0, doctorId, startDate, endDate, reason));
+        reloadWindows(doctorId);
+        return saved;
+    }
+
+    /**
+     * İzin Aralığını Silme
+     *
+     * @throws RuntimeException Aralık bu doktora ait değilse veya bulunamazsa
+     */
+    public void removeWindow(int doctorId, int windowId) {
+        DoctorUnavailability window = unavailabilityRepository.findById(windowId)
+                .filter(w -> w.getDoctorId() == doctorId)
+                .orElseThrow(() -> new RuntimeException("İzin aralığı bulunamadı"));
+        unavailabilityRepository.delete(window);
+        reloadWindows(doctorId);
+    }
+
+    /**
+     * Doktorun İzin Aralıkları
+     */
+    public List<DoctorUnavailability> getWindows(int doctorId) {
+        return unavailabilityRepository.findByDoctorIdOrderByStartDate(doctorId);
+    }
+
+    /**
+     * Yeni Kayıt Olan Doktoru Belleğe Ekleme (UserService.registerDoctor çağırır)
+     */
+    public void register(Doctor doctor) {
+        mark(doctor.getUserId(), doctor.isAvailability());
+    }
+
+    /**
+     * Silinen Doktoru Bellekten Çıkarma
+     */
+    public void remove(int doctorId) {
+        writeLock.lock();
+        try {
+            BitSet known = (BitSet) snapshot.known().clone();
+            BitSet available = (BitSet) snapshot.available().clone();
+            known.clear(doctorId);
+            available.clear(doctorId);
+            snapshot = new Snapshot(known, available);
+            windows.remove(doctorId);
+            changed(doctorId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Başlangıçta Bitset'i Veritabanından Doldurma
+     *
+     * Sadece ID listeleri okunur (entity yüklenmez). Dolana kadar booking
+     * yolu UNKNOWN alır ve veritabanı kontrolüne düşer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        load();
+        warm = true;
+    }
+
+    /**
+     * Başka Instance'ların Değişikliklerini Yükleme
+     *
+     * Hata durumunda mevcut kopya kalır, sonraki aralıkta tekrar denenir.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.availability.refresh-interval-ms:30000}",
+            initialDelayString = "${medicaltracking.availability.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!warm) {
+            return;
+        }
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Doktor müsaitlikleri yenilenemedi, mevcut kopya kullanılmaya devam ediyor", e);
+        }
+    }
+
+    private void load() {
+        writeLock.lock();
+        try {
+            loading = true;
+            changedDuringLoad.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            BitSet known = new BitSet();
+            BitSet available = new BitSet();
+            doctorRepository.findAllDoctorIds().forEach(known::set);
+            doctorRepository.findAvailableDoctorIds().forEach(available::set);
+
+            Map<Integer, List<DoctorUnavailability>> loaded = new HashMap<>();
+            for (DoctorUnavailability window : unavailabilityRepository.findByEndDateGreaterThanEqual(LocalDate.now())) {
+                loaded.computeIfAbsent(window.getDoctorId(), id -> new ArrayList<>()).add(window);
+            }
+
+            writeLock.lock();
+            try {
+                Snapshot current = snapshot;
+                for (int doctorId : changedDuringLoad) {
+                    known.set(doctorId, current.known().get(doctorId));
+                    available.set(doctorId, current.available().get(doctorId));
+                }
+                snapshot = new Snapshot(known, available);
+                windows.keySet().removeIf(doctorId -> !loaded.containsKey(doctorId)
+                        && !changedDuringLoad.contains(doctorId));
+                loaded.forEach((doctorId, list) -> {
+                    if (!changedDuringLoad.contains(doctorId)) {
+                        windows.put(doctorId, sorted(list));
+                    }
+                });
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            writeLock.lock();
+            try {
+                loading = false;
+                changedDuringLoad.clear();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void mark(int doctorId, boolean available) {
+        writeLock.lock();
+        try {
+            BitSet knownCopy = (BitSet) snapshot.known().clone();
+            BitSet availableCopy = (BitSet) snapshot.available().clone();
+            knownCopy.set(doctorId);
+            availableCopy.set(doctorId, available);
+            snapshot = new Snapshot(knownCopy, availableCopy);
+            changed(doctorId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reloadWindows(int doctorId) {
+        List<DoctorUnavailability> active = unavailabilityRepository.findByDoctorIdOrderByStartDate(doctorId).stream()
+                .filter(w -> !w.getEndDate().isBefore(LocalDate.now()))
+                .toList();
+        writeLock.lock();
+        try {
+            if (active.isEmpty()) {
+                windows.remove(doctorId);
+            } else {
+                windows.put(doctorId, active);
+            }
+            changed(doctorId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // writeLock altında çağrılır
+    private void changed(int doctorId) {
+        if (loading) {
+            changedDuringLoad.add(doctorId);
+        }
+    }
+
+    private static List<DoctorUnavailability> sorted(List<DoctorUnavailability> list) {
+        return list.stream().sorted(Comparator.comparing(DoctorUnavailability::getStartDate)).toList();
+    }
+
+    @Override
+    public String warmupName() {
+        return "doctorAvailability";
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Değiştirilemez Bitset Çifti (yayınlandıktan sonra değiştirilmez)
+     */
+    private record Snapshot(BitSet known, BitSet available) {
+    }
+}
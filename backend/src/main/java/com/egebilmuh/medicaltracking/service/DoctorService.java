@@ -2,9 +2,11 @@ package com.egebilmuh.medicaltracking.service;
 
 import com.egebilmuh.medicaltracking.model.Appointment;
 import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
 import com.egebilmuh.medicaltracking.repository.DoctorRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +29,7 @@ public class DoctorService {
     
     // Dependency Injection - Constructor injection ile
     private final DoctorRepository doctorRepository;
+    private final ProfileService profileService;
 
     /**
      * ID ile Doktor Bilgisini Getirme
@@ -35,6 +38,7 @@ public class DoctorService {
      * @return Doctor - Bulunan doktor nesnesi
      * @throws RuntimeException Doktor bulunamazsa
      */
+    @Transactional(readOnly = true)
     public Doctor getDoctor(int doctorId) {
         return doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new RuntimeException("Doktor bulunamadı"));
@@ -43,11 +47,12 @@ public class DoctorService {
     /**
      * Tüm Doktorları Listeleme
      * 
-     * @return List<Doctor> - Sistemdeki tüm doktorların listesi
-
+     * @return List<DoctorProfile> - Sistemdeki tüm doktorların profilleri
+     * (doctor_profile okuma modelinden, JOIN yapılmadan)
      */
-    public List<Doctor> getAllDoctors(){
-        return doctorRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<DoctorProfile> getAllDoctors(){
+        return profileService.getAllDoctors();
     }
 
 }
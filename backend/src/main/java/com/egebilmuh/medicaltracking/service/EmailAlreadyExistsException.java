@@ -0,0 +1,15 @@
+package com.egebilmuh.medicaltracking.service;
+
+/**
+ * E-posta Zaten Kayıtlı Hatası
+ *
+ * Ön kontrolde (isEmailTaken) veya uk_user_email ihlalinde fırlar.
+ * Controller'lar bu hatayı 409 Conflict'e çevirir; diğer RuntimeException'lar
+ * eskisi gibi 400/404 döner.
+ */
+public class EmailAlreadyExistsException extends RuntimeException {
+
+    public EmailAlreadyExistsException(String email) {
+        super("Kullanıcı zaten mevcut: email=" + email);
+    }
+}
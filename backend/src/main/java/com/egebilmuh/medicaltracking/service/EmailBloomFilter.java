@@ -0,0 +1,150 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Kayıtlı E-posta Bloom Filtresi (Negative-Lookup Filter)
+ *
+ * Kayıt sırasında "bu e-posta kesinlikle yeni mi?" sorusunu bellekte,
+ * veritabanına gitmeden yanıtlar:
+ * - mightContain == false → e-posta kesinlikle kayıtlı değil, existsByEmail atlanır
+ * - mightContain == true  → kayıtlı olabilir (yanlış pozitif), ön kontrol yapılır
+ *
+ * Benzersizliğin asıl garantisi uk_user_email index'idir; filtre sadece
+ * gereksiz round trip'leri ve boşa BCrypt hesaplamasını önler.
+ *
+ * Bitler AtomicLongArray'de tutulur, ekleme kilitsiz ve thread-safe'tir.
+ * Silinen kullanıcılar filtreden çıkarılamaz; bu sadece yanlış pozitif
+ * oranını artırır, doğruluğu bozmaz.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter implements WarmupAware {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private volatile boolean warm;
+
+    public EmailBloomFilter(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                            @Value("${medicaltracking.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${medicaltracking.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Standart boyutlandırma: m = -n ln(p) / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * @param normalizedEmail User.normalizeEmail ile normalize edilmiş e-posta
+     * @return boolean - false ise e-posta kesinlikle kayıtlı değildir
+     */
+    public boolean mightContain(String normalizedEmail) {
+        long[] hashes = hash(normalizedEmail);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kayıtlı E-postayı Filtreye Ekleme
+     */
+    public void put(String normalizedEmail) {
+        long[] hashes = hash(normalizedEmail);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Başlangıçta Mevcut E-postaları Yükleme
+     *
+     * Isınma bitene kadar mightContain yanlış negatif verebileceği için
+     * UserService ön kontrolü isWarm() false iken her zaman yapar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long[] count = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(email -> {
+                    put(User.normalizeEmail(email));
+                    count[0]++;
+                });
+            }
+        });
+        warm = true;
+        log.info("E-posta bloom filtresi {} kayıt ile dolduruldu ({} bit, {} hash)", count[0], bitCount, hashCount);
+    }
+
+    private long index(long[] hashes, int i) {
+        // Kirsch-Mitzenmacher çift hash yöntemi: h1 + i * h2
+        long combined = hashes[0] + i * hashes[1];
+        return Math.floorMod(combined, bitCount);
+    }
+
+    private static long[] hash(String value) {
+        // İki bağımsız 64-bit FNV-1a varyantı (farklı offset basis)
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x84222325cbf29ce4L;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+            h2 = (h2 ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        h2 = mix(h2) | 1; // Tek sayı: tüm bit pozisyonlarına ulaşılabilir
+        return new long[]{mix(h1), h2};
+    }
+
+    private static long mix(long h) {
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public String warmupName() {
+        return "emailBloomFilter";
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+}
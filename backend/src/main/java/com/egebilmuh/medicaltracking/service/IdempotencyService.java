@@ -0,0 +1,208 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.IdempotencyKey;
+import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
+import com.egebilmuh.medicaltracking.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Randevu Oluşturma İçin İdempotency (Idempotency-Key)
+ *
+ * Bağlantısı kopan mobil istemci aynı anahtarla tekrar denediğinde ilk
+ * isteğin sonucu (oluşturulan randevu) döner; doğrulamalar ve INSERT
+ * tekrar çalışmaz.
+ *
+ * İki katman:
+ * - Bellek: boyutu sınırlı (max-entries), TTL ile düşen anahtar → randevu
+ *   haritası; ekleme sırası = son kullanma sırası olduğu için süresi dolanlar
+ *   baştan silinir
+ * - Veritabanı (idempotency_key): anahtar satırı randevu ile aynı
+ *   transaction'da, randevudan önce eklenir. Aynı anahtarla eşzamanlı ikinci
+ *   istek birincil anahtar kilidinde bekler; ilki commit edince duplicate
+ *   hatası alır ve ilk sonucu döndürür. Bellekten düşen veya başka instance'a
+ *   gelen tekrar denemeler de buradan yanıtlanır.
+ *
+ * Başarısız istekler kaydedilmez (transaction ile birlikte geri alınır);
+ * tekrar deneme normal şekilde çalışır.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    /**
+     * İşlem Sonucu
+     *
+     * @param replayed true ise randevu bu istekte değil, aynı anahtarlı önceki istekte oluşturuldu
+     */
+    public record Result(Appointment appointment, boolean replayed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyKeyRepository keyRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Remembered> recent = new LinkedHashMap<>(); // lock altında
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              IdempotencyKeyRepository keyRepository, AppointmentRepository appointmentRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${medicaltracking.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${medicaltracking.idempotency.max-entries:100000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.keyRepository = keyRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Anahtarla Randevu Oluşturma
+     *
+     * @param key Idempotency-Key başlığı
+     * @param fingerprint İstek gövdesinin özeti (bkz. fingerprint())
+     * @param create Randevuyu oluşturan işlem; anahtar kaydıyla aynı transaction'da çalışır
+     * @throws IllegalArgumentException Anahtar boş veya çok uzunsa
+     * @throws IllegalStateException Anahtar daha önce farklı bir istekle kullanıldıysa
+     */
+    public Result execute(String key, String fingerprint, Supplier<Appointment> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Geçersiz Idempotency-Key");
+        }
+
+        Remembered remembered = lookup(key);
+        if (remembered != null) {
+            return replay(key, fingerprint, remembered.fingerprint(), remembered.appointmentId(), "memory");
+        }
+        IdempotencyKey stored = keyRepository.findById(key).orElse(null);
+        if (stored != null && stored.getAppointmentId() != null) {
+            return replay(key, fingerprint, stored.getFingerprint(), stored.getAppointmentId(), "database");
+        }
+
+        Appointment appointment;
+        try {
+            appointment = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("INSERT INTO idempotency_key (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?)",
+                        key, fingerprint, Timestamp.valueOf(LocalDateTime.now()));
+                Appointment created = create.get();
+                jdbcTemplate.update("UPDATE idempotency_key SET appointment_id = ? WHERE idempotency_key = ?",
+                        created.getAppointmentId(), key);
+                return created;
+            });
+        } catch (DuplicateKeyException e) {
+            // Aynı anahtarlı eşzamanlı istek (başka instance dahil) önce commit etti
+            IdempotencyKey winner = keyRepository.findById(key)
+                    .orElseThrow(() -> new RuntimeException("İdempotency kaydı bulunamadı"));
+            return replay(key, fingerprint, winner.getFingerprint(), winner.getAppointmentId(), "concurrent");
+        }
+        remember(key, fingerprint, appointment.getAppointmentId());
+        return new Result(appointment, false);
+    }
+
+    /**
+     * İstek Gövdesi Özeti (SHA-256, hex)
+     */
+    public static String fingerprint(Object... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (Object part : parts) {
+            joined.append(Objects.toString(part, "")).append('\u001f');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(joined.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Süresi Dolan Kalıcı Anahtarları Silme
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.idempotency.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        int deleted = keyRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(Duration.ofMillis(ttlMillis)));
+        if (deleted > 0) {
+            log.info("Süresi dolan {} idempotency anahtarı silindi", deleted);
+        }
+    }
+
+    private Result replay(String key, String fingerprint, String storedFingerprint, int appointmentId, String source) {
+        if (!fingerprint.equals(storedFingerprint)) {
+            meterRegistry.counter("medicaltracking.idempotency.mismatch").increment();
+            throw new IllegalStateException("Idempotency-Key farklı bir istekle kullanılmış");
+        }
+        remember(key, storedFingerprint, appointmentId);
+        meterRegistry.counter("medicaltracking.idempotency.replayed", "source", source).increment();
+        // Repository transaction'ı birincilde çalışır: replika henüz randevuyu görmemiş olabilir
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new RuntimeException("Randevu bulunamadı"));
+        return new Result(appointment, true);
+    }
+
+    private Remembered lookup(String key) {
+        lock.lock();
+        try {
+            Remembered remembered = recent.get(key);
+            if (remembered != null && remembered.expiresAt() < System.currentTimeMillis()) {
+                recent.remove(key);
+                return null;
+            }
+            return remembered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remember(String key, String fingerprint, int appointmentId) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            recent.remove(key); // Yeniden eklenen anahtar sona geçer
+            recent.put(key, new Remembered(fingerprint, appointmentId, now + ttlMillis));
+            Iterator<Map.Entry<String, Remembered>> eldest = recent.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Map.Entry<String, Remembered> entry = eldest.next();
+                if (recent.size() <= maxEntries && entry.getValue().expiresAt() >= now) {
+                    break;
+                }
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Remembered(String fingerprint, int appointmentId, long expiresAt) {
+    }
+}
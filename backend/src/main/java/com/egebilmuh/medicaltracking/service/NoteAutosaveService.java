@@ -0,0 +1,244 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.AppointmentNote;
+import com.egebilmuh.medicaltracking.model.AppointmentNoteDraft;
+import com.egebilmuh.medicaltracking.repository.AppointmentNoteDraftRepository;
+import com.egebilmuh.medicaltracking.repository.AppointmentNoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Doktor Notu Otomatik Kaydı (Write-Behind Autosave)
+ *
+ * DoctorDashboard not yazılırken metni kısa aralıklarla gönderir. Her
+ * istekte SELECT + UPDATE yapmak yerine:
+ * - autosave() sadece bellekteki haritaya yazar ve hemen döner; randevu
+ *   başına yalnızca son metin tutulur (aradaki ara sürümler birleşir)
+ * - flush() medicaltracking.notes.autosave.flush-interval-ms aralıkla
+ *   bekleyen taslakları tek transaction'da toplu UPDATE / INSERT ile yazar
+ * - Uygulama kapanırken (@PreDestroy) son bir flush yapılır; düzgün
+ *   yeniden başlatmada bekleyen taslak kaybolmaz
+ *
+ * Taslak sadece randevunun doktorundan kabul edilir (tek PK okuması) ve
+ * medicaltracking.notes.autosave.max-length karakteri aşamaz; bellekte
+ * tutulan toplam metin randevu sayısı × bu sınırla sınırlıdır.
+ *
+ * Yazılamayan taslaklar haritada kalır ve sonraki flush'ta tekrar denenir.
+ * Taslak bir not sürümü değildir: doktor notu kaydettiğinde
+ * (AppointmentService.addDoctorNote) taslak discard() ile silinir.
+ */
+@Slf4j
+@Service
+public class NoteAutosaveService {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLength;
+    private final AppointmentNoteDraftRepository draftRepository;
+    private final AppointmentNoteRepository noteRepository;
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter failures;
+
+    private final Map<Integer, PendingNote> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock(); // Zamanlanmış flush ile kapanış flush'ı çakışmasın
+
+    public NoteAutosaveService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               AppointmentNoteDraftRepository draftRepository, AppointmentNoteRepository noteRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${medicaltracking.notes.autosave.max-length:20000}") int maxLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLength = maxLength;
+        this.draftRepository = draftRepository;
+        this.noteRepository = noteRepository;
+        this.received = Counter.builder("medicaltracking.notes.autosave.received")
+                .description("Alınan otomatik kayıt istekleri")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("medicaltracking.notes.autosave.coalesced")
+                .description("Yazılmadan önce daha yeni metinle birleşen otomatik kayıtlar")
+                .register(meterRegistry);
+        this.written = Counter.builder("medicaltracking.notes.autosave.written")
+                .description("Veritabanına yazılan taslaklar")
+                .register(meterRegistry);
+        this.failures = Counter.builder("medicaltracking.notes.autosave.failures")
+                .description("Başarısız flush denemeleri")
+                .register(meterRegistry);
+        Gauge.builder("medicaltracking.notes.autosave.pending", pending, Map::size)
+                .description("Yazılmayı bekleyen taslaklar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Taslağı Belleğe Alma (taslak yazılmaz, sadece randevunun doktoru okunur)
+     *
+     * @param doctorId Oturumdaki doktor
+     * @return Outcome - Kabul edilmediyse nedeni
+     */
+    public Outcome autosave(int doctorId, int appointmentId, String note) {
+        received.increment();
+        String text = note != null ? note : "";
+        if (text.length() > maxLength) {
+            return Outcome.TOO_LARGE;
+        }
+        List<Integer> owner = jdbcTemplate.queryForList(
+                "SELECT doctor_user_id FROM appointment WHERE appointment_id = ?", Integer.class, appointmentId);
+        if (owner.isEmpty()) {
+            return Outcome.NOT_FOUND;
+        }
+        if (owner.get(0) != doctorId) {
+            return Outcome.NOT_OWNER;
+        }
+        if (pending.put(appointmentId, new PendingNote(text, LocalDateTime.now())) != null) {
+            coalesced.increment();
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Randevunun Güncel Taslağı
+     *
+     * Önce henüz yazılmamış taslağa bakılır. Salt okunur servis
+     * transaction'ı açılmaz: okuma replikaya gitmesin, az önce flush edilen
+     * taslak replikada henüz olmayabilir.
+     *
+     * @return Optional<AppointmentNoteDraft> - Taslak yoksa veya kaydedilmiş son nottan eskiyse boş
+     */
+    public Optional<AppointmentNoteDraft> getDraft(int appointmentId) {
+        PendingNote waiting = pending.get(appointmentId);
+        if (waiting != null) {
+            return Optional.of(new AppointmentNoteDraft(appointmentId, waiting.note(), waiting.receivedAt()));
+        }
+        Optional<AppointmentNoteDraft> draft = draftRepository.findById(appointmentId);
+        if (draft.isEmpty()) {
+            return draft;
+        }
+        // Not kaydedilirken yazılmakta olan flush eski bir taslak bırakabilir; kaydedilen sürümden eskiyse yok sayılır
+        Optional<LocalDateTime> savedAt = noteRepository.findFirstByAppointmentIdOrderByVersionDesc(appointmentId)
+                .map(AppointmentNote::getCreatedAt);
+        return draft.filter(d -> savedAt.isEmpty() || d.getUpdatedAt().isAfter(savedAt.get()));
+    }
+
+    /**
+     * Taslağı Silme (not kaydedildi veya randevu silindi)
+     */
+    public void discard(int appointmentId) {
+        pending.remove(appointmentId);
+        draftRepository.deleteByAppointmentId(appointmentId);
+    }
+
+    /**
+     * Bekleyen Taslakları Toplu Yazma
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.notes.autosave.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Integer, PendingNote> batch = Map.copyOf(pending);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Not taslakları yazılamadı ({} randevu), sonraki flush'ta tekrar denenecek", batch.size(), e);
+                return;
+            }
+            // Sadece yazılan metin silinir; flush sırasında gelen daha yeni metin sonraki flush'a kalır
+            batch.forEach(pending::remove);
+            written.increment(batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<Integer, PendingNote> batch) {
+        List<Integer> ids = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + FLUSH_CHUNK_SIZE));
+            // Randevu var mı, taslağı var mı? Silinmiş veya hiç olmayan randevunun taslağı atılır
+            Set<Integer> appointments = new HashSet<>();
+            Set<Integer> drafts = new HashSet<>();
+            jdbcTemplate.query("SELECT a.appointment_id, d.appointment_id FROM appointment a "
+                            + "LEFT JOIN appointment_note_draft d ON d.appointment_id = a.appointment_id "
+                            + "WHERE a.appointment_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                    row -> {
+                        appointments.add(row.getInt(1));
+                        if (row.getObject(2) != null) {
+                            drafts.add(row.getInt(1));
+                        }
+                    }, chunk.toArray());
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (Integer id : chunk) {
+                if (!appointments.contains(id)) {
+                    continue;
+                }
+                PendingNote note = batch.get(id);
+                Timestamp receivedAt = Timestamp.valueOf(note.receivedAt());
+                if (drafts.contains(id)) {
+                    updates.add(new Object[]{note.note(), receivedAt, id});
+                } else {
+                    inserts.add(new Object[]{id, note.note(), receivedAt});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE appointment_note_draft SET note = ?, updated_at = ? WHERE appointment_id = ?", updates);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO appointment_note_draft (appointment_id, note, updated_at) VALUES (?, ?, ?)", inserts);
+            }
+        }
+    }
+
+    /**
+     * Kapanışta Son Flush (düzgün yeniden başlatmada taslak kaybolmaz)
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Kapanışta {} not taslağı yazılamadı", pending.size());
+        }
+    }
+
+    /**
+     * Otomatik Kayıt Sonucu
+     */
+    public enum Outcome {
+        ACCEPTED,
+        NOT_FOUND,
+        NOT_OWNER, // Randevu oturumdaki doktora ait değil
+        TOO_LARGE  // Metin max-length sınırını aşıyor
+    }
+
+    private record PendingNote(String note, LocalDateTime receivedAt) {
+    }
+}
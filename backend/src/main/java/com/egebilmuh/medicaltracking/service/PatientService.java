@@ -3,9 +3,10 @@ package com.egebilmuh.medicaltracking.service;
 import com.egebilmuh.medicaltracking.model.Patient;
 import com.egebilmuh.medicaltracking.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Hasta İş Mantığı Servisi (Patient Service)
@@ -25,6 +26,7 @@ public class PatientService {
     
     // Dependency Injection - Repository pattern
     private final PatientRepository patientRepository;
+    private final ProfileService profileService;
 
     /**
      * ID ile Hasta Bilgisini Getirme
@@ -33,18 +35,21 @@ public class PatientService {
      * @return Patient - Bulunan hasta nesnesi
      * @throws RuntimeException Hasta bulunamazsa
      */
+    @Transactional(readOnly = true)
     public Patient getPatient(int patientId) {
         return patientRepository.findById(patientId)
                 .orElseThrow(() -> new RuntimeException("Hasta kaydı bulunamadı"));
     }
 
     /**
-     * Tüm Hastaları Listeleme
+     * Hastaları Sayfa Sayfa Listeleme
      * 
-     * @return List<Patient> - Sistemdeki tüm hastaların listesi
+     * @param pageable Sayfa numarası, boyutu ve sıralama
+     * @return Page<Patient> - İstenen sayfadaki hastalar
      */
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    @Transactional(readOnly = true)
+    public Page<Patient> getPatients(Pageable pageable) {
+        return patientRepository.findAll(pageable);
     }
 
     /**
@@ -54,6 +59,7 @@ public class PatientService {
      * @param updatedPatient Güncellenmiş hasta bilgileri
      * @return Patient - Güncellenmiş hasta nesnesi
      */
+    @Transactional
     public Patient updatePatient(int id, Patient updatedPatient) {
         // Mevcut hastayı bul (bulunamazsa exception)
         Patient existPatient = getPatient(id);
@@ -75,8 +81,10 @@ public class PatientService {
             existPatient.setRole(updatedPatient.getRole());
         }
         
-        // Güncellenmiş hasta nesnesini kaydet ve döndür
-        return patientRepository.save(existPatient);
+        // Güncellenmiş hasta nesnesini kaydet, okuma modelini senkronla ve döndür
+        Patient savedPatient = patientRepository.save(existPatient);
+        profileService.sync(savedPatient);
+        return savedPatient;
     }
 
     /**
@@ -86,12 +94,15 @@ public class PatientService {
      * @return Patient - Kaydedilmiş hasta (ID ile birlikte)
      * @throws IllegalArgumentException Hasta zaten mevcutsa
      */
+    @Transactional
     public Patient savePatient(Patient patient) {
         // Duplicate ID kontrolü (business rule)
         if (patientRepository.existsById(patient.getUserId())) {
             throw new IllegalArgumentException("Kullanıcı zaten mevcut: id=" + patient.getUserId());
         }
-        return patientRepository.save(patient);
+        Patient savedPatient = patientRepository.save(patient);
+        profileService.sync(savedPatient);
+        return savedPatient;
     }
 
     /**
@@ -101,6 +112,7 @@ public class PatientService {
      * @throws RuntimeException Hasta bulunamazsa
      *
      */
+    @Transactional
     public void deletePatient(int userId) {
         // Hasta varlığını kontrol et
         if (!patientRepository.existsById(userId)) {
@@ -108,6 +120,7 @@ public class PatientService {
         }
         // Hard delete gerçekleştir
         patientRepository.deleteById(userId);
+        profileService.remove(userId);
     }
 
 }
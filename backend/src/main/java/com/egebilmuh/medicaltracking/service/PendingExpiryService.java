@@ -0,0 +1,210 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Süresi Dolan Bekleyen Randevuları İptal Etme (Pending Expiry)
+ *
+ * Doktorun onaylamadığı PENDING randevular saati süresiz bloke etmesin diye
+ * periyodik bir süpürme yapılır. İki durumda randevu CANCELLED olur:
+ * - createdAt + medicaltracking.appointments.pending-ttl-hours geçtiyse
+ * - randevu saati onaylanmadan geçtiyse
+ *
+ * Tablo kilitlenmez; her batch ayrı kısa bir transaction'dır:
+ * 1. (status, createdAt) / (status, appointmentDateTime) index'inden en fazla
+ *    batch-size satır sıralı okunur ve FOR UPDATE ile sadece bu satırlar kilitlenir
+ * 2. Bu satırlar birincil anahtarla (IN listesi, status = 'PENDING' koşuluyla)
+ *    CANCELLED yapılır; güncellenen satır sayısı seçilenden azsa (arada onaylanan
+ *    veya iptal edilen randevu) batch geri alınır ve yeniden seçilir
+ * 3. Her randevu için EXPIRED olayı yayınlanır (audit log, hatırlatıcı)
+ *
+ * Süpürme paylaşılan zamanlayıcı thread'inde değil kendi thread'inde
+ * (pending-expiry) çalışır; batch arası beklemeler diğer zamanlanmış işleri
+ * bekletmez. Bir çalışmadaki batch sayısı mesai saatlerinde ve dışında ayrı
+ * ayrı sınırlanır, kalanlar sonraki çalışmaya bırakılır; mesai saatlerinde
+ * batch'ler arasında ayrıca beklenir.
+ */
+@Slf4j
+@Service
+public class PendingExpiryService {
+
+    private static final String SELECT_EXPIRED = "SELECT appointment_id, doctor_user_id, patient_user_id, appointment_date_time "
+            + "FROM appointment WHERE status = 'PENDING' AND %1$s < ? ORDER BY %1$s LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter expired;
+
+    @Value("${medicaltracking.appointments.pending-ttl-hours:48}")
+    private long pendingTtlHours;
+
+    @Value("${medicaltracking.appointments.pending-expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${medicaltracking.appointments.pending-expiry.business-hours-start:8}")
+    private int businessHoursStart;
+
+    @Value("${medicaltracking.appointments.pending-expiry.business-hours-end:20}")
+    private int businessHoursEnd;
+
+    @Value("${medicaltracking.appointments.pending-expiry.business-hours-pause-ms:200}")
+    private long businessHoursPauseMillis;
+
+    @Value("${medicaltracking.appointments.pending-expiry.business-hours-max-batches:10}")
+    private int businessHoursMaxBatches;
+
+    @Value("${medicaltracking.appointments.pending-expiry.off-hours-max-batches:200}")
+    private int offHoursMaxBatches;
+
+    private final ExecutorService sweepExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pending-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public PendingExpiryService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.expired = Counter.builder("medicaltracking.appointments.expired")
+                .description("Onay süresi dolduğu için iptal edilen randevular")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Zamanlanmış Süpürmeyi Başlatma
+     *
+     * Sadece işi pending-expiry thread'ine verir; önceki süpürme hâlâ sürüyorsa
+     * bu çalışma atlanır.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.appointments.pending-expiry.interval-ms:300000}",
+            initialDelayString = "${medicaltracking.appointments.pending-expiry.interval-ms:300000}")
+    public void scheduleSweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            log.debug("Önceki süpürme sürüyor, bu çalışma atlandı");
+            return;
+        }
+        sweepExecutor.execute(() -> {
+            try {
+                expireStalePending();
+            } catch (RuntimeException e) {
+                log.error("Bekleyen randevu süpürmesi başarısız", e);
+            } finally {
+                sweeping.set(false);
+            }
+        });
+    }
+
+    /**
+     * Süpürme (çağıran thread'de çalışır)
+     */
+    public void expireStalePending() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean businessHours = isBusinessHours(now.toLocalTime());
+        int maxBatches = businessHours ? businessHoursMaxBatches : offHoursMaxBatches;
+
+        int[] batches = {0};
+        int count = sweep("created_at", now.minusHours(pendingTtlHours), maxBatches, businessHours, batches)
+                + sweep("appointment_date_time", now, maxBatches, businessHours, batches);
+        if (count > 0) {
+            log.info("Onay süresi dolan {} randevu iptal edildi ({} batch)", count, batches[0]);
+        }
+    }
+
+    /**
+     * Tek Kriter İçin Batch Döngüsü
+     *
+     * @return int - İptal edilen randevu sayısı
+     */
+    private int sweep(String column, LocalDateTime cutoff, int maxBatches, boolean businessHours, int[] batches) {
+        String select = String.format(SELECT_EXPIRED, column);
+        int total = 0;
+        while (batches[0] < maxBatches) {
+            List<AppointmentEvent> events = transactionTemplate.execute(status -> expireBatch(status, select, cutoff));
+            batches[0]++;
+            if (events == null) {
+                continue; // Geri alındı; değişen satır artık PENDING değil, yeniden seçilince gelmez
+            }
+            total += events.size();
+            expired.increment(events.size());
+            if (events.size() < batchSize) {
+                break;
+            }
+            if (businessHours && !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return List - İptal edilen randevuların olayları; batch geri alındıysa null
+     */
+    private List<AppointmentEvent> expireBatch(TransactionStatus status, String select, LocalDateTime cutoff) {
+        Instant occurredAt = Instant.now();
+        List<AppointmentEvent> events = jdbcTemplate.query(select, (row, i) -> new AppointmentEvent(
+                AppointmentEvent.Type.EXPIRED, row.getInt(1), row.getInt(2), row.getInt(3),
+                row.getTimestamp(4).toLocalDateTime(), Appointment.AppointmentStatus.PENDING,
+                Appointment.AppointmentStatus.CANCELLED,
+                "PENDING -> CANCELLED", occurredAt), Timestamp.valueOf(cutoff), batchSize);
+        if (events.isEmpty()) {
+            return events;
+        }
+        int updated = jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE status = 'PENDING' "
+                        + "AND appointment_id IN (" + String.join(",", Collections.nCopies(events.size(), "?")) + ")",
+                events.stream().map(AppointmentEvent::appointmentId).toArray());
+        if (updated != events.size()) {
+            // Hangi satırın değiştiği bilinmez; olay yayınlamadan geri al
+            log.warn("Seçilen {} randevudan {} tanesi güncellendi, batch geri alınıyor", events.size(), updated);
+            status.setRollbackOnly();
+            return null;
+        }
+        // Olaylar commit sonrası dinleyicilere ulaşır (TransactionalEventListener)
+        events.forEach(eventPublisher::publishEvent);
+        return events;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweepExecutor.shutdownNow();
+    }
+
+    private boolean isBusinessHours(LocalTime time) {
+        return time.getHour() >= businessHoursStart && time.getHour() < businessHoursEnd;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(Duration.ofMillis(businessHoursPauseMillis));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
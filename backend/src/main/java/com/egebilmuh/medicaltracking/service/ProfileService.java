@@ -0,0 +1,212 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.PatientProfile;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.repository.DoctorProfileRepository;
+import com.egebilmuh.medicaltracking.repository.DoctorRepository;
+import com.egebilmuh.medicaltracking.repository.PatientProfileRepository;
+import com.egebilmuh.medicaltracking.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Profil Okuma Modeli Servisi (Profile Read Model Service)
+ *
+ * doctor_profile ve patient_profile tablolarını JOINED kalıtımlı
+ * User/Doctor/Patient tablolarıyla senkron tutar ve doktor rehberi ile
+ * profil okumalarını bu tek tablolu modelden yapar.
+ *
+ * Sorumluluklar:
+ * - Yazma işlemlerinde (kayıt, güncelleme, silme) profil satırını güncellemek
+ * - Başlangıçta satır sayıları tutmuyorsa okuma modelini yeniden oluşturmak
+ * - medicaltracking.read-model.enabled=false ise doğrudan JOINED entity'lerden okumak
+ *
+ * Not: Senkronizasyon çağıran servis metodunun transaction'ı içinde çalışır,
+ * böylece entity ve profil satırı birlikte commit edilir.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProfileService implements WarmupAware {
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final PatientProfileRepository patientProfileRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${medicaltracking.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${medicaltracking.read-model.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private volatile boolean warm;
+
+    /**
+     * Kullanıcının Profilini Senkronlama (Doctor veya Patient)
+     *
+     * @param user Kaydedilmiş/güncellenmiş kullanıcı entity'si
+     */
+    public void sync(User user) {
+        if (!enabled) {
+            return;
+        }
+        if (user instanceof Doctor doctor) {
+            doctorProfileRepository.save(DoctorProfile.from(doctor));
+        } else if (user instanceof Patient patient) {
+            patientProfileRepository.save(PatientProfile.from(patient));
+        }
+    }
+
+    /**
+     * Yeni Kullanıcının Profilini Ekleme (toplu içe aktarma)
+     *
+     * save() atanmış ID'li profilde önce SELECT yapar (merge); satırın yeni
+     * olduğu bilindiğinde doğrudan persist edilir ve INSERT batch'e girer.
+     */
+    public void insert(User user) {
+        if (!enabled) {
+            return;
+        }
+        if (user instanceof Doctor doctor) {
+            entityManager.persist(DoctorProfile.from(doctor));
+        } else if (user instanceof Patient patient) {
+            entityManager.persist(PatientProfile.from(patient));
+        }
+    }
+
+    /**
+     * Silinen Kullanıcının Profilini Kaldırma
+     *
+     * @param userId Silinen kullanıcının ID'si
+     */
+    public void remove(int userId) {
+        if (!enabled) {
+            return;
+        }
+        if (doctorProfileRepository.existsById(userId)) {
+            doctorProfileRepository.deleteById(userId);
+        }
+        if (patientProfileRepository.existsById(userId)) {
+            patientProfileRepository.deleteById(userId);
+        }
+    }
+
+    /**
+     * Tüm Doktor Profilleri (Doktor Rehberi)
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorProfile> getAllDoctors() {
+        if (!enabled) {
+            return doctorRepository.findAll().stream().map(DoctorProfile::from).toList();
+        }
+        return doctorProfileRepository.findAll();
+    }
+
+    /**
+     * Uzmanlık Alanına Göre Doktor Profilleri
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorProfile> getDoctorsBySpecialty(Doctor.Specialty specialty) {
+        if (!enabled) {
+            return doctorRepository.findBySpecialty(specialty).stream().map(DoctorProfile::from).toList();
+        }
+        return doctorProfileRepository.findBySpecialty(specialty);
+    }
+
+    /**
+     * ID ile Doktor Profili (tek tablo, birincil anahtar okuması)
+     */
+    @Transactional(readOnly = true)
+    public Optional<DoctorProfile> findDoctor(int userId) {
+        if (!enabled) {
+            return doctorRepository.findById(userId).map(DoctorProfile::from);
+        }
+        return doctorProfileRepository.findById(userId);
+    }
+
+    /**
+     * ID ile Hasta Profili (tek tablo, birincil anahtar okuması)
+     */
+    @Transactional(readOnly = true)
+    public Optional<PatientProfile> findPatient(int userId) {
+        if (!enabled) {
+            return patientRepository.findById(userId).map(PatientProfile::from);
+        }
+        return patientProfileRepository.findById(userId);
+    }
+
+    /**
+     * Başlangıçta Okuma Modelini Doğrulama/Yeniden Oluşturma
+     *
+     * Satır sayıları kaynak tablolarla tutmuyorsa (ilk kurulum, okuma modeli
+     * sonradan açıldıysa) veya rebuild-on-startup=true ise profiller sayfa
+     * sayfa yeniden yazılır. Bitene kadar readiness probe OUT_OF_SERVICE döner.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (!enabled) {
+            warm = true;
+            return;
+        }
+        if (rebuildOnStartup || doctorProfileRepository.count() != doctorRepository.count()) {
+            log.info("doctor_profile okuma modeli yeniden oluşturuluyor");
+            rebuild(doctorRepository::findAll, DoctorProfile::from, doctorProfileRepository);
+        }
+        if (rebuildOnStartup || patientProfileRepository.count() != patientRepository.count()) {
+            log.info("patient_profile okuma modeli yeniden oluşturuluyor");
+            rebuild(patientRepository::findAll, PatientProfile::from, patientProfileRepository);
+        }
+        warm = true;
+    }
+
+    private <E, P> void rebuild(Function<Pageable, Page<E>> source, Function<E, P> mapper,
+                                JpaRepository<P, Integer> target) {
+        transactionTemplate.executeWithoutResult(status -> target.deleteAllInBatch());
+        Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("userId"));
+        Page<E> page;
+        do {
+            Pageable current = pageable;
+            page = transactionTemplate.execute(status -> {
+                Page<E> entities = source.apply(current);
+                target.saveAll(entities.map(mapper).getContent());
+                return entities;
+            });
+            pageable = pageable.next();
+        } while (page != null && page.hasNext());
+    }
+
+    @Override
+    public String warmupName() {
+        return "profileReadModel";
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+}
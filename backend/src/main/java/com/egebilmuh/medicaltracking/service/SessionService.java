@@ -3,8 +3,11 @@ package com.egebilmuh.medicaltracking.service;
 import com.egebilmuh.medicaltracking.model.User;
 import com.egebilmuh.medicaltracking.model.UserSession;
 import com.egebilmuh.medicaltracking.repository.UserSessionRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -12,6 +15,7 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Timed("medicaltracking.service")
 public class SessionService {
     
     private final UserSessionRepository sessionRepository;
@@ -32,11 +36,17 @@ public class SessionService {
         return sessionRepository.save(session);
     }
     
+    /**
+     * Session Doğrulama (salt okunur, replika okuyabilir)
+     *
+     * Süresi dolmuş session'lar burada güncellenmez; süre kontrolü okunan
+     * kayıt üzerinde yapılır, temizlik cleanupExpiredSessions ile arka planda.
+     */
+    @Transactional(readOnly = true)
     public Optional<UserSession> validateSession(String sessionToken) {
-        // Expired sessionları temizle
-        cleanupExpiredSessions();
-        
-        return sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken);
+        LocalDateTime now = LocalDateTime.now();
+        return sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken)
+                .filter(session -> session.getExpiresAt().isAfter(now));
     }
     
     public void invalidateSession(String sessionToken) {
@@ -48,22 +58,29 @@ public class SessionService {
     }
     
     public UserSession refreshSession(String sessionToken) {
-        Optional<UserSession> sessionOpt = sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<UserSession> sessionOpt = sessionRepository.findBySessionTokenAndIsActiveTrue(sessionToken)
+                .filter(session -> session.getExpiresAt().isAfter(now));
         
         if (sessionOpt.isPresent()) {
             UserSession session = sessionOpt.get();
             // Session süresini uzat
-            session.setExpiresAt(LocalDateTime.now().plusHours(SESSION_DURATION_HOURS));
+            session.setExpiresAt(now.plusHours(SESSION_DURATION_HOURS));
             return sessionRepository.save(session);
         }
         
         throw new RuntimeException("Geçersiz session token");
     }
     
-    private void cleanupExpiredSessions() {
+    /**
+     * Süresi Dolmuş Session'ları Pasifleştirme (arka plan işi)
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.session.cleanup-interval-ms:60000}")
+    public void cleanupExpiredSessions() {
         sessionRepository.deactivateExpiredSessions(LocalDateTime.now());
     }
     
+    @Transactional(readOnly = true)
     public boolean isSessionValid(String sessionToken) {
         return validateSession(sessionToken).isPresent();
     }
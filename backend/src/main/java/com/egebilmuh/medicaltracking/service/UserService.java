@@ -1,19 +1,27 @@
 package com.egebilmuh.medicaltracking.service;
 
 import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.DoctorProfile;
 import com.egebilmuh.medicaltracking.model.Patient;
 import com.egebilmuh.medicaltracking.model.User;
 import com.egebilmuh.medicaltracking.repository.DoctorRepository;
 import com.egebilmuh.medicaltracking.repository.PatientRepository;
 import com.egebilmuh.medicaltracking.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 /**
  * Kullanıcı İş Mantığı Servisi (User Service)
@@ -38,6 +46,7 @@ import java.util.Optional;
  */
 @Service // Spring'e bu sınıfın bir Service component'i olduğunu belirtir
 @RequiredArgsConstructor // Lombok: final field'lar için constructor oluşturur (DI için)
+@Timed("medicaltracking.service") // Her public metod için class/method etiketli timer
 public class UserService {
     
     // Dependency Injection - Constructor injection ile güvenli DI
@@ -45,6 +54,10 @@ public class UserService {
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final PasswordEncoder passwordEncoder; // SecurityConfig'den inject edilir
+    private final ProfileService profileService; // doctor_profile / patient_profile okuma modeli
+    private final DoctorAvailabilityService availabilityService; // Booking yolundaki bellek içi müsaitlik
+    private final EmailBloomFilter emailFilter; // "E-posta kesinlikle yeni" kontrolü için
+    private final MeterRegistry meterRegistry;
 
     /**
      * ID ile Kullanıcı Bulma
@@ -55,57 +68,62 @@ public class UserService {
      * Öğrenci Notu: Optional kullanımı null check'lerini ortadan kaldırır.
      * Controller katmanında .orElse() veya .map() ile kullanılabilir.
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUser(int userId) {
         return userRepository.findById(userId);
     }
 
     /**
-     * Tüm Kullanıcıları Listeleme
+     * Kullanıcıları Sayfa Sayfa Listeleme
      * 
-     * @return List<User> - Sistemdeki tüm kullanıcıların listesi
+     * @param pageable Sayfa numarası, boyutu ve sıralama (PageResponse.pageRequest ile sınırlandırılmış)
+     * @return Page<User> - İstenen sayfadaki kullanıcılar
      * 
-     * Öğrenci Notu: Bu metod admin paneli için kullanılabilir.
-     * Production'da pagination eklenmeli (sayfa sayfa listeleme).
+     * Öğrenci Notu: Tüm tabloyu tek seferde yüklemek yerine sadece
+     * bir sayfa kadar kayıt belleğe alınır.
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public Page<User> getUsers(Pageable pageable) {
+        return userRepository.findAll(pageable);
     }
 
     /**
      * Tüm Doktorları Listeleme
      * 
-     * @return List<Doctor> - Sistemdeki tüm doktorların listesi
+     * @return List<DoctorProfile> - Sistemdeki tüm doktorların profilleri
      * 
      * Kullanım: Hasta panelinde doktor seçimi için kullanılır.
      * Frontend'de dropdown veya liste halinde gösterilir.
+     * Okuma doctor_profile tablosundan yapılır (user/doctor JOIN'i yok).
      */
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<DoctorProfile> getAllDoctors() {
+        return profileService.getAllDoctors();
     }
 
     /**
-     * Tüm Hastaları Listeleme
+     * Hastaları Sayfa Sayfa Listeleme
      * 
-     * @return List<Patient> - Sistemdeki tüm hastaların listesi
-     * 
-     * Kullanım: Admin paneli veya doktor panelinde hasta listesi.
-     * GDPR compliance için hasta listesi erişimi kısıtlanmalı.
+     * @param pageable Sayfa numarası, boyutu ve sıralama
+     * @return Page<Patient> - İstenen sayfadaki hastalar
      */
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    @Transactional(readOnly = true)
+    public Page<Patient> getPatients(Pageable pageable) {
+        return patientRepository.findAll(pageable);
     }
 
     /**
      * Uzmanlık Alanına Göre Doktor Filtreleme
      * 
      * @param specialty Aranacak uzmanlık alanı (Dermatology, Cardiology vs.)
-     * @return List<Doctor> - Belirtilen uzmanlığa sahip doktorlar
+     * @return List<DoctorProfile> - Belirtilen uzmanlığa sahip doktorlar
      * 
-     * Öğrenci Notu: Bu metod Repository'deki custom query'yi kullanır.
+     * Öğrenci Notu: Bu metod okuma modelindeki custom query'yi kullanır.
      * Business logic yok, sadece delegation (yönlendirme) var.
      */
-    public List<Doctor> getDoctorsBySpecialty(Doctor.Specialty specialty) {
-        return doctorRepository.findBySpecialty(specialty);
+    @Transactional(readOnly = true)
+    public List<DoctorProfile> getDoctorsBySpecialty(Doctor.Specialty specialty) {
+        return profileService.getDoctorsBySpecialty(specialty);
     }
 
     /**
@@ -119,6 +137,7 @@ public class UserService {
      * Sadece null olmayan field'lar güncellenir.
      * Şifre güncellenmeden önce hash'lenir (güvenlik).
      */
+    @Transactional
     public User updateUser(int id, User updatedUser) {
         // Mevcut kullanıcıyı bul, yoksa exception fırlat
         User existUser = getUser(id)
@@ -129,12 +148,18 @@ public class UserService {
             existUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
         
-        // E-posta güncellenecekse ata
+        // E-posta güncellenecekse normalize edip ata
         if (updatedUser.getEmail() != null) {
-            existUser.setEmail(updatedUser.getEmail());
+            String normalizedEmail = User.normalizeEmail(updatedUser.getEmail());
+            if (!normalizedEmail.equals(existUser.getEmail()) && isEmailTaken(normalizedEmail)) {
+                throw new EmailAlreadyExistsException(normalizedEmail);
+            }
+            existUser.setEmail(normalizedEmail);
         }
 
-        return userRepository.save(existUser);
+        User savedUser = saveUnique(existUser, userRepository::saveAndFlush);
+        profileService.sync(savedUser); // Okuma modelindeki e-postayı güncel tut
+        return savedUser;
     }
 
     /**
@@ -147,11 +172,14 @@ public class UserService {
      * Normalde ID auto-generate olduğu için bu kontrol gereksizdir,
      * ancak manual ID assignment durumları için koruma sağlar.
      */
+    @Transactional
     public User saveUser(User user) {
         if (userRepository.existsById(user.getUserId())) {
             throw new IllegalArgumentException("Kullanıcı zaten mevcut: id=" + user.getUserId());
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        profileService.sync(savedUser);
+        return savedUser;
     }
 
     /**
@@ -165,11 +193,14 @@ public class UserService {
      * - Veri fiziksel olarak silinmez
      * - GDPR compliance için "right to be forgotten" düşünülmeli
      */
+    @Transactional
     public void deleteUser(int userId) {
         if (!userRepository.existsById(userId)) {
             throw new RuntimeException("Kullanıcı bulunamadı: id=" + userId);
         }
         userRepository.deleteById(userId);
+        profileService.remove(userId);
+        availabilityService.remove(userId);
     }
 
     /**
@@ -184,10 +215,12 @@ public class UserService {
      * Doktor ve Hasta kayıtları için özelleştirilmiş metodlar vardır.
      * Business logic: Email uniqueness kontrolü + şifre hashleme
      */
+    @Transactional
     public User register(String email, String password, User.Role role) {
-        // Duplicate email kontrolü (business rule)
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Kullanıcı zaten mevcut: email=" + email);
+        // Duplicate email kontrolü (business rule) - bloom filtre ile çoğu zaman DB'ye gitmez
+        String normalizedEmail = User.normalizeEmail(email);
+        if (isEmailTaken(normalizedEmail)) {
+            throw new EmailAlreadyExistsException(normalizedEmail);
         }
 
         // Şifreyi güvenli hash'le (security requirement)
@@ -195,11 +228,11 @@ public class UserService {
 
         // Yeni kullanıcı nesnesi oluştur ve field'ları ata
         User newUser = new User();
-        newUser.setEmail(email);
+        newUser.setEmail(normalizedEmail);
         newUser.setPassword(hashedPassword);
         newUser.setRole(role);
 
-        return userRepository.save(newUser);
+        return saveUnique(newUser, userRepository::saveAndFlush);
     }
 
     /**
@@ -214,11 +247,13 @@ public class UserService {
      * @param specialty Uzmanlık alanı
      * @return Doctor - Kaydedilmiş doktor nesnesi
      */
+    @Transactional
     public Doctor registerDoctor(String email, String password, String name, String surname, 
                                 LocalDate birthDate, String phoneNo, Doctor.Specialty specialty) {
         // Email uniqueness kontrolü (tüm kullanıcılar için)
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Kullanıcı zaten mevcut: email=" + email);
+        String normalizedEmail = User.normalizeEmail(email);
+        if (isEmailTaken(normalizedEmail)) {
+            throw new EmailAlreadyExistsException(normalizedEmail);
         }
 
         // Güvenlik: Şifreyi hash'le
@@ -227,7 +262,7 @@ public class UserService {
         // Doktor nesnesi oluştur ve tüm field'ları doldur
         Doctor doctor = new Doctor();
         // User field'ları (inheritance)
-        doctor.setEmail(email);
+        doctor.setEmail(normalizedEmail);
         doctor.setPassword(hashedPassword);
         doctor.setRole(User.Role.DOCTOR); // Role otomatik DOCTOR
         // Doctor-specific field'lar
@@ -238,7 +273,10 @@ public class UserService {
         doctor.setSpecialty(specialty);
         doctor.setAvailability(true); // Yeni doktor aktif olarak başlar
 
-        return doctorRepository.save(doctor);
+        Doctor savedDoctor = saveUnique(doctor, doctorRepository::saveAndFlush);
+        profileService.sync(savedDoctor); // doctor_profile satırını aynı transaction'da yaz
+        availabilityService.register(savedDoctor); // Booking yolu yeni doktoru hemen tanısın
+        return savedDoctor;
     }
 
     /**
@@ -252,11 +290,13 @@ public class UserService {
      * @param phoneNo Telefon numarası
      * @return Patient - Kaydedilmiş hasta nesnesi
      */
+    @Transactional
     public Patient registerPatient(String email, String password, String name, String surname,
                                   LocalDate birthDate, String phoneNo) {
         // Email uniqueness kontrolü
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Kullanıcı zaten mevcut: email=" + email);
+        String normalizedEmail = User.normalizeEmail(email);
+        if (isEmailTaken(normalizedEmail)) {
+            throw new EmailAlreadyExistsException(normalizedEmail);
         }
 
         // Şifre güvenliği
@@ -265,7 +305,7 @@ public class UserService {
         // Hasta nesnesi oluştur
         Patient patient = new Patient();
         // User field'ları (inheritance)
-        patient.setEmail(email);
+        patient.setEmail(normalizedEmail);
         patient.setPassword(hashedPassword);
         patient.setRole(User.Role.PATIENT); // Role otomatik PATIENT
         // Patient-specific field'lar
@@ -274,7 +314,9 @@ public class UserService {
         patient.setBirthDate(birthDate);
         patient.setPhoneNo(phoneNo);
 
-        return patientRepository.save(patient);
+        Patient savedPatient = saveUnique(patient, patientRepository::saveAndFlush);
+        profileService.sync(savedPatient); // patient_profile satırını aynı transaction'da yaz
+        return savedPatient;
     }
 
     /**
@@ -288,16 +330,69 @@ public class UserService {
      * Hash'i decode etmez, aynı algoritma ile tekrar hash'leyip karşılaştırır.
      */
     public User login(String email, String password){
-        // 1. Adım: Email ile kullanıcı bul
-        User existUser = userRepository.findUserByEmail(email)
-                .orElseThrow(()-> new RuntimeException("Kullanıcı bulunamadı"));
+        // 1. Adım: Email ile kullanıcı bul (kayıttaki gibi normalize edilmiş haliyle)
+        User existUser = userRepository.findUserByEmail(User.normalizeEmail(email))
+                .orElseThrow(()-> loginFailed("unknown_user", "Kullanıcı bulunamadı"));
         
         // 2. Adım: Şifre doğrulama (BCrypt comparison)
         if(!passwordEncoder.matches(password, existUser.getPassword())){
-            throw new RuntimeException("Şifre yanlış");
+            throw loginFailed("bad_password", "Şifre yanlış");
         }
         
         // Authentication başarılı - kullanıcı nesnesini döndür
         return existUser;
     }
+
+    /**
+     * Başarısız Girişi Sayma
+     * 
+     * medicaltracking.login.failures sayacını reason etiketiyle artırır
+     * ve fırlatılacak hatayı döndürür.
+     */
+    private RuntimeException loginFailed(String reason, String message) {
+        meterRegistry.counter("medicaltracking.login.failures", "reason", reason).increment();
+        return new RuntimeException(message);
+    }
+
+    /**
+     * E-posta Ön Kontrolü
+     * 
+     * @param normalizedEmail Normalize edilmiş e-posta
+     * @return boolean - E-posta kayıtlıysa true
+     * @throws RuntimeException E-posta boşsa
+     * 
+     * Bloom filtre ısınmışsa ve e-postayı hiç görmediyse veritabanına gidilmez.
+     * "Belki var" cevabında existsByEmail ile kesin kontrol yapılır; böylece
+     * muhtemel tekrar kayıtlarda boşa BCrypt hesaplanmaz.
+     */
+    private boolean isEmailTaken(String normalizedEmail) {
+        if (normalizedEmail == null || normalizedEmail.isEmpty()) {
+            throw new RuntimeException("E-posta adresi zorunludur");
+        }
+        if (emailFilter.isWarm() && !emailFilter.mightContain(normalizedEmail)) {
+            return false;
+        }
+        return userRepository.existsByEmail(normalizedEmail);
+    }
+
+    /**
+     * Benzersiz E-posta ile Tek Denemede Yazma (kayıt ve güncelleme)
+     * 
+     * @param user Yazılacak kullanıcı (yeni veya e-postası değişmiş)
+     * @param saver saveAndFlush - INSERT/UPDATE hemen çalışır, ihlal burada yakalanır
+     * @return T - Kaydedilmiş kullanıcı
+     * @throws EmailAlreadyExistsException uk_user_email ihlal edilirse (eşzamanlı aynı e-posta)
+     * 
+     * Ön kontrol ile insert arasındaki yarışı veritabanı index'i çözer;
+     * duplicate-key hatası iş kuralı hatasına çevrilir.
+     */
+    private <T extends User> T saveUnique(T user, UnaryOperator<T> saver) {
+        try {
+            T saved = saver.apply(user);
+            emailFilter.put(saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new EmailAlreadyExistsException(user.getEmail());
+        }
+    }
 }
\ No newline at end of file
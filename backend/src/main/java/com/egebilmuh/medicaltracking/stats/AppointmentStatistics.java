@@ -0,0 +1,499 @@
+package com.egebilmuh.medicaltracking.stats;
+
+import com.egebilmuh.medicaltracking.health.WarmupAware;
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Doktor ve Uzmanlık Alanı Randevu İstatistikleri (artımlı)
+ *
+ * Randevu sayıları, onay ve iptal oranları her istekte appointment
+ * tablosunda GROUP BY ile hesaplanmaz:
+ * - Her AppointmentEvent (commit sonrası) doktorun ve uzmanlık alanının
+ *   durum sayaçlarını (LongAdder) günceller; oluşturma +1, silme -1,
+ *   durum geçişi eski durumdan -1 / yeni duruma +1
+ * - Aynı fark (doktor, randevu günü, durum) anahtarıyla bekleyen farklara
+ *   eklenir; flush() medicaltracking.stats.flush-interval-ms aralıkla
+ *   bunları appointment_daily_stats tablosuna ve doktor × durum toplamlarına
+ *   (appointment_stats_total) tek transaction'da ekler
+ * - Toplamlar doktor × durum satırlı appointment_stats_total'dan okunur;
+ *   tablo boşsa (ilk kurulum) veya rebuild-on-startup=true ise başlangıçta
+ *   iki tablo bir kez appointment'tan kurulur
+ *
+ * Uç noktalar bellekteki sayaçları okur: doktor ve uzmanlık alanı
+ * istatistiği veritabanına gitmeden, randevu sayısından bağımsız sürede döner.
+ *
+ * Flush edilmemiş farklar çökmede kaybolur (düzgün kapanışta son bir flush
+ * yapılır); sapma rebuild-on-startup ile giderilir. Yeniden kurma diğer
+ * instance'lar kapalıyken yapılmalıdır: onların henüz flush edilmemiş
+ * farkları appointment'ta commit edilmiş olduğundan kurulan tabloda zaten
+ * vardır ve sonraki flush'larında ikinci kez eklenir.
+ *
+ * Birden fazla instance: tablo tüm instance'ların farklarını toplar, olaylar
+ * ise sadece işlendikleri instance'ın sayaçlarına düşer. Sayaçlar
+ * medicaltracking.stats.reload-interval-ms aralıkla toplam tablosundan
+ * yeniden kurulur (tablo toplamı + bu instance'ın henüz yazılmamış
+ * farkları; okuma doktor × durum satırıdır, gün sayısına bağlı değildir);
+ * instance'lar en geç flush + reload aralığı kadar sonra aynı değerleri verir.
+ *
+ * Olay üretmeden JDBC ile toplu eklenen randevular (SyntheticDataGenerator)
+ * addInserted() ile tablolara eklenir.
+ */
+@Slf4j
+@Component
+public class AppointmentStatistics implements WarmupAware {
+
+    private static final Appointment.AppointmentStatus[] STATUSES = Appointment.AppointmentStatus.values();
+
+    // Tablo doktor × durum kadar satırdır; her yenilemede tamamı okunur
+    private static final String LOAD_SQL = "SELECT t.doctor_id, d.specialty, t.status, t.appointment_count "
+            + "FROM appointment_stats_total t LEFT JOIN doctor d ON d.user_id = t.doctor_id";
+    // appointment_id >= ? olan randevular (kurulumda 0: tamamı)
+    private static final String ADD_DAILY_SQL = "INSERT INTO appointment_daily_stats "
+            + "(doctor_id, appointment_date, status, appointment_count) "
+            + "SELECT doctor_user_id, CAST(appointment_date_time AS DATE), status, COUNT(*) FROM appointment "
+            + "WHERE appointment_id >= ? GROUP BY doctor_user_id, CAST(appointment_date_time AS DATE), status "
+            + "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + VALUES(appointment_count)";
+    private static final String ADD_TOTAL_SQL = "INSERT INTO appointment_stats_total "
+            + "(doctor_id, status, appointment_count) "
+            + "SELECT doctor_user_id, status, COUNT(*) FROM appointment "
+            + "WHERE appointment_id >= ? GROUP BY doctor_user_id, status "
+            + "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + VALUES(appointment_count)";
+    private static final String UPSERT_SQL = "INSERT INTO appointment_daily_stats "
+            + "(doctor_id, appointment_date, status, appointment_count) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + ?";
+    private static final String UPSERT_TOTAL_SQL = "INSERT INTO appointment_stats_total "
+            + "(doctor_id, status, appointment_count) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final Counter written;
+    private final Counter failures;
+
+    // Yeniden yüklemede yeni sayaçlar kurulup tek seferde değiştirilir; okuyan uç sıfırlanmış sayaç görmez
+    private volatile Map<Integer, Counts> doctors = new ConcurrentHashMap<>();
+    private volatile Counts[] specialties = newSpecialtyCounts();
+    private final Map<Integer, Optional<Doctor.Specialty>> specialtyOf = new ConcurrentHashMap<>();
+    private final Map<DayKey, Long> pending = new ConcurrentHashMap<>();
+    // Okuma kilidi: olay kaydı (eşzamanlı), yazma kilidi: seed ve sayaçların değiştirilmesi
+    private final ReentrantReadWriteLock loadLock = new ReentrantReadWriteLock();
+    // Flush'lar birbiriyle ve yeniden yüklemeyle çakışmasın: yazılmakta olan fark ne tabloda ne bekleyenlerde olur
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean warm;
+
+    public AppointmentStatistics(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${medicaltracking.stats.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.written = Counter.builder("medicaltracking.stats.written")
+                .description("appointment_daily_stats tablosuna yazılan farklar")
+                .register(meterRegistry);
+        this.failures = Counter.builder("medicaltracking.stats.failures")
+                .description("Başarısız istatistik flush'ları ve uzmanlık alanı okumaları")
+                .register(meterRegistry);
+        Gauge.builder("medicaltracking.stats.pending", pending, Map::size)
+                .description("Yazılmayı bekleyen (doktor, gün, durum) farkları")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String warmupName() {
+        return "appointmentStatistics";
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Toplamları Rollup Tablosundan Yükleme
+     *
+     * Yüklemeden önce gelen olaylar bekleyen farklarda durur; sayaçlar
+     * tablo toplamı ile bu farklardan kurulur (flush yükleme bitene kadar
+     * çalışmaz, fark iki kez sayılmaz). Diğer instance'ların bekleyen
+     * farkları için bkz. sınıf açıklaması (rebuild-on-startup).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        int rows;
+        flushLock.lock();
+        try {
+            loadLock.writeLock().lock();
+            try {
+                boolean seed = rebuildOnStartup || isEmpty();
+                if (seed) {
+                    if (rebuildOnStartup) {
+                        log.warn("İstatistik tabloları appointment'tan yeniden kuruluyor (rebuild-on-startup); "
+                                + "çalışan diğer instance'ların yazılmamış farkları iki kez sayılır");
+                    }
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update("DELETE FROM appointment_daily_stats");
+                        jdbcTemplate.update("DELETE FROM appointment_stats_total");
+                        addAppointmentsFrom(0);
+                    });
+                    // Commit edilmiş her değişiklik tabloda: yükleme öncesi sayılanlar atılır
+                    pending.clear();
+                }
+            } finally {
+                loadLock.writeLock().unlock();
+            }
+            rows = reloadTotals();
+        } finally {
+            flushLock.unlock();
+        }
+        warm = true;
+        log.info("Randevu istatistikleri {} doktor için {} satırdan yüklendi ({} ms)",
+                doctors.size(), rows, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Olaysız Eklenen Randevuları Tablolara Ekleme
+     *
+     * JDBC ile toplu eklenen randevular AppointmentEvent üretmez. ID'si
+     * firstAppointmentId'den küçük olmayan randevular tek transaction'da
+     * günlük ve toplam tablolarına eklenir; tablolar henüz hiç kurulmadıysa
+     * tüm randevulardan kurulur (sonraki başlangıç tabloyu dolu görür).
+     *
+     * @param firstAppointmentId Toplu eklenen ilk randevunun ID'si (ID'ler ardışık ve en büyük)
+     */
+    public void addInserted(int firstAppointmentId) {
+        flushLock.lock();
+        try {
+            loadLock.writeLock().lock();
+            try {
+                boolean seed = isEmpty();
+                transactionTemplate.executeWithoutResult(status -> addAppointmentsFrom(seed ? 0 : firstAppointmentId));
+                if (seed) {
+                    pending.clear(); // Commit edilmiş her değişiklik tabloda
+                }
+            } finally {
+                loadLock.writeLock().unlock();
+            }
+            if (warm) {
+                reloadTotals();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Toplamları Tablodan Yenileme (diğer instance'ların değişiklikleri)
+     *
+     * Başka instance'larda işlenen olaylar bu instance'ın sayaçlarına hiç
+     * düşmez; tabloya flush edilmiş halleri buradan okunur. Okunamazsa
+     * mevcut sayaçlar kalır, sonraki aralıkta tekrar denenir.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.stats.reload-interval-ms:60000}",
+            initialDelayString = "${medicaltracking.stats.reload-interval-ms:60000}")
+    public void reload() {
+        if (!warm) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            reloadTotals();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Randevu istatistikleri tablodan yenilenemedi, mevcut sayaçlar kullanılmaya devam ediyor", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Randevu Değişikliğini Sayaçlara Yansıtma (commit sonrası)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.type() == AppointmentEvent.Type.NOTE_UPDATED) {
+            return;
+        }
+        boolean transition = event.type() != AppointmentEvent.Type.CREATED
+                && event.type() != AppointmentEvent.Type.DELETED;
+        if (transition && event.previousStatus() == event.status()) {
+            return; // Aynı duruma güncelleme (ör. onaylıyı tekrar onaylama)
+        }
+        Optional<Doctor.Specialty> specialty = specialtyOf(event.doctorId());
+        LocalDate day = event.appointmentDateTime().toLocalDate();
+        loadLock.readLock().lock();
+        try {
+            if (transition) {
+                record(event.doctorId(), specialty, day, event.previousStatus(), -1);
+                record(event.doctorId(), specialty, day, event.status(), 1);
+            } else {
+                record(event.doctorId(), specialty, day, event.status(),
+                        event.type() == AppointmentEvent.Type.CREATED ? 1 : -1);
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Doktorun İstatistiği (veritabanına gitmez)
+     */
+    public BookingStats getDoctorStats(int doctorId) {
+        Counts counts = doctors.get(doctorId);
+        Doctor.Specialty specialty = specialtyOf.getOrDefault(doctorId, Optional.empty()).orElse(null);
+        return counts == null ? BookingStats.of(doctorId, specialty, 0, 0, 0) : counts.toStats(doctorId, specialty);
+    }
+
+    /**
+     * Randevusu Olan Tüm Doktorların İstatistikleri
+     */
+    public List<BookingStats> getAllDoctorStats() {
+        List<BookingStats> result = new ArrayList<>(doctors.size());
+        doctors.keySet().stream().sorted().forEach(doctorId -> result.add(getDoctorStats(doctorId)));
+        return result;
+    }
+
+    /**
+     * Uzmanlık Alanı Bazında İstatistikler (alan başına bir satır)
+     */
+    public List<BookingStats> getSpecialtyStats() {
+        return Arrays.stream(Doctor.Specialty.values())
+                .map(specialty -> specialties[specialty.ordinal()].toStats(null, specialty))
+                .toList();
+    }
+
+    /**
+     * Bekleyen Farkları Rollup Tablosuna Yazma
+     *
+     * Başlangıç yüklemesi bitmeden yazılmaz; yoksa fark hem sayaçta hem
+     * yüklenen tabloda olur.
+     */
+    @Scheduled(fixedDelayString = "${medicaltracking.stats.flush-interval-ms:10000}")
+    public void flush() {
+        if (warm) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Kapanışta Son Flush (düzgün yeniden başlatmada fark kaybolmaz)
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPending();
+        if (!pending.isEmpty()) {
+            log.warn("Kapanışta {} istatistik farkı yazılamadı", pending.size());
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // Anahtar başına atomik remove: flush sırasında gelen fark kaybolmaz, sonraki flush'a kalır
+            Map<DayKey, Long> batch = new HashMap<>();
+            for (DayKey key : pending.keySet()) {
+                Long delta = pending.remove(key);
+                if (delta != null) {
+                    batch.put(key, delta);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Randevu istatistikleri yazılamadı ({} fark), sonraki flush'ta tekrar denenecek",
+                        batch.size(), e);
+                batch.forEach((key, delta) -> pending.merge(key, delta, AppointmentStatistics::sum));
+                return;
+            }
+            written.increment(batch.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Map<DayKey, Long> batch) {
+        List<Object[]> upserts = new ArrayList<>(batch.size());
+        List<Object[]> decreased = new ArrayList<>();
+        batch.forEach((key, delta) -> {
+            Date day = Date.valueOf(key.day());
+            upserts.add(new Object[]{key.doctorId(), day, key.status().name(), delta, delta});
+            if (delta < 0) {
+                decreased.add(new Object[]{key.doctorId(), day, key.status().name()});
+            }
+        });
+        jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        if (!decreased.isEmpty()) {
+            // Sıfıra inen satırlar silinir; tablo sadece dolu (doktor, gün, durum) kadar büyür
+            jdbcTemplate.batchUpdate("DELETE FROM appointment_daily_stats WHERE doctor_id = ? "
+                    + "AND appointment_date = ? AND status = ? AND appointment_count = 0", decreased);
+        }
+
+        // Aynı farkların (doktor, durum) toplamı
+        Map<TotalKey, Long> totals = new HashMap<>();
+        batch.forEach((key, delta) -> totals.merge(new TotalKey(key.doctorId(), key.status()), delta, Long::sum));
+        List<Object[]> totalUpserts = new ArrayList<>(totals.size());
+        List<Object[]> totalDecreased = new ArrayList<>();
+        totals.forEach((key, delta) -> {
+            if (delta == 0) {
+                return; // Gün değiştiren farklar toplamda birbirini götürür
+            }
+            totalUpserts.add(new Object[]{key.doctorId(), key.status().name(), delta, delta});
+            if (delta < 0) {
+                totalDecreased.add(new Object[]{key.doctorId(), key.status().name()});
+            }
+        });
+        jdbcTemplate.batchUpdate(UPSERT_TOTAL_SQL, totalUpserts);
+        if (!totalDecreased.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM appointment_stats_total WHERE doctor_id = ? AND status = ? "
+                    + "AND appointment_count = 0", totalDecreased);
+        }
+    }
+
+    private boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM appointment_stats_total LIMIT 1").isEmpty();
+    }
+
+    private void addAppointmentsFrom(int firstAppointmentId) {
+        jdbcTemplate.update(ADD_DAILY_SQL, firstAppointmentId);
+        jdbcTemplate.update(ADD_TOTAL_SQL, firstAppointmentId);
+    }
+
+    /**
+     * Sayaçları Tablo Toplamı + Bekleyen Farklar Olarak Kurma
+     *
+     * flushLock altında çağrılır: okuma sırasında flush olmadığından her
+     * yerel fark ya okunan tabloda ya bekleyenlerdedir. Sorgu olay kaydını
+     * bekletmez; sadece bekleyenlerin eklenip sayaçların değiştirilmesi
+     * yazma kilidi altındadır.
+     */
+    private int reloadTotals() {
+        Map<Integer, Counts> loadedDoctors = new ConcurrentHashMap<>();
+        Counts[] loadedSpecialties = newSpecialtyCounts();
+        int[] rows = {0};
+        jdbcTemplate.query(LOAD_SQL, row -> {
+            int doctorId = row.getInt(1);
+            String specialty = row.getString(2);
+            Optional<Doctor.Specialty> resolved = Optional.ofNullable(specialty).map(Doctor.Specialty::valueOf);
+            specialtyOf.put(doctorId, resolved);
+            add(loadedDoctors, loadedSpecialties, doctorId, resolved,
+                    Appointment.AppointmentStatus.valueOf(row.getString(3)), row.getLong(4));
+            rows[0]++;
+        });
+        loadLock.writeLock().lock();
+        try {
+            pending.forEach((key, delta) -> add(loadedDoctors, loadedSpecialties, key.doctorId(),
+                    specialtyOf.getOrDefault(key.doctorId(), Optional.empty()), key.status(), delta));
+            doctors = loadedDoctors;
+            specialties = loadedSpecialties;
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+        return rows[0];
+    }
+
+    private void record(int doctorId, Optional<Doctor.Specialty> specialty, LocalDate day,
+                        Appointment.AppointmentStatus status, long delta) {
+        add(doctors, specialties, doctorId, specialty, status, delta);
+        pending.merge(new DayKey(doctorId, day, status), delta, AppointmentStatistics::sum);
+    }
+
+    private static void add(Map<Integer, Counts> doctors, Counts[] specialties, int doctorId,
+                            Optional<Doctor.Specialty> specialty, Appointment.AppointmentStatus status, long delta) {
+        doctors.computeIfAbsent(doctorId, id -> new Counts()).add(status, delta);
+        specialty.ifPresent(s -> specialties[s.ordinal()].add(status, delta));
+    }
+
+    private static Counts[] newSpecialtyCounts() {
+        return Stream.generate(Counts::new).limit(Doctor.Specialty.values().length).toArray(Counts[]::new);
+    }
+
+    /**
+     * Doktorun Uzmanlık Alanı
+     *
+     * Uzmanlık alanı kayıttan sonra değişmez; ilk kez görülen doktor için
+     * bir kez okunur. Okunamazsa olay sadece doktor sayaçlarına yansır.
+     */
+    private Optional<Doctor.Specialty> specialtyOf(int doctorId) {
+        Optional<Doctor.Specialty> cached = specialtyOf.get(doctorId);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Optional<Doctor.Specialty> specialty = jdbcTemplate.queryForList(
+                            "SELECT specialty FROM doctor WHERE user_id = ?", String.class, doctorId).stream()
+                    .filter(value -> value != null).findFirst().map(Doctor.Specialty::valueOf);
+            specialtyOf.put(doctorId, specialty);
+            return specialty;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Doktorun uzmanlık alanı okunamadı: doktor={}", doctorId, e);
+            return Optional.empty();
+        }
+    }
+
+    // Toplamı sıfır olan fark haritadan çıkar
+    private static Long sum(Long a, Long b) {
+        long total = a + b;
+        return total == 0 ? null : total;
+    }
+
+    private record DayKey(int doctorId, LocalDate day, Appointment.AppointmentStatus status) {
+    }
+
+    private record TotalKey(int doctorId, Appointment.AppointmentStatus status) {
+    }
+
+    /**
+     * Durum Başına Sayaçlar (yoğun yazmada çekişmesiz LongAdder)
+     */
+    private static final class Counts {
+        private final LongAdder[] byStatus = Stream.generate(LongAdder::new)
+                .limit(STATUSES.length).toArray(LongAdder[]::new);
+
+        void add(Appointment.AppointmentStatus status, long delta) {
+            byStatus[status.ordinal()].add(delta);
+        }
+
+        long get(Appointment.AppointmentStatus status) {
+            return byStatus[status.ordinal()].sum();
+        }
+
+        BookingStats toStats(Integer doctorId, Doctor.Specialty specialty) {
+            return BookingStats.of(doctorId, specialty, get(Appointment.AppointmentStatus.PENDING),
+                    get(Appointment.AppointmentStatus.CONFIRMED), get(Appointment.AppointmentStatus.CANCELLED));
+        }
+    }
+}
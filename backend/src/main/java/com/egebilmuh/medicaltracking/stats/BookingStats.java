@@ -0,0 +1,22 @@
+package com.egebilmuh.medicaltracking.stats;
+
+import com.egebilmuh.medicaltracking.model.Doctor;
+
+/**
+ * Randevu İstatistiği (doktor veya uzmanlık alanı bazında)
+ *
+ * Sayılar randevuların o anki durumlarıdır; silinen randevu sayılmaz.
+ * Oranlar toplam randevuya göredir, randevu yoksa 0.
+ *
+ * @param doctorId Uzmanlık alanı satırında null
+ * @param bookings pending + confirmed + cancelled
+ */
+public record BookingStats(Integer doctorId, Doctor.Specialty specialty, long bookings, long pending,
+                           long confirmed, long cancelled, double approvalRate, double cancellationRate) {
+
+    static BookingStats of(Integer doctorId, Doctor.Specialty specialty, long pending, long confirmed, long cancelled) {
+        long bookings = pending + confirmed + cancelled;
+        return new BookingStats(doctorId, specialty, bookings, pending, confirmed, cancelled,
+                bookings == 0 ? 0 : (double) confirmed / bookings, bookings == 0 ? 0 : (double) cancelled / bookings);
+    }
+}
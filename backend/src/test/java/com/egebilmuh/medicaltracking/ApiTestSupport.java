@@ -0,0 +1,117 @@
+package com.egebilmuh.medicaltracking;
+
+import com.egebilmuh.medicaltracking.audit.AuditActorFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * HTTP Uçtan Uca Testleri İçin Ortak Temel Sınıf
+ *
+ * Uygulama rastgele portta embedded profille (H2) açılır, istekler
+ * TestRestTemplate ile gider. Kayıt, giriş, randevu oluşturma ve durum
+ * okuma adımları burada tek yerde durur. Farklı özellik isteyen test
+ * @SpringBootTest'i kendi properties'iyle yeniden tanımlar (ayrı context).
+ * Ayrı context kendi H2 veritabanını kullanır ve ikinci seviye cache'i
+ * kapatır: ortak veritabanında create-drop diğer context'in tablolarını
+ * siler; Ehcache yöneticisi JVM'de context'ler arasında ortaktır, farklı
+ * veritabanlarındaki aynı kimlikli kullanıcılar birbirinin yerine okunur.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+public abstract class ApiTestSupport {
+
+    public static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+    public static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_ARRAY = new ParameterizedTypeReference<>() {
+    };
+
+    protected static final String PASSWORD = "test-password";
+
+    @Autowired
+    protected TestRestTemplate rest;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    /**
+     * POST isteği; 200 OK bekler ve JSON gövdeyi döner
+     */
+    protected Map<String, Object> post(String path, Object body) {
+        ResponseEntity<Map<String, Object>> response = exchange(HttpMethod.POST, path, body, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), path);
+        return response.getBody();
+    }
+
+    /**
+     * Oturum başlığıyla istek (sessionToken null ise başlıksız)
+     */
+    protected ResponseEntity<Map<String, Object>> exchange(HttpMethod method, String path, Object body,
+                                                           String sessionToken) {
+        return rest.exchange(path, method, new HttpEntity<>(body, session(sessionToken)), JSON_OBJECT);
+    }
+
+    protected static HttpHeaders session(String sessionToken) {
+        HttpHeaders headers = new HttpHeaders();
+        if (sessionToken != null) {
+            headers.set(AuditActorFilter.HEADER, sessionToken);
+        }
+        return headers;
+    }
+
+    protected int register(String path, Map<String, Object> body) {
+        return (Integer) post(path, body).get("userId");
+    }
+
+    protected int registerDoctor(String email, String specialty) {
+        return register("/user/registerDoctor", Map.of(
+                "email", email, "password", PASSWORD, "name", "Mehmet", "surname", "Demir",
+                "birthDate", "1975-01-10", "phoneNo", "+905551112233", "specialty", specialty));
+    }
+
+    protected int registerPatient(String email) {
+        return register("/user/registerPatient", Map.of(
+                "email", email, "password", PASSWORD, "name", "Zeynep", "surname", "Çelik",
+                "birthDate", "1990-07-07", "phoneNo", "+905554445566"));
+    }
+
+    /**
+     * Giriş; oturum anahtarını (X-Session-Token) döner
+     */
+    protected String login(String email) {
+        return (String) post("/session/login", Map.of("email", email, "password", PASSWORD)).get("sessionToken");
+    }
+
+    protected ResponseEntity<Map<String, Object>> book(Object doctorId, Object patientId, LocalDateTime slot) {
+        return exchange(HttpMethod.POST, "/appointment/create", Map.of(
+                "doctorId", doctorId, "patientId", patientId, "appointmentTime", slot.toString()), null);
+    }
+
+    /**
+     * Randevu oluşturur; 200 OK bekler ve randevu ID'sini döner
+     */
+    protected int booked(Object doctorId, Object patientId, LocalDateTime slot) {
+        ResponseEntity<Map<String, Object>> response = book(doctorId, patientId, slot);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "/appointment/create " + slot);
+        return (Integer) response.getBody().get("appointmentId");
+    }
+
+    protected String status(int appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM appointment WHERE appointment_id = ?",
+                String.class, appointmentId);
+    }
+}
@@ -2,8 +2,10 @@ package com.egebilmuh.medicaltracking;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT) // HTTP testleriyle aynı context
+@ActiveProfiles("embedded")
 class MedicalTrackingApplicationTests {
 
     @Test
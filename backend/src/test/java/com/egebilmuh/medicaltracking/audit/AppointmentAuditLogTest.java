@@ -0,0 +1,168 @@
+package com.egebilmuh.medicaltracking.audit;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Audit Log Testi (segment geçişi, kimliğe göre geçmiş, yeniden açılışta kurtarma)
+ *
+ * Segment boyutu küçük tutulur; 2100 kayıt on segmentten fazlasına yayılır.
+ */
+class AppointmentAuditLogTest {
+
+    private static final int SEGMENT_SIZE = 8192;
+    private static final int RECORDS = 2100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysHistoryAcrossSegmentsAndReopens() throws Exception {
+        AppointmentAuditLog auditLog = open();
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals(i + 1, auditLog.append(event(i), 1000 + i % 7));
+        }
+        assertTrue(segmentFiles().size() > 10, "Kayıtlar birden fazla segmente yayılmalı");
+
+        assertHistory(auditLog);
+        auditLog.close();
+
+        // Açık segmentin sonuna yarım kalmış bir kayıt bırakılır (çökme anı)
+        Path last = segmentFiles().get(segmentFiles().size() - 1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(16).putInt(120).putInt(0xBAD).putLong(RECORDS + 1).flip(),
+                    firstFreeOffset(last));
+        }
+
+        // İndeksi yazılamadan kapanmış segment: açılışta yeniden oluşturulur
+        Files.delete(segmentFiles().get(0).resolveSibling(
+                segmentFiles().get(0).getFileName().toString().replace(".log", ".idx")));
+
+        AppointmentAuditLog reopened = open();
+        assertHistory(reopened);
+        assertEquals(RECORDS + 1, reopened.append(event(RECORDS), 0), "Sıra numarası kaldığı yerden devam etmeli");
+        assertEquals(RECORDS / 10 + 1, reopened.history(AppointmentAuditLog.Subject.APPOINTMENT, RECORDS % 10 + 1).size());
+        reopened.close();
+    }
+
+    @Test
+    void concurrentWritersAndReadersAcrossSegmentRolls() throws Exception {
+        AppointmentAuditLog auditLog = open();
+        int writers = 4;
+        Set<Long> sequences = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writes.add(executor.submit(() -> {
+                    for (int i = writer; i < RECORDS; i += writers) {
+                        sequences.add(auditLog.append(event(i), 0));
+                    }
+                    return null;
+                }));
+            }
+            // Okuyucular yazma sürerken geçmişi sorgular; sonuç sıra numarasına göre sıralı ve tekil kalmalı
+            List<Future<?>> reads = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                reads.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        List<AuditRecord> records = auditLog.history(AppointmentAuditLog.Subject.APPOINTMENT, 4);
+                        for (int i = 1; i < records.size(); i++) {
+                            assertTrue(records.get(i - 1).sequence() < records.get(i).sequence());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+            writing.set(false);
+            for (Future<?> read : reads) {
+                read.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(RECORDS, sequences.size());
+        assertTrue(sequences.stream().allMatch(sequence -> sequence >= 1 && sequence <= RECORDS), "Sıra numaraları boşluksuz");
+        assertTrue(segmentFiles().size() > 10, "Kayıtlar birden fazla segmente yayılmalı");
+        assertEquals(RECORDS / 10, auditLog.history(AppointmentAuditLog.Subject.APPOINTMENT, 4).size());
+        assertEquals(RECORDS / 3, auditLog.history(AppointmentAuditLog.Subject.DOCTOR, 501).size());
+        auditLog.close();
+    }
+
+    private void assertHistory(AppointmentAuditLog auditLog) throws IOException {
+        // Randevu 4: 3, 13, 23, ... numaralı olaylar
+        List<AuditRecord> appointment = auditLog.history(AppointmentAuditLog.Subject.APPOINTMENT, 4);
+        assertEquals(RECORDS / 10, appointment.size());
+        for (int i = 0; i < appointment.size(); i++) {
+            AuditRecord record = appointment.get(i);
+            int source = 3 + i * 10;
+            assertEquals(source + 1, record.sequence());
+            assertEquals(4, record.appointmentId());
+            assertEquals(1000 + source % 7, record.actorUserId());
+            assertEquals(event(source).type(), record.type());
+            assertEquals(event(source).detail(), record.detail());
+        }
+
+        assertEquals(RECORDS / 3, auditLog.history(AppointmentAuditLog.Subject.DOCTOR, 501).size());
+        List<AuditRecord> patient = auditLog.history(AppointmentAuditLog.Subject.PATIENT, 700);
+        assertEquals(RECORDS / 10, patient.size());
+        assertTrue(patient.stream().allMatch(record -> record.patientId() == 700));
+        assertTrue(auditLog.history(AppointmentAuditLog.Subject.DOCTOR, 999).isEmpty());
+    }
+
+    private AppointmentAuditLog open() throws IOException {
+        return new AppointmentAuditLog(new SimpleMeterRegistry(), directory, SEGMENT_SIZE);
+    }
+
+    private static AppointmentEvent event(int i) {
+        AppointmentEvent.Type type = AppointmentEvent.Type.values()[i % AppointmentEvent.Type.values().length];
+        String detail = type == AppointmentEvent.Type.NOTE_UPDATED ? "v" + i + " length=16 sha256=3f2a9c0e5b7d1e44" : null;
+        return new AppointmentEvent(type, i % 10 + 1, 500 + i % 3, 700 + i % 10, LocalDateTime.of(2025, 1, 1, 10, 0),
+                Appointment.AppointmentStatus.PENDING, Appointment.AppointmentStatus.PENDING, detail, Instant.ofEpochMilli(1_700_000_000_000L + i));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static long firstFreeOffset(Path segment) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int offset = 16;
+        while (data.getInt(offset) != 0) {
+            offset += data.getInt(offset);
+        }
+        return offset;
+    }
+}
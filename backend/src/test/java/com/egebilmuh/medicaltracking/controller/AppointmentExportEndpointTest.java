@@ -0,0 +1,103 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randevu Dışa Aktarma Testi (CSV, NDJSON, ICS, filtreler ve yetki)
+ */
+class AppointmentExportEndpointTest extends ApiTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void exportsFilteredAppointmentsInEveryFormat() {
+        int doctorId = registerDoctor("export.doctor@example.com", "Eye");
+        int patientId = register("/user/registerPatient", Map.of(
+                "email", "export.patient@example.com", "password", PASSWORD, "name", "Ayşe, Nur",
+                "surname", "Çelik", "birthDate", "1990-07-07", "phoneNo", "+905554445566"));
+        LocalDateTime first = LocalDate.now().plusDays(5).atTime(10, 0);
+        int firstId = booked(doctorId, patientId, first);
+        int secondId = booked(doctorId, patientId, first.plusHours(1));
+        assertEquals(HttpStatus.OK, rest.postForEntity("/appointment/approve/" + secondId, null, String.class)
+                .getStatusCode());
+        String doctor = login("export.doctor@example.com");
+        String patient = login("export.patient@example.com");
+
+        String csv = export("format=csv&doctorId=" + doctorId, doctor).getBody();
+        String[] rows = csv.split("\r\n");
+        assertEquals(3, rows.length);
+        assertTrue(rows[0].startsWith("appointmentId,doctorId,doctorName"));
+        assertTrue(rows[1].startsWith(firstId + "," + doctorId + ",Mehmet,Demir,Eye," + patientId + ",\"Ayşe, Nur\",Çelik,"
+                + first + ",PENDING,"), rows[1]);
+
+        String ndjson = export("format=ndjson&status=CONFIRMED", patient).getBody();
+        assertEquals(1, ndjson.split("\n").length);
+        assertTrue(ndjson.contains("\"appointmentId\":" + secondId), ndjson);
+
+        String ics = export("format=ics&from=" + first.plusMinutes(1), doctor).getBody();
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"), ics);
+        assertEquals(1, ics.split("BEGIN:VEVENT").length - 1);
+        assertTrue(ics.contains("UID:appointment-" + secondId + "@medicaltracking"), ics);
+        assertTrue(ics.contains("STATUS:CONFIRMED"), ics);
+        assertTrue(ics.contains("Ayşe\\, Nur"), ics);
+
+        assertEquals(HttpStatus.BAD_REQUEST, export("format=xml", doctor).getStatusCode());
+    }
+
+    @Test
+    void exportIsLimitedToTheCallersAppointments() {
+        int doctorId = registerDoctor("export.scope.doctor@example.com", "Dermatology");
+        int otherDoctorId = registerDoctor("export.scope.other@example.com", "Dermatology");
+        int patientId = registerPatient("export.scope.patient@example.com");
+        int otherPatientId = registerPatient("export.scope.otherpatient@example.com");
+        LocalDateTime slot = LocalDate.now().plusDays(6).atTime(10, 0);
+        int ownId = booked(doctorId, patientId, slot);
+        int otherId = booked(otherDoctorId, otherPatientId, slot);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, export("format=csv", null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, export("format=csv", "invalid-token").getStatusCode());
+
+        String doctor = login("export.scope.doctor@example.com");
+        assertEquals(HttpStatus.FORBIDDEN, export("format=csv&doctorId=" + otherDoctorId, doctor).getStatusCode());
+        String doctorRows = export("format=ndjson", doctor).getBody();
+        assertEquals(1, doctorRows.split("\n").length, doctorRows);
+        assertTrue(doctorRows.contains("\"appointmentId\":" + ownId), doctorRows);
+        // patientId filtresi doktorun kendi randevularının içinde uygulanır
+        assertNull(export("format=ndjson&patientId=" + otherPatientId, doctor).getBody());
+
+        String patient = login("export.scope.patient@example.com");
+        assertEquals(HttpStatus.FORBIDDEN, export("format=csv&patientId=" + otherPatientId, patient).getStatusCode());
+        assertNull(export("format=ndjson&doctorId=" + otherDoctorId, patient).getBody());
+
+        // Yönetici: kayıt endpoint'i yok, hasta kaydının rolü değiştirilir (User ikinci seviye cache'te)
+        registerPatient("export.scope.admin@example.com");
+        jdbcTemplate.update("UPDATE user SET role = 'ADMIN' WHERE email = 'export.scope.admin@example.com'");
+        entityManagerFactory.getCache().evict(User.class);
+        String adminRows = export("format=ndjson&from=" + slot + "&to=" + slot.plusMinutes(1),
+                login("export.scope.admin@example.com")).getBody();
+        assertTrue(adminRows.contains("\"appointmentId\":" + ownId), adminRows);
+        assertTrue(adminRows.contains("\"appointmentId\":" + otherId), adminRows);
+    }
+
+    private ResponseEntity<String> export(String query, String sessionToken) {
+        return rest.exchange("/appointment/export?" + query, HttpMethod.GET, new HttpEntity<>(session(sessionToken)),
+                String.class);
+    }
+}
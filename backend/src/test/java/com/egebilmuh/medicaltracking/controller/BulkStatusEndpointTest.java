@@ -0,0 +1,74 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Toplu Durum Değişikliği Testi (sahiplik, geçersiz geçiş, tekrar eden kalem)
+ *
+ * Geçerli kalemler güncellenir; diğer doktorun randevusu ve iptal edilmiş
+ * randevuyu onaylama gibi geçersiz kalemler dokunulmadan sonuçta raporlanır.
+ * Doktor oturumdan belirlenir: oturumsuz istek 401, hasta oturumu 403.
+ */
+class BulkStatusEndpointTest extends ApiTestSupport {
+
+    @Test
+    void appliesValidChangesAndReportsTheRest() {
+        int doctorId = registerDoctor("bulk.doctor1@example.com", "Dermatology");
+        int otherDoctorId = registerDoctor("bulk.doctor2@example.com", "Dermatology");
+        int patientId = registerPatient("bulk.patient@example.com");
+
+        int first = book(doctorId, patientId, 9);
+        int second = book(doctorId, patientId, 10);
+        int cancelled = book(doctorId, patientId, 11);
+        int foreign = book(otherDoctorId, patientId, 12);
+        jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE appointment_id = ?", cancelled);
+
+        String doctorSession = login("bulk.doctor1@example.com");
+        Map<String, Object> body = Map.of("changes", List.of(Map.of("appointmentId", first, "action", "APPROVE")));
+        assertEquals(HttpStatus.UNAUTHORIZED, bulk(body, null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, bulk(body, "gecersiz-token").getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, bulk(body, login("bulk.patient@example.com")).getStatusCode());
+        assertEquals("PENDING", status(first));
+
+        // Gövdedeki doctorId dikkate alınmaz: kalemler oturumdaki doktora göre değerlendirilir
+        ResponseEntity<Map<String, Object>> bulkResponse = bulk(Map.of("doctorId", otherDoctorId, "changes", List.of(
+                Map.of("appointmentId", first, "action", "APPROVE"),
+                Map.of("appointmentId", second, "action", "REJECT"),
+                Map.of("appointmentId", cancelled, "action", "APPROVE"),
+                Map.of("appointmentId", foreign, "action", "CANCEL"),
+                Map.of("appointmentId", first, "action", "APPROVE"),
+                Map.of("appointmentId", Integer.MAX_VALUE, "action", "APPROVE"))), doctorSession);
+        assertEquals(HttpStatus.OK, bulkResponse.getStatusCode());
+        Map<String, Object> response = bulkResponse.getBody();
+
+        assertEquals(2, response.get("updated"));
+        List<?> outcomes = ((List<?>) response.get("results")).stream()
+                .map(result -> ((Map<?, ?>) result).get("outcome")).toList();
+        assertEquals(List.of("UPDATED", "UPDATED", "ILLEGAL_TRANSITION", "NOT_OWNER", "DUPLICATE", "NOT_FOUND"), outcomes);
+
+        assertEquals("CONFIRMED", status(first));
+        assertEquals("CANCELLED", status(second));
+        assertEquals("CANCELLED", status(cancelled));
+        assertEquals("PENDING", status(foreign));
+
+        assertEquals(HttpStatus.BAD_REQUEST, bulk(Map.of("changes", "yok"), doctorSession).getStatusCode());
+    }
+
+    private ResponseEntity<Map<String, Object>> bulk(Map<String, Object> body, String sessionToken) {
+        return exchange(HttpMethod.POST, "/appointment/bulkStatus", body, sessionToken);
+    }
+
+    private int book(int doctorId, int patientId, int hour) {
+        return booked(doctorId, patientId, LocalDate.now().plusDays(4).atTime(hour, 0));
+    }
+}
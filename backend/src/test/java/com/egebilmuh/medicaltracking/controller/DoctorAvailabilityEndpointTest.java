@@ -0,0 +1,67 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Müsaitlik Bitset'i Testi (bellekten ret, başka instance'ın değişiklikleri)
+ *
+ * Değişiklikler servis yerine doğrudan veritabanına yazılır (başka
+ * instance gibi). Booking kararı bellekteki kopyadan verilir: veritabanı
+ * farklı olsa da yenilemeye kadar bellekteki durum geçerlidir; refresh()
+ * sonrası veritabanındaki durum görünür. Bellekte olmayan doktor için
+ * karar veritabanından verilir.
+ */
+class DoctorAvailabilityEndpointTest extends ApiTestSupport {
+
+    @Autowired
+    private DoctorAvailabilityService availabilityService;
+
+    @Test
+    void bookingDecidesFromMemoryAndPicksUpOtherInstancesOnRefresh() {
+        int doctorId = registerDoctor("availability.doctor@example.com", "Cardiology");
+        int patientId = registerPatient("availability.patient@example.com");
+        LocalDateTime slot = LocalDate.now().plusDays(4).atTime(11, 0);
+        assertEquals(DoctorAvailabilityService.Availability.AVAILABLE, availabilityService.check(doctorId, slot));
+
+        // Başka instance anahtarı kapattı: yenilemeden sonra bu instance da reddeder
+        jdbcTemplate.update("UPDATE doctor SET availability = false WHERE user_id = ?", doctorId);
+        availabilityService.refresh();
+        assertEquals(DoctorAvailabilityService.Availability.UNAVAILABLE, availabilityService.check(doctorId, slot));
+        assertEquals(HttpStatus.BAD_REQUEST, bookingStatus(doctorId, patientId, slot));
+
+        // Başka instance anahtarı açtı: ret bellekten verildiği için yenilemeye kadar sürer
+        jdbcTemplate.update("UPDATE doctor SET availability = true WHERE user_id = ?", doctorId);
+        assertEquals(HttpStatus.BAD_REQUEST, bookingStatus(doctorId, patientId, slot));
+        availabilityService.refresh();
+        assertEquals(HttpStatus.OK, bookingStatus(doctorId, patientId, slot));
+
+        // Başka instance izin aralığı ekledi
+        jdbcTemplate.update("INSERT INTO doctor_unavailability (doctor_id, start_date, end_date, reason) "
+                + "VALUES (?, ?, ?, 'Kongre')", doctorId, slot.toLocalDate(), slot.toLocalDate().plusDays(1));
+        availabilityService.refresh();
+        assertEquals(DoctorAvailabilityService.Availability.ON_LEAVE,
+                availabilityService.check(doctorId, slot.plusHours(1)));
+        assertEquals(HttpStatus.BAD_REQUEST, bookingStatus(doctorId, patientId, slot.plusHours(1)));
+
+        // Bellekte kaydı olmayan doktor: karar veritabanından, sonuç belleğe yazılır
+        availabilityService.remove(doctorId);
+        assertEquals(DoctorAvailabilityService.Availability.UNKNOWN, availabilityService.check(doctorId, slot));
+        assertEquals(HttpStatus.OK, bookingStatus(doctorId, patientId, slot.plusDays(3)));
+        assertEquals(DoctorAvailabilityService.Availability.ON_LEAVE,
+                availabilityService.check(doctorId, slot.plusHours(1)));
+    }
+
+    private HttpStatusCode bookingStatus(int doctorId, int patientId, LocalDateTime slot) {
+        return book(doctorId, patientId, slot).getStatusCode();
+    }
+}
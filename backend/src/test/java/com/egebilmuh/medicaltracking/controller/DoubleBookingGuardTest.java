@@ -0,0 +1,86 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Çift Kayıt Koruması Testi
+ *
+ * Aynı doktor ve saate eşzamanlı gelen istekler Rule 2 kontrolünü birlikte
+ * geçebilir; uk_appointment_active_slot kısıtı sadece birinin kaydolmasına
+ * izin verir. İptal edilen randevunun saati yeniden alınabilir.
+ */
+class DoubleBookingGuardTest extends ApiTestSupport {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Test
+    void onlyOneActiveAppointmentPerDoctorAndSlot() throws Exception {
+        int doctorId = registerDoctor("guard.doctor@example.com", "Eye");
+        List<Integer> patientIds = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            patientIds.add(registerPatient("guard.patient" + i + "@example.com"));
+        }
+        LocalDateTime slot = LocalDate.now().plusDays(6).atTime(14, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<HttpStatusCode>> responses = new ArrayList<>();
+            for (int patientId : patientIds) {
+                responses.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return book(doctorId, patientId, slot).getStatusCode();
+                }, executor));
+            }
+            start.countDown();
+            long accepted = 0;
+            for (CompletableFuture<HttpStatusCode> response : responses) {
+                if (response.get() == HttpStatus.OK) {
+                    accepted++;
+                } else {
+                    assertEquals(HttpStatus.BAD_REQUEST, response.get());
+                }
+            }
+            assertEquals(1, accepted);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, activeCount(doctorId, slot));
+
+        // Veritabanı seviyesinde de ikinci aktif satır eklenemez
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO appointment (doctor_user_id, patient_user_id, appointment_date_time, status, has_note) "
+                        + "VALUES (?, ?, ?, 'PENDING', false)", doctorId, patientIds.get(0), slot));
+
+        // İptal edilen randevu saati serbest bırakır
+        jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE doctor_user_id = ? "
+                + "AND appointment_date_time = ?", doctorId, slot);
+        assertEquals(HttpStatus.OK, book(doctorId, patientIds.get(0), slot).getStatusCode());
+        assertEquals(1, activeCount(doctorId, slot));
+    }
+
+    private int activeCount(int doctorId, LocalDateTime slot) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment WHERE doctor_user_id = ? "
+                + "AND appointment_date_time = ? AND status <> 'CANCELLED'", Integer.class, doctorId, slot);
+    }
+}
@@ -0,0 +1,115 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.service.NoteAutosaveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Ana Endpoint'lerin Uçtan Uca Kontrolü (Endpoint Smoke Test)
+ *
+ * Kayıt → giriş → session doğrulama → doktor listesi → randevu (idempotent) → taslak → not akışını
+ * gerçek HTTP üzerinden bir kez çalıştırır.
+ */
+class EndpointSmokeTest extends ApiTestSupport {
+
+    @Autowired
+    private NoteAutosaveService noteAutosaveService;
+
+    @Test
+    void mainEndpointsRespond() {
+        assertEquals(HttpStatus.OK, rest.getForEntity("/actuator/health/liveness", String.class).getStatusCode());
+
+        Map<String, Object> doctor = post("/user/registerDoctor", Map.of(
+                "email", "smoke.doctor@example.com", "password", "smoke-password",
+                "name", "Ahmet", "surname", "Yılmaz", "birthDate", "1980-05-15",
+                "phoneNo", "+905551234567", "specialty", "Cardiology"));
+        Map<String, Object> patient = post("/user/registerPatient", Map.of(
+                "email", "smoke.patient@example.com", "password", "smoke-password",
+                "name", "Ayşe", "surname", "Kaya", "birthDate", "1995-03-20",
+                "phoneNo", "+905559876543"));
+
+        Map<String, Object> session = post("/session/login",
+                Map.of("email", "smoke.patient@example.com", "password", "smoke-password"));
+        String sessionToken = (String) session.get("sessionToken");
+        assertNotNull(sessionToken);
+        assertEquals(Boolean.TRUE, post("/session/validate", Map.of("sessionToken", sessionToken)).get("valid"));
+
+        ResponseEntity<List<Map<String, Object>>> doctors =
+                rest.exchange("/Doctor/getAllDoctors", HttpMethod.GET, null, JSON_ARRAY);
+        assertEquals(HttpStatus.OK, doctors.getStatusCode());
+        assertFalse(doctors.getBody().isEmpty());
+
+        // Aynı Idempotency-Key ile tekrar deneme ikinci randevu oluşturmaz
+        LocalDateTime slot = LocalDate.now().plusDays(1).atTime(10, 0);
+        Map<String, Object> booking = Map.of("doctorId", doctor.get("userId"), "patientId", patient.get("userId"),
+                "appointmentTime", slot.toString());
+        HttpHeaders idempotent = new HttpHeaders();
+        idempotent.set("Idempotency-Key", "smoke-booking-1");
+        ResponseEntity<Map<String, Object>> created =
+                rest.exchange("/appointment/create", HttpMethod.POST, new HttpEntity<>(booking, idempotent), JSON_OBJECT);
+        ResponseEntity<Map<String, Object>> retried =
+                rest.exchange("/appointment/create", HttpMethod.POST, new HttpEntity<>(booking, idempotent), JSON_OBJECT);
+        Map<String, Object> appointment = created.getBody();
+        assertEquals("PENDING", appointment.get("status"));
+        assertEquals("false", created.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals("true", retried.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(appointment.get("appointmentId"), retried.getBody().get("appointmentId"));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, rest.exchange("/appointment/create", HttpMethod.POST,
+                new HttpEntity<>(Map.of("doctorId", doctor.get("userId"), "patientId", patient.get("userId"),
+                        "appointmentTime", slot.plusHours(1).toString()), idempotent), JSON_OBJECT).getStatusCode());
+
+        // Otomatik kayıt taslakları birleşir, flush'ta yazılır; not kaydedilince silinir
+        Object appointmentId = appointment.get("appointmentId");
+        String doctorSession = (String) post("/session/login",
+                Map.of("email", "smoke.doctor@example.com", "password", "smoke-password")).get("sessionToken");
+        assertEquals(HttpStatus.ACCEPTED, autosave(appointmentId, "İlk", doctorSession));
+        assertEquals(HttpStatus.ACCEPTED, autosave(appointmentId, "İlk muayene", doctorSession));
+        noteAutosaveService.flush();
+        ResponseEntity<Map<String, Object>> draft =
+                rest.exchange("/appointment/" + appointmentId + "/noteDraft", HttpMethod.GET, null, JSON_OBJECT);
+        assertEquals("İlk muayene", draft.getBody().get("note"));
+
+        // Notlar sürümlü tutulur; liste sadece hasNote bayrağını döner
+        postText("/appointment/setNote/" + appointmentId, Map.of("doctorNote", "İlk muayene"));
+        postText("/appointment/setNote/" + appointmentId, Map.of("doctorNote", "Kontrol 2 hafta sonra"));
+
+        ResponseEntity<List<Map<String, Object>>> patientAppointments =
+                rest.exchange("/appointment/patient/" + patient.get("userId"), HttpMethod.GET, null, JSON_ARRAY);
+        assertEquals(1, patientAppointments.getBody().size());
+        assertEquals(Boolean.TRUE, patientAppointments.getBody().get(0).get("hasNote"));
+        assertFalse(patientAppointments.getBody().get(0).containsKey("doctorNote"));
+
+        ResponseEntity<List<Map<String, Object>>> notes =
+                rest.exchange("/appointment/" + appointmentId + "/notes", HttpMethod.GET, null, JSON_ARRAY);
+        assertEquals(2, notes.getBody().size());
+        assertEquals("Kontrol 2 hafta sonra", notes.getBody().get(1).get("note"));
+        assertEquals(2, notes.getBody().get(1).get("version"));
+        assertEquals(HttpStatus.NO_CONTENT, rest.getForEntity(
+                "/appointment/" + appointmentId + "/noteDraft", String.class).getStatusCode());
+    }
+
+    private HttpStatusCode autosave(Object appointmentId, String note, String sessionToken) {
+        return rest.exchange("/appointment/autosaveNote/" + appointmentId, HttpMethod.POST,
+                new HttpEntity<>(Map.of("doctorNote", note), session(sessionToken)), Void.class).getStatusCode();
+    }
+
+    private void postText(String path, Map<String, Object> body) {
+        assertEquals(HttpStatus.OK, rest.postForEntity(path, body, String.class).getStatusCode(), path);
+    }
+}
@@ -0,0 +1,68 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Not Sürümü Testi (eşzamanlı kayıt)
+ *
+ * Aynı randevuya aynı anda kaydedilen notların hepsi kabul edilir ve
+ * 1..N arası farklı sürüm numaraları alır; hiçbiri sürüm çakışmasıyla
+ * reddedilmez.
+ */
+class NoteVersioningTest extends ApiTestSupport {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Test
+    void concurrentSavesGetConsecutiveVersions() throws Exception {
+        int doctorId = registerDoctor("notes.doctor@example.com", "Dermatology");
+        int patientId = registerPatient("notes.patient@example.com");
+        int appointmentId = booked(doctorId, patientId, LocalDate.now().plusDays(2).atTime(15, 0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<HttpStatusCode>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                String note = "Eşzamanlı not #" + i;
+                responses.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return rest.postForEntity("/appointment/setNote/" + appointmentId,
+                            Map.of("doctorNote", note), String.class).getStatusCode();
+                }, executor));
+            }
+            start.countDown();
+            for (CompletableFuture<HttpStatusCode> response : responses) {
+                assertEquals(HttpStatus.OK, response.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM appointment_note WHERE appointment_id = ? ORDER BY version",
+                Integer.class, appointmentId);
+        assertEquals(CONCURRENT_REQUESTS, versions.size());
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            assertEquals(i + 1, versions.get(i));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.service.PendingExpiryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bekleyen Randevu Süresi Testi (süpürme saati boşa çıkarır)
+ *
+ * Onay süresini geçmiş gibi gösterilen PENDING randevu iptal edilir; aynı
+ * saat başka hastaya verilebilir. Süresi dolmamış randevuya dokunulmaz.
+ */
+class PendingExpiryEndpointTest extends ApiTestSupport {
+
+    @Autowired
+    private PendingExpiryService pendingExpiryService;
+
+    @Test
+    void expiredPendingAppointmentReleasesSlot() {
+        int doctorId = registerDoctor("expiry.doctor@example.com", "Dermatology");
+        int firstPatient = registerPatient("expiry.patient1@example.com");
+        int secondPatient = registerPatient("expiry.patient2@example.com");
+
+        LocalDateTime stale = LocalDate.now().plusDays(3).atTime(9, 0);
+        LocalDateTime fresh = LocalDate.now().plusDays(3).atTime(9, 30);
+        int staleId = booked(doctorId, firstPatient, stale);
+        int freshId = booked(doctorId, firstPatient, fresh);
+        assertEquals(HttpStatus.BAD_REQUEST, book(doctorId, secondPatient, stale).getStatusCode(),
+                "Bekleyen randevu saati bloke etmeli");
+
+        jdbcTemplate.update("UPDATE appointment SET created_at = ? WHERE appointment_id = ?",
+                LocalDateTime.now().minusDays(30), staleId);
+        pendingExpiryService.expireStalePending();
+
+        assertEquals("CANCELLED", status(staleId));
+        assertEquals("PENDING", status(freshId));
+        assertEquals(HttpStatus.OK, book(doctorId, secondPatient, stale).getStatusCode(),
+                "Süresi dolan randevunun saati tekrar alınabilmeli");
+    }
+}
@@ -0,0 +1,43 @@
+package com.egebilmuh.medicaltracking.controller;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * E-posta Çakışması Testi (409 Conflict)
+ *
+ * Büyük/küçük harf ve boşluk farkıyla tekrar kaydolunan e-posta ile başka
+ * kullanıcının e-postasına güncelleme 409 döner; geçersiz istek 400 kalır.
+ */
+class UserRegistrationEndpointTest extends ApiTestSupport {
+
+    @Test
+    void duplicateEmailIsAConflict() {
+        registerPatient("conflict.patient@example.com");
+        int doctorId = registerDoctor("conflict.doctor@example.com", "Eye");
+
+        assertEquals(HttpStatus.CONFLICT, registerPatientStatus(" Conflict.Patient@EXAMPLE.com", "1990-07-07"));
+        assertEquals(HttpStatus.CONFLICT, rest.postForEntity("/user/registerDoctor", Map.of(
+                "email", "conflict.patient@example.com", "password", PASSWORD, "name", "Mehmet",
+                "surname", "Demir", "birthDate", "1975-01-10", "phoneNo", "+905551112233",
+                "specialty", "Eye"), String.class).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, rest.exchange("/user/update/" + doctorId, HttpMethod.PUT,
+                new HttpEntity<>(Map.of("email", "CONFLICT.patient@example.com")), String.class).getStatusCode());
+
+        assertEquals(HttpStatus.BAD_REQUEST, registerPatientStatus("conflict.other@example.com", "gecersiz-tarih"));
+    }
+
+    private HttpStatusCode registerPatientStatus(String email, String birthDate) {
+        return rest.postForEntity("/user/registerPatient", Map.of(
+                "email", email, "password", PASSWORD, "name", "Zeynep", "surname", "Çelik",
+                "birthDate", birthDate, "phoneNo", "+905554445566"), String.class).getStatusCode();
+    }
+}
@@ -0,0 +1,132 @@
+package com.egebilmuh.medicaltracking.datasource;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Okuma/Yazma Yönlendirmesi Testi (iki gömülü H2 veritabanı)
+ *
+ * Birincil ve replika ayrı H2 veritabanlarıdır; aralarında gerçek
+ * replikasyon yoktur. replicate() birincilin anlık görüntüsünü (SCRIPT)
+ * replikaya yükler. Replikaya henüz gitmemiş bir kayıt, okumanın hangi
+ * veritabanından yapıldığını gösterir.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "medicaltracking.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "medicaltracking.datasource.replica.max-lag-ms=60000",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class ReadReplicaRoutingTest extends ApiTestSupport {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReadReplicaConfig.Pools pools;
+
+    @Test
+    void readsUseFreshReplicaButSeeOwnWritesOnPrimary() throws SQLException {
+        int doctorId = registerDoctor("routing.doctor1@example.com", "Cardiology");
+        int patientId = registerPatient("routing.patient1@example.com");
+        replicate();
+
+        ResponseEntity<Map<String, Object>> booking = bookAt(doctorId, patientId, 10);
+        String readAfter = booking.getHeaders().getFirst(ReadYourWritesFilter.HEADER);
+        assertNotNull(readAfter, "Yazma yanıtı X-Read-After başlığı içermeli");
+        assertTrue(Long.parseLong(readAfter) <= lagMonitor.primaryPosition(),
+                "X-Read-After birincil kalp atışı sırası olmalı (saat değil)");
+
+        // Replika randevuyu henüz görmedi: başlıksız okuma replikadan, başlıklı okuma birincilden
+        assertEquals(0, appointments(patientId, null).size());
+        assertEquals(1, appointments(patientId, readAfter).size());
+
+        // Replika yazmayı yakaladıktan sonra iki okuma da replikadan ve güncel
+        replicate();
+        assertEquals(1, appointments(patientId, readAfter).size());
+        assertEquals(1, appointments(patientId, null).size());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws SQLException {
+        int doctorId = registerDoctor("routing.doctor2@example.com", "Cardiology");
+        int patientId = registerPatient("routing.patient2@example.com");
+        replicate();
+        bookAt(doctorId, patientId, 11);
+
+        // beat_at (duvar saati) karara girmez: replikadaki saat bir saat geri olsa da replika kullanılır
+        updateReplicaHeartbeat("beat_at = " + (System.currentTimeMillis() - 3_600_000L));
+        lagMonitor.refresh();
+        assertEquals(0, appointments(patientId, null).size());
+
+        // Replika saklanan kalp atışlarının gerisine düştü: gecikme bilinmez, okumalar birincile döner
+        updateReplicaHeartbeat("seq = 0");
+        lagMonitor.refresh();
+        assertEquals(1, appointments(patientId, null).size());
+    }
+
+    private void updateReplicaHeartbeat(String assignment) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE replication_heartbeat SET " + assignment);
+        }
+    }
+
+    /**
+     * Birincilin Anlık Görüntüsünü Replikaya Yükleme (replikasyon yerine)
+     */
+    private void replicate() throws SQLException {
+        lagMonitor.refresh(); // Görüntüye bu andaki kalp atışı da girer
+        List<String> script = new JdbcTemplate(pools.primary()).queryForList("SCRIPT", String.class);
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+        lagMonitor.refresh();
+    }
+
+    private ResponseEntity<Map<String, Object>> bookAt(int doctorId, int patientId, int hour) {
+        ResponseEntity<Map<String, Object>> response =
+                book(doctorId, patientId, LocalDate.now().plusDays(1).atTime(hour, 0));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response;
+    }
+
+    private List<Map<String, Object>> appointments(int patientId, String readAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (readAfter != null) {
+            headers.set(ReadYourWritesFilter.HEADER, readAfter);
+        }
+        ResponseEntity<List<Map<String, Object>>> response = rest.exchange("/appointment/patient/" + patientId,
+                HttpMethod.GET, new HttpEntity<>(headers), JSON_ARRAY);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+}
@@ -0,0 +1,228 @@
+package com.egebilmuh.medicaltracking.importer;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.model.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Toplu Kullanıcı İçe Aktarma Testi (CSV ve NDJSON)
+ *
+ * Geçerli satırlar eklenir ve giriş yapabilir; eksik alanlı, dosyada tekrar
+ * eden ve zaten kayıtlı e-postalı satırlar satır numarasıyla raporlanır.
+ * Binlerce satırlık içe aktarmada open-in-view'in açık tuttuğu persistence
+ * context'e entity eklenmez ve context temizlenmez. Endpoint yönetici
+ * oturumu ister; satır ve gövde sınırları bu context'te küçültülür.
+ *
+ * BCrypt maliyeti testte düşürülür (4); binlerce şifre hash'lenir. Bu ayrı
+ * context kendi H2 veritabanını kullanır ve ikinci seviye cache'i kapatır
+ * (bkz. ApiTestSupport).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:medicaltracking-import;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "medicaltracking.import.max-rows=3000",
+        "medicaltracking.import.max-bytes=1000000"})
+class UserImportServiceTest extends ApiTestSupport {
+
+    private static final String ADMIN_EMAIL = "import.admin@example.com";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TestBean
+    private PasswordEncoder passwordEncoder;
+
+    static PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(4);
+    }
+
+    @Test
+    void importsCsvAndReportsRowErrors() throws Exception {
+        registerPatient("import.existing@example.com");
+
+        String csv = """
+                role,email,password,name,surname,birthDate,phoneNo,specialty
+                DOCTOR, Import.Doctor@Example.com ,doctor-password,"Ali, Can",Kaya,1970-01-01,05551112233,Cardiology
+                PATIENT,import.patient@example.com,patient-password,Ayşe,"Yıl""maz",1990-02-02,05554445566,
+
+                DOCTOR,import.nospecialty@example.com,doctor-password,Veli,Demir,1975-03-03,05550000000,
+                PATIENT,import.patient@example.com,patient-password,Ayşe,Yılmaz,1990-02-02,05554445566,
+                ADMIN,import.admin2@example.com,admin-password,Ece,Kurt,1990-07-07,05554445566,
+                PATIENT,import.existing@example.com,import-password,Zeynep,Çelik,1990-07-07,05554445566,
+                """;
+        List<Map<String, Object>> lines = importUsers(csv, "text/csv");
+
+        Map<String, Object> done = lines.get(lines.size() - 1);
+        assertEquals("done", done.get("type"));
+        assertEquals(6, done.get("processed"));
+        assertEquals(2, done.get("imported"));
+        assertEquals(4, done.get("failed"));
+        List<Object> errorLines = lines.stream().filter(line -> "error".equals(line.get("type")))
+                .map(line -> line.get("line")).toList();
+        assertEquals(List.of(5, 6, 7, 8), errorLines);
+
+        assertEquals("Ali, Can", jdbcTemplate.queryForObject(
+                "SELECT name FROM doctor_profile WHERE email = 'import.doctor@example.com'", String.class));
+        assertEquals("Yıl\"maz", jdbcTemplate.queryForObject(
+                "SELECT surname FROM patient_profile WHERE email = 'import.patient@example.com'", String.class));
+        post("/session/login", Map.of("email", "import.doctor@example.com", "password", "doctor-password"));
+    }
+
+    @Test
+    void importsNdjsonWithDefaultRole() throws Exception {
+        String ndjson = """
+                {"email":"import.ndjson1@example.com","password":"ndjson-password","name":"Can","surname":"Koç"}
+                {"email":"import.ndjson2@example.com","password":"ndjson-password","name":"Ece","surname":"Kurt"}
+                {bozuk
+                """;
+        List<Map<String, Object>> lines = importUsers(ndjson, "application/x-ndjson", "?role=PATIENT");
+
+        Map<String, Object> done = lines.get(lines.size() - 1);
+        assertEquals(2, done.get("imported"));
+        assertEquals(1, done.get("failed"));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user WHERE role = 'PATIENT' AND email LIKE 'import.ndjson%'", Integer.class));
+
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, importStatus("<users/>", "application/xml", adminSession()));
+    }
+
+    @Test
+    void requiresAdminSessionAndLimitsInput() throws Exception {
+        String ndjson = "{\"email\":\"import.denied@example.com\",\"password\":\"p\",\"role\":\"PATIENT\"}\n";
+        registerPatient("import.nonadmin@example.com");
+        assertEquals(HttpStatus.UNAUTHORIZED, importStatus(ndjson, "application/x-ndjson", null));
+        assertEquals(HttpStatus.FORBIDDEN,
+                importStatus(ndjson, "application/x-ndjson", login("import.nonadmin@example.com")));
+        assertEquals(HttpStatus.BAD_REQUEST,
+                importStatus(ndjson, "application/x-ndjson", adminSession(), "?role=ADMIN"));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+                importStatus("x".repeat(1_000_001), "application/x-ndjson", adminSession()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user WHERE email = 'import.denied@example.com'", Integer.class));
+
+        // max-rows'u aşan girdi: okuma durur (şifresiz satırlar hash'lenmeden reddedilir)
+        StringBuilder csv = new StringBuilder("role,email\n");
+        for (int i = 0; i <= 3000; i++) {
+            csv.append("PATIENT,import.cap").append(i).append("@example.com\n");
+        }
+        List<Map<String, Object>> lines = importUsers(csv.toString(), "text/csv");
+        Map<String, Object> last = lines.get(lines.size() - 1);
+        assertEquals("failed", last.get("type"));
+        assertEquals("En fazla 3000 satır içe aktarılabilir (satır 3002)", last.get("message"));
+    }
+
+    @Test
+    void largeImportDoesNotAccumulateEntitiesInOpenSessionInView() throws Exception {
+        int rows = 3000;
+        StringBuilder csv = new StringBuilder("role,email,password,name,surname,specialty\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i % 10 == 0 ? "DOCTOR" : "PATIENT").append(",import.bulk").append(i).append("@example.com,")
+                    .append("bulk-password,Ad").append(i).append(",Soyad,").append(i % 10 == 0 ? "Eye" : "")
+                    .append('\n');
+        }
+
+        // OpenEntityManagerInViewInterceptor'ın yaptığı gibi istek boyunca açık EntityManager
+        int adminId = jdbcTemplate.queryForObject("SELECT user_id FROM user WHERE email = ?", Integer.class,
+                adminEmail());
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            User requestUser = requestEntityManager.find(User.class, adminId); // İsteğin daha önce yüklediği entity
+            UserImportService.Progress done = userImportService.importUsers(
+                    ImportRowReader.forContentType("text/csv", new StringReader(csv.toString()), objectMapper), null,
+                    new UserImportService.Listener() {
+                        @Override
+                        public void error(UserImportService.RowError error) {
+                            throw new AssertionError(error.toString());
+                        }
+
+                        @Override
+                        public void progress(UserImportService.Progress progress) {
+                        }
+                    });
+            assertEquals(new UserImportService.Progress(rows, rows, 0), done);
+            assertEquals(1, requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                    "Parçalar istek persistence context'ine eklenmemeli");
+            assertTrue(requestEntityManager.contains(requestUser), "İstek persistence context'i temizlenmemeli");
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+
+        assertEquals(rows, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user WHERE email LIKE 'import.bulk%'", Integer.class));
+        assertEquals(rows / 10, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM doctor_profile WHERE email LIKE 'import.bulk%'", Integer.class));
+    }
+
+    private List<Map<String, Object>> importUsers(String body, String contentType, String... query) throws Exception {
+        ResponseEntity<String> response = postImport(String.join("", query), body, contentType,
+                adminSession());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            lines.add(objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+            }));
+        }
+        return lines;
+    }
+
+    private HttpStatusCode importStatus(String body, String contentType, String sessionToken, String... query) {
+        return postImport(String.join("", query), body, contentType, sessionToken).getStatusCode();
+    }
+
+    private ResponseEntity<String> postImport(String query, String body, String contentType, String sessionToken) {
+        HttpHeaders headers = session(sessionToken);
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        return rest.exchange("/user/import" + query, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+
+    /**
+     * Yönetici Oturumu (kayıt endpoint'i yok; hasta olarak kaydedilip rolü değiştirilir)
+     */
+    private String adminSession() {
+        return login(adminEmail());
+    }
+
+    private String adminEmail() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE email = ?", Integer.class, ADMIN_EMAIL) == 0) {
+            registerPatient(ADMIN_EMAIL);
+            jdbcTemplate.update("UPDATE user SET role = 'ADMIN' WHERE email = ?", ADMIN_EMAIL);
+        }
+        return ADMIN_EMAIL;
+    }
+}
@@ -0,0 +1,93 @@
+package com.egebilmuh.medicaltracking.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tek Bir İşlem Türünün Yük Testi Ölçümleri
+ *
+ * Her sanal kullanıcı kendi örneğini doldurur (kilitsiz); test sonunda
+ * örnekler merge ile birleştirilip yüzdelikler hesaplanır.
+ */
+final class LatencyStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private int serverErrors;
+    private int invariantViolations;
+    private final List<String> violationSamples = new ArrayList<>();
+
+    void record(long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+    }
+
+    void serverError() {
+        serverErrors++;
+    }
+
+    void violation(String description) {
+        invariantViolations++;
+        if (violationSamples.size() < 5) {
+            violationSamples.add(description);
+        }
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latenciesNanos[i]);
+        }
+        serverErrors += other.serverErrors;
+        invariantViolations += other.invariantViolations;
+        for (String sample : other.violationSamples) {
+            if (violationSamples.size() < 5) {
+                violationSamples.add(sample);
+            }
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int serverErrors() {
+        return serverErrors;
+    }
+
+    int invariantViolations() {
+        return invariantViolations;
+    }
+
+    /**
+     * @param percentile 0-100 arası yüzdelik
+     * @return double - Milisaniye cinsinden gecikme (ölçüm yoksa 0)
+     */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+
+    Map<String, Object> toReport(double durationSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", count);
+        report.put("throughputPerSecond", count / durationSeconds);
+        report.put("p50Ms", percentileMillis(50));
+        report.put("p95Ms", percentileMillis(95));
+        report.put("p99Ms", percentileMillis(99));
+        report.put("maxMs", percentileMillis(100));
+        report.put("serverErrors", serverErrors);
+        report.put("invariantViolations", invariantViolations);
+        report.put("violationSamples", violationSamples);
+        return report;
+    }
+}
@@ -0,0 +1,431 @@
+package com.egebilmuh.medicaltracking.load;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
+import com.egebilmuh.medicaltracking.repository.DoctorRepository;
+import com.egebilmuh.medicaltracking.repository.PatientRepository;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
+import com.egebilmuh.medicaltracking.service.ProfileService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tepe Saat Yük Testi (Peak-Hour Load Test)
+ *
+ * Uygulamayı gömülü veritabanı (embedded profili) ile gerçek HTTP sunucusu
+ * üzerinde başlatır ve sanal kullanıcılarla karışık trafik üretir:
+ * giriş, /session/validate yoklaması, /session/refresh, doktor listesi ve
+ * birkaç popüler doktorun aynı saatlerine eşzamanlı randevu talepleri.
+ *
+ * Rapor (target/load-test-report.json): işlem başına throughput, p50/p95/p99
+ * ve doğruluk ihlalleri. Test şu durumlarda başarısız olur (release kapısı):
+ * - Aynı doktora aynı saatte birden fazla aktif randevu (çift rezervasyon)
+ * - Başarılı yanıt verilen randevu sayısı veritabanıyla uyuşmuyorsa
+ * - 5xx / bağlantı hatası veya geçerli bir oturumun reddedilmesi
+ * - Herhangi bir işlemin p99'u load.max-p99-ms'yi aşarsa
+ * - Toplam throughput load.min-throughput'un altındaysa
+ *
+ * Çalıştırma: mvn -Pload-test test [-Dload.virtual-threads=true]
+ * -Dload.virtual-threads=true virtual-threads profilini de etkinleştirir
+ * (sanal thread'ler ve o profilin Hikari havuz ayarları); karşılaştırma
+ * üretimde kullanılacak ayarlarla yapılır.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "logging.level.root=WARN",
+                "medicaltracking.sql.sample-rate=0"
+        })
+@ActiveProfiles(resolver = PeakHourLoadTest.LoadProfiles.class)
+class PeakHourLoadTest {
+
+    /**
+     * embedded, -Dload.virtual-threads=true ise ayrıca virtual-threads
+     */
+    static class LoadProfiles implements ActiveProfilesResolver {
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return Boolean.getBoolean("load.virtual-threads")
+                    ? new String[]{"embedded", "virtual-threads"}
+                    : new String[]{"embedded"};
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(PeakHourLoadTest.class);
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int USERS = Integer.getInteger("load.users", 32);
+    private static final int DOCTORS = Integer.getInteger("load.doctors", 20);
+    private static final int POPULAR_DOCTORS = Integer.getInteger("load.popular-doctors", 3);
+    private static final int POPULAR_SLOTS = Integer.getInteger("load.popular-slots", 40);
+    private static final double MAX_P99_MILLIS = Double.parseDouble(System.getProperty("load.max-p99-ms", "2000"));
+    private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("load.min-throughput", "0"));
+
+    /**
+     * İşlem karışımı (ağırlıklar toplamı 100)
+     */
+    enum Operation {
+        LOGIN(5), VALIDATE(45), REFRESH(10), LIST_DOCTORS(20), CREATE_APPOINTMENT(20);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return VALIDATE;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private DoctorAvailabilityService availabilityService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void peakHourMix() throws Exception {
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        List<Integer> popularDoctorIds = seedDoctors(encodedPassword);
+        List<Patient> patients = seedPatients(encodedPassword);
+        LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(WARMUP_SECONDS).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(DURATION_SECONDS).toNanos();
+
+        List<VirtualUser> users = new ArrayList<>();
+        for (Patient patient : patients) {
+            users.add(new VirtualUser(patient, popularDoctorIds, firstSlot, measureFrom, deadline));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (VirtualUser user : users) {
+                futures.add(executor.submit(() -> {
+                    user.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Sonuçları birleştir
+        Map<Operation, LatencyStats> totals = new EnumMap<>(Operation.class);
+        int acceptedBookings = 0;
+        for (VirtualUser user : users) {
+            acceptedBookings += user.acceptedBookings;
+            user.stats.forEach((operation, stats) ->
+                    totals.computeIfAbsent(operation, o -> new LatencyStats()).merge(stats));
+        }
+
+        // Doğruluk kontrolleri (veritabanı üzerinden)
+        List<Appointment> appointments = appointmentRepository.findAll();
+        Map<String, Long> activeBySlot = appointments.stream()
+                .filter(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED)
+                .collect(Collectors.groupingBy(
+                        a -> a.getDoctor().getUserId() + "@" + a.getAppointmentDateTime(), Collectors.counting()));
+        List<String> doubleBookings = activeBySlot.entrySet().stream()
+                .filter(e -> e.getValue() > 1)
+                .map(e -> e.getKey() + " x" + e.getValue())
+                .toList();
+
+        Map<String, Object> report = report(totals, appointments.size(), acceptedBookings, doubleBookings);
+        Path reportFile = Path.of("target", "load-test-report.json");
+        Files.createDirectories(reportFile.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        log.info("Yük testi raporu: {}", reportFile.toAbsolutePath());
+
+        // Release kapıları
+        assertTrue(doubleBookings.isEmpty(), "Çift rezervasyon: " + doubleBookings);
+        assertTrue(appointments.size() == acceptedBookings,
+                "Başarılı yanıt (" + acceptedBookings + ") ile kayıtlı randevu (" + appointments.size() + ") uyuşmuyor");
+        double totalThroughput = 0;
+        for (Map.Entry<Operation, LatencyStats> entry : totals.entrySet()) {
+            LatencyStats stats = entry.getValue();
+            totalThroughput += stats.count() / (double) DURATION_SECONDS;
+            assertTrue(stats.serverErrors() == 0, entry.getKey() + " sunucu hatası: " + stats.serverErrors());
+            assertTrue(stats.invariantViolations() == 0, entry.getKey() + " doğruluk ihlali: " + stats.invariantViolations());
+            assertTrue(stats.percentileMillis(99) <= MAX_P99_MILLIS,
+                    entry.getKey() + " p99 " + stats.percentileMillis(99) + " ms > " + MAX_P99_MILLIS + " ms");
+        }
+        assertTrue(totalThroughput >= MIN_THROUGHPUT,
+                "Toplam throughput " + totalThroughput + "/s < " + MIN_THROUGHPUT + "/s");
+    }
+
+    private Map<String, Object> report(Map<Operation, LatencyStats> totals, int storedAppointments,
+                                       int acceptedBookings, List<String> doubleBookings) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", DURATION_SECONDS);
+        report.put("users", USERS);
+        report.put("virtualThreads", environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        report.put("profiles", List.of(environment.getActiveProfiles()));
+        report.put("maxPoolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        totals.forEach((operation, stats) -> operations.put(operation.name(), stats.toReport(DURATION_SECONDS)));
+        report.put("operations", operations);
+        Map<String, Object> invariants = new LinkedHashMap<>();
+        invariants.put("acceptedBookings", acceptedBookings);
+        invariants.put("storedAppointments", storedAppointments);
+        invariants.put("doubleBookings", doubleBookings);
+        report.put("invariants", invariants);
+        return report;
+    }
+
+    private List<Integer> seedDoctors(String encodedPassword) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> popular = new ArrayList<>();
+            Doctor.Specialty[] specialties = Doctor.Specialty.values();
+            for (int i = 0; i < DOCTORS; i++) {
+                Doctor doctor = new Doctor();
+                doctor.setEmail("load-doctor" + i + "@load.local");
+                doctor.setPassword(encodedPassword);
+                doctor.setRole(User.Role.DOCTOR);
+                doctor.setName("Doktor" + i);
+                doctor.setSurname("Load");
+                doctor.setBirthDate(LocalDate.of(1975, 1, 1));
+                doctor.setPhoneNo("555" + i);
+                doctor.setSpecialty(specialties[i % specialties.length]);
+                doctor.setAvailability(true);
+                Doctor saved = doctorRepository.save(doctor);
+                profileService.sync(saved);
+                availabilityService.register(saved);
+                if (i < POPULAR_DOCTORS) {
+                    popular.add(saved.getUserId());
+                }
+            }
+            return popular;
+        });
+    }
+
+    private List<Patient> seedPatients(String encodedPassword) {
+        return transactionTemplate.execute(status -> {
+            List<Patient> patients = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                Patient patient = new Patient();
+                patient.setEmail("load-patient" + i + "@load.local");
+                patient.setPassword(encodedPassword);
+                patient.setRole(User.Role.PATIENT);
+                patient.setName("Hasta" + i);
+                patient.setSurname("Load");
+                patient.setBirthDate(LocalDate.of(1990, 1, 1));
+                patient.setPhoneNo("5550000");
+                Patient saved = patientRepository.save(patient);
+                profileService.sync(saved);
+                patients.add(saved);
+            }
+            return patients;
+        });
+    }
+
+    /**
+     * Tek Bir Hastayı Simüle Eden Sanal Kullanıcı
+     *
+     * Önce giriş yapar, sonra süre dolana kadar karışımdan işlem seçer.
+     * Ölçümler sadece ısınma süresinden sonra başlayan isteklerden alınır.
+     */
+    private final class VirtualUser {
+
+        private final Patient patient;
+        private final List<Integer> popularDoctorIds;
+        private final LocalDateTime firstSlot;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        private String sessionToken;
+        private int acceptedBookings;
+
+        VirtualUser(Patient patient, List<Integer> popularDoctorIds, LocalDateTime firstSlot,
+                    long measureFrom, long deadline) {
+            this.patient = patient;
+            this.popularDoctorIds = popularDoctorIds;
+            this.firstSlot = firstSlot;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        void run() throws Exception {
+            execute(Operation.LOGIN);
+            while (System.nanoTime() < deadline) {
+                execute(Operation.pick());
+            }
+        }
+
+        private void execute(Operation operation) throws Exception {
+            long started = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(request(operation), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                violation(stats(operation, started), "Bağlantı hatası: " + e.getMessage());
+                return;
+            }
+            long latency = System.nanoTime() - started;
+            LatencyStats target = stats(operation, started);
+            if (target != null) {
+                target.record(latency);
+            }
+            if (response.statusCode() >= 500) {
+                if (target != null) {
+                    target.serverError();
+                }
+                return;
+            }
+            check(operation, response, target);
+        }
+
+        private void check(Operation operation, HttpResponse<String> response, LatencyStats target) throws Exception {
+            int status = response.statusCode();
+            switch (operation) {
+                case LOGIN -> {
+                    if (status != 200) {
+                        violation(target, "Giriş reddedildi: " + status);
+                        return;
+                    }
+                    sessionToken = objectMapper.readTree(response.body()).path("sessionToken").asText();
+                }
+                case VALIDATE -> {
+                    JsonNode body = objectMapper.readTree(response.body());
+                    if (status != 200 || !body.path("valid").asBoolean()
+                            || body.path("user").path("userId").asInt() != patient.getUserId()) {
+                        violation(target, "Geçerli oturum doğrulanamadı: " + status);
+                    }
+                }
+                case REFRESH -> {
+                    if (status != 200) {
+                        violation(target, "Oturum yenilenemedi: " + status);
+                    }
+                }
+                case LIST_DOCTORS -> {
+                    if (status != 200 || objectMapper.readTree(response.body()).size() != DOCTORS) {
+                        violation(target, "Doktor listesi eksik: " + status);
+                    }
+                }
+                case CREATE_APPOINTMENT -> {
+                    // 200 = kaydedildi, 400 = çakışma (beklenen); başka durum ihlaldir
+                    if (status == 200) {
+                        acceptedBookings++;
+                    } else if (status != 400) {
+                        violation(target, "Beklenmeyen randevu yanıtı: " + status);
+                    }
+                }
+            }
+        }
+
+        private void violation(LatencyStats target, String description) {
+            if (target != null) {
+                target.violation(description);
+            }
+        }
+
+        /**
+         * @return LatencyStats - Isınma süresinde başlayan istekler için null
+         */
+        private LatencyStats stats(Operation operation, long started) {
+            if (started < measureFrom) {
+                return null;
+            }
+            return stats.computeIfAbsent(operation, o -> new LatencyStats());
+        }
+
+        private HttpRequest request(Operation operation) throws Exception {
+            return switch (operation) {
+                case LOGIN -> post("/session/login", Map.of("email", patient.getEmail(), "password", PASSWORD));
+                case VALIDATE -> post("/session/validate", Map.of("sessionToken", sessionToken));
+                case REFRESH -> post("/session/refresh", Map.of("sessionToken", sessionToken));
+                case LIST_DOCTORS -> HttpRequest.newBuilder(uri("/Doctor/getAllDoctors")).GET().build();
+                case CREATE_APPOINTMENT -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("doctorId", popularDoctorIds.get(random.nextInt(popularDoctorIds.size())));
+                    body.put("patientId", patient.getUserId());
+                    body.put("appointmentTime", firstSlot.plusMinutes(15L * random.nextInt(POPULAR_SLOTS)).toString());
+                    yield post("/appointment/create", body);
+                }
+            };
+        }
+
+        private HttpRequest post(String path, Map<String, ?> body) throws Exception {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+}
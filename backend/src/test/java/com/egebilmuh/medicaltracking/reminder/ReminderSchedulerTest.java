@@ -0,0 +1,105 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.service.AppointmentEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hatırlatıcı Testi (teslim öncesi sahiplenme, hatırlatma ufku)
+ *
+ * İptal ve başka instance'ın sahiplenmesi doğrudan veritabanına yazılır; bu
+ * instance'ın çarkı habersizdir ama bu hatırlatmalar teslim edilmemeli.
+ * Teslim edilen hatırlatma randevu satırında sahiplenilmiş olmalı. Ufkun
+ * ötesindeki randevu çarka hiç alınmamalı.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "medicaltracking.reminders.offsets-minutes=1",
+        "medicaltracking.reminders.horizon-minutes=60",
+        "spring.datasource.url=jdbc:h2:mem:medicaltracking-reminder;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+@ActiveProfiles("embedded")
+class ReminderSchedulerTest extends ApiTestSupport {
+
+    private static final List<Reminder> DELIVERED = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+        @Bean
+        ReminderSink recordingSink() {
+            return DELIVERED::add;
+        }
+    }
+
+    @Autowired
+    private ReminderScheduler scheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void skipsRemindersCancelledElsewhereAndKeepsFarAppointmentsOutOfTheWheel() throws Exception {
+        int doctorId = registerDoctor("reminder.doctor@example.com", "Cardiology");
+        int patientId = registerPatient("reminder.patient@example.com");
+
+        // 1 dakikalık hatırlatmalar ~2 sn sonra tetiklenir
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(62);
+        int kept = confirmed(doctorId, patientId, start);
+        int cancelledElsewhere = confirmed(doctorId, patientId, start.plusSeconds(1));
+        jdbcTemplate.update("UPDATE appointment SET status = 'CANCELLED' WHERE appointment_id = ?", cancelledElsewhere);
+        int claimedElsewhere = confirmed(doctorId, patientId, start.plusSeconds(2));
+        jdbcTemplate.update("UPDATE appointment SET reminded_at = ? WHERE appointment_id = ?",
+                start.plusSeconds(2).minusMinutes(1), claimedElsewhere);
+
+        double scheduled = scheduledGauge();
+        int far = confirmed(doctorId, patientId, start.plusDays(10));
+        assertEquals(scheduled, scheduledGauge(), "Ufkun ötesindeki randevu çarka alınmamalı");
+
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (DELIVERED.stream().noneMatch(reminder -> reminder.appointmentId() == kept)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+        }
+        Thread.sleep(3_000); // İptal edilenin ve başka instance'ın aldığının tetiklenme anı da geçsin
+        assertEquals(1, DELIVERED.stream().filter(reminder -> reminder.appointmentId() == kept).count());
+        assertEquals(start.minusMinutes(1), jdbcTemplate.queryForObject(
+                "SELECT reminded_at FROM appointment WHERE appointment_id = ?", LocalDateTime.class, kept));
+        assertTrue(DELIVERED.stream().noneMatch(reminder -> reminder.appointmentId() == cancelledElsewhere));
+        assertTrue(DELIVERED.stream().noneMatch(reminder -> reminder.appointmentId() == claimedElsewhere));
+        assertTrue(DELIVERED.stream().noneMatch(reminder -> reminder.appointmentId() == far));
+    }
+
+    /**
+     * Onaylı randevuyu veritabanına yazar ve bu instance'a onay olayını iletir
+     */
+    private int confirmed(int doctorId, int patientId, LocalDateTime dateTime) {
+        jdbcTemplate.update("INSERT INTO appointment (doctor_user_id, patient_user_id, appointment_date_time, status, "
+                + "has_note) VALUES (?, ?, ?, 'CONFIRMED', false)", doctorId, patientId, dateTime);
+        int appointmentId = jdbcTemplate.queryForObject("SELECT appointment_id FROM appointment "
+                + "WHERE doctor_user_id = ? AND appointment_date_time = ?", Integer.class, doctorId, dateTime);
+        scheduler.onAppointmentEvent(new AppointmentEvent(AppointmentEvent.Type.APPROVED, appointmentId, doctorId,
+                patientId, dateTime, Appointment.AppointmentStatus.PENDING, Appointment.AppointmentStatus.CONFIRMED,
+                null, Instant.now()));
+        return appointmentId;
+    }
+
+    private double scheduledGauge() {
+        return meterRegistry.get("medicaltracking.reminders.scheduled").gauge().value();
+    }
+}
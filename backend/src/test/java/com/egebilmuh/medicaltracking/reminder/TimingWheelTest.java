@@ -0,0 +1,69 @@
+package com.egebilmuh.medicaltracking.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing Wheel Testi (seviyeler arası aktarma, iptal, kapsam dışı süreler)
+ *
+ * Saat tick tick ilerletilir; her kaydın tam bitiş tick'inde döndüğü kontrol edilir.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+
+    @Test
+    void firesEachEntryAtItsDeadline() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK, START);
+        Map<String, Long> deadlines = new HashMap<>();
+        deadlines.put("otuz-saniye", START + 30_000);
+        deadlines.put("iki-dakika", START + 120_000);        // seviye 1
+        deadlines.put("bes-saat", START + 5 * 3_600_000L);   // seviye 2
+        deadlines.put("on-gun", START + 10 * DAY);           // seviye 3
+        deadlines.put("iki-yuz-gun", START + 200 * DAY);     // çark kapsamının dışında
+        deadlines.put("iptal", START + 60_000);
+        deadlines.put("ertelenen", START + 45_000);
+        deadlines.forEach((key, deadline) -> assertTrue(wheel.schedule(key, deadline, key)));
+        assertTrue(wheel.schedule("yarim-saniye", START + 500, "yarim-saniye"));
+        deadlines.put("yarim-saniye", START + TICK); // Bitiş tick'e yukarı yuvarlanır, erken dönmez
+
+        assertFalse(wheel.schedule("gecmis", START - 1, "gecmis"), "Süresi dolmuş kayıt eklenmemeli");
+        assertEquals("iptal", wheel.cancel("iptal"));
+        deadlines.remove("iptal");
+        assertTrue(wheel.schedule("ertelenen", START + 3 * DAY, "ertelenen"));
+        deadlines.put("ertelenen", START + 3 * DAY);
+        assertEquals(deadlines.size(), wheel.size());
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 201 * DAY; now += TICK) {
+            for (String key : wheel.advance(now)) {
+                firedAt.put(key, now);
+            }
+        }
+
+        assertEquals(deadlines, firedAt);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void catchesUpAfterLongPause() {
+        TimingWheel<Integer, Integer> wheel = new TimingWheel<>(TICK, START);
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(i, START + i * 37_000L, i);
+        }
+        List<Integer> first = wheel.advance(START + 50 * 37_000L);
+        assertEquals(50, first.size());
+        assertEquals(1, first.get(0));
+        assertEquals(50, first.get(49));
+        assertEquals(50, wheel.advance(START + DAY).size());
+    }
+}
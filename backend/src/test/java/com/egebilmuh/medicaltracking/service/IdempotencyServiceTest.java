@@ -0,0 +1,97 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * İdempotency Testi (aynı anahtar, eşzamanlı istekler)
+ *
+ * Aynı Idempotency-Key iki thread'den aynı anda gelir. Oluşturma işlemi
+ * yavaşlatılır: ikinci istek ya idempotency_key satırının kilidinde
+ * bekleyip duplicate alır ya da ilki commit ettikten sonra veritabanından
+ * yanıtlanır. Her iki yolda da tek randevu oluşur ve iki istek aynı
+ * randevuyu döner.
+ */
+class IdempotencyServiceTest extends ApiTestSupport {
+
+    private static final int CONCURRENT_REQUESTS = 2;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Test
+    void sameKeyFromTwoThreadsCreatesOneAppointment() throws Exception {
+        int doctorId = registerDoctor("idempotency.doctor@example.com", "Cardiology");
+        int patientId = registerPatient("idempotency.patient@example.com");
+        LocalDateTime slot = LocalDate.now().plusDays(8).atTime(13, 0);
+        String fingerprint = IdempotencyService.fingerprint(doctorId, patientId, slot, null);
+        AtomicInteger creates = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<IdempotencyService.Result> results = new ArrayList<>();
+        try {
+            CyclicBarrier start = new CyclicBarrier(CONCURRENT_REQUESTS);
+            List<CompletableFuture<IdempotencyService.Result>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return idempotencyService.execute("concurrent-key-1", fingerprint, () -> {
+                        creates.incrementAndGet();
+                        sleep(300); // Diğer istek bu arada anahtar satırına ulaşsın
+                        return appointmentService.createAppointment(doctorId, patientId, slot);
+                    });
+                }, executor));
+            }
+            for (CompletableFuture<IdempotencyService.Result> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, creates.get(), "Randevu sadece bir kez oluşturulmalı");
+        assertEquals(1, results.stream().filter(result -> !result.replayed()).count());
+        assertEquals(results.get(0).appointment().getAppointmentId(), results.get(1).appointment().getAppointmentId());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment WHERE doctor_user_id = ? "
+                + "AND appointment_date_time = ?", Integer.class, doctorId, slot));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_key WHERE idempotency_key = 'concurrent-key-1'", Integer.class));
+
+        // Aynı anahtar farklı istekle: oluşturma çalışmaz
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("concurrent-key-1",
+                IdempotencyService.fingerprint(doctorId, patientId, slot.plusHours(1), null), () -> {
+                    creates.incrementAndGet();
+                    return appointmentService.createAppointment(doctorId, patientId, slot.plusHours(1));
+                }));
+        assertEquals(1, creates.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
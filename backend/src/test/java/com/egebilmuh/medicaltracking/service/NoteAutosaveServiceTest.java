@@ -0,0 +1,145 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.MedicalTrackingApplication;
+import com.egebilmuh.medicaltracking.model.AppointmentNoteDraft;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Not Taslağı Otomatik Kayıt Testi (birleştirme, yetki, kapanış flush'ı)
+ *
+ * Birleştirme ve yetki ortak HTTP context'inde test edilir. Kapanış testi
+ * uygulamayı kendi H2 veritabanıyla açıp düzgün kapatır (flush aralığı bir
+ * saat; taslağı sadece @PreDestroy yazabilir), satırı doğrudan JDBC ile
+ * okur ve aynı veritabanıyla yeniden açılan uygulamadan taslağı ister.
+ */
+class NoteAutosaveServiceTest extends ApiTestSupport {
+
+    private static final String RESTART_URL =
+            "jdbc:h2:mem:medicaltracking-autosave;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private NoteAutosaveService noteAutosaveService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void coalescesAutosavesIntoOneDraftWrite() {
+        int doctorId = registerDoctor("autosave.doctor@example.com", "Eye");
+        int otherDoctorId = registerDoctor("autosave.other@example.com", "Eye");
+        int patientId = registerPatient("autosave.patient@example.com");
+        int appointmentId = booked(doctorId, patientId, LocalDate.now().plusDays(3).atTime(16, 0));
+        noteAutosaveService.flush();
+
+        double coalesced = counter("medicaltracking.notes.autosave.coalesced");
+        double written = counter("medicaltracking.notes.autosave.written");
+        for (String note : List.of("Baş", "Baş ağrısı", "Baş ağrısı, 3 gündür")) {
+            assertEquals(NoteAutosaveService.Outcome.ACCEPTED, noteAutosaveService.autosave(doctorId, appointmentId, note));
+        }
+        assertEquals(2, counter("medicaltracking.notes.autosave.coalesced") - coalesced);
+        assertEquals("Baş ağrısı, 3 gündür", noteAutosaveService.getDraft(appointmentId).orElseThrow().getNote());
+        assertEquals(0, draftRows(appointmentId), "Taslak flush'tan önce veritabanına yazılmamalı");
+
+        noteAutosaveService.flush();
+        assertEquals(1, counter("medicaltracking.notes.autosave.written") - written);
+        assertEquals("Baş ağrısı, 3 gündür", jdbcTemplate.queryForObject(
+                "SELECT note FROM appointment_note_draft WHERE appointment_id = ?", String.class, appointmentId));
+
+        // Başka doktorun taslağı ve sınırı aşan metin belleğe de alınmaz
+        assertEquals(NoteAutosaveService.Outcome.NOT_OWNER,
+                noteAutosaveService.autosave(otherDoctorId, appointmentId, "Başka doktor"));
+        assertEquals(NoteAutosaveService.Outcome.TOO_LARGE,
+                noteAutosaveService.autosave(doctorId, appointmentId, "x".repeat(20_001)));
+        assertEquals(NoteAutosaveService.Outcome.NOT_FOUND, noteAutosaveService.autosave(doctorId, 999_999, "Yok"));
+        assertEquals("Baş ağrısı, 3 gündür", noteAutosaveService.getDraft(appointmentId).orElseThrow().getNote());
+
+        // HTTP: oturum zorunlu, sadece randevunun doktoru
+        assertEquals(HttpStatus.UNAUTHORIZED, autosave(appointmentId, "Oturumsuz", null));
+        assertEquals(HttpStatus.FORBIDDEN, autosave(appointmentId, "Hasta", login("autosave.patient@example.com")));
+        assertEquals(HttpStatus.FORBIDDEN, autosave(appointmentId, "Başka doktor", login("autosave.other@example.com")));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+                autosave(appointmentId, "x".repeat(20_001), login("autosave.doctor@example.com")));
+        assertEquals(HttpStatus.ACCEPTED, autosave(appointmentId, "Kontrol", login("autosave.doctor@example.com")));
+    }
+
+    @Test
+    void pendingDraftSurvivesGracefulRestart() throws SQLException {
+        int appointmentId;
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            // Kullanıcı satırları bu testin konusu değil; sadece randevu satırı gerekir
+            jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            jdbc.update("INSERT INTO appointment (doctor_user_id, patient_user_id, appointment_date_time, status, has_note) "
+                    + "VALUES (41, 42, ?, 'CONFIRMED', false)", LocalDate.now().plusDays(1).atTime(9, 0));
+            appointmentId = jdbc.queryForObject("SELECT MAX(appointment_id) FROM appointment", Integer.class);
+
+            NoteAutosaveService service = context.getBean(NoteAutosaveService.class);
+            service.autosave(41, appointmentId, "Yarım");
+            service.autosave(41, appointmentId, "Yarım kalan not");
+            assertEquals(0, new JdbcTemplate(jdbc.getDataSource()).queryForObject(
+                    "SELECT COUNT(*) FROM appointment_note_draft", Integer.class));
+        }
+
+        try (Connection connection = DriverManager.getConnection(RESTART_URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery(
+                     "SELECT note FROM appointment_note_draft WHERE appointment_id = " + appointmentId)) {
+            assertTrue(row.next(), "Kapanış flush'ı taslağı yazmalı");
+            assertEquals("Yarım kalan not", row.getString(1));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            Optional<AppointmentNoteDraft> draft = context.getBean(NoteAutosaveService.class).getDraft(appointmentId);
+            assertEquals("Yarım kalan not", draft.orElseThrow().getNote());
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // Komut satırı argümanı: profil dosyasındaki değerlerin (ör. create-drop) önüne geçer
+        return new SpringApplicationBuilder(MedicalTrackingApplication.class)
+                .profiles("embedded")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + RESTART_URL,
+                        "--spring.jpa.hibernate.ddl-auto=update", // Kapanışta tablolar silinmesin
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--medicaltracking.notes.autosave.flush-interval-ms=3600000");
+    }
+
+    private HttpStatusCode autosave(int appointmentId, String note, String sessionToken) {
+        return rest.exchange("/appointment/autosaveNote/" + appointmentId, HttpMethod.POST,
+                new HttpEntity<>(Map.of("doctorNote", note), session(sessionToken)), Void.class).getStatusCode();
+    }
+
+    private int draftRows(int appointmentId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment_note_draft WHERE appointment_id = ?",
+                Integer.class, appointmentId);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
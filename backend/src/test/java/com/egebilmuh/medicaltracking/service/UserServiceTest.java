@@ -0,0 +1,97 @@
+package com.egebilmuh.medicaltracking.service;
+
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.repository.DoctorRepository;
+import com.egebilmuh.medicaltracking.repository.PatientRepository;
+import com.egebilmuh.medicaltracking.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Kullanıcı Kaydı Testi (bloom filtre kısa yolu, e-posta çakışması)
+ *
+ * Filtre ısınmışken "kesinlikle yeni" dediği e-posta için existsByEmail
+ * çalışmaz; ısınma bitmeden veya "belki" cevabında ön kontrol yapılır.
+ * Ön kontrolü geçen yarışta uk_user_email ihlali EmailAlreadyExistsException'a
+ * çevrilir.
+ */
+class UserServiceTest {
+
+    private static final String EMAIL = "bloom.patient@example.com";
+
+    private UserRepository userRepository;
+    private PatientRepository patientRepository;
+    private PasswordEncoder passwordEncoder;
+    private EmailBloomFilter emailFilter;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        patientRepository = mock(PatientRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        emailFilter = mock(EmailBloomFilter.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(patientRepository.saveAndFlush(any(Patient.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService = new UserService(userRepository, mock(DoctorRepository.class), patientRepository,
+                passwordEncoder, mock(ProfileService.class), mock(DoctorAvailabilityService.class), emailFilter,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void definitelyNewEmailSkipsTheExistsQuery() {
+        when(emailFilter.isWarm()).thenReturn(true);
+        when(emailFilter.mightContain(EMAIL)).thenReturn(false);
+
+        Patient patient = register(" Bloom.Patient@Example.com ");
+
+        assertEquals(EMAIL, patient.getEmail());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailFilter).put(EMAIL);
+    }
+
+    @Test
+    void coldOrPossiblyKnownEmailRunsTheExistsQuery() {
+        when(emailFilter.isWarm()).thenReturn(false);
+        register(EMAIL);
+        verify(userRepository).existsByEmail(EMAIL);
+
+        when(emailFilter.isWarm()).thenReturn(true);
+        when(emailFilter.mightContain(EMAIL)).thenReturn(true);
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+        assertThrows(EmailAlreadyExistsException.class, () -> register(EMAIL));
+        verify(passwordEncoder, times(1)).encode("password"); // Reddedilen kayıt BCrypt hesaplamaz
+    }
+
+    @Test
+    void uniqueIndexViolationBecomesEmailAlreadyExists() {
+        when(emailFilter.isWarm()).thenReturn(true);
+        when(emailFilter.mightContain(EMAIL)).thenReturn(false);
+        when(patientRepository.saveAndFlush(any(Patient.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_user_email"));
+
+        EmailAlreadyExistsException e = assertThrows(EmailAlreadyExistsException.class, () -> register(EMAIL));
+        assertEquals("Kullanıcı zaten mevcut: email=" + EMAIL, e.getMessage());
+        verify(emailFilter, never()).put(anyString());
+    }
+
+    private Patient register(String email) {
+        return userService.registerPatient(email, "password", "Zeynep", "Çelik", LocalDate.of(1990, 7, 7),
+                "+905554445566");
+    }
+}
@@ -0,0 +1,138 @@
+package com.egebilmuh.medicaltracking.stats;
+
+import com.egebilmuh.medicaltracking.ApiTestSupport;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.service.AppointmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Artımlı Randevu İstatistikleri Testi
+ *
+ * Sayaçlar oluşturma, onay, red, iptal ve silme ile güncellenir; flush
+ * sonrası rollup tablosundan (ve appointment'tan yeniden kurulan tablodan)
+ * yüklenen yeni instance aynı değerleri verir. Başka instance'ın tabloya
+ * yazdığı farklar yenilemede görünür, yazılmamış yerel farklar korunur.
+ * Olay üretmeden JDBC ile eklenen randevular (datagen) addInserted ile
+ * iki tabloya eklenir.
+ */
+class AppointmentStatisticsTest extends ApiTestSupport {
+
+    @Autowired
+    private AppointmentStatistics statistics;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void maintainsCountsIncrementallyAndReloadsFromRollup() {
+        int doctorId = registerDoctor("stats.doctor@example.com", "Dermatology");
+        int patientId = registerPatient("stats.patient@example.com");
+        LocalDateTime slot = LocalDate.now().plusDays(3).atTime(9, 0);
+        int[] ids = new int[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = booked(doctorId, patientId, slot.plusDays(i % 2).plusHours(i));
+        }
+        assertEquals(HttpStatus.OK, rest.postForEntity("/appointment/approve/" + ids[0], null, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.postForEntity("/appointment/approve/" + ids[1], null, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.postForEntity("/appointment/reject/" + ids[2], null, String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.exchange("/appointment/cancel/" + ids[1], HttpMethod.DELETE, null, String.class)
+                .getStatusCode());
+        appointmentService.deleteAppointment(ids[4]);
+
+        BookingStats stats = rest.getForObject("/Doctor/stats/" + doctorId, BookingStats.class);
+        assertEquals(new BookingStats(doctorId, Doctor.Specialty.Dermatology, 4, 1, 1, 2, 0.25, 0.5), stats);
+
+        statistics.flush();
+        assertEquals(4L, jdbcTemplate.queryForObject(
+                "SELECT SUM(appointment_count) FROM appointment_daily_stats WHERE doctor_id = ?", Long.class, doctorId));
+        assertEquals(4L, jdbcTemplate.queryForObject(
+                "SELECT SUM(appointment_count) FROM appointment_stats_total WHERE doctor_id = ?", Long.class, doctorId));
+
+        // Yeniden başlatma: rollup tablosundan ve appointment'tan kurulan tablodan aynı değerler
+        for (boolean rebuild : new boolean[]{false, true}) {
+            AppointmentStatistics restarted = new AppointmentStatistics(jdbcTemplate, transactionTemplate,
+                    new SimpleMeterRegistry(), rebuild);
+            restarted.load();
+            assertEquals(stats, restarted.getDoctorStats(doctorId));
+            assertEquals(statistics.getSpecialtyStats(), restarted.getSpecialtyStats());
+        }
+
+        // İkinci flush mevcut satırı günceller; sıfıra inen PENDING satırı silinir
+        assertEquals(HttpStatus.OK, rest.postForEntity("/appointment/approve/" + ids[3], null, String.class).getStatusCode());
+        statistics.flush();
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(appointment_count) FROM appointment_daily_stats "
+                + "WHERE doctor_id = ? AND status = 'CONFIRMED'", Long.class, doctorId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment_daily_stats "
+                + "WHERE doctor_id = ? AND status = 'PENDING'", Integer.class, doctorId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment_stats_total "
+                + "WHERE doctor_id = ? AND status = 'PENDING'", Integer.class, doctorId));
+
+        // Başka instance'ın flush'ı: bu instance'ın sayaçlarına sadece yenilemeyle düşer
+        booked(doctorId, patientId, slot.plusDays(5));
+        long specialtyCancelled = dermatology().cancelled();
+        jdbcTemplate.update("INSERT INTO appointment_daily_stats (doctor_id, appointment_date, status, "
+                + "appointment_count) VALUES (?, ?, 'CANCELLED', 3)", doctorId, slot.plusDays(7).toLocalDate());
+        jdbcTemplate.update("UPDATE appointment_stats_total SET appointment_count = appointment_count + 3 "
+                + "WHERE doctor_id = ? AND status = 'CANCELLED'", doctorId);
+        assertEquals(BookingStats.of(doctorId, Doctor.Specialty.Dermatology, 1, 2, 2),
+                statistics.getDoctorStats(doctorId));
+        statistics.reload();
+        BookingStats converged = BookingStats.of(doctorId, Doctor.Specialty.Dermatology, 1, 2, 5);
+        assertEquals(converged, statistics.getDoctorStats(doctorId));
+        assertEquals(specialtyCancelled + 3, dermatology().cancelled());
+        statistics.flush();
+        statistics.reload();
+        assertEquals(converged, statistics.getDoctorStats(doctorId));
+
+        List<?> specialties = rest.getForObject("/Doctor/stats/specialties", List.class);
+        assertEquals(Doctor.Specialty.values().length, specialties.size());
+    }
+
+    @Test
+    void addsBulkInsertedAppointmentsToBothTables() {
+        int doctorId = registerDoctor("stats.bulk.doctor@example.com", "Cardiology");
+        int patientId = registerPatient("stats.bulk.patient@example.com");
+        LocalDateTime slot = LocalDate.now().plusDays(4).atTime(9, 0);
+        booked(doctorId, patientId, slot);
+        statistics.flush();
+
+        // SyntheticDataGenerator gibi: olaysız JDBC eklemesi, ID'ler en büyük değerden sonra
+        int firstId = jdbcTemplate.queryForObject("SELECT MAX(appointment_id) FROM appointment", Integer.class) + 1;
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO appointment (appointment_id, doctor_user_id, patient_user_id, "
+                            + "appointment_date_time, status, has_note) VALUES (?, ?, ?, ?, ?, false)",
+                    firstId + i, doctorId, patientId, slot.plusDays(i % 2).plusHours(1 + i),
+                    i == 0 ? "PENDING" : "CANCELLED");
+        }
+        statistics.addInserted(firstId);
+
+        assertEquals(BookingStats.of(doctorId, Doctor.Specialty.Cardiology, 2, 0, 2),
+                statistics.getDoctorStats(doctorId));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT appointment_count FROM appointment_daily_stats "
+                + "WHERE doctor_id = ? AND appointment_date = ? AND status = 'PENDING'", Long.class, doctorId,
+                slot.toLocalDate()));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT appointment_count FROM appointment_stats_total "
+                + "WHERE doctor_id = ? AND status = 'CANCELLED'", Long.class, doctorId));
+        statistics.reload();
+        assertEquals(BookingStats.of(doctorId, Doctor.Specialty.Cardiology, 2, 0, 2),
+                statistics.getDoctorStats(doctorId));
+    }
+
+    private BookingStats dermatology() {
+        return statistics.getSpecialtyStats().get(Doctor.Specialty.Dermatology.ordinal());
+    }
+}
@@ -0,0 +1,135 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import com.egebilmuh.medicaltracking.MedicalTrackingApplication;
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.User;
+import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
+import com.egebilmuh.medicaltracking.repository.DoctorRepository;
+import com.egebilmuh.medicaltracking.repository.PatientRepository;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
+import com.egebilmuh.medicaltracking.service.ProfileService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Benchmark İçin Uygulama Başlatma ve Veri Hazırlama
+ *
+ * Uygulamayı "embedded" profili ile (H2, MySQL modu) başlatır. Her çağrı
+ * ayrı bir bellek içi veritabanı kullanır; aynı fork içindeki farklı
+ * @Param değerleri birbirinin verisini görmez.
+ *
+ * Toplu veri servisler yerine repository'lerle yazılır: her kayıtta BCrypt
+ * çalıştırmamak için şifre bir kez hash'lenir.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    static final String PASSWORD = "benchmark-password";
+
+    private final ConfigurableApplicationContext context;
+    private final String encodedPassword;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    }
+
+    /**
+     * @param arguments Ek Spring argümanları ("--anahtar=değer")
+     */
+    static BenchmarkApplication start(String... arguments) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--medicaltracking.sql.sample-rate=0"));
+        args.addAll(List.of(arguments));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MedicalTrackingApplication.class)
+                .profiles("embedded")
+                .run(args.toArray(String[]::new));
+        return new BenchmarkApplication(context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Doktor Ekleme (profil ve müsaitlik kayıtları dahil)
+     */
+    List<Doctor> doctors(String prefix, int count) {
+        return bean(TransactionTemplate.class).execute(status -> {
+            List<Doctor> doctors = new ArrayList<>(count);
+            Doctor.Specialty[] specialties = Doctor.Specialty.values();
+            for (int i = 0; i < count; i++) {
+                Doctor doctor = new Doctor();
+                doctor.setEmail(prefix + i + "@bench.local");
+                doctor.setPassword(encodedPassword);
+                doctor.setRole(User.Role.DOCTOR);
+                doctor.setName("Doktor" + i);
+                doctor.setSurname("Bench");
+                doctor.setBirthDate(LocalDate.of(1980, 1, 1).plusDays(i));
+                doctor.setPhoneNo("555" + i);
+                doctor.setSpecialty(specialties[i % specialties.length]);
+                doctor.setAvailability(true);
+                Doctor saved = bean(DoctorRepository.class).save(doctor);
+                bean(ProfileService.class).sync(saved);
+                bean(DoctorAvailabilityService.class).register(saved);
+                doctors.add(saved);
+            }
+            return doctors;
+        });
+    }
+
+    /**
+     * Hasta Ekleme (profil kaydı dahil)
+     */
+    Patient patient(String email) {
+        return bean(TransactionTemplate.class).execute(status -> {
+            Patient patient = new Patient();
+            patient.setEmail(email);
+            patient.setPassword(encodedPassword);
+            patient.setRole(User.Role.PATIENT);
+            patient.setName("Hasta");
+            patient.setSurname("Bench");
+            patient.setBirthDate(LocalDate.of(1990, 1, 1));
+            patient.setPhoneNo("5550000");
+            Patient saved = bean(PatientRepository.class).save(patient);
+            bean(ProfileService.class).sync(saved);
+            return saved;
+        });
+    }
+
+    /**
+     * Randevu Ekleme (15 dakika arayla, onaylı)
+     */
+    void appointments(Doctor doctor, Patient patient, int count) {
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(8, 0);
+        bean(TransactionTemplate.class).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                Appointment appointment = new Appointment();
+                appointment.setDoctor(doctor);
+                appointment.setPatient(patient);
+                appointment.setAppointmentDateTime(start.plusMinutes(15L * i));
+                appointment.setStatus(Appointment.AppointmentStatus.CONFIRMED);
+                appointment.setCreatedAt(LocalDateTime.now());
+                bean(AppointmentRepository.class).save(appointment);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
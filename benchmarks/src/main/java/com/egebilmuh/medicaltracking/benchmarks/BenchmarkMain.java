@@ -0,0 +1,34 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark Giriş Noktası
+ *
+ * org.openjdk.jmh.Main ile aynıdır; sadece sonuç formatı belirtilmezse
+ * sonuçları commit'ler arasında karşılaştırılabilsin diye JSON olarak
+ * target/jmh-result.json dosyasına yazar.
+ *
+ * Örnek: java -jar target/benchmarks.jar Booking -rff target/booking.json
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.add("-rff");
+            arguments.add("target/jmh-result.json");
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,112 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.repository.AppointmentRepository;
+import com.egebilmuh.medicaltracking.service.AppointmentService;
+import com.egebilmuh.medicaltracking.service.DoctorAvailabilityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Randevu Oluşturma Benchmark'ı (AppointmentService.createAppointment)
+ *
+ * - rejectConflictingSlot: dolu saate talep → çift rezervasyon kontrolü
+ * - rejectUnavailableDoctor: randevu kabul etmeyen doktor → bellek içi ret
+ * - bookFreeSlot: boş saate başarılı kayıt (tablo her çağrıda büyür)
+ *
+ * existingAppointments popüler doktorun mevcut randevu sayısıdır; çakışma
+ * kontrolünün maliyeti tablo büyüdükçe sabit kalmalıdır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"100", "10000"})
+    public int existingAppointments;
+
+    private BenchmarkApplication application;
+    private AppointmentService appointmentService;
+    private int doctorId;
+    private int unavailableDoctorId;
+    private int patientId;
+    private LocalDateTime bookedSlot;
+    private LocalDateTime nextFreeSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        appointmentService = application.bean(AppointmentService.class);
+
+        List<Doctor> doctors = application.doctors("booking-doctor", 2);
+        Patient patient = application.patient("booking-patient@bench.local");
+        doctorId = doctors.get(0).getUserId();
+        unavailableDoctorId = doctors.get(1).getUserId();
+        patientId = patient.getUserId();
+        application.bean(DoctorAvailabilityService.class).updateAvailability(unavailableDoctorId, false);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Appointment> appointments = new ArrayList<>(existingAppointments);
+        for (int i = 0; i < existingAppointments; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctors.get(0));
+            appointment.setPatient(patient);
+            appointment.setAppointmentDateTime(start.plusMinutes(15L * i));
+            appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+            appointments.add(appointment);
+        }
+        application.bean(AppointmentRepository.class).saveAll(appointments);
+        bookedSlot = start;
+        nextFreeSlot = start.plusMinutes(15L * existingAppointments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Object rejectConflictingSlot() {
+        return attempt(doctorId, bookedSlot);
+    }
+
+    @Benchmark
+    public Object rejectUnavailableDoctor() {
+        return attempt(unavailableDoctorId, nextFreeSlot);
+    }
+
+    @Benchmark
+    public Object bookFreeSlot() {
+        nextFreeSlot = nextFreeSlot.plusMinutes(15);
+        return attempt(doctorId, nextFreeSlot);
+    }
+
+    private Object attempt(int doctor, LocalDateTime slot) {
+        try {
+            return appointmentService.createAppointment(doctor, patientId, slot);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+}
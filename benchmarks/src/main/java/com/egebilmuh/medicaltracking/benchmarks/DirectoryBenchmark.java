@@ -0,0 +1,110 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.repository.UserRepository;
+import com.egebilmuh.medicaltracking.service.AppointmentService;
+import com.egebilmuh.medicaltracking.service.DoctorService;
+import com.egebilmuh.medicaltracking.service.ProfileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read Model ve JOINED Karşılaştırması (dizin, giriş, randevu listesi)
+ *
+ * readModel=true  → doctor_profile tablosundan okuma
+ * readModel=false → user JOIN doctor üzerinden okuma
+ * (medicaltracking.read-model.enabled)
+ *
+ * loginLookup ve doctorAppointments her iki ayarda da JOINED entity'leri
+ * yükler (giriş şifre için user tablosuna, randevu listesi Appointment'ın
+ * doctor/patient ilişkilerine gider). İki satır arasındaki fark bu yolların
+ * read model'den etkilenmediğini gösterir; JOINED maliyetinin taban
+ * ölçümüdür. BCrypt SessionBenchmark'ta ayrıca ölçülür.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectoryBenchmark {
+
+    @Param({"true", "false"})
+    public boolean readModel;
+
+    @Param({"1000"})
+    public int doctorCount;
+
+    @Param({"100"})
+    public int appointmentCount;
+
+    private BenchmarkApplication application;
+    private DoctorService doctorService;
+    private ProfileService profileService;
+    private UserRepository userRepository;
+    private AppointmentService appointmentService;
+    private int doctorId;
+    private String doctorEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start("--medicaltracking.read-model.enabled=" + readModel);
+        doctorService = application.bean(DoctorService.class);
+        profileService = application.bean(ProfileService.class);
+        userRepository = application.bean(UserRepository.class);
+        appointmentService = application.bean(AppointmentService.class);
+        Doctor doctor = application.doctors("directory-doctor", doctorCount).get(doctorCount / 2);
+        doctorId = doctor.getUserId();
+        doctorEmail = doctor.getEmail();
+        application.appointments(doctor, application.patient("directory-patient@bench.local"), appointmentCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Object allDoctors() {
+        return doctorService.getAllDoctors();
+    }
+
+    @Benchmark
+    public Object doctorsBySpecialty() {
+        return profileService.getDoctorsBySpecialty(Doctor.Specialty.Cardiology);
+    }
+
+    @Benchmark
+    public Object doctorProfile() {
+        return profileService.findDoctor(doctorId);
+    }
+
+    /**
+     * Girişteki kullanıcı araması (UserService.login, BCrypt hariç)
+     */
+    @Benchmark
+    public Object loginLookup() {
+        return userRepository.findUserByEmail(doctorEmail);
+    }
+
+    /**
+     * Doktor paneli randevu listesi (GET /appointment/doctor/{id})
+     */
+    @Benchmark
+    public Object doctorAppointments() {
+        return appointmentService.getDoctorAppointments(doctorId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import com.egebilmuh.medicaltracking.model.Appointment;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Randevu Listesi JSON Serileştirme Benchmark'ı
+ *
+ * /appointment/* listeleme yanıtlarının Jackson maliyeti. Veritabanı
+ * gerekmez; ObjectMapper Spring Boot varsayılanlarıyla (JavaTimeModule,
+ * tarihler ISO metin) kurulur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int appointmentCount;
+
+    private ObjectMapper objectMapper;
+    private List<Appointment> appointments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Doctor doctor = new Doctor();
+        doctor.setUserId(1);
+        doctor.setEmail("doktor@bench.local");
+        doctor.setRole(User.Role.DOCTOR);
+        doctor.setName("Doktor");
+        doctor.setSurname("Bench");
+        doctor.setBirthDate(LocalDate.of(1980, 1, 1));
+        doctor.setPhoneNo("5551111");
+        doctor.setSpecialty(Doctor.Specialty.Cardiology);
+        doctor.setAvailability(true);
+
+        appointments = new ArrayList<>(appointmentCount);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < appointmentCount; i++) {
+            Patient patient = new Patient();
+            patient.setUserId(1000 + i);
+            patient.setEmail("hasta" + i + "@bench.local");
+            patient.setRole(User.Role.PATIENT);
+            patient.setName("Hasta" + i);
+            patient.setSurname("Bench");
+            patient.setBirthDate(LocalDate.of(1990, 1, 1));
+            patient.setPhoneNo("5552222");
+
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId(i + 1);
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentDateTime(start.plusMinutes(15L * i));
+            appointment.setStatus(Appointment.AppointmentStatus.CONFIRMED);
+            appointments.add(appointment);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeAppointmentList() throws Exception {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+}
@@ -0,0 +1,101 @@
+package com.egebilmuh.medicaltracking.benchmarks;
+
+import com.egebilmuh.medicaltracking.controller.SessionController;
+import com.egebilmuh.medicaltracking.model.Doctor;
+import com.egebilmuh.medicaltracking.model.Patient;
+import com.egebilmuh.medicaltracking.service.SessionService;
+import com.egebilmuh.medicaltracking.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Oturum ve Giriş Benchmark'ı
+ *
+ * - validateSession: SessionService.validateSession (süresi dolanları temizleme dahil)
+ * - validateDoctorResponse / validatePatientResponse: /session/validate controller
+ *   metodu, yani doğrulama + createUserResponse (profil okuma)
+ * - login: UserService.login (e-posta ile arama + BCrypt)
+ * - bcryptMatches: sadece BCrypt doğrulaması; login'den farkı veritabanı payıdır
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionBenchmark {
+
+    private BenchmarkApplication application;
+    private SessionService sessionService;
+    private SessionController sessionController;
+    private UserService userService;
+    private PasswordEncoder passwordEncoder;
+    private String doctorToken;
+    private String patientToken;
+    private String patientEmail;
+    private String encodedPassword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        sessionService = application.bean(SessionService.class);
+        sessionController = application.bean(SessionController.class);
+        userService = application.bean(UserService.class);
+        passwordEncoder = application.bean(PasswordEncoder.class);
+
+        // Diğer kullanıcıların oturumları: doğrulama tek satırı bulmalı
+        application.doctors("session-filler", 500).forEach(filler ->
+                sessionService.createSession(filler, "jmh", "127.0.0.1"));
+
+        Doctor doctor = application.doctors("session-doctor", 1).get(0);
+        Patient patient = application.patient("session-patient@bench.local");
+        doctorToken = sessionService.createSession(doctor, "jmh", "127.0.0.1").getSessionToken();
+        patientToken = sessionService.createSession(patient, "jmh", "127.0.0.1").getSessionToken();
+        patientEmail = patient.getEmail();
+        encodedPassword = patient.getPassword();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Object validateSession() {
+        return sessionService.validateSession(patientToken);
+    }
+
+    @Benchmark
+    public Object validateDoctorResponse() {
+        return sessionController.validateSession(Map.of("sessionToken", doctorToken));
+    }
+
+    @Benchmark
+    public Object validatePatientResponse() {
+        return sessionController.validateSession(Map.of("sessionToken", patientToken));
+    }
+
+    @Benchmark
+    public Object login() {
+        return userService.login(patientEmail, BenchmarkApplication.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(BenchmarkApplication.PASSWORD, encodedPassword);
+    }
+}
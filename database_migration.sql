@@ -1,16 +1,336 @@
 -- Database migration: address sütunlarını birth_date olarak değiştir
 -- Bu SQL'i MySQL'de çalıştırın
+-- Bos veritabaninda da calisir: sema sadece bu script ile kurulabilir (CI, ddl-auto=validate ile dogrular)
+-- Tekrar calistirilabilir: her ALTER / CREATE INDEX information_schema kontrolu ile sadece eksikse calisir
+-- (kosul saglanmiyorsa hazirlanan ifade DO 0 olur), veri tasiyan INSERT'ler ikinci calismada satir eklemez.
 
 USE medicaltracking;
 
--- Doctor tablosunda address sütununu birth_date olarak değiştir
-ALTER TABLE doctor 
-CHANGE COLUMN address birth_date DATE;
+-- Temel tablolar (bos veritabani icin; mevcut kurulumda IF NOT EXISTS ile atlanir)
+CREATE TABLE IF NOT EXISTS user (
+    user_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role ENUM('PATIENT', 'DOCTOR', 'ADMIN')
+);
 
--- Patient tablosunda address sütununu birth_date olarak değiştir  
-ALTER TABLE patient
-CHANGE COLUMN address birth_date DATE;
+CREATE TABLE IF NOT EXISTS doctor (
+    user_id INT NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    birth_date DATE,
+    phone_no VARCHAR(255),
+    specialty ENUM('Dermatology', 'Cardiology', 'Eye', 'General_Surgery'),
+    availability BIT(1) NOT NULL,
+    CONSTRAINT fk_doctor_user FOREIGN KEY (user_id) REFERENCES user (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS patient (
+    user_id INT NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    birth_date DATE,
+    phone_no VARCHAR(255),
+    CONSTRAINT fk_patient_user FOREIGN KEY (user_id) REFERENCES user (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS appointment (
+    appointment_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    doctor_user_id INT,
+    patient_user_id INT,
+    status ENUM('PENDING', 'CONFIRMED', 'CANCELLED'),
+    appointment_date_time DATETIME(6),
+    doctor_note VARCHAR(255),
+    CONSTRAINT fk_appointment_doctor FOREIGN KEY (doctor_user_id) REFERENCES doctor (user_id),
+    CONSTRAINT fk_appointment_patient FOREIGN KEY (patient_user_id) REFERENCES patient (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_session (
+    session_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id INT,
+    session_token VARCHAR(255),
+    created_at DATETIME(6),
+    expires_at DATETIME(6),
+    is_active BIT(1) NOT NULL,
+    user_agent VARCHAR(255),
+    ip_address VARCHAR(255),
+    CONSTRAINT fk_user_session_user FOREIGN KEY (user_id) REFERENCES user (user_id)
+);
+
+-- Doctor / patient tablolarinda address sütununu birth_date olarak değiştir
+-- Sadece eski sema (address sutunu var) icin; yeni kurulumda DO 0 calisir.
+SET @rename_doctor_address = (SELECT IF(COUNT(*) > 0,
+    'ALTER TABLE doctor CHANGE COLUMN address birth_date DATE', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'doctor' AND column_name = 'address');
+PREPARE rename_doctor_address FROM @rename_doctor_address;
+EXECUTE rename_doctor_address;
+DEALLOCATE PREPARE rename_doctor_address;
+
+SET @rename_patient_address = (SELECT IF(COUNT(*) > 0,
+    'ALTER TABLE patient CHANGE COLUMN address birth_date DATE', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'patient' AND column_name = 'address');
+PREPARE rename_patient_address FROM @rename_patient_address;
+EXECUTE rename_patient_address;
+DEALLOCATE PREPARE rename_patient_address;
 
 -- Mevcut verileri temizle (çünkü address string'den date'e çevirmek mümkün değil)
 UPDATE doctor SET birth_date = '1990-01-01' WHERE birth_date IS NULL;
-UPDATE patient SET birth_date = '1990-01-01' WHERE birth_date IS NULL; 
\ No newline at end of file
+UPDATE patient SET birth_date = '1990-01-01' WHERE birth_date IS NULL; 
+
+-- E-posta normalizasyonu ve benzersiz index (uk_user_email)
+-- Uygulama artık e-postaları trim + küçük harf olarak saklar ve arar.
+-- Not: Normalizasyon sonrası aynı e-postaya sahip birden fazla kayıt varsa
+-- index oluşturulamaz; önce bu kayıtlar birleştirilmeli veya silinmelidir:
+--   SELECT email, COUNT(*) FROM user GROUP BY email HAVING COUNT(*) > 1;
+UPDATE user SET email = LOWER(TRIM(email)) WHERE email IS NOT NULL;
+
+SET @add_uk_user_email = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE user ADD CONSTRAINT uk_user_email UNIQUE (email)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'user' AND index_name = 'uk_user_email');
+PREPARE add_uk_user_email FROM @add_uk_user_email;
+EXECUTE add_uk_user_email;
+DEALLOCATE PREPARE add_uk_user_email;
+
+-- Okuma replikasi gecikme olcumu (ReplicaLagMonitor)
+-- Birincilde artirilan tek satir replikadan okunur; seq replikanin hangi kalp atisina kadar guncel oldugunu gosterir.
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    heartbeat_id INT NOT NULL PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0,
+    beat_at BIGINT NOT NULL
+);
+
+-- X-Read-After artik saat degil seq tasir (sunucu/istemci saat farkindan bagimsiz)
+SET @add_heartbeat_seq = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE replication_heartbeat ADD COLUMN seq BIGINT NOT NULL DEFAULT 0 AFTER heartbeat_id', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'replication_heartbeat' AND column_name = 'seq');
+PREPARE add_heartbeat_seq FROM @add_heartbeat_seq;
+EXECUTE add_heartbeat_seq;
+DEALLOCATE PREPARE add_heartbeat_seq;
+
+-- Denormalize doktor / hasta profilleri (ProfileService, JOIN'siz rehber ve profil okumalari)
+-- Mevcut kullanicilar user + doctor / patient JOIN'i ile doldurulur; sonrasini uygulama senkron tutar.
+CREATE TABLE IF NOT EXISTS doctor_profile (
+    user_id INT NOT NULL PRIMARY KEY,
+    email VARCHAR(255),
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    birth_date DATE,
+    phone_no VARCHAR(255),
+    specialty ENUM('Dermatology', 'Cardiology', 'Eye', 'General_Surgery'),
+    availability BIT(1) NOT NULL,
+    INDEX idx_doctor_profile_specialty (specialty)
+);
+
+INSERT IGNORE INTO doctor_profile (user_id, email, name, surname, birth_date, phone_no, specialty, availability)
+SELECT u.user_id, u.email, d.name, d.surname, d.birth_date, d.phone_no, d.specialty, d.availability
+FROM user u JOIN doctor d ON d.user_id = u.user_id;
+
+CREATE TABLE IF NOT EXISTS patient_profile (
+    user_id INT NOT NULL PRIMARY KEY,
+    email VARCHAR(255),
+    name VARCHAR(255),
+    surname VARCHAR(255),
+    birth_date DATE,
+    phone_no VARCHAR(255)
+);
+
+INSERT IGNORE INTO patient_profile (user_id, email, name, surname, birth_date, phone_no)
+SELECT u.user_id, u.email, p.name, p.surname, p.birth_date, p.phone_no
+FROM user u JOIN patient p ON p.user_id = u.user_id;
+
+-- Doktor izin araliklari (DoctorAvailabilityService); baslangicta bos
+CREATE TABLE IF NOT EXISTS doctor_unavailability (
+    window_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    doctor_id INT NOT NULL,
+    start_date DATE,
+    end_date DATE,
+    reason VARCHAR(255),
+    INDEX idx_unavailability_doctor (doctor_id)
+);
+
+-- Doktor notlari randevu satirindan surumlu appointment_note tablosuna tasinir
+-- Randevu listeleri artik not metnini okumaz; sadece has_note bayragi doner.
+CREATE TABLE IF NOT EXISTS appointment_note (
+    note_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    appointment_id INT NOT NULL,
+    version INT NOT NULL,
+    note LONGTEXT,
+    created_at DATETIME(6),
+    CONSTRAINT uk_appointment_note_version UNIQUE (appointment_id, version)
+);
+
+SET @add_has_note = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE appointment ADD COLUMN has_note BIT(1) NOT NULL DEFAULT b''0''', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND column_name = 'has_note');
+PREPARE add_has_note FROM @add_has_note;
+EXECUTE add_has_note;
+DEALLOCATE PREPARE add_has_note;
+
+-- doctor_note sutunu sadece henuz tasinmamis semada vardir; tasima, bayrak ve DROP birlikte atlanir.
+-- INSERT IGNORE: yarida kalmis bir calismada eklenmis 1. surumler (uk_appointment_note_version) tekrar eklenmez.
+SET @doctor_note_exists = (SELECT COUNT(*)
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND column_name = 'doctor_note');
+
+SET @move_doctor_notes = IF(@doctor_note_exists > 0,
+    'INSERT IGNORE INTO appointment_note (appointment_id, version, note, created_at)
+     SELECT appointment_id, 1, doctor_note, NOW(6) FROM appointment
+     WHERE doctor_note IS NOT NULL AND doctor_note <> ''''', 'DO 0');
+PREPARE move_doctor_notes FROM @move_doctor_notes;
+EXECUTE move_doctor_notes;
+DEALLOCATE PREPARE move_doctor_notes;
+
+SET @flag_doctor_notes = IF(@doctor_note_exists > 0,
+    'UPDATE appointment SET has_note = b''1'' WHERE doctor_note IS NOT NULL AND doctor_note <> ''''', 'DO 0');
+PREPARE flag_doctor_notes FROM @flag_doctor_notes;
+EXECUTE flag_doctor_notes;
+DEALLOCATE PREPARE flag_doctor_notes;
+
+SET @drop_doctor_note = IF(@doctor_note_exists > 0, 'ALTER TABLE appointment DROP COLUMN doctor_note', 'DO 0');
+PREPARE drop_doctor_note FROM @drop_doctor_note;
+EXECUTE drop_doctor_note;
+DEALLOCATE PREPARE drop_doctor_note;
+
+-- Doktor notu otomatik kayit taslaklari (NoteAutosaveService)
+-- Randevu basina tek satir; not kaydedildiginde silinir, surum olusturmaz.
+CREATE TABLE IF NOT EXISTS appointment_note_draft (
+    appointment_id INT NOT NULL PRIMARY KEY,
+    note LONGTEXT,
+    updated_at DATETIME(6)
+);
+
+-- Duruma gore tarih araligi sorgulari (ReminderScheduler baslangic yuklemesi)
+SET @add_idx_appointment_status_time = (SELECT IF(COUNT(*) = 0,
+    'CREATE INDEX idx_appointment_status_time ON appointment (status, appointment_date_time)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND index_name = 'idx_appointment_status_time');
+PREPARE add_idx_appointment_status_time FROM @add_idx_appointment_status_time;
+EXECUTE add_idx_appointment_status_time;
+DEALLOCATE PREPARE add_idx_appointment_status_time;
+
+-- Bekleyen randevularin onay suresi (PendingExpiryService)
+-- Mevcut satirlar gecis aninda olusturulmus sayilir; bekleyenlere tam sure taninir.
+SET @add_appointment_created_at = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE appointment ADD COLUMN created_at DATETIME(6) NULL DEFAULT CURRENT_TIMESTAMP(6)', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND column_name = 'created_at');
+PREPARE add_appointment_created_at FROM @add_appointment_created_at;
+EXECUTE add_appointment_created_at;
+DEALLOCATE PREPARE add_appointment_created_at;
+
+SET @add_idx_appointment_status_created = (SELECT IF(COUNT(*) = 0,
+    'CREATE INDEX idx_appointment_status_created ON appointment (status, created_at)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND index_name = 'idx_appointment_status_created');
+PREPARE add_idx_appointment_status_created FROM @add_idx_appointment_status_created;
+EXECUTE add_idx_appointment_status_created;
+DEALLOCATE PREPARE add_idx_appointment_status_created;
+
+-- Randevu olusturma Idempotency-Key kayitlari (IdempotencyService)
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key VARCHAR(100) NOT NULL PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    appointment_id INT,
+    created_at DATETIME(6),
+    INDEX idx_idempotency_key_created (created_at)
+);
+
+-- Kullanici ID'leri SEQUENCE ile uretilir (User.userId, toplu ice aktarmada JDBC batch)
+-- MySQL'de sequence user_seq tablosuyla emule edilir; pooled-lo: next_val = siradaki bos ID.
+-- Uygulama yeni surumle baslamadan once calistirilmali (yoksa Hibernate tabloyu 1 ile olusturur).
+CREATE TABLE IF NOT EXISTS user_seq (next_val BIGINT);
+-- Tek satir: tekrar calistirmada (veya uygulama tabloyu doldurduysa) satir eklenmez.
+-- MAX bos kumede de bir satir dondurdugu icin kosul dis sorguda uygulanir.
+INSERT INTO user_seq (next_val)
+SELECT seed.next_val FROM (SELECT COALESCE(MAX(user_id), 0) + 1 AS next_val FROM user) seed
+WHERE NOT EXISTS (SELECT * FROM user_seq);
+
+-- Doktor / gun / durum bazinda randevu sayilari (AppointmentStatistics, GET /Doctor/stats)
+-- Bos tablo uygulama ilk acilista appointment'tan doldurur; sonra sadece farklar eklenir.
+CREATE TABLE IF NOT EXISTS appointment_daily_stats (
+    doctor_id INT NOT NULL,
+    appointment_date DATE NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'CANCELLED') NOT NULL,
+    appointment_count BIGINT NOT NULL,
+    PRIMARY KEY (doctor_id, appointment_date, status)
+);
+
+-- Onceki surumde status VARCHAR(20) olusturulmustu; diger enum sutunlari gibi ENUM olmali (ddl-auto=validate)
+SET @stats_status_enum = (SELECT IF(COUNT(*) > 0,
+    'ALTER TABLE appointment_daily_stats MODIFY COLUMN status ENUM(''PENDING'', ''CONFIRMED'', ''CANCELLED'') NOT NULL',
+    'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment_daily_stats' AND column_name = 'status'
+      AND data_type <> 'enum');
+PREPARE stats_status_enum FROM @stats_status_enum;
+EXECUTE stats_status_enum;
+DEALLOCATE PREPARE stats_status_enum;
+
+-- Doktor x durum toplamlari (AppointmentStatistics periyodik yenilemede gunluk tabloyu toplamak yerine bunu okur)
+CREATE TABLE IF NOT EXISTS appointment_stats_total (
+    doctor_id INT NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'CANCELLED') NOT NULL,
+    appointment_count BIGINT NOT NULL,
+    PRIMARY KEY (doctor_id, status)
+);
+
+-- Mevcut kurulumda toplamlar gunluk tablodan bir kez doldurulur (uygulama kapaliyken calistirilmali)
+SET @seed_stats_total = (SELECT IF(COUNT(*) = 0,
+    'INSERT INTO appointment_stats_total (doctor_id, status, appointment_count)
+     SELECT doctor_id, status, SUM(appointment_count) FROM appointment_daily_stats GROUP BY doctor_id, status',
+    'DO 0')
+    FROM appointment_stats_total);
+PREPARE seed_stats_total FROM @seed_stats_total;
+EXECUTE seed_stats_total;
+DEALLOCATE PREPARE seed_stats_total;
+
+-- Ayni doktor + saat icin tek aktif randevu (cift kayit korumasi, AppointmentService)
+-- active_slot iptal edilmemis satirlarda 1, iptallerde NULL; NULL unique'e takilmaz.
+-- Mevcut cakismalar once giderilmeli, yoksa kisit eklenemez:
+--   SELECT doctor_user_id, appointment_date_time, COUNT(*) FROM appointment
+--   WHERE status <> 'CANCELLED' GROUP BY doctor_user_id, appointment_date_time HAVING COUNT(*) > 1;
+SET @add_active_slot = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE appointment ADD COLUMN active_slot TINYINT
+     GENERATED ALWAYS AS (CASE WHEN status <> ''CANCELLED'' THEN 1 END) VIRTUAL', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND column_name = 'active_slot');
+PREPARE add_active_slot FROM @add_active_slot;
+EXECUTE add_active_slot;
+DEALLOCATE PREPARE add_active_slot;
+
+SET @add_uk_appointment_active_slot = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE appointment ADD CONSTRAINT uk_appointment_active_slot
+     UNIQUE (doctor_user_id, appointment_date_time, active_slot)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND index_name = 'uk_appointment_active_slot');
+PREPARE add_uk_appointment_active_slot FROM @add_uk_appointment_active_slot;
+EXECUTE add_uk_appointment_active_slot;
+DEALLOCATE PREPARE add_uk_appointment_active_slot;
+
+-- Hatirlatma sahiplenme (ReminderScheduler): birden fazla instance'ta ayni hatirlatma tek kez teslim edilir.
+-- reminded_at sahiplenilen son hatirlatmanin zamanidir (randevu saati - offset); teslimden once
+-- UPDATE ... WHERE reminded_at IS NULL OR reminded_at < ? ile tek instance kazanir.
+SET @add_appointment_reminded_at = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE appointment ADD COLUMN reminded_at DATETIME(6) NULL', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'appointment' AND column_name = 'reminded_at');
+PREPARE add_appointment_reminded_at FROM @add_appointment_reminded_at;
+EXECUTE add_appointment_reminded_at;
+DEALLOCATE PREPARE add_appointment_reminded_at;
+
+-- Yonetici rolu (POST /user/import, tum randevularin disa aktarimi)
+-- Kayit endpoint'i yoktur; yonetici mevcut bir kullanicinin rolu degistirilerek atanir:
+--   UPDATE user SET role = 'ADMIN' WHERE email = '...';
+SET @add_role_admin = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE user MODIFY role ENUM(''PATIENT'', ''DOCTOR'', ''ADMIN'')', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'user' AND column_name = 'role'
+      AND column_type LIKE '%''ADMIN''%');
+PREPARE add_role_admin FROM @add_role_admin;
+EXECUTE add_role_admin;
+DEALLOCATE PREPARE add_role_admin;
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { appointmentAPI } from '../services/api';
+import { appointmentAPI, doctorAPI } from '../services/api';
 import './DoctorDashboard.css';
 
 const DoctorDashboard = ({ user, onLogout }) => {
@@ -7,9 +7,30 @@ const DoctorDashboard = ({ user, onLogout }) => {
   const [appointments, setAppointments] = useState([]);
   const [selectedAppointment, setSelectedAppointment] = useState(null);
   const [doctorNotes, setDoctorNotes] = useState('');
+  const [noteHistory, setNoteHistory] = useState([]);
+  const [draftDirty, setDraftDirty] = useState(false);
+  const [draftSavedAt, setDraftSavedAt] = useState(null);
+  const [selectedIds, setSelectedIds] = useState([]);
+  const [rates, setRates] = useState(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
 
+  // Yazma durunca taslağı gönder (sunucu bellekte birleştirip toplu yazar)
+  useEffect(() => {
+    if (!draftDirty || !selectedAppointment) return undefined;
+    const appointmentId = selectedAppointment.id;
+    const timer = setTimeout(async () => {
+      try {
+        await appointmentAPI.autosaveNote(appointmentId, doctorNotes);
+        setDraftDirty(false);
+        setDraftSavedAt(new Date());
+      } catch (error) {
+        // Taslak kaydı kritik değil; bir sonraki değişiklikte tekrar denenir
+      }
+    }, 800);
+    return () => clearTimeout(timer);
+  }, [doctorNotes, draftDirty, selectedAppointment]);
+
   // Doktora özel randevuları database'den yükle
   useEffect(() => {
     const loadAppointments = async () => {
@@ -31,12 +52,14 @@ const DoctorDashboard = ({ user, onLogout }) => {
           specialty: appointment.doctor.specialty,
           date: appointment.appointmentDateTime.split('T')[0],
           time: appointment.appointmentDateTime.split('T')[1].substring(0, 5),
-          notes: appointment.doctorNote || '',
+          hasNote: appointment.hasNote,
           status: appointment.status,
           createdAt: appointment.appointmentDateTime
         }));
         
         setAppointments(mappedAppointments);
+        // Oranlar sunucudaki sayaçlardan; alınamazsa kart gösterilmez
+        doctorAPI.getStats(user.id).then(setRates).catch(() => setRates(null));
       } catch (error) {
         setError('Randevular yüklenirken hata oluştu: ' + error.message);
         console.error('Randevu yükleme hatası:', error);
@@ -79,7 +102,7 @@ const DoctorDashboard = ({ user, onLogout }) => {
         specialty: appointment.doctor.specialty,
         date: appointment.appointmentDateTime.split('T')[0],
         time: appointment.appointmentDateTime.split('T')[1].substring(0, 5),
-        notes: appointment.doctorNote || '',
+        hasNote: appointment.hasNote,
         status: appointment.status,
         createdAt: appointment.appointmentDateTime
       }));
@@ -123,6 +146,34 @@ const DoctorDashboard = ({ user, onLogout }) => {
     }
   };
 
+  const toggleSelected = (appointmentId) => {
+    setSelectedIds((ids) => (ids.includes(appointmentId)
+      ? ids.filter((id) => id !== appointmentId)
+      : [...ids, appointmentId]));
+  };
+
+  const handleBulkAction = async (action) => {
+    if (selectedIds.length === 0) return;
+    setLoading(true);
+    setError('');
+
+    try {
+      const result = await appointmentAPI.bulkUpdateStatus(
+        selectedIds.map((appointmentId) => ({ appointmentId, action }))
+      );
+      setSelectedIds([]);
+      await refreshAppointments();
+
+      const skipped = result.results.length - result.updated;
+      alert(`${result.updated} randevu ${action === 'APPROVE' ? 'onaylandı' : 'reddedildi'}`
+        + (skipped > 0 ? `, ${skipped} randevu değiştirilemedi` : ''));
+    } catch (error) {
+      setError('İşlem sırasında hata oluştu: ' + error.message);
+    } finally {
+      setLoading(false);
+    }
+  };
+
   const handleAddNote = async (appointmentId) => {
     if (!doctorNotes.trim()) {
       alert('Lütfen bir not girin.');
@@ -134,6 +185,7 @@ const DoctorDashboard = ({ user, onLogout }) => {
       await appointmentAPI.setAppointmentNote(appointmentId, doctorNotes);
       await refreshAppointments();
       setDoctorNotes('');
+      setDraftDirty(false);
       setSelectedAppointment(null);
       alert('Randevu notu başarıyla eklendi.');
     } catch (error) {
@@ -143,6 +195,27 @@ const DoctorDashboard = ({ user, onLogout }) => {
     }
   };
 
+  // Detay açılınca not geçmişini ve kaydedilmemiş taslağı getir (listelerde not metni gelmez)
+  const openAppointment = async (appointment) => {
+    setSelectedAppointment(appointment);
+    setNoteHistory([]);
+    setDoctorNotes('');
+    setDraftDirty(false);
+    setDraftSavedAt(null);
+    try {
+      const draft = await appointmentAPI.getNoteDraft(appointment.id);
+      if (draft) {
+        setDoctorNotes(draft.note);
+        setDraftSavedAt(new Date(draft.updatedAt));
+      }
+      if (appointment.hasNote) {
+        setNoteHistory(await appointmentAPI.getAppointmentNotes(appointment.id));
+      }
+    } catch (error) {
+      setError(error.message);
+    }
+  };
+
   const filterAppointments = (status) => {
     return appointments.filter(apt => apt.status === status);
   };
@@ -169,6 +242,14 @@ const DoctorDashboard = ({ user, onLogout }) => {
   const renderAppointmentCard = (appointment) => (
     <div key={appointment.id} className="appointment-card">
       <div className="appointment-header">
+        {appointment.status === 'PENDING' && (
+          <input
+            type="checkbox"
+            checked={selectedIds.includes(appointment.id)}
+            onChange={() => toggleSelected(appointment.id)}
+            disabled={loading}
+          />
+        )}
         <h4>{appointment.patientName}</h4>
         <span className={`status ${appointment.status.toLowerCase()}`}>
           {getStatusText(appointment.status)}
@@ -179,16 +260,15 @@ const DoctorDashboard = ({ user, onLogout }) => {
         <p><strong>Saat:</strong> {appointment.time}</p>
         <p><strong>Telefon:</strong> {appointment.patientPhone}</p>
         <p><strong>Yaş:</strong> {appointment.patientAge}</p>
-        {appointment.notes && (
+        {appointment.hasNote && (
           <div className="doctor-notes-preview">
-            <strong>Doktor Notu:</strong>
-            <p>{appointment.notes}</p>
+            <strong>Doktor notu var</strong>
           </div>
         )}
       </div>
       <div className="appointment-actions">
         <button
-          onClick={() => setSelectedAppointment(appointment)}
+          onClick={() => openAppointment(appointment)}
           className="btn btn-info"
         >
           Detay
@@ -243,21 +323,37 @@ const DoctorDashboard = ({ user, onLogout }) => {
               <p><strong>Saat:</strong> {selectedAppointment.time}</p>
               <p><strong>Durum:</strong> {getStatusText(selectedAppointment.status)}</p>
             </div>
-            {selectedAppointment.notes && (
+            {noteHistory.length > 0 && (
               <div className="existing-notes">
                 <h4>Mevcut Doktor Notu</h4>
-                <p>{selectedAppointment.notes}</p>
+                <p>{noteHistory[noteHistory.length - 1].note}</p>
+                {noteHistory.length > 1 && (
+                  <details>
+                    <summary>Önceki sürümler ({noteHistory.length - 1})</summary>
+                    {noteHistory.slice(0, -1).reverse().map(version => (
+                      <p key={version.noteId}>
+                        <strong>v{version.version}</strong> ({new Date(version.createdAt).toLocaleString('tr-TR')}): {version.note}
+                      </p>
+                    ))}
+                  </details>
+                )}
               </div>
             )}
             <div className="doctor-notes-section">
               <h4>Doktor Notu Ekle</h4>
               <textarea
                 value={doctorNotes}
-                onChange={(e) => setDoctorNotes(e.target.value)}
+                onChange={(e) => {
+                  setDoctorNotes(e.target.value);
+                  setDraftDirty(true);
+                }}
                 placeholder="Randevu ile ilgili notlarınızı yazın..."
                 rows={4}
                 className="notes-textarea"
               />
+              {draftSavedAt && !draftDirty && (
+                <small>Taslak kaydedildi ({draftSavedAt.toLocaleTimeString('tr-TR')})</small>
+              )}
             </div>
           </div>
           <div className="modal-actions">
@@ -298,6 +394,13 @@ const DoctorDashboard = ({ user, onLogout }) => {
         <h2>Doktor Paneli</h2>
         <div className="user-info">
           <span>Hoş geldin, Dr. {user.name}!</span>
+          <button
+            onClick={() => appointmentAPI.exportAppointments({ format: 'ics', status: 'CONFIRMED' })
+              .catch((err) => setError(err.message))}
+            className="btn-logout"
+          >
+            Takvime Aktar
+          </button>
           <button onClick={onLogout} className="btn-logout">
             Çıkış Yap
           </button>
@@ -322,6 +425,12 @@ const DoctorDashboard = ({ user, onLogout }) => {
           <h3>{stats.cancelled}</h3>
           <p>İptal Edilen</p>
         </div>
+        {rates && (
+          <div className="stat-card">
+            <h3>%{Math.round(rates.approvalRate * 100)}</h3>
+            <p>Onay Oranı</p>
+          </div>
+        )}
       </div>
 
       {error && <div className="error-message">{error}</div>}
@@ -353,6 +462,24 @@ const DoctorDashboard = ({ user, onLogout }) => {
         {activeTab === 'PENDING' && (
           <div className="appointments-section">
             <h3>Onay Bekleyen Randevular</h3>
+            {selectedIds.length > 0 && (
+              <div className="appointment-actions">
+                <button
+                  onClick={() => handleBulkAction('APPROVE')}
+                  className="btn btn-success"
+                  disabled={loading}
+                >
+                  Seçilenleri Onayla ({selectedIds.length})
+                </button>
+                <button
+                  onClick={() => handleBulkAction('REJECT')}
+                  className="btn btn-danger"
+                  disabled={loading}
+                >
+                  Seçilenleri Reddet ({selectedIds.length})
+                </button>
+              </div>
+            )}
             {filterAppointments('PENDING').length === 0 ? (
               <div className="no-data">
                 <p>Bekleyen randevu bulunmuyor.</p>
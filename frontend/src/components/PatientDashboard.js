@@ -14,6 +14,7 @@ const PatientDashboard = ({ user, onLogout }) => {
     time: '',
     notes: ''
   });
+  const [openNotes, setOpenNotes] = useState({});
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
 
@@ -61,7 +62,7 @@ const PatientDashboard = ({ user, onLogout }) => {
           specialty: appointment.doctor.specialty,
           date: appointment.appointmentDateTime.split('T')[0], // LocalDateTime'den tarih
           time: appointment.appointmentDateTime.split('T')[1].substring(0, 5), // LocalDateTime'den saat
-          notes: appointment.doctorNote || '',
+          hasNote: appointment.hasNote,
           status: appointment.status,
           createdAt: appointment.appointmentDateTime
         }));
@@ -123,7 +124,7 @@ const PatientDashboard = ({ user, onLogout }) => {
         specialty: appointment.doctor.specialty,
         date: appointment.appointmentDateTime.split('T')[0],
         time: appointment.appointmentDateTime.split('T')[1].substring(0, 5),
-        notes: appointment.doctorNote || '',
+        hasNote: appointment.hasNote,
         status: appointment.status,
         createdAt: appointment.appointmentDateTime
       }));
@@ -174,6 +175,24 @@ const PatientDashboard = ({ user, onLogout }) => {
     }));
   };
 
+  // Doktor notu istenince getirilir (listelerde not metni gelmez)
+  const toggleNote = async (appointmentId) => {
+    if (openNotes[appointmentId] !== undefined) {
+      setOpenNotes(prev => {
+        const { [appointmentId]: closed, ...rest } = prev;
+        return rest;
+      });
+      return;
+    }
+    try {
+      const history = await appointmentAPI.getAppointmentNotes(appointmentId);
+      const latest = history.length > 0 ? history[history.length - 1].note : '';
+      setOpenNotes(prev => ({ ...prev, [appointmentId]: latest }));
+    } catch (error) {
+      setError(error.message);
+    }
+  };
+
   const cancelAppointment = async (appointmentId) => {
     if (!window.confirm('Randevuyu iptal etmek istediğinizden emin misiniz?')) {
       return;
@@ -194,7 +213,7 @@ const PatientDashboard = ({ user, onLogout }) => {
         specialty: appointment.doctor.specialty,
         date: appointment.appointmentDateTime.split('T')[0],
         time: appointment.appointmentDateTime.split('T')[1].substring(0, 5),
-        notes: appointment.doctorNote || '',
+        hasNote: appointment.hasNote,
         status: appointment.status,
         createdAt: appointment.appointmentDateTime
       }));
@@ -251,7 +270,14 @@ const PatientDashboard = ({ user, onLogout }) => {
               <p><strong>Uzmanlık:</strong> {getSpecialtyLabel(appointment.specialty)}</p>
               <p><strong>Tarih:</strong> {new Date(appointment.date).toLocaleDateString('tr-TR')}</p>
               <p><strong>Saat:</strong> {appointment.time}</p>
-              {appointment.notes && <p><strong>Notlar:</strong> {appointment.notes}</p>}
+              {appointment.hasNote && (
+                <p>
+                  <button onClick={() => toggleNote(appointment.id)} className="btn btn-secondary">
+                    {openNotes[appointment.id] !== undefined ? 'Notu Gizle' : 'Notu Göster'}
+                  </button>
+                  {openNotes[appointment.id] !== undefined && <><strong>Notlar:</strong> {openNotes[appointment.id]}</>}
+                </p>
+              )}
             </div>
             {appointment.status === 'PENDING' && (
               <div className="appointment-actions">
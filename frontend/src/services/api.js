@@ -11,9 +11,35 @@ const apiClient = axios.create({
   timeout: 10000, // 10 saniye timeout
 });
 
+// Read-your-writes: backend yazma sonrası X-Read-After döner; en büyük değer
+// sonraki isteklere eklenir, böylece okuma henüz güncellenmemiş replikaya gitmez
+const READ_AFTER_HEADER = 'x-read-after';
+const READ_AFTER_KEY = 'readAfterSeq'; // Eski (saat tabanlı) değerler okunmasın
+
+// Audit log: randevu islemini yapan kullanici backend'de session token'dan bulunur
+const SESSION_TOKEN_HEADER = 'x-session-token';
+
+apiClient.interceptors.request.use((config) => {
+  const readAfter = sessionStorage.getItem(READ_AFTER_KEY);
+  if (readAfter) {
+    config.headers[READ_AFTER_HEADER] = readAfter;
+  }
+  const sessionToken = sessionStorage.getItem('sessionToken');
+  if (sessionToken) {
+    config.headers[SESSION_TOKEN_HEADER] = sessionToken;
+  }
+  return config;
+});
+
 // Response interceptor ile hata yönetimi
 apiClient.interceptors.response.use(
-  (response) => response,
+  (response) => {
+    const readAfter = Number(response.headers[READ_AFTER_HEADER]);
+    if (readAfter > Number(sessionStorage.getItem(READ_AFTER_KEY) || 0)) {
+      sessionStorage.setItem(READ_AFTER_KEY, String(readAfter));
+    }
+    return response;
+  },
   (error) => {
     console.error('API Hatası:', error);
     return Promise.reject(error);
@@ -136,10 +162,12 @@ export const userAPI = {
     }
   },
 
-  // Tüm kullanıcıları getir
-  getAllUsers: async () => {
+  // Kullanıcıları sayfalı getir (yanıt: { content, page, size, totalElements, totalPages, hasNext })
+  getAllUsers: async (page = 0, size = 20, fields) => {
     try {
-      const response = await apiClient.get('/user/getAllUser');
+      const response = await apiClient.get('/user/getAllUser', {
+        params: { page, size, fields }
+      });
       return response.data;
     } catch (error) {
       throw new Error('Kullanıcı listesi alınamadı.');
@@ -166,10 +194,12 @@ export const userAPI = {
     }
   },
 
-  // Tüm hastaları getir
-  getAllPatients: async () => {
+  // Hastaları sayfalı getir (yanıt: { content, page, size, totalElements, totalPages, hasNext })
+  getAllPatients: async (page = 0, size = 20, fields) => {
     try {
-      const response = await apiClient.get('/user/getAllPatients');
+      const response = await apiClient.get('/user/getAllPatients', {
+        params: { page, size, fields }
+      });
       return response.data;
     } catch (error) {
       throw new Error('Hasta listesi alınamadı.');
@@ -189,16 +219,28 @@ export const userAPI = {
 
 // Randevu API'leri
 export const appointmentAPI = {
-  // Randevu oluştur
+  // Randevu oluştur (bağlantı hatasında aynı Idempotency-Key ile tekrar dener; çift randevu oluşmaz)
   createAppointment: async (doctorId, patientId, appointmentTime, doctorNote = '') => {
+    const idempotencyKey = crypto.randomUUID();
+    const body = {
+      doctorId: parseInt(doctorId),
+      patientId: parseInt(patientId),
+      appointmentTime: appointmentTime,
+      doctorNote: doctorNote
+    };
     try {
-      const response = await apiClient.post('/appointment/create', {
-        doctorId: parseInt(doctorId),
-        patientId: parseInt(patientId),
-        appointmentTime: appointmentTime,
-        doctorNote: doctorNote
-      });
-      return response.data;
+      for (let attempt = 1; ; attempt++) {
+        try {
+          const response = await apiClient.post('/appointment/create', body, {
+            headers: { 'Idempotency-Key': idempotencyKey }
+          });
+          return response.data;
+        } catch (error) {
+          // Yanıt hiç gelmediyse istek sunucuda işlenmiş olabilir; aynı anahtarla tekrar dene
+          if (error.response || attempt >= 3) throw error;
+          await new Promise(resolve => setTimeout(resolve, 500 * attempt));
+        }
+      }
     } catch (error) {
       if (error.response?.status === 400) {
         throw new Error('Randevu oluşturulamadı. Doktor bu saatte başka bir randevuya sahip olabilir.');
@@ -218,6 +260,26 @@ export const appointmentAPI = {
   },
 
   // Doktor randevularını getir
+  // Dışa aktarma (format: 'csv' | 'ndjson' | 'ics'); oturum başlığı gerektiği için
+  // bağlantı yerine istekle indirilir ve dosya olarak kaydedilir
+  exportAppointments: async (params) => {
+    try {
+      const response = await apiClient.get('/appointment/export', {
+        params,
+        responseType: 'blob',
+        timeout: 0 // Büyük dışa aktarmalar 10 saniyeyi aşabilir
+      });
+      const url = URL.createObjectURL(response.data);
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `appointments.${params.format || 'csv'}`;
+      link.click();
+      URL.revokeObjectURL(url);
+    } catch (error) {
+      throw new Error('Randevular dışa aktarılamadı.');
+    }
+  },
+
   getDoctorAppointments: async (doctorId) => {
     try {
       const response = await apiClient.get(`/appointment/doctor/${doctorId}`);
@@ -247,6 +309,17 @@ export const appointmentAPI = {
     }
   },
 
+  // Toplu onay / red / iptal (changes: [{ appointmentId, action: 'APPROVE' | 'REJECT' | 'CANCEL' }])
+  bulkUpdateStatus: async (changes) => {
+    try {
+      // Doktor, X-Session-Token başlığındaki oturumdan belirlenir
+      const response = await apiClient.post('/appointment/bulkStatus', { changes });
+      return response.data;
+    } catch (error) {
+      throw new Error('Toplu işlem yapılamadı.');
+    }
+  },
+
   // Randevu iptal et
   cancelAppointment: async (appointmentId) => {
     try {
@@ -257,6 +330,16 @@ export const appointmentAPI = {
     }
   },
 
+  // Randevu not geçmişi (eskiden yeniye; listeler sadece hasNote döner)
+  getAppointmentNotes: async (appointmentId) => {
+    try {
+      const response = await apiClient.get(`/appointment/${appointmentId}/notes`);
+      return response.data;
+    } catch (error) {
+      throw new Error('Randevu notları alınamadı.');
+    }
+  },
+
   // Randevu notu ekle
   setAppointmentNote: async (appointmentId, doctorNote) => {
     try {
@@ -267,13 +350,103 @@ export const appointmentAPI = {
     } catch (error) {
       throw new Error('Randevu notu eklenemedi.');
     }
+  },
+
+  // Not taslağı (yazarken otomatik kayıt; sunucu toplu yazar)
+  autosaveNote: async (appointmentId, doctorNote) => {
+    try {
+      await apiClient.post(`/appointment/autosaveNote/${appointmentId}`, {
+        doctorNote: doctorNote
+      });
+    } catch (error) {
+      throw new Error('Not taslağı kaydedilemedi.');
+    }
+  },
+
+  // Kaydedilmemiş not taslağı (yoksa null)
+  getNoteDraft: async (appointmentId) => {
+    try {
+      const response = await apiClient.get(`/appointment/${appointmentId}/noteDraft`);
+      return response.status === 204 ? null : response.data;
+    } catch (error) {
+      throw new Error('Not taslağı alınamadı.');
+    }
+  }
+};
+
+// Doktor API'leri
+export const doctorAPI = {
+  // Müsaitlik anahtarını değiştir
+  updateAvailability: async (doctorId, available) => {
+    try {
+      const response = await apiClient.put(`/Doctor/updateAvailability/${doctorId}`, null, {
+        params: { available }
+      });
+      return response.data;
+    } catch (error) {
+      throw new Error('Müsaitlik durumu güncellenemedi.');
+    }
+  },
+
+  // İzin aralıklarını getir
+  getUnavailability: async (doctorId) => {
+    try {
+      const response = await apiClient.get(`/Doctor/unavailability/${doctorId}`);
+      return response.data;
+    } catch (error) {
+      throw new Error('İzin aralıkları alınamadı.');
+    }
+  },
+
+  // İzin aralığı ekle (tarihler YYYY-MM-DD)
+  addUnavailability: async (doctorId, startDate, endDate, reason = '') => {
+    try {
+      const response = await apiClient.post(`/Doctor/unavailability/${doctorId}`, {
+        startDate,
+        endDate,
+        reason
+      });
+      return response.data;
+    } catch (error) {
+      throw new Error('İzin aralığı eklenemedi.');
+    }
+  },
+
+  // İzin aralığını sil
+  removeUnavailability: async (doctorId, windowId) => {
+    try {
+      const response = await apiClient.delete(`/Doctor/unavailability/${doctorId}/${windowId}`);
+      return response.data;
+    } catch (error) {
+      throw new Error('İzin aralığı silinemedi.');
+    }
+  },
+
+  // Doktorun randevu sayıları, onay ve iptal oranı (sunucuda artımlı tutulur)
+  getStats: async (doctorId) => {
+    try {
+      const response = await apiClient.get(`/Doctor/stats/${doctorId}`);
+      return response.data;
+    } catch (error) {
+      throw new Error('Randevu istatistikleri alınamadı.');
+    }
+  },
+
+  // Uzmanlık alanı bazında randevu istatistikleri
+  getSpecialtyStats: async () => {
+    try {
+      const response = await apiClient.get('/Doctor/stats/specialties');
+      return response.data;
+    } catch (error) {
+      throw new Error('Uzmanlık alanı istatistikleri alınamadı.');
+    }
   }
 };
 
-// Backend'in çalışıp çalışmadığını kontrol et
+// Backend'in çalışıp çalışmadığını kontrol et (veritabanına dokunmayan liveness probe)
 export const checkBackendHealth = async () => {
   try {
-    await apiClient.get('/user/getAllUser');
+    await apiClient.get('/actuator/health/liveness');
     return true;
   } catch (error) {
     console.error('Backend bağlantı hatası:', error);